@@ -0,0 +1,185 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.servlet.internal;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+import static org.forgerock.util.promise.Promises.newResultPromise;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+
+import org.apache.felix.scr.annotations.Activate;
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.ConfigurationPolicy;
+import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Properties;
+import org.apache.felix.scr.annotations.Property;
+import org.apache.felix.scr.annotations.Reference;
+import org.apache.felix.scr.annotations.ReferencePolicy;
+import org.apache.felix.scr.annotations.Service;
+import org.forgerock.http.Filter;
+import org.forgerock.http.Handler;
+import org.forgerock.http.HttpApplication;
+import org.forgerock.http.handler.Handlers;
+import org.forgerock.http.io.Buffer;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.http.servlet.HttpFrameworkServlet;
+import org.forgerock.json.resource.AbstractRequestHandler;
+import org.forgerock.json.resource.ConnectionFactory;
+import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.RequestHandler;
+import org.forgerock.json.resource.Requests;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.openidm.core.ServerConstants;
+import org.forgerock.openidm.servletregistration.ServletRegistration;
+import org.forgerock.script.ScriptEntry;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.Factory;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.osgi.framework.Constants;
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.http.NamespaceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A component to create and register a servlet which serves the smartevent statistics in the Prometheus text
+ * exposition format, for scraping.
+ * <p>
+ * Requests are authenticated by the same filter as the API servlet. The servlet then reads the statistics from the
+ * {@value #RESOURCE_PATH} resource, which this component also provides, through the external router. The read is
+ * therefore authorized by the router authorization filter, against the rules of {@code access.js}, like any other
+ * API request.
+ */
+@Component(name = PrometheusServletComponent.PID, policy = ConfigurationPolicy.IGNORE, immediate = true)
+@Service({ RequestHandler.class })
+@Properties({
+    @Property(name = Constants.SERVICE_VENDOR, value = ServerConstants.SERVER_VENDOR_NAME),
+    @Property(name = Constants.SERVICE_DESCRIPTION, value = "OpenIDM Prometheus Metrics"),
+    @Property(name = ServerConstants.ROUTER_PREFIX, value = "/" + PrometheusServletComponent.RESOURCE_PATH)
+})
+public class PrometheusServletComponent extends AbstractRequestHandler {
+
+    static final String PID = "org.forgerock.openidm.prometheus-servlet";
+
+    /** The router path of the resource holding the statistics */
+    static final String RESOURCE_PATH = "metrics/prometheus";
+
+    private final static Logger logger = LoggerFactory.getLogger(PrometheusServletComponent.class);
+
+    private static final String SERVLET_ALIAS = "/metrics/prometheus";
+
+    private static final String STATISTICS_MBEAN_NAME = "OpenIDM:type=Statistics";
+
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String METRICS_FIELD = "metrics";
+
+    /** The (external) ConnectionFactory, through which the statistics are read */
+    @Reference(policy = ReferencePolicy.DYNAMIC, target = ServerConstants.EXTERNAL_ROUTER_SERVICE_PID_FILTER)
+    protected volatile ConnectionFactory connectionFactory;
+
+    @Reference(policy = ReferencePolicy.STATIC, target = "(service.pid=org.forgerock.openidm.auth.config)")
+    private Filter authFilter;
+
+    @Reference
+    private ServletRegistration servletRegistration;
+
+    private HttpServlet servlet;
+
+    @Activate
+    protected void activate(ComponentContext context) throws ServletException, NamespaceException {
+        final IDMSecurityContextFactory securityContextFactory =
+                new IDMSecurityContextFactory(Collections.<ScriptEntry>emptyList());
+        final Handler handler = new Handler() {
+            @Override
+            public Promise<Response, NeverThrowsException> handle(Context context, Request request) {
+                try {
+                    final ResourceResponse metrics = connectionFactory.getConnection().read(
+                            securityContextFactory.createContext(context, request),
+                            Requests.newReadRequest(RESOURCE_PATH));
+                    final Response response = new Response(Status.OK);
+                    response.getHeaders().put("Content-Type", PROMETHEUS_CONTENT_TYPE);
+                    response.setEntity(metrics.getContent().get(METRICS_FIELD).defaultTo("").asString());
+                    return newResultPromise(response);
+                } catch (ResourceException e) {
+                    return newResultPromise(new Response(Status.valueOf(e.getCode())));
+                }
+            }
+        };
+        servlet = new HttpFrameworkServlet(new HttpApplication() {
+            @Override
+            public Handler start() {
+                return Handlers.chainOf(handler, authFilter);
+            }
+
+            @Override
+            public Factory<Buffer> getBufferFactory() {
+                return null;
+            }
+
+            @Override
+            public void stop() {
+            }
+        });
+
+        @SuppressWarnings("rawtypes")
+        final Dictionary params = new Hashtable();
+        servletRegistration.registerServlet(SERVLET_ALIAS, servlet, params);
+        logger.info("Registered servlet at {}", SERVLET_ALIAS);
+    }
+
+    @Deactivate
+    protected synchronized void deactivate(ComponentContext context) {
+        servletRegistration.unregisterServlet(servlet);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> handleRead(Context context, ReadRequest request) {
+        return newResourceResponse(RESOURCE_PATH, null, json(object(field(METRICS_FIELD, getPrometheusMetrics()))))
+                .asPromise();
+    }
+
+    /**
+     * Reads the statistics from the smartevent MBean, which is only registered once events have been published.
+     */
+    private static String getPrometheusMetrics() {
+        try {
+            final ObjectName objectName = new ObjectName(STATISTICS_MBEAN_NAME);
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (!mBeanServer.isRegistered(objectName)) {
+                return "";
+            }
+            return (String) mBeanServer.getAttribute(objectName, "PrometheusMetrics");
+        } catch (Exception e) {
+            logger.warn("Unable to read the smartevent statistics", e);
+            return "";
+        }
+    }
+}
@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
- * Copyright 2017-2018 Wren Security.
+ * Copyright 2017-2026 Wren Security.
  */
 
 package org.forgerock.openidm.servlet.internal;
@@ -61,12 +61,15 @@ import org.forgerock.openidm.config.enhanced.EnhancedConfig;
 import org.forgerock.openidm.core.ServerConstants;
 import org.forgerock.openidm.external.ExternalException;
 import org.forgerock.openidm.filter.PassthroughFilter;
+import org.forgerock.openidm.filter.ReadCacheFilter;
 import org.forgerock.openidm.filter.MutableFilterDecorator;
 import org.forgerock.openidm.filter.ServiceUnavailableFilter;
+import org.forgerock.openidm.filter.TraceFilter;
 import org.forgerock.openidm.router.RouterFilterRegistration;
 import org.forgerock.openidm.smartevent.EventEntry;
 import org.forgerock.openidm.smartevent.Name;
 import org.forgerock.openidm.smartevent.Publisher;
+import org.forgerock.openidm.smartevent.Tracer;
 import org.forgerock.services.context.Context;
 import org.forgerock.util.promise.ExceptionHandler;
 import org.forgerock.util.promise.Promise;
@@ -106,16 +109,18 @@ public class ServletConnectionFactory implements ConnectionFactory, RouterFilter
     private volatile EnhancedConfig enhancedConfig = null;
 
     /**
-     * We define 4 filters that are "statically" defined:
+     * We define 6 filters that are "statically" defined:
      * <ul>
      *     <li>startup filter - throws ServiceUnavailableException until configured router filters are loaded</li>
      *     <li>maintenance filter - toggled based on maintenance mode</li>
+     *     <li>trace filter - traces a sample of the requests as trees of timed spans</li>
      *     <li>logging filter - always enabled, logs trace-level messages</li>
      *     <li>audit filter - enabled once AuditFilter is bound</li>
+     *     <li>read cache filter - invalidates the request-scoped read cache on writes</li>
      * </ul>
      * These are via Java implementation and not sourced from router.json {@see RouterFilterChain}.
      */
-    private static final int NUMBER_OF_STATIC_FILTERS = 4;
+    private static final int NUMBER_OF_STATIC_FILTERS = 6;
 
     /** A wrapper for the startup filter - begin with a service-unavailable filter */
     private final MutableFilterDecorator startupFilter = new MutableFilterDecorator(SERVICE_UNAVAILABLE_FILTER);
@@ -193,17 +198,21 @@ public class ServletConnectionFactory implements ConnectionFactory, RouterFilter
         // static filters - order is important here
         filters.add(startupFilter);
         filters.add(maintenanceFilter);
+        filters.add(TraceFilter.TRACE_FILTER);
         filters.add(loggingFilter);
         filters.add(Filters.conditionalFilter(Filters.matchResourcePath("^(?!.*(^audit/)).*$"), auditFilter));
+        filters.add(ReadCacheFilter.READ_CACHE_FILTER);
 
         filterChain = new FilterChain(requestHandler, filters);
         connectionFactory = newWrappedInternalConnectionFactory(Resources.newInternalConnectionFactory(filterChain));
+        Tracer.getTraceBuffer().register();
 
         logger.info("Servlet ConnectionFactory created.");
     }
 
     @Deactivate
     protected void deactivate(ComponentContext context) {
+        Tracer.getTraceBuffer().unregister();
     }
 
     private ConnectionFactory newWrappedInternalConnectionFactory(final ConnectionFactory connectionFactory) {
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openidm.auth;
@@ -88,9 +89,12 @@ import org.forgerock.json.resource.http.HttpContext;
 import org.forgerock.openidm.auth.api.GetAuthTokenActionRequest;
 import org.forgerock.openidm.auth.api.GetAuthTokenActionResponse;
 import org.forgerock.openidm.auth.api.LogoutActionResponse;
+import org.forgerock.openidm.auth.api.PrincipalCacheStatisticsActionResponse;
 import org.forgerock.openidm.auth.api.ReauthenticateActionResponse;
 import org.forgerock.openidm.auth.modules.IDMAuthModule;
 import org.forgerock.openidm.auth.modules.IDMAuthModuleWrapper;
+import org.forgerock.openidm.auth.modules.PrincipalCache;
+import org.forgerock.openidm.cluster.ClusterManagementService;
 import org.forgerock.openidm.config.enhanced.EnhancedConfig;
 import org.forgerock.openidm.core.IdentityServer;
 import org.forgerock.openidm.core.ServerConstants;
@@ -104,6 +108,7 @@ import org.forgerock.openidm.idp.impl.IdentityProviderService;
 import org.forgerock.openidm.idp.impl.IdentityProviderServiceException;
 import org.forgerock.openidm.idp.impl.ProviderConfigMapper;
 import org.forgerock.openidm.router.IDMConnectionFactory;
+import org.forgerock.openidm.router.RouterFilterRegistration;
 import org.forgerock.openidm.util.HeaderUtil;
 import org.forgerock.openidm.util.JettyPropertyUtil;
 import org.forgerock.script.ScriptRegistry;
@@ -217,6 +222,21 @@ public class AuthenticationService implements SingletonResourceProvider, Identit
     /** The authenticators to delegate to.*/
     private List<Authenticator> authenticators = new ArrayList<>();
 
+    /** The cache of authenticated principals, or {@code null} if it is not enabled. */
+    private volatile PrincipalCache principalCache;
+
+    /** Invalidates the cached principals affected by a change, on this node and the other nodes of the cluster. */
+    private final PrincipalCacheInvalidator principalCacheInvalidator = new PrincipalCacheInvalidator(
+            new Provider<PrincipalCache>() {
+                @Override
+                public PrincipalCache get() {
+                    return principalCache;
+                }
+            });
+
+    /** The router filter which invalidates cached principals when a resource changes. */
+    private final PrincipalCacheFilter principalCacheFilter = new PrincipalCacheFilter(principalCacheInvalidator);
+
     // ----- Declarative Service Implementation
 
     @Reference
@@ -244,6 +264,34 @@ public class AuthenticationService implements SingletonResourceProvider, Identit
     @Reference(policy = ReferencePolicy.DYNAMIC, cardinality = ReferenceCardinality.OPTIONAL_UNARY)
     private volatile IdentityProviderService identityProviderService;
 
+    /** The router filter registration, to invalidate cached principals on changes. */
+    @Reference(policy = ReferencePolicy.DYNAMIC, cardinality = ReferenceCardinality.OPTIONAL_UNARY)
+    private volatile RouterFilterRegistration routerFilterRegistration;
+
+    void bindRouterFilterRegistration(RouterFilterRegistration routerFilterRegistration) {
+        this.routerFilterRegistration = routerFilterRegistration;
+        routerFilterRegistration.addFilter(principalCacheFilter);
+    }
+
+    void unbindRouterFilterRegistration(RouterFilterRegistration routerFilterRegistration) {
+        routerFilterRegistration.removeFilter(principalCacheFilter);
+        this.routerFilterRegistration = null;
+    }
+
+    /** The cluster management service, to invalidate cached principals on the other nodes. */
+    @Reference(policy = ReferencePolicy.DYNAMIC, cardinality = ReferenceCardinality.OPTIONAL_UNARY)
+    private volatile ClusterManagementService clusterManagementService;
+
+    void bindClusterManagementService(ClusterManagementService clusterManagementService) {
+        this.clusterManagementService = clusterManagementService;
+        principalCacheInvalidator.start(clusterManagementService);
+    }
+
+    void unbindClusterManagementService(ClusterManagementService clusterManagementService) {
+        principalCacheInvalidator.stop();
+        this.clusterManagementService = null;
+    }
+
     void bindIdentityProviderService(IdentityProviderService identityProviderService) {
         this.identityProviderService = identityProviderService;
         identityProviderService.registerIdentityProviderListener(this);
@@ -533,6 +581,7 @@ public class AuthenticationService implements SingletonResourceProvider, Identit
         logger.debug("OpenIDM Config for Authentication {} is deactivated.", config.get(Constants.SERVICE_PID));
         config = null;
         authenticators.clear();
+        principalCache = null;
 
         // remove CAF filter from CHF filter wrapper
         if (authFilterWrapper != null) {
@@ -577,6 +626,9 @@ public class AuthenticationService implements SingletonResourceProvider, Identit
             }
         }
 
+        // a new configuration may authenticate and map roles differently, so start with an empty cache
+        principalCache = PrincipalCache.fromConfig(serverAuthContext.get(PrincipalCache.CONFIG_KEY));
+
         final List<AuthenticationModuleBuilder> authModuleBuilders = new ArrayList<>();
         for (final JsonValue authModuleConfig : authModulesConfig) {
             AuthenticationModuleBuilder moduleBuilder = processModuleConfiguration(authModuleConfig);
@@ -633,7 +685,8 @@ public class AuthenticationService implements SingletonResourceProvider, Identit
         }
 
         // wrap all auth modules in our wrapper to apply the IDM business logic
-        return configureModule(new IDMAuthModuleWrapper(module, connectionFactory, cryptoService, scriptRegistry))
+        return configureModule(
+                new IDMAuthModuleWrapper(module, connectionFactory, cryptoService, scriptRegistry, principalCache))
                 .withSettings(moduleProperties.asMap());
     }
 
@@ -649,7 +702,7 @@ public class AuthenticationService implements SingletonResourceProvider, Identit
 
     // ----- Implementation of SingletonResourceProvider interface
 
-    enum Action {reauthenticate, getAuthToken, logout}
+    enum Action {reauthenticate, getAuthToken, logout, principalCacheStatistics}
 
     /**
      * Action support, including reauthenticate action {@inheritDoc}
@@ -694,6 +747,13 @@ public class AuthenticationService implements SingletonResourceProvider, Identit
                             }),
                     name = "reauthenticate",
                     response = @Schema(fromType = ReauthenticateActionResponse.class)
+            ),
+            @org.forgerock.api.annotations.Action(
+                    operationDescription = @Operation(
+                            description = "Returns the size and hit/miss statistics of the cache of principals"
+                                    + " authenticated by credentials."),
+                    name = "principalCacheStatistics",
+                    response = @Schema(fromType = PrincipalCacheStatisticsActionResponse.class)
             )
     })
     @Override
@@ -754,6 +814,11 @@ public class AuthenticationService implements SingletonResourceProvider, Identit
                     context.asContext(AttributesContext.class).getAttributes()
                             .put(LOGOUT_SESSION_REQUEST_ATTRIBUTE_NAME, true);
                     return newActionResponse(json(object(field("success", true)))).asPromise();
+                case principalCacheStatistics:
+                    final PrincipalCache cache = principalCache;
+                    return newActionResponse(cache != null
+                            ? cache.getStatistics().put("enabled", true)
+                            : json(object(field("enabled", false)))).asPromise();
                 default:
                     return new BadRequestException("Action " + request.getAction() +
                             " on authentication service not supported").asPromise();
@@ -0,0 +1,106 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.auth;
+
+import org.forgerock.json.resource.ActionRequest;
+import org.forgerock.json.resource.ActionResponse;
+import org.forgerock.json.resource.CreateRequest;
+import org.forgerock.json.resource.DeleteRequest;
+import org.forgerock.json.resource.Filter;
+import org.forgerock.json.resource.PatchRequest;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.QueryResponse;
+import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.Request;
+import org.forgerock.json.resource.RequestHandler;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.json.resource.UpdateRequest;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.promise.Promise;
+
+/**
+ * A router filter which invalidates the cached principals affected by a request once it has changed a resource,
+ * e.g. a managed user's password or a role.
+ */
+class PrincipalCacheFilter implements Filter {
+
+    private final PrincipalCacheInvalidator invalidator;
+
+    /**
+     * Constructs the filter.
+     *
+     * @param invalidator invalidates the principals affected by a change
+     */
+    PrincipalCacheFilter(PrincipalCacheInvalidator invalidator) {
+        this.invalidator = invalidator;
+    }
+
+    @Override
+    public Promise<ActionResponse, ResourceException> filterAction(Context context, ActionRequest request,
+            RequestHandler next) {
+        return invalidateAfter(request, next.handleAction(context, request));
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterCreate(Context context, CreateRequest request,
+            RequestHandler next) {
+        // a created resource cannot have been authenticated yet, but a created relationship may change roles
+        return invalidateAfter(request, next.handleCreate(context, request));
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterDelete(Context context, DeleteRequest request,
+            RequestHandler next) {
+        return invalidateAfter(request, next.handleDelete(context, request));
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterPatch(Context context, PatchRequest request,
+            RequestHandler next) {
+        return invalidateAfter(request, next.handlePatch(context, request));
+    }
+
+    @Override
+    public Promise<QueryResponse, ResourceException> filterQuery(Context context, QueryRequest request,
+            QueryResourceHandler handler, RequestHandler next) {
+        return next.handleQuery(context, request, handler);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterRead(Context context, ReadRequest request,
+            RequestHandler next) {
+        return next.handleRead(context, request);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterUpdate(Context context, UpdateRequest request,
+            RequestHandler next) {
+        return invalidateAfter(request, next.handleUpdate(context, request));
+    }
+
+    private <R> Promise<R, ResourceException> invalidateAfter(final Request request,
+            Promise<R, ResourceException> promise) {
+        // invalidate whether or not the request succeeded, as it may have changed the resource partially
+        return promise.thenAlways(new Runnable() {
+            @Override
+            public void run() {
+                invalidator.resourceChanged(request.getResourcePath());
+            }
+        });
+    }
+}
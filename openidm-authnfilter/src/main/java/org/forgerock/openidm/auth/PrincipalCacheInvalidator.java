@@ -0,0 +1,225 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.auth;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Provider;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ResourcePath;
+import org.forgerock.openidm.auth.modules.PrincipalCache;
+import org.forgerock.openidm.cluster.ClusterEvent;
+import org.forgerock.openidm.cluster.ClusterEventListener;
+import org.forgerock.openidm.cluster.ClusterEventType;
+import org.forgerock.openidm.cluster.ClusterManagementService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Invalidates the cached principals affected by a change of a resource, on this node and, through cluster events,
+ * on the other nodes of the cluster.
+ * <p>
+ * A change of a role, of an internal role or of a relationship may change the roles of any principal, so it
+ * invalidates all of them; any other change invalidates the principals calculated from the changed resource or a
+ * resource it belongs to. The invalidations are sent to the other nodes at most once per
+ * {@value #PUBLISH_INTERVAL_MILLIS} milliseconds, so a revoked principal may be served by another node until then
+ * and the other node has received the event.
+ */
+class PrincipalCacheInvalidator implements ClusterEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalCacheInvalidator.class);
+
+    /** The id of the principal cache cluster event listener */
+    static final String LISTENER_ID = "principalCache";
+
+    private static final String DETAIL_ALL = "all";
+    private static final String DETAIL_RESOURCE_PATHS = "resourcePaths";
+
+    private static final long PUBLISH_INTERVAL_MILLIS = 1000L;
+
+    /** The number of pending resource paths above which all principals are invalidated on the other nodes */
+    private static final int MAX_PENDING_PATHS = 100;
+
+    private final Provider<PrincipalCache> principalCacheProvider;
+
+    /** the resource paths to invalidate on the other nodes */
+    private final Set<String> pendingPaths = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    /** whether all principals are to be invalidated on the other nodes */
+    private final AtomicBoolean pendingAll = new AtomicBoolean();
+
+    private volatile ClusterManagementService clusterManagementService;
+    private ScheduledExecutorService publisher;
+
+    /**
+     * Constructs the invalidator.
+     *
+     * @param principalCacheProvider provides the current principal cache, or {@code null} if none is enabled
+     */
+    PrincipalCacheInvalidator(Provider<PrincipalCache> principalCacheProvider) {
+        this.principalCacheProvider = principalCacheProvider;
+    }
+
+    /**
+     * Invalidates the principals affected by a change of a resource.
+     *
+     * @param resourcePath the path of the changed resource
+     */
+    void resourceChanged(String resourcePath) {
+        final PrincipalCache principalCache = principalCacheProvider.get();
+        if (principalCache == null) {
+            return;
+        }
+        final ResourcePath path = withoutRepo(ResourcePath.valueOf(resourcePath));
+        final boolean all = affectsAllPrincipals(path);
+        if (all) {
+            principalCache.invalidateAll();
+        } else {
+            principalCache.invalidate(path.toString());
+        }
+        if (clusterManagementService != null) {
+            if (all || pendingPaths.size() >= MAX_PENDING_PATHS) {
+                pendingAll.set(true);
+            } else {
+                pendingPaths.add(path.toString());
+            }
+        }
+    }
+
+    /**
+     * Starts sending the invalidations to the other nodes of the cluster, and receiving theirs.
+     *
+     * @param clusterManagementService the cluster management service
+     */
+    synchronized void start(ClusterManagementService clusterManagementService) {
+        stop();
+        this.clusterManagementService = clusterManagementService;
+        clusterManagementService.register(LISTENER_ID, this);
+        publisher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                final Thread thread = new Thread(runnable, "OpenIDM Principal Cache Invalidation");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        publisher.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                publish();
+            }
+        }, PUBLISH_INTERVAL_MILLIS, PUBLISH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops sending and receiving invalidations.
+     */
+    synchronized void stop() {
+        if (clusterManagementService != null) {
+            clusterManagementService.unregister(LISTENER_ID);
+            clusterManagementService = null;
+        }
+        if (publisher != null) {
+            publisher.shutdownNow();
+            publisher = null;
+        }
+        pendingPaths.clear();
+        pendingAll.set(false);
+    }
+
+    /**
+     * Sends the pending invalidations to the other nodes of the cluster.
+     */
+    void publish() {
+        final ClusterManagementService cluster = clusterManagementService;
+        if (cluster == null) {
+            return;
+        }
+        final List<String> paths = new ArrayList<>(pendingPaths);
+        pendingPaths.removeAll(paths);
+        final boolean all = pendingAll.getAndSet(false);
+        if (!all && paths.isEmpty()) {
+            return;
+        }
+        if (!cluster.isEnabled()) {
+            return;
+        }
+        final JsonValue details = all
+                ? json(object(field(DETAIL_ALL, true)))
+                : json(object(field(DETAIL_RESOURCE_PATHS, paths)));
+        try {
+            cluster.sendEvent(new ClusterEvent(ClusterEventType.CUSTOM, cluster.getInstanceId(), LISTENER_ID,
+                    details));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to send principal cache invalidation to the cluster", e);
+        }
+    }
+
+    @Override
+    public boolean handleEvent(ClusterEvent event) {
+        final PrincipalCache principalCache = principalCacheProvider.get();
+        if (principalCache == null || event.getType() != ClusterEventType.CUSTOM) {
+            return true;
+        }
+        final JsonValue details = event.getDetails();
+        if (details == null || details.isNull() || details.get(DETAIL_ALL).defaultTo(false).asBoolean()) {
+            principalCache.invalidateAll();
+        } else {
+            for (JsonValue resourcePath : details.get(DETAIL_RESOURCE_PATHS)) {
+                principalCache.invalidate(resourcePath.asString());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether a change of the resource may change the roles of any principal: a role, an internal role, or a
+     * relationship, whether changed through the relationship endpoint of an object or in the repository.
+     *
+     * @param path the path of the changed resource, below the repository
+     * @return whether all principals are to be invalidated
+     */
+    static boolean affectsAllPrincipals(ResourcePath path) {
+        if (path.isEmpty()) {
+            return false;
+        }
+        final String first = path.get(0);
+        if ("relationships".equals(first)) {
+            return true;
+        }
+        if (!"managed".equals(first) && !"internal".equals(first)) {
+            return false;
+        }
+        return (path.size() >= 2 && "role".equals(path.get(1))) || path.size() >= 4;
+    }
+
+    private static ResourcePath withoutRepo(ResourcePath path) {
+        return !path.isEmpty() && "repo".equals(path.get(0)) ? path.tail(1) : path;
+    }
+}
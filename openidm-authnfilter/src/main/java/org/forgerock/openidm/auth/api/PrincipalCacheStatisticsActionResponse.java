@@ -0,0 +1,150 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.auth.api;
+
+import javax.validation.constraints.NotNull;
+
+import org.forgerock.api.annotations.Description;
+
+/**
+ * Response to {@link org.forgerock.openidm.auth.AuthenticationService} principalCacheStatistics-action.
+ */
+public class PrincipalCacheStatisticsActionResponse {
+
+    private boolean enabled;
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+
+    /**
+     * Gets whether the principal cache is enabled.
+     *
+     * @return {@code true} if the principal cache is enabled and {@code false} otherwise
+     */
+    @NotNull
+    @Description("true if the principal cache is enabled and false otherwise")
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether the principal cache is enabled.
+     *
+     * @param enabled {@code true} if the principal cache is enabled and {@code false} otherwise
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the number of cached principals.
+     *
+     * @return the number of cached principals
+     */
+    @Description("Number of cached principals")
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Sets the number of cached principals.
+     *
+     * @param size the number of cached principals
+     */
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    /**
+     * Gets the number of authentications served from the cache.
+     *
+     * @return the number of cache hits
+     */
+    @Description("Number of authentications served from the cache")
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Sets the number of authentications served from the cache.
+     *
+     * @param hitCount the number of cache hits
+     */
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    /**
+     * Gets the number of authentications not found in the cache.
+     *
+     * @return the number of cache misses
+     */
+    @Description("Number of authentications not found in the cache")
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Sets the number of authentications not found in the cache.
+     *
+     * @param missCount the number of cache misses
+     */
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    /**
+     * Gets the ratio of cache hits to lookups.
+     *
+     * @return the hit rate
+     */
+    @Description("Ratio of cache hits to lookups")
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    /**
+     * Sets the ratio of cache hits to lookups.
+     *
+     * @param hitRate the hit rate
+     */
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    /**
+     * Gets the number of principals evicted because the cache was full or they expired.
+     *
+     * @return the number of evictions
+     */
+    @Description("Number of principals evicted because the cache was full or they expired")
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Sets the number of evicted principals.
+     *
+     * @param evictionCount the number of evictions
+     */
+    public void setEvictionCount(long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+
+}
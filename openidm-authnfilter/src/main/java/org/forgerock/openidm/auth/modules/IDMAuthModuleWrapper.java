@@ -14,7 +14,7 @@
  * "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 package org.forgerock.openidm.auth.modules;
 
@@ -26,6 +26,7 @@ import static org.forgerock.json.JsonValueFunctions.enumConstant;
 import static org.forgerock.json.resource.ResourceResponse.*;
 import static org.forgerock.openidm.auth.modules.MappingRoleCalculator.GroupComparison;
 import static org.forgerock.openidm.servletregistration.ServletRegistration.SERVLET_FILTER_AUGMENT_SECURITY_CONTEXT;
+import static org.forgerock.util.promise.Promises.newResultPromise;
 
 import javax.script.ScriptException;
 import javax.security.auth.Subject;
@@ -104,6 +105,9 @@ public class IDMAuthModuleWrapper implements AsyncServerAuthModule {
     private final ScriptRegistry scriptRegistry;
     private final AugmentationScriptExecutor augmentationScriptExecutor;
 
+    /** the cache of authenticated principals, if enabled */
+    private final PrincipalCache principalCache;
+
     /** an security context augmentation script, if configured */
     private ScriptEntry augmentScript = null;
 
@@ -128,8 +132,24 @@ public class IDMAuthModuleWrapper implements AsyncServerAuthModule {
      */
     public IDMAuthModuleWrapper(AsyncServerAuthModule authModule,
             ConnectionFactory connectionFactory, CryptoService cryptoService, ScriptRegistry scriptRegistry) {
+        this(authModule, connectionFactory, cryptoService, scriptRegistry, null);
+    }
+
+    /**
+     * Constructs a new instance of the IDMAuthModuleWrapper which caches the principals authenticated by the
+     * wrapped module, if it authenticates credentials provided with the request.
+     *
+     * @param authModule The auth module wrapped by this module.
+     * @param connectionFactory
+     * @param cryptoService
+     * @param scriptRegistry
+     * @param principalCache The cache of authenticated principals, or {@code null} to disable caching.
+     */
+    public IDMAuthModuleWrapper(AsyncServerAuthModule authModule,
+            ConnectionFactory connectionFactory, CryptoService cryptoService, ScriptRegistry scriptRegistry,
+            PrincipalCache principalCache) {
         this(authModule, connectionFactory, cryptoService, scriptRegistry,
-                new RoleCalculatorFactory(), new AugmentationScriptExecutor());
+                new RoleCalculatorFactory(), new AugmentationScriptExecutor(), principalCache);
     }
 
     /**
@@ -144,12 +164,32 @@ public class IDMAuthModuleWrapper implements AsyncServerAuthModule {
             ConnectionFactory connectionFactory, CryptoService cryptoService, ScriptRegistry scriptRegistry,
             RoleCalculatorFactory roleCalculatorFactory,
             AugmentationScriptExecutor augmentationScriptExecutor) {
+        this(authModule, connectionFactory, cryptoService, scriptRegistry, roleCalculatorFactory,
+                augmentationScriptExecutor, null);
+    }
+
+    /**
+     * Constructs a new instance of the IDMAuthModuleWrapper with the provided parameters, for test use.
+     *
+     * @param authModule The auth module wrapped by this module.
+     * @param roleCalculatorFactory An instance of the RoleCalculatorFactory.
+     * @param augmentationScriptExecutor An instance of the AugmentationScriptExecutor.
+     * @param principalCache The cache of authenticated principals, or {@code null} to disable caching.
+     */
+    IDMAuthModuleWrapper(
+            AsyncServerAuthModule authModule,
+            ConnectionFactory connectionFactory, CryptoService cryptoService, ScriptRegistry scriptRegistry,
+            RoleCalculatorFactory roleCalculatorFactory,
+            AugmentationScriptExecutor augmentationScriptExecutor,
+            PrincipalCache principalCache) {
         this.authModule = authModule;
         this.connectionFactory = connectionFactory;
         this.cryptoService = cryptoService;
         this.scriptRegistry = scriptRegistry;
         this.roleCalculatorFactory = roleCalculatorFactory;
         this.augmentationScriptExecutor = augmentationScriptExecutor;
+        // only modules which authenticate the credentials provided with each request are worth caching
+        this.principalCache = authModule instanceof DelegatedAuthModule ? principalCache : null;
     }
 
     /**
@@ -307,6 +347,24 @@ public class IDMAuthModuleWrapper implements AsyncServerAuthModule {
         // Add this properties so the AuditLogger knows whether to log the client IP in the header.
         setClientIPAddress(messageInfo);
 
+        final Credential credential = getCacheableCredential(messageInfo.getRequest());
+        if (credential != null) {
+            final PrincipalCache.CachedPrincipal cached = principalCache.get(getModuleId(), credential);
+            if (cached != null) {
+                logger.debug("Authenticated {} with cached principal of {}", credential.username, getModuleId());
+                cached.applyTo(SecurityContextMapper.fromMessageInfo(messageInfo)
+                        .setAuthenticationId(credential.username));
+                clientSubject.getPrincipals().add(new Principal() {
+                    @Override
+                    public String getName() {
+                        return credential.username;
+                    }
+                });
+                return newResultPromise(AuthStatus.SUCCESS);
+            }
+        }
+        final long cacheGeneration = credential != null ? principalCache.getGeneration() : 0L;
+
         return authModule.validateRequest(messageInfo, clientSubject, serviceSubject)
                 .then(new Function<AuthStatus, AuthStatus, AuthenticationException>() {
                     @Override
@@ -365,6 +423,10 @@ public class IDMAuthModuleWrapper implements AsyncServerAuthModule {
                             augmentationScriptExecutor.executeAugmentationScript(augmentScript, messageInfo, properties,
                                     securityContextMapper);
 
+                            if (credential != null && principalName.equals(credential.username)) {
+                                principalCache.put(getModuleId(), credential, securityContextMapper, cacheGeneration);
+                            }
+
                         } catch (ResourceException e) {
                             // store failure reason
                             messageInfo.getRequestContextMap().put(
@@ -384,6 +446,26 @@ public class IDMAuthModuleWrapper implements AsyncServerAuthModule {
                 });
     }
 
+    /**
+     * Returns the credential by which the principal cache is keyed, if the principals of the wrapped module are
+     * cached and the request provides exactly one complete credential.
+     *
+     * @param request the request
+     * @return the credential or {@code null}
+     */
+    private Credential getCacheableCredential(Request request) {
+        if (principalCache == null) {
+            return null;
+        }
+        final Credential headerCredential = HEADER_AUTH_CRED_HELPER.getCredential(request);
+        final Credential basicCredential = BASIC_AUTH_CRED_HELPER.getCredential(request);
+        if (headerCredential.isComplete() == basicCredential.isComplete()) {
+            // either no credential at all, or two which may authenticate differently
+            return null;
+        }
+        return headerCredential.isComplete() ? headerCredential : basicCredential;
+    }
+
     /**
      * Query for the authentication resource.
      *
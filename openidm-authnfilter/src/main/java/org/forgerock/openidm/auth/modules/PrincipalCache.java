@@ -0,0 +1,262 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.auth.modules;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.guava.common.cache.Cache;
+import org.forgerock.guava.common.cache.CacheBuilder;
+import org.forgerock.guava.common.cache.CacheStats;
+import org.forgerock.guava.common.cache.RemovalListener;
+import org.forgerock.guava.common.cache.RemovalNotification;
+import org.forgerock.json.JsonValue;
+import org.forgerock.util.encode.Base64;
+
+/**
+ * A bounded cache of authenticated principals, which lets the {@link IDMAuthModuleWrapper} skip the credential
+ * query, the role calculation and the augmentation script for a client which presents the same credentials again.
+ * <p>
+ * Entries are keyed by auth module, principal and a salted hash of the credential, so the credential itself is never
+ * retained. They expire after the configured time to live and are {@link #invalidate(String) invalidated} when the
+ * resource they were calculated from changes, or {@link #invalidateAll() all invalidated} when a change may affect
+ * the roles of any principal.
+ * <p>
+ * A principal is only cached if no invalidation happened while it was authenticated, see {@link #getGeneration()}.
+ * Changes which are not made through the router are not seen: a principal authenticated by an external source, for
+ * instance by pass-through authentication, keeps authenticating with its former credentials and roles until its
+ * entry expires. The cache is therefore disabled unless configured.
+ */
+public class PrincipalCache {
+
+    /** The principal cache key in the serverAuthContext configuration. */
+    public static final String CONFIG_KEY = "principalCache";
+
+    private static final String CONFIG_ENABLED = "enabled";
+    private static final String CONFIG_MAX_ENTRIES = "maxEntries";
+    private static final String CONFIG_TIME_TO_LIVE = "timeToLiveSeconds";
+
+    private static final long DEFAULT_MAX_ENTRIES = 10000;
+    private static final long DEFAULT_TIME_TO_LIVE = 60;
+
+    /** The authorization attribute which is particular to each request and must not be cached. */
+    private static final String IP_ADDRESS = "ipAddress";
+
+    /**
+     * The security context established by a successful authentication.
+     */
+    static final class CachedPrincipal {
+        private final String resourcePath;
+        private final JsonValue authorization;
+
+        private CachedPrincipal(String resourcePath, JsonValue authorization) {
+            this.resourcePath = resourcePath;
+            this.authorization = authorization;
+        }
+
+        /**
+         * Applies the cached security context to the request.
+         *
+         * @param securityContextMapper the mapper of the request security context
+         */
+        void applyTo(SecurityContextMapper securityContextMapper) {
+            final JsonValue current = securityContextMapper.asJsonValue().get(SecurityContextMapper.AUTHORIZATION);
+            for (String key : authorization.keys()) {
+                current.put(key, authorization.get(key).copy().getObject());
+            }
+        }
+    }
+
+    private final Cache<String, CachedPrincipal> cache;
+    /** the cache keys by the path of the resource the principal was calculated from */
+    private final ConcurrentMap<String, Set<String>> keysByResourcePath = new ConcurrentHashMap<>();
+    private final byte[] salt = new byte[16];
+    /** incremented by every invalidation, so that principals authenticated meanwhile are not cached */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructs a principal cache.
+     *
+     * @param maxEntries the maximum number of cached principals
+     * @param timeToLive the time to live of a cached principal, in seconds
+     */
+    public PrincipalCache(long maxEntries, long timeToLive) {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(timeToLive, TimeUnit.SECONDS)
+                .recordStats()
+                .removalListener(new RemovalListener<String, CachedPrincipal>() {
+                    @Override
+                    public void onRemoval(RemovalNotification<String, CachedPrincipal> notification) {
+                        final String resourcePath = notification.getValue().resourcePath;
+                        if (resourcePath != null) {
+                            final Set<String> keys = keysByResourcePath.get(resourcePath);
+                            if (keys != null) {
+                                keys.remove(notification.getKey());
+                                if (keys.isEmpty()) {
+                                    keysByResourcePath.remove(resourcePath, keys);
+                                }
+                            }
+                        }
+                    }
+                })
+                .build();
+        new SecureRandom().nextBytes(salt);
+    }
+
+    /**
+     * Creates a principal cache from the serverAuthContext configuration.
+     *
+     * @param config the {@value #CONFIG_KEY} configuration
+     * @return the principal cache, or {@code null} if it is not enabled
+     */
+    public static PrincipalCache fromConfig(JsonValue config) {
+        if (config.isNull() || !config.get(CONFIG_ENABLED).defaultTo(false).asBoolean()) {
+            return null;
+        }
+        return new PrincipalCache(
+                config.get(CONFIG_MAX_ENTRIES).defaultTo(DEFAULT_MAX_ENTRIES).asLong(),
+                config.get(CONFIG_TIME_TO_LIVE).defaultTo(DEFAULT_TIME_TO_LIVE).asLong());
+    }
+
+    /**
+     * Returns the principal authenticated by a module with the same credential, if it is still cached.
+     *
+     * @param moduleId the auth module id
+     * @param credential the credential presented by the client
+     * @return the cached principal or {@code null}
+     */
+    CachedPrincipal get(String moduleId, IDMAuthModuleWrapper.Credential credential) {
+        return cache.getIfPresent(key(moduleId, credential));
+    }
+
+    /**
+     * Returns the generation of the cache, to be obtained before authenticating a principal which may be cached.
+     *
+     * @return the number of invalidations so far
+     */
+    long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Caches the security context established by a module for a credential, unless the cache has been invalidated
+     * since the authentication started, as the security context may then be stale.
+     *
+     * @param moduleId the auth module id
+     * @param credential the credential presented by the client
+     * @param securityContextMapper the mapper of the established security context
+     * @param authenticationGeneration the {@link #getGeneration() generation} before the authentication started
+     */
+    void put(String moduleId, IDMAuthModuleWrapper.Credential credential,
+            SecurityContextMapper securityContextMapper, long authenticationGeneration) {
+        if (generation.get() != authenticationGeneration) {
+            return;
+        }
+        final JsonValue authorization = securityContextMapper.asJsonValue()
+                .get(SecurityContextMapper.AUTHORIZATION).copy();
+        authorization.remove(IP_ADDRESS);
+        final String resourcePath = securityContextMapper.getResource() != null
+                && securityContextMapper.getUserId() != null
+                ? securityContextMapper.getResource() + "/" + securityContextMapper.getUserId()
+                : null;
+        final String key = key(moduleId, credential);
+        if (resourcePath != null) {
+            Set<String> keys = keysByResourcePath.get(resourcePath);
+            if (keys == null) {
+                final Set<String> newKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+                keys = keysByResourcePath.putIfAbsent(resourcePath, newKeys);
+                if (keys == null) {
+                    keys = newKeys;
+                }
+            }
+            keys.add(key);
+        }
+        cache.put(key, new CachedPrincipal(resourcePath, authorization));
+        if (generation.get() != authenticationGeneration) {
+            // invalidated while being cached
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Discards the principals calculated from the resource, or from a resource it belongs to (e.g. the user whose
+     * relationship {@code managed/user/bjensen/roles/0} is changed).
+     *
+     * @param resourcePath the path of the changed resource
+     */
+    public void invalidate(String resourcePath) {
+        generation.incrementAndGet();
+        if (keysByResourcePath.isEmpty()) {
+            return;
+        }
+        int end = resourcePath.length();
+        while (end > 0) {
+            final Set<String> keys = keysByResourcePath.get(resourcePath.substring(0, end));
+            if (keys != null) {
+                cache.invalidateAll(new ArrayList<>(keys));
+            }
+            end = resourcePath.lastIndexOf('/', end - 1);
+        }
+    }
+
+    /**
+     * Discards all cached principals.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the size and hit/miss statistics of the cache.
+     *
+     * @return the statistics
+     */
+    public JsonValue getStatistics() {
+        final CacheStats stats = cache.stats();
+        return json(object(
+                field("size", cache.size()),
+                field("hitCount", stats.hitCount()),
+                field("missCount", stats.missCount()),
+                field("hitRate", stats.hitRate()),
+                field("evictionCount", stats.evictionCount())));
+    }
+
+    private String key(String moduleId, IDMAuthModuleWrapper.Credential credential) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            digest.update(credential.password.getBytes(StandardCharsets.UTF_8));
+            return moduleId + ":" + credential.username + ":" + Base64.encode(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
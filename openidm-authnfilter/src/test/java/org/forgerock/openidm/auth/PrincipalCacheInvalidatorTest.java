@@ -0,0 +1,128 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.inject.Provider;
+
+import org.forgerock.json.resource.ResourcePath;
+import org.forgerock.openidm.auth.modules.PrincipalCache;
+import org.forgerock.openidm.cluster.ClusterEvent;
+import org.forgerock.openidm.cluster.ClusterEventType;
+import org.forgerock.openidm.cluster.ClusterManagementService;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link PrincipalCacheInvalidator}.
+ */
+public class PrincipalCacheInvalidatorTest {
+
+    private PrincipalCache principalCache;
+    private ClusterManagementService cluster;
+    private PrincipalCacheInvalidator invalidator;
+
+    @BeforeMethod
+    public void setUp() {
+        principalCache = mock(PrincipalCache.class);
+        cluster = mock(ClusterManagementService.class);
+        when(cluster.isEnabled()).thenReturn(true);
+        when(cluster.getInstanceId()).thenReturn("node1");
+        invalidator = new PrincipalCacheInvalidator(new Provider<PrincipalCache>() {
+            @Override
+            public PrincipalCache get() {
+                return principalCache;
+            }
+        });
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        invalidator.stop();
+    }
+
+    @Test
+    public void testChangedUserInvalidatesItsPrincipals() {
+        invalidator.resourceChanged("managed/user/bjensen");
+        invalidator.resourceChanged("repo/internal/user/openidm-admin");
+
+        verify(principalCache).invalidate("managed/user/bjensen");
+        verify(principalCache).invalidate("internal/user/openidm-admin");
+        verify(principalCache, never()).invalidateAll();
+    }
+
+    @Test
+    public void testRoleAndRelationshipChangesInvalidateAllPrincipals() {
+        assertThat(PrincipalCacheInvalidator.affectsAllPrincipals(ResourcePath.valueOf("managed/role/admin")))
+                .isTrue();
+        assertThat(PrincipalCacheInvalidator.affectsAllPrincipals(ResourcePath.valueOf("managed/role/admin/members")))
+                .isTrue();
+        assertThat(PrincipalCacheInvalidator.affectsAllPrincipals(ResourcePath.valueOf("internal/role/openidm-reg")))
+                .isTrue();
+        assertThat(PrincipalCacheInvalidator.affectsAllPrincipals(ResourcePath.valueOf("managed/user/bjensen/roles")))
+                .isTrue();
+        assertThat(PrincipalCacheInvalidator.affectsAllPrincipals(ResourcePath.valueOf("relationships/1")))
+                .isTrue();
+        assertThat(PrincipalCacheInvalidator.affectsAllPrincipals(ResourcePath.valueOf("managed/user/bjensen")))
+                .isFalse();
+        assertThat(PrincipalCacheInvalidator.affectsAllPrincipals(ResourcePath.valueOf("system/ldap/account/1")))
+                .isFalse();
+
+        invalidator.resourceChanged("repo/relationships/1");
+        verify(principalCache).invalidateAll();
+    }
+
+    @Test
+    public void testInvalidationsArePublishedToTheCluster() {
+        invalidator.start(cluster);
+        invalidator.resourceChanged("managed/user/bjensen");
+        invalidator.publish();
+
+        ArgumentCaptor<ClusterEvent> event = ArgumentCaptor.forClass(ClusterEvent.class);
+        verify(cluster).sendEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(ClusterEventType.CUSTOM);
+        assertThat(event.getValue().getListenerId()).isEqualTo(PrincipalCacheInvalidator.LISTENER_ID);
+        assertThat(event.getValue().getDetails().get("resourcePaths").asList()).containsExactly("managed/user/bjensen");
+
+        // nothing pending anymore
+        invalidator.publish();
+        verify(cluster).sendEvent(any(ClusterEvent.class));
+    }
+
+    @Test
+    public void testClusterEventsInvalidatePrincipals() {
+        invalidator.handleEvent(new ClusterEvent(ClusterEventType.CUSTOM, "node2",
+                PrincipalCacheInvalidator.LISTENER_ID, json(object(field("resourcePaths", array("managed/user/a"))))));
+        verify(principalCache).invalidate("managed/user/a");
+        verify(principalCache, never()).invalidateAll();
+
+        invalidator.handleEvent(new ClusterEvent(ClusterEventType.CUSTOM, "node2",
+                PrincipalCacheInvalidator.LISTENER_ID, json(object(field("all", true)))));
+        verify(principalCache).invalidateAll();
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.auth.modules;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.caf.authentication.framework.AuthenticationFramework.ATTRIBUTE_AUTH_CONTEXT;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.net.URI;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.security.auth.Subject;
+import javax.security.auth.callback.CallbackHandler;
+import javax.security.auth.message.AuthStatus;
+import javax.security.auth.message.MessagePolicy;
+
+import org.forgerock.caf.authentication.api.AuthenticationException;
+import org.forgerock.caf.authentication.api.MessageInfoContext;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.json.resource.ConnectionFactory;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.openidm.crypto.CryptoService;
+import org.forgerock.script.ScriptRegistry;
+import org.forgerock.services.context.ClientContext;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.services.context.SecurityContext;
+import org.forgerock.util.encode.Base64;
+import org.forgerock.util.promise.Promises;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link PrincipalCache} and its use by the {@link IDMAuthModuleWrapper}.
+ */
+@SuppressWarnings("unchecked")
+public class PrincipalCacheTest {
+
+    private PrincipalCache principalCache;
+    private DelegatedAuthModule authModule;
+    private RoleCalculator roleCalculator;
+    private IDMAuthModuleWrapper wrapper;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        principalCache = new PrincipalCache(100, 60);
+
+        authModule = mock(DelegatedAuthModule.class);
+        given(authModule.getModuleId()).willReturn("MANAGED_USER");
+        given(authModule.validateRequest(any(MessageInfoContext.class), any(Subject.class), any(Subject.class)))
+                .willAnswer(new Answer<Object>() {
+                    @Override
+                    public Object answer(InvocationOnMock invocation) {
+                        ((Subject) invocation.getArguments()[1]).getPrincipals().add(new Principal() {
+                            @Override
+                            public String getName() {
+                                return "bjensen";
+                            }
+                        });
+                        return Promises.<AuthStatus, AuthenticationException>newResultPromise(AuthStatus.SUCCESS);
+                    }
+                });
+
+        roleCalculator = mock(RoleCalculator.class);
+        given(roleCalculator.calculateRoles(anyString(), any(ResourceResponse.class)))
+                .willReturn(asList("openidm-authorized"));
+        RoleCalculatorFactory roleCalculatorFactory = mock(RoleCalculatorFactory.class);
+        given(roleCalculatorFactory.create(anyListOf(String.class), anyString(), anyString(),
+                Matchers.<Map<String, List<String>>>anyObject(),
+                Matchers.<MappingRoleCalculator.GroupComparison>anyObject()))
+                .willReturn(roleCalculator);
+
+        wrapper = new IDMAuthModuleWrapper(authModule, mock(ConnectionFactory.class), mock(CryptoService.class),
+                mock(ScriptRegistry.class), roleCalculatorFactory, mock(AugmentationScriptExecutor.class),
+                principalCache);
+        Map<String, Object> options = new HashMap<>();
+        options.put("queryOnResource", "managed/user");
+        wrapper.initialize(mock(MessagePolicy.class), mock(MessagePolicy.class), mock(CallbackHandler.class),
+                options);
+    }
+
+    @Test
+    public void shouldServeRepeatedAuthenticationFromCache() throws Exception {
+        Map<String, Object> first = authenticate("bjensen", "Passw0rd");
+        Map<String, Object> second = authenticate("bjensen", "Passw0rd");
+
+        verify(authModule, times(1)).validateRequest(any(MessageInfoContext.class), any(Subject.class),
+                any(Subject.class));
+        verify(roleCalculator, times(1)).calculateRoles(anyString(), any(ResourceResponse.class));
+        assertThat(second.get(SecurityContext.AUTHZID_ROLES)).isEqualTo(first.get(SecurityContext.AUTHZID_ROLES));
+        assertThat(second.get(SecurityContext.AUTHZID_COMPONENT)).isEqualTo("managed/user");
+        assertThat(principalCache.getStatistics().get("hitCount").asLong()).isEqualTo(1L);
+        assertThat(principalCache.getStatistics().get("missCount").asLong()).isEqualTo(1L);
+    }
+
+    @Test
+    public void shouldNotServeOtherCredentialFromCache() throws Exception {
+        authenticate("bjensen", "Passw0rd");
+        authenticate("bjensen", "Other-Passw0rd");
+
+        verify(authModule, times(2)).validateRequest(any(MessageInfoContext.class), any(Subject.class),
+                any(Subject.class));
+    }
+
+    @Test
+    public void shouldInvalidateByResourcePath() {
+        IDMAuthModuleWrapper.Credential credential = new IDMAuthModuleWrapper.Credential("bjensen", "Passw0rd");
+        principalCache.put("MANAGED_USER", credential, mapper("managed/user", "bjensen"),
+                principalCache.getGeneration());
+
+        principalCache.invalidate("managed/user/scarter");
+        assertThat(principalCache.get("MANAGED_USER", credential)).isNotNull();
+
+        principalCache.invalidate("managed/user/bjensen/roles/0");
+        assertThat(principalCache.get("MANAGED_USER", credential)).isNull();
+    }
+
+    @Test
+    public void shouldNotCachePrincipalAuthenticatedDuringInvalidation() {
+        IDMAuthModuleWrapper.Credential credential = new IDMAuthModuleWrapper.Credential("bjensen", "Passw0rd");
+        long generation = principalCache.getGeneration();
+
+        // a role is changed while bjensen authenticates with her former roles
+        principalCache.invalidateAll();
+        principalCache.put("MANAGED_USER", credential, mapper("managed/user", "bjensen"), generation);
+
+        assertThat(principalCache.get("MANAGED_USER", credential)).isNull();
+    }
+
+    @Test
+    public void shouldBeDisabledUnlessConfigured() {
+        assertThat(PrincipalCache.fromConfig(json(null))).isNull();
+        assertThat(PrincipalCache.fromConfig(json(object(field("maxEntries", 10))))).isNull();
+        assertThat(PrincipalCache.fromConfig(json(object(field("enabled", true))))).isNotNull();
+    }
+
+    private Map<String, Object> authenticate(String username, String password) throws Exception {
+        Request request = new Request();
+        request.setUri(URI.create("http://localhost/openidm/info/ping"));
+        request.getHeaders().put("Authorization",
+                "Basic " + Base64.encode((username + ":" + password).getBytes()));
+        Map<String, Object> messageInfoMap = new HashMap<>();
+        messageInfoMap.put(ATTRIBUTE_AUTH_CONTEXT, new HashMap<String, Object>());
+        MessageInfoContext messageInfo = mock(MessageInfoContext.class);
+        given(messageInfo.asContext(ClientContext.class))
+                .willReturn(ClientContext.newInternalClientContext(new RootContext()));
+        given(messageInfo.getRequest()).willReturn(request);
+        given(messageInfo.getRequestContextMap()).willReturn(messageInfoMap);
+
+        AuthStatus status = wrapper.validateRequest(messageInfo, new Subject(), new Subject())
+                .getOrThrowUninterruptibly();
+
+        assertThat(status).isEqualTo(AuthStatus.SUCCESS);
+        return (Map<String, Object>) messageInfoMap.get(ATTRIBUTE_AUTH_CONTEXT);
+    }
+
+    private static SecurityContextMapper mapper(String component, String id) {
+        Map<String, Object> messageInfoMap = new HashMap<>();
+        messageInfoMap.put(ATTRIBUTE_AUTH_CONTEXT, json(object()).asMap());
+        MessageInfoContext messageInfo = mock(MessageInfoContext.class);
+        given(messageInfo.getRequestContextMap()).willReturn(messageInfoMap);
+        return SecurityContextMapper.fromMessageInfo(messageInfo).setResource(component).setUserId(id);
+    }
+}
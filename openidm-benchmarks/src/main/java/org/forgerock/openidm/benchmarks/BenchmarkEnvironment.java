@@ -0,0 +1,63 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.benchmarks;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.forgerock.openidm.core.IdentityServer;
+import org.forgerock.openidm.util.Scripts;
+import org.forgerock.script.engine.ScriptEngineFactory;
+import org.forgerock.script.groovy.GroovyScriptEngineFactory;
+import org.forgerock.script.javascript.RhinoScriptEngineFactory;
+import org.forgerock.script.registry.ScriptRegistryImpl;
+
+/**
+ * Sets up the process-wide state which the benchmarked code expects from a running Wren:IDM: the identity server
+ * properties and the script registry.
+ */
+public final class BenchmarkEnvironment {
+
+    private static ScriptRegistryImpl scriptRegistry;
+
+    private BenchmarkEnvironment() {
+        // static utility
+    }
+
+    /**
+     * Initializes the identity server, with no properties, and a script registry with the JavaScript and the Groovy
+     * engines. Safe to call from several benchmarks of the same run.
+     *
+     * @return the script registry, which is also the registry of {@link Scripts}
+     */
+    public static synchronized ScriptRegistryImpl init() {
+        if (scriptRegistry == null) {
+            try {
+                IdentityServer.initInstance((IdentityServer) null);
+            } catch (IllegalStateException e) {
+                // already initialized
+            }
+            final Map<String, Object> configuration = new HashMap<>();
+            configuration.put(RhinoScriptEngineFactory.LANGUAGE_NAME, new HashMap<String, Object>());
+            configuration.put(GroovyScriptEngineFactory.LANGUAGE_NAME, new HashMap<String, Object>());
+            scriptRegistry = new ScriptRegistryImpl(configuration, Arrays.<ScriptEngineFactory>asList(
+                    new RhinoScriptEngineFactory(), new GroovyScriptEngineFactory()), null, null);
+            Scripts.init(scriptRegistry);
+        }
+        return scriptRegistry;
+    }
+}
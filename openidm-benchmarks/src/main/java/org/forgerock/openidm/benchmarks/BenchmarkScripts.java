@@ -0,0 +1,114 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.benchmarks;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ConnectionFactory;
+import org.forgerock.openidm.script.ResourceFunctions;
+import org.forgerock.script.groovy.GroovyScriptEngineFactory;
+import org.forgerock.script.registry.ScriptRegistryImpl;
+
+/**
+ * The scripts of the script benchmarks, in each language, and the bindings which the script registry service of a
+ * running Wren:IDM gives them.
+ */
+final class BenchmarkScripts {
+
+    static final String JAVASCRIPT = "text/javascript";
+    static final String GROOVY = GroovyScriptEngineFactory.LANGUAGE_NAME;
+
+    /** The property of the registry bindings holding the resource functions */
+    static final String OPENIDM = "openidm";
+
+    private BenchmarkScripts() {
+        // static utility
+    }
+
+    /**
+     * Returns the configuration of an inline script.
+     *
+     * @param language the language of the script, {@link #JAVASCRIPT} or {@link #GROOVY}
+     * @param javascript the source of the script in JavaScript
+     * @param groovy the source of the script in Groovy
+     * @return the configuration of the script
+     */
+    static JsonValue script(String language, String javascript, String groovy) {
+        return json(object(
+                field("type", language),
+                field("source", JAVASCRIPT.equals(language) ? javascript : groovy)));
+    }
+
+    /**
+     * Sets or removes the {@code openidm} resource functions of the bindings of a registry, as the script registry
+     * service does when the router is bound or unbound.
+     *
+     * @param registry the script registry
+     * @param connectionFactory the connection factory of the functions, or {@code null} to remove them
+     */
+    static void setOpenidmBindings(ScriptRegistryImpl registry, ConnectionFactory connectionFactory) {
+        if (connectionFactory != null) {
+            final Map<String, Object> openidm = new ConcurrentHashMap<>();
+            openidm.put("create", ResourceFunctions.newCreateFunction(connectionFactory));
+            openidm.put("read", ResourceFunctions.newReadFunction(connectionFactory));
+            openidm.put("update", ResourceFunctions.newUpdateFunction(connectionFactory));
+            openidm.put("patch", ResourceFunctions.newPatchFunction(connectionFactory));
+            openidm.put("query", ResourceFunctions.newQueryFunction(connectionFactory));
+            openidm.put("delete", ResourceFunctions.newDeleteFunction(connectionFactory));
+            openidm.put("action", ResourceFunctions.newActionFunction(connectionFactory));
+            registry.put(OPENIDM, openidm);
+        } else if (registry.getBindings() != null) {
+            registry.getBindings().remove(OPENIDM);
+        }
+    }
+
+    /**
+     * Returns a scope of unrelated properties, to measure how the cost of a script grows with the size of its scope.
+     *
+     * @param size the number of properties
+     * @return the scope
+     */
+    static Map<String, Object> scope(int size) {
+        final Map<String, Object> scope = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            scope.put("property" + i, "value" + i);
+        }
+        return scope;
+    }
+
+    /**
+     * Returns a managed user.
+     *
+     * @return the user, without its id
+     */
+    static JsonValue user() {
+        return json(object(
+                field("userName", "bjensen"),
+                field("givenName", "Barbara"),
+                field("sn", "Jensen"),
+                field("mail", "bjensen@example.com"),
+                field("telephoneNumber", "+1 408 555 1862"),
+                field("accountStatus", "active"),
+                field("description", "Created by the script benchmarks")));
+    }
+}
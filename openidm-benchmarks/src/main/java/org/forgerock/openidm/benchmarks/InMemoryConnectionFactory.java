@@ -0,0 +1,109 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.benchmarks;
+
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+import static org.forgerock.json.resource.Router.uriTemplate;
+
+import java.util.UUID;
+
+import org.forgerock.json.resource.AbstractRequestHandler;
+import org.forgerock.json.resource.Connection;
+import org.forgerock.json.resource.ConnectionFactory;
+import org.forgerock.json.resource.CreateRequest;
+import org.forgerock.json.resource.MemoryBackend;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.json.resource.Resources;
+import org.forgerock.json.resource.Router;
+import org.forgerock.openidm.router.IDMConnectionFactory;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.promise.Promise;
+
+/**
+ * An in-memory stand-in for the router of Wren:IDM, whose routes are served by {@link MemoryBackend memory backends}
+ * (e.g. the source and target systems and the link table of a mapping) or discard what they are sent (e.g. the
+ * audit logs, which would otherwise grow for the whole run).
+ */
+public class InMemoryConnectionFactory implements IDMConnectionFactory {
+
+    private final Router router = new Router();
+    private final ConnectionFactory connectionFactory = Resources.newInternalConnectionFactory(router);
+
+    /**
+     * Serves a resource collection, and the resources it contains, from a new memory backend.
+     *
+     * @param resourcePath the path of the collection, e.g. {@code repo/link}
+     * @return the backend of the collection
+     */
+    public MemoryBackend addBackend(String resourcePath) {
+        final MemoryBackend backend = new MemoryBackend();
+        router.addRoute(uriTemplate(resourcePath), backend);
+        return backend;
+    }
+
+    /**
+     * Accepts and discards the resources created in a collection.
+     *
+     * @param resourcePath the path of the collection, e.g. {@code audit/recon}
+     */
+    public void addDiscardingRoute(String resourcePath) {
+        router.addRoute(uriTemplate(resourcePath), new AbstractRequestHandler() {
+            @Override
+            public Promise<ResourceResponse, ResourceException> handleCreate(Context context,
+                    CreateRequest request) {
+                final String id = request.getNewResourceId() != null
+                        ? request.getNewResourceId()
+                        : UUID.randomUUID().toString();
+                return newResourceResponse(id, null, request.getContent()).asPromise();
+            }
+        });
+    }
+
+    /**
+     * Returns the router, to add other routes.
+     *
+     * @return the router
+     */
+    public Router getRouter() {
+        return router;
+    }
+
+    @Override
+    public Connection getConnection() throws ResourceException {
+        return connectionFactory.getConnection();
+    }
+
+    @Override
+    public Promise<Connection, ResourceException> getConnectionAsync() {
+        return connectionFactory.getConnectionAsync();
+    }
+
+    @Override
+    public Connection getExternalConnection() throws ResourceException {
+        return getConnection();
+    }
+
+    @Override
+    public Promise<Connection, ResourceException> getExternalConnectionAsync() {
+        return getConnectionAsync();
+    }
+
+    @Override
+    public void close() {
+        connectionFactory.close();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.benchmarks;
+
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.openidm.benchmarks.BenchmarkScripts.script;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.Requests;
+import org.forgerock.openidm.util.Script;
+import org.forgerock.openidm.util.Scripts;
+import org.forgerock.script.ScriptEntry;
+import org.forgerock.script.registry.ScriptRegistryImpl;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the overhead of the script layer: the creation of the bindings of a script from the global bindings
+ * of the registry and from its scope, and its evaluation.
+ * <p>
+ * The scripts are an empty script and a property transform, run through {@link Script#exec(Map, Context)} as the
+ * mappings and most hooks run them, and an {@code onRetrieve} hook, run the way managed objects run their hooks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScriptBenchmark {
+
+    /** The language of the scripts */
+    @Param({ BenchmarkScripts.JAVASCRIPT, BenchmarkScripts.GROOVY })
+    public String language;
+
+    /** Whether the global bindings hold the {@code openidm} resource functions */
+    @Param({ "true", "false" })
+    public boolean openidmBindings;
+
+    /** The number of unrelated properties in the scope of the scripts */
+    @Param({ "0", "50" })
+    public int scopeSize;
+
+    private Context context;
+    private Script emptyScript;
+    private Script transformScript;
+    private ScriptEntry onRetrieveScript;
+    private Map<String, Object> scope;
+    private Map<String, Object> transformScope;
+    private JsonValue user;
+
+    @Setup
+    public void setUp() throws Exception {
+        final ScriptRegistryImpl registry = BenchmarkEnvironment.init();
+        final InMemoryConnectionFactory connectionFactory = new InMemoryConnectionFactory();
+        BenchmarkScripts.setOpenidmBindings(registry, openidmBindings ? connectionFactory : null);
+
+        context = new RootContext();
+        emptyScript = Scripts.newScript(script(language, "null;", "null"));
+        transformScript = Scripts.newScript(script(language,
+                "source == null ? null : source.trim().toLowerCase();",
+                "source == null ? null : source.trim().toLowerCase()"));
+        onRetrieveScript = registry.takeScript(script(language,
+                "object.displayName = object.givenName + ' ' + object.sn;",
+                "object.put('displayName', object.get('givenName').asString() + ' ' + object.get('sn').asString())"));
+
+        scope = BenchmarkScripts.scope(scopeSize);
+        transformScope = new HashMap<>(scope);
+        transformScope.put("source", "  BJensen@Example.COM ");
+        user = BenchmarkScripts.user();
+    }
+
+    @Benchmark
+    public Object emptyScript() throws Exception {
+        return emptyScript.exec(scope, context);
+    }
+
+    @Benchmark
+    public Object propertyTransform() throws Exception {
+        return transformScript.exec(transformScope, context);
+    }
+
+    /**
+     * Runs an {@code onRetrieve} hook, with the bindings which managed objects give their hooks.
+     */
+    @Benchmark
+    public Object onRetrieve() throws Exception {
+        final org.forgerock.script.Script script = onRetrieveScript.getScript(context);
+        for (Map.Entry<String, Object> entry : scope.entrySet()) {
+            script.put(entry.getKey(), entry.getValue());
+        }
+        script.put("object", user.copy());
+        script.put("context", context);
+        script.put("request", Requests.newReadRequest("managed/user/bjensen"));
+        script.put("oldObject", null);
+        script.put("newObject", null);
+        script.put("resourceName", "managed/user/bjensen");
+        return script.eval();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.benchmarks;
+
+import static org.forgerock.json.resource.Requests.newCreateRequest;
+import static org.forgerock.json.resource.Requests.newReadRequest;
+import static org.forgerock.openidm.benchmarks.BenchmarkScripts.script;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.json.resource.Connection;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.openidm.util.Script;
+import org.forgerock.openidm.util.Scripts;
+import org.forgerock.script.registry.ScriptRegistryImpl;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a read of a managed user by a script, with {@code openidm.read}, against an in-memory router. The same
+ * read made directly through the router gives the cost of the read itself, without the script and the resource
+ * function around it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScriptReadBenchmark {
+
+    private static final String USERS = "managed/user";
+
+    /** The language of the script */
+    @Param({ BenchmarkScripts.JAVASCRIPT, BenchmarkScripts.GROOVY })
+    public String language;
+
+    /** The number of unrelated properties in the scope of the script */
+    @Param({ "0", "50" })
+    public int scopeSize;
+
+    private Context context;
+    private Connection connection;
+    private Script readScript;
+    private Map<String, Object> scope;
+
+    @Setup
+    public void setUp() throws Exception {
+        final ScriptRegistryImpl registry = BenchmarkEnvironment.init();
+        final InMemoryConnectionFactory connectionFactory = new InMemoryConnectionFactory();
+        connectionFactory.addBackend(USERS);
+        BenchmarkScripts.setOpenidmBindings(registry, connectionFactory);
+
+        context = new RootContext();
+        connection = connectionFactory.getConnection();
+        connection.create(context, newCreateRequest(USERS, "bjensen", BenchmarkScripts.user()));
+        readScript = Scripts.newScript(script(language,
+                "openidm.read('managed/user/bjensen');",
+                "openidm.read('managed/user/bjensen')"));
+        scope = BenchmarkScripts.scope(scopeSize);
+    }
+
+    @Benchmark
+    public Object scriptRead() throws Exception {
+        return readScript.exec(scope, context);
+    }
+
+    @Benchmark
+    public ResourceResponse directRead() throws Exception {
+        return connection.read(context, newReadRequest(USERS, "bjensen"));
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.repo.jdbc.impl;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import org.forgerock.json.JsonValue;
+
+/**
+ * Benchmarks the repository for users of the explicit {@code managed_user} table, which are stored with one column
+ * per property.
+ */
+public class ExplicitRepoBenchmark extends RepoBenchmark {
+
+    @Override
+    String getResource() {
+        return RepoFixture.EXPLICIT_RESOURCE;
+    }
+
+    @Override
+    JsonValue newObject(int i) {
+        return json(object(
+                field("userName", "user." + i),
+                field("givenName", "Given" + i),
+                field("sn", "Surname" + i),
+                field("mail", "user." + i + "@example.com"),
+                field("telephoneNumber", "+1 408 555 " + String.format("%04d", i % 10000)),
+                field("accountStatus", "active"),
+                field("postalAddress", i + " Main Street"),
+                field("city", "San Jose"),
+                field("stateProvince", "CA"),
+                field("postalCode", "95110"),
+                field("country", "US"),
+                field("description", "Benchmark user number " + i)));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.repo.jdbc.impl;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.util.Arrays;
+
+import org.forgerock.json.JsonValue;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks the repository for objects of a generic table, which are stored as a whole and with one row per
+ * searchable property. The cost of these objects grows with the number and the size of their properties.
+ */
+public class GenericRepoBenchmark extends RepoBenchmark {
+
+    /** The number of properties of the objects, besides those of a user */
+    @Param({ "10", "50" })
+    public int propertyCount;
+
+    /** The length of the values of these properties */
+    @Param({ "16", "256" })
+    public int valueLength;
+
+    @Override
+    String getResource() {
+        return RepoFixture.GENERIC_RESOURCE;
+    }
+
+    @Override
+    JsonValue newObject(int i) {
+        final JsonValue object = json(object(
+                field("userName", "user." + i),
+                field("givenName", "Given" + i),
+                field("sn", "Surname" + i),
+                field("mail", "user." + i + "@example.com"),
+                field("accountStatus", "active"),
+                field("description", "Benchmark user number " + i)));
+        final char[] value = new char[valueLength];
+        Arrays.fill(value, (char) ('a' + i % 26));
+        for (int p = 0; p < propertyCount; p++) {
+            object.put("property" + p, new String(value));
+        }
+        return object;
+    }
+}
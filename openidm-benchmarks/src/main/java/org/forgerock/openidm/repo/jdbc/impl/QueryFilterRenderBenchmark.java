@@ -0,0 +1,95 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.repo.jdbc.impl;
+
+import static org.forgerock.openidm.repo.QueryConstants.PAGED_RESULTS_OFFSET;
+import static org.forgerock.openidm.repo.QueryConstants.PAGE_SIZE;
+import static org.forgerock.openidm.repo.QueryConstants.RESOURCE_NAME;
+import static org.forgerock.openidm.repo.QueryConstants.SORT_KEYS;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.resource.QueryFilters;
+import org.forgerock.json.resource.SortKey;
+import org.forgerock.openidm.repo.jdbc.TableHandler;
+import org.forgerock.util.query.QueryFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the rendering of query filters to SQL by the table handlers, for a generic and an explicit table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryFilterRenderBenchmark {
+
+    /** The resource, of a generic or an explicit table */
+    @Param({ RepoFixture.GENERIC_RESOURCE, RepoFixture.EXPLICIT_RESOURCE })
+    public String resource;
+
+    /** The query filter */
+    @Param({
+            "userName eq \"bjensen\"",
+            "userName sw \"bj\" and accountStatus eq \"active\"",
+            "(givenName co \"bar\" or sn co \"bar\" or mail co \"bar\") and !(accountStatus eq \"inactive\")"
+    })
+    public String queryFilter;
+
+    private RepoFixture fixture;
+    private TableHandler tableHandler;
+    private QueryFilter<JsonPointer> filter;
+    private Map<String, Object> params;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = new RepoFixture();
+        tableHandler = fixture.repo.getTableHandler(resource);
+        filter = QueryFilters.parse(queryFilter);
+        params = new HashMap<>();
+        params.put(RESOURCE_NAME, resource);
+        params.put(PAGED_RESULTS_OFFSET, "0");
+        params.put(PAGE_SIZE, String.valueOf(RepoBenchmark.PAGE_SIZE));
+        params.put(SORT_KEYS, Collections.singletonList(SortKey.ascendingOrder("sn")));
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.shutdown();
+    }
+
+    @Benchmark
+    public String renderQueryFilter() {
+        return tableHandler.renderQueryFilter(filter, new HashMap<String, Object>(), params);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.repo.jdbc.impl;
+
+import static org.forgerock.json.resource.Requests.newCreateRequest;
+import static org.forgerock.json.resource.Requests.newQueryRequest;
+import static org.forgerock.json.resource.Requests.newReadRequest;
+import static org.forgerock.json.resource.Requests.newUpdateRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.PatchOperation;
+import org.forgerock.json.resource.QueryFilters;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.json.resource.SortKey;
+import org.forgerock.openidm.patch.JsonValuePatch;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.util.query.QueryFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the CRUD operations and queries of the JDBC repository, for the objects of one of its resources. The
+ * throughput and the distribution of the latency of each operation are measured.
+ * <p>
+ * The repository is loaded with {@value #SIZE} objects before the measurements. The objects are created, updated and
+ * patched with their current revision, from a single thread: running the benchmarks with several threads would have
+ * them conflict on the revisions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class RepoBenchmark {
+
+    static final int SIZE = 1000;
+    static final int PAGE_SIZE = 50;
+
+    private static final List<PatchOperation> PATCH = Collections.singletonList(
+            PatchOperation.replace("description", "Patched description"));
+
+    private RepoFixture fixture;
+    private String resource;
+    private final String[] revisions = new String[SIZE];
+    private final JsonValue[] objects = new JsonValue[SIZE];
+    private int next;
+    private int created;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = new RepoFixture();
+        resource = getResource();
+        for (int i = 0; i < SIZE; i++) {
+            objects[i] = newObject(i);
+            revisions[i] = fixture.repo.create(newCreateRequest(resource, id(i), objects[i].copy())).getRevision();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.shutdown();
+    }
+
+    /**
+     * Returns the resource of the objects.
+     *
+     * @return the resource path of the objects, without their id
+     */
+    abstract String getResource();
+
+    /**
+     * Returns a new object, with a unique {@code userName}.
+     *
+     * @param i the index of the object
+     * @return the object, without its id
+     */
+    abstract JsonValue newObject(int i);
+
+    @Benchmark
+    public ResourceResponse create() throws Exception {
+        final int i = created++;
+        return fixture.repo.create(newCreateRequest(resource, "created-" + i, newObject(SIZE + i)));
+    }
+
+    @Benchmark
+    public ResourceResponse read() throws Exception {
+        return fixture.repo.read(newReadRequest(resource, id(next())));
+    }
+
+    @Benchmark
+    public ResourceResponse update() throws Exception {
+        final int i = next();
+        final ResourceResponse response = fixture.repo.update(
+                newUpdateRequest(resource, id(i), objects[i].copy()).setRevision(revisions[i]));
+        revisions[i] = response.getRevision();
+        return response;
+    }
+
+    /**
+     * Patches an object as the managed objects do, as the repository does not support patch requests: the object is
+     * read, patched, then updated with the revision it was read with.
+     */
+    @Benchmark
+    public ResourceResponse patch() throws Exception {
+        final int i = next();
+        final ResourceResponse current = fixture.repo.read(newReadRequest(resource, id(i)));
+        final JsonValue content = current.getContent().copy();
+        JsonValuePatch.apply(content, PATCH);
+        final ResourceResponse response = fixture.repo.update(
+                newUpdateRequest(resource, id(i), content).setRevision(current.getRevision()));
+        revisions[i] = response.getRevision();
+        return response;
+    }
+
+    /**
+     * Queries an object by the value of one of its properties.
+     */
+    @Benchmark
+    public List<ResourceResponse> queryFilter() throws Exception {
+        final QueryRequest request = newQueryRequest(resource)
+                .setQueryFilter(QueryFilters.parse("userName eq \"user." + next() + "\""));
+        return fixture.repo.query(request);
+    }
+
+    /**
+     * Queries a page of the objects, sorted by one of their properties, as the admin UI does.
+     */
+    @Benchmark
+    public List<ResourceResponse> pagedQuery() throws Exception {
+        final QueryRequest request = newQueryRequest(resource)
+                .setQueryFilter(QueryFilter.<JsonPointer>alwaysTrue())
+                .setPageSize(PAGE_SIZE)
+                .setPagedResultsOffset((next() % (SIZE / PAGE_SIZE)) * PAGE_SIZE)
+                .addSortKey(SortKey.ascendingOrder("userName"));
+        final List<ResourceResponse> results = new ArrayList<>(PAGE_SIZE);
+        fixture.repo.handleQuery(new RootContext(), request,
+                new QueryResourceHandler() {
+                    @Override
+                    public boolean handleResource(ResourceResponse resource) {
+                        results.add(resource);
+                        return true;
+                    }
+                }).getOrThrow();
+        return results;
+    }
+
+    private int next() {
+        final int i = next;
+        next = (next + 1) % SIZE;
+        return i;
+    }
+
+    private static String id(int i) {
+        return "object-" + i;
+    }
+}
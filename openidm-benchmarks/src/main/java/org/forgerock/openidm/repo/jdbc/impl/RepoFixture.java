@@ -0,0 +1,91 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.repo.jdbc.impl;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.openidm.datasource.DataSourceService;
+import org.forgerock.openidm.util.JsonUtil;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.h2.tools.RunScript;
+
+/**
+ * A JDBC repository on a new in-memory H2 database, with the generic and explicit tables of the shipped schema.
+ * <p>
+ * Generic objects are stored under {@code managed/object}, in the {@code managedobjects} table, and explicit ones
+ * under {@code managed/user}, in the {@code managed_user} table.
+ */
+final class RepoFixture implements DataSourceService {
+
+    static final String GENERIC_RESOURCE = "managed/object";
+    static final String EXPLICIT_RESOURCE = "managed/user";
+
+    private static final String SCHEMA = "openidm";
+    private static final AtomicInteger DATABASE_COUNT = new AtomicInteger();
+
+    private final JdbcConnectionPool connectionPool;
+    final JDBCRepoService repo;
+
+    /**
+     * Creates the database and its tables, then starts the repository on it.
+     *
+     * @throws Exception if the database could not be created
+     */
+    RepoFixture() throws Exception {
+        connectionPool = JdbcConnectionPool.create(
+                "jdbc:h2:mem:openidm" + DATABASE_COUNT.incrementAndGet() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = connectionPool.getConnection();
+                Reader schema = new InputStreamReader(
+                        RepoFixture.class.getResourceAsStream("/repo/openidm-h2.sql"), StandardCharsets.UTF_8)) {
+            RunScript.execute(connection, schema);
+        }
+        final JsonValue config = JsonUtil.parseURL(RepoFixture.class.getResource("/repo/repo.jdbc-h2.json"));
+        repo = (JDBCRepoService) JDBCRepoService.getRepoBootService(null, this, config);
+    }
+
+    @Override
+    public String getDatabaseName() {
+        return SCHEMA;
+    }
+
+    @Override
+    public DataSource getDataSource() {
+        return connectionPool;
+    }
+
+    /**
+     * Drops the database.
+     */
+    @Override
+    public void shutdown() {
+        try (Connection connection = connectionPool.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        } catch (SQLException e) {
+            // the database is then only dropped with the benchmark process
+        }
+        connectionPool.dispose();
+    }
+}
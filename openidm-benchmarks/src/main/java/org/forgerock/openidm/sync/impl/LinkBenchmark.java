@@ -0,0 +1,82 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.sync.impl;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.openidm.sync.ReconContext;
+import org.forgerock.services.context.RootContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the link lookups of a mapping: the lookup of the link of a single source, as made for each source
+ * object which is synchronized, and the lookup of all the links of the mapping, as made before a reconciliation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkBenchmark {
+
+    /** The number of links of the mapping */
+    @Param({ "100", "1000" })
+    public int size;
+
+    private MappingFixture fixture;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = new MappingFixture(MappingFixture.mappingConfig(false));
+        fixture.createTargets(size, true);
+    }
+
+    @Benchmark
+    public Link linkForSource() throws Exception {
+        ObjectSetContext.push(new ReconContext(new RootContext(), MappingFixture.MAPPING_NAME));
+        try {
+            final Link link = new Link(fixture.mapping);
+            link.setLinkQualifier(Link.DEFAULT_LINK_QUALIFIER);
+            link.getLinkForSource(String.valueOf(next++ % size));
+            return link;
+        } finally {
+            ObjectSetContext.pop();
+        }
+    }
+
+    @Benchmark
+    public Map<String, Link> linksForMapping() throws Exception {
+        ObjectSetContext.push(new ReconContext(new RootContext(), MappingFixture.MAPPING_NAME));
+        try {
+            return Link.getLinksForMapping(fixture.mapping, Link.DEFAULT_LINK_QUALIFIER);
+        } finally {
+            ObjectSetContext.pop();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.sync.impl;
+
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Requests.newCreateRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.Connection;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.openidm.benchmarks.BenchmarkEnvironment;
+import org.forgerock.openidm.benchmarks.InMemoryConnectionFactory;
+import org.forgerock.services.context.RootContext;
+
+/**
+ * A mapping between two in-memory systems, with a link table of its own, to benchmark the sync and recon code
+ * against.
+ * <p>
+ * The source objects have six attributes, which are all mapped to the target. The mapping has no onRecon script and a
+ * default mapping which behaves like the shipped {@code roles/defaultMapping.js} for objects without assignments.
+ */
+final class MappingFixture {
+
+    static final String MAPPING_NAME = "sourceAccount_targetAccount";
+    static final String SOURCE = "system/source/account";
+    static final String TARGET = "system/target/account";
+    static final String LINKS = "repo/link";
+
+    private static final String JAVASCRIPT = "text/javascript";
+
+    /** The source attribute and the target attribute of each property mapping */
+    private static final String[][] PROPERTIES = {
+            { "userName", "userName" },
+            { "givenName", "firstName" },
+            { "sn", "lastName" },
+            { "mail", "email" },
+            { "telephoneNumber", "phoneNumber" },
+            { "description", "description" }
+    };
+
+    final InMemoryConnectionFactory connectionFactory;
+    final ObjectMapping mapping;
+    final ReconciliationService reconciliationService;
+
+    /**
+     * Creates the systems, the link table and the mapping.
+     *
+     * @param mappingConfig the configuration of the mapping, see {@link #mappingConfig(boolean)}
+     */
+    MappingFixture(JsonValue mappingConfig) {
+        BenchmarkEnvironment.init();
+        connectionFactory = new InMemoryConnectionFactory();
+        connectionFactory.addBackend(SOURCE);
+        connectionFactory.addBackend(TARGET);
+        connectionFactory.addBackend(LINKS);
+        connectionFactory.addDiscardingRoute("audit/recon");
+        connectionFactory.addDiscardingRoute("audit/sync");
+        connectionFactory.addDiscardingRoute("audit/activity");
+        mapping = new ObjectMapping(connectionFactory, mappingConfig);
+        mapping.initRelationships(Collections.singletonList(mapping));
+        reconciliationService = new ReconciliationService();
+        reconciliationService.bindConnectionFactory(connectionFactory);
+    }
+
+    /**
+     * Returns the configuration of the mapping. The source and target queries return the full objects, as a
+     * connector or the repository would for a query filter.
+     *
+     * @param scriptTransforms whether the properties are mapped by transform scripts rather than by copy
+     * @return the configuration of the mapping
+     */
+    static JsonValue mappingConfig(boolean scriptTransforms) {
+        final List<Object> properties = new ArrayList<>();
+        for (String[] property : PROPERTIES) {
+            final JsonValue propertyMapping = json(object(
+                    field("source", property[0]),
+                    field("target", property[1])));
+            if (scriptTransforms) {
+                propertyMapping.put("transform", object(
+                        field("type", JAVASCRIPT),
+                        field("source", "source != null ? String(source).trim() : null;")));
+            }
+            properties.add(propertyMapping.getObject());
+        }
+        return json(object(
+                field("name", MAPPING_NAME),
+                field("source", SOURCE),
+                field("target", TARGET),
+                field("onRecon", object(field("type", JAVASCRIPT), field("source", "null;"))),
+                field("defaultMapping", object(field("type", JAVASCRIPT), field("source", "({ result : true });"))),
+                field("sourceQuery", object(field("queryFilter", "true"))),
+                field("targetQuery", object(field("queryFilter", "true"))),
+                field("correlationQuery", object(
+                        field("type", JAVASCRIPT),
+                        field("source", "({ _queryFilter : 'userName eq \"' + source.userName + '\"' });"))),
+                field("properties", properties),
+                field("policies", array(
+                        object(field("situation", "CONFIRMED"), field("action", "UPDATE")),
+                        object(field("situation", "FOUND"), field("action", "LINK")),
+                        object(field("situation", "ABSENT"), field("action", "CREATE")),
+                        object(field("situation", "MISSING"), field("action", "CREATE")),
+                        object(field("situation", "SOURCE_MISSING"), field("action", "DELETE")),
+                        object(field("situation", "UNQUALIFIED"), field("action", "DELETE")),
+                        object(field("situation", "LINK_ONLY"), field("action", "UNLINK"))))));
+    }
+
+    /**
+     * Creates source objects, with the ids {@code 0} to {@code count - 1}.
+     *
+     * @param count the number of source objects
+     * @throws ResourceException if an object could not be created
+     */
+    void createSources(int count) throws ResourceException {
+        final Connection connection = connectionFactory.getConnection();
+        for (int i = 0; i < count; i++) {
+            connection.create(new RootContext(), newCreateRequest(SOURCE, String.valueOf(i), sourceObject(i)));
+        }
+    }
+
+    /**
+     * Creates the targets of source objects, as the mapping would, optionally linked to their source.
+     *
+     * @param count the number of target objects, with the ids {@code target-0} to {@code target-<count - 1>}
+     * @param linked whether the targets are linked to their source
+     * @throws ResourceException if an object could not be created
+     */
+    void createTargets(int count, boolean linked) throws ResourceException {
+        final Connection connection = connectionFactory.getConnection();
+        for (int i = 0; i < count; i++) {
+            final JsonValue source = sourceObject(i);
+            final JsonValue target = json(object());
+            for (String[] property : PROPERTIES) {
+                target.put(property[1], source.get(property[0]).getObject());
+            }
+            connection.create(new RootContext(), newCreateRequest(TARGET, "target-" + i, target));
+            if (linked) {
+                connection.create(new RootContext(), newCreateRequest(LINKS, "link-" + i, json(object(
+                        field("linkType", MAPPING_NAME),
+                        field("linkQualifier", Link.DEFAULT_LINK_QUALIFIER),
+                        field("firstId", String.valueOf(i)),
+                        field("secondId", "target-" + i)))));
+            }
+        }
+    }
+
+    /**
+     * Returns a source object.
+     *
+     * @param i the index of the object
+     * @return the source object, without its id
+     */
+    static JsonValue sourceObject(int i) {
+        return json(object(
+                field("userName", "user." + i),
+                field("givenName", "Given" + i),
+                field("sn", "Surname" + i),
+                field("mail", "user." + i + "@example.com"),
+                field("telephoneNumber", "+1 408 555 " + String.format("%04d", i % 10000)),
+                field("description", "Benchmark user number " + i)));
+    }
+}
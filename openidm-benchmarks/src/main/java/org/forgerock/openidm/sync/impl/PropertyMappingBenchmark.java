@@ -0,0 +1,80 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.sync.impl;
+
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.openidm.sync.PropertyMapping;
+import org.forgerock.openidm.sync.SyncContext;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the property mappings of a mapping, applied to a new target as the sync operation does, with the
+ * properties either copied or mapped by transform scripts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyMappingBenchmark {
+
+    /** Whether the properties are mapped by transform scripts rather than copied */
+    @Param({ "false", "true" })
+    public boolean scriptTransforms;
+
+    private final List<PropertyMapping> properties = new ArrayList<>();
+    private Context context;
+    private JsonValue source;
+
+    @Setup
+    public void setUp() throws Exception {
+        final MappingFixture fixture = new MappingFixture(MappingFixture.mappingConfig(scriptTransforms));
+        for (JsonValue property : fixture.mapping.getConfig().get("properties")) {
+            properties.add(new PropertyMapping(property));
+        }
+        context = new SyncContext(new RootContext(), MappingFixture.MAPPING_NAME);
+        source = MappingFixture.sourceObject(42);
+    }
+
+    @Benchmark
+    public JsonValue applyMappings() throws Exception {
+        final JsonValue target = json(object());
+        for (PropertyMapping property : properties) {
+            property.apply(source, null, target, null, Link.DEFAULT_LINK_QUALIFIER, context);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.sync.impl;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.openidm.sync.ReconContext;
+import org.forgerock.services.context.RootContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a full reconciliation between two in-memory systems, from the source and target queries to the
+ * situation assessment, the property mappings and the resulting actions.
+ * <p>
+ * Without links the reconciliation creates all the targets, and the systems are therefore rebuilt before each
+ * reconciliation. With links each source is confirmed and its target updated, which leaves the systems unchanged.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReconBenchmark {
+
+    /** The number of source objects */
+    @Param({ "100", "1000" })
+    public int size;
+
+    /** Whether the sources are already linked to their target */
+    @Param({ "true", "false" })
+    public boolean linked;
+
+    /** The number of threads processing the source entries, 0 to process them on the calling thread */
+    @Param({ "0", "10" })
+    public int taskThreads;
+
+    /** Whether the source query returns full entries, rather than ids which are then read one by one */
+    @Param({ "true", "false" })
+    public boolean sourceQueryFullEntry;
+
+    private MappingFixture fixture;
+    private JsonValue overridingConfig;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws Exception {
+        overridingConfig = json(object(field("sourceQueryFullEntry", sourceQueryFullEntry)));
+        if (linked) {
+            fixture = newFixture();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() throws Exception {
+        if (!linked) {
+            fixture = newFixture();
+        }
+    }
+
+    @Benchmark
+    public ReconciliationContext recon() throws Exception {
+        ObjectSetContext.push(new ReconContext(new RootContext(), MappingFixture.MAPPING_NAME));
+        try {
+            final ReconciliationContext reconContext = new ReconciliationContext(
+                    ReconciliationService.ReconAction.recon, fixture.mapping, ObjectSetContext.get(),
+                    json(object()), overridingConfig, fixture.reconciliationService);
+            fixture.mapping.recon(reconContext);
+            return reconContext;
+        } finally {
+            ObjectSetContext.pop();
+        }
+    }
+
+    private MappingFixture newFixture() throws Exception {
+        final JsonValue config = MappingFixture.mappingConfig(false);
+        config.put("taskThreads", taskThreads);
+        final MappingFixture newFixture = new MappingFixture(config);
+        newFixture.createSources(size);
+        if (linked) {
+            newFixture.createTargets(size, true);
+        }
+        return newFixture;
+    }
+}
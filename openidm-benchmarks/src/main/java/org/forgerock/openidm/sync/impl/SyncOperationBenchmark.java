@@ -0,0 +1,83 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.sync.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.openidm.sync.ReconContext;
+import org.forgerock.services.context.RootContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the assessment of the situation of a source object, which looks up its link, reads its target and, if
+ * it is not linked, correlates it with the targets.
+ * <p>
+ * The situations are {@code CONFIRMED} for a linked source, {@code FOUND} for a source which correlates with an
+ * unlinked target and {@code ABSENT} for a source without any target.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SyncOperationBenchmark {
+
+    private static final int SIZE = 1000;
+
+    /** The situation of the source objects */
+    @Param({ "CONFIRMED", "FOUND", "ABSENT" })
+    public String situation;
+
+    private MappingFixture fixture;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        final Situation expected = Situation.valueOf(situation);
+        fixture = new MappingFixture(MappingFixture.mappingConfig(false));
+        fixture.createSources(SIZE);
+        if (expected != Situation.ABSENT) {
+            fixture.createTargets(SIZE, expected == Situation.CONFIRMED);
+        }
+    }
+
+    @Benchmark
+    public String assessSituation() throws Exception {
+        final int i = next++ % SIZE;
+        ObjectSetContext.push(new ReconContext(new RootContext(), MappingFixture.MAPPING_NAME));
+        try {
+            final SourceSyncOperation op = new SourceSyncOperation(fixture.mapping, ObjectSetContext.get());
+            op.setLinkQualifier(Link.DEFAULT_LINK_QUALIFIER);
+            op.sourceObjectAccessor = new LazyObjectAccessor(fixture.connectionFactory, MappingFixture.SOURCE,
+                    String.valueOf(i), MappingFixture.sourceObject(i));
+            op.assessSituation();
+            return op.situation.name();
+        } finally {
+            ObjectSetContext.pop();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+-- The generic and explicit tables of the shipped MySQL schema, db/mysql/scripts/openidm.sql and
+-- db/mysql/scripts/sample-explicit-managed-user.sql, in H2 syntax
+
+CREATE SCHEMA IF NOT EXISTS openidm;
+
+-- -----------------------------------------------------
+-- Table openidm.objecttypes
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS openidm.objecttypes (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  objecttype VARCHAR(255) NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT idx_objecttypes_objecttype UNIQUE (objecttype)
+);
+
+-- -----------------------------------------------------
+-- Table openidm.genericobjects
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS openidm.genericobjects (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  objecttypes_id BIGINT NOT NULL,
+  objectid VARCHAR(255) NOT NULL,
+  rev VARCHAR(38) NOT NULL,
+  fullobject CLOB NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT idx_genericobjects_object UNIQUE (objecttypes_id, objectid),
+  CONSTRAINT fk_genericobjects_objecttypes FOREIGN KEY (objecttypes_id)
+    REFERENCES openidm.objecttypes (id) ON DELETE CASCADE ON UPDATE NO ACTION
+);
+CREATE INDEX IF NOT EXISTS fk_genericobjects_objecttypes ON openidm.genericobjects (objecttypes_id);
+
+-- -----------------------------------------------------
+-- Table openidm.genericobjectproperties
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS openidm.genericobjectproperties (
+  genericobjects_id BIGINT NOT NULL,
+  propkey VARCHAR(255) NOT NULL,
+  proptype VARCHAR(32) NULL,
+  propvalue VARCHAR(2000) NULL,
+  CONSTRAINT fk_genericobjectproperties_genericobjects FOREIGN KEY (genericobjects_id)
+    REFERENCES openidm.genericobjects (id) ON DELETE CASCADE ON UPDATE NO ACTION
+);
+CREATE INDEX IF NOT EXISTS fk_genericobjectproperties_genericobjects ON openidm.genericobjectproperties (genericobjects_id);
+CREATE INDEX IF NOT EXISTS idx_genericobjectproperties_propkey ON openidm.genericobjectproperties (propkey);
+CREATE INDEX IF NOT EXISTS idx_genericobjectproperties_propvalue ON openidm.genericobjectproperties (propvalue);
+
+-- -----------------------------------------------------
+-- Table openidm.managedobjects
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS openidm.managedobjects (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  objecttypes_id BIGINT NOT NULL,
+  objectid VARCHAR(255) NOT NULL,
+  rev VARCHAR(38) NOT NULL,
+  fullobject CLOB NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT idx_managedobjects_object UNIQUE (objecttypes_id, objectid),
+  CONSTRAINT fk_managedobjects_objectypes FOREIGN KEY (objecttypes_id)
+    REFERENCES openidm.objecttypes (id) ON DELETE CASCADE ON UPDATE NO ACTION
+);
+CREATE INDEX IF NOT EXISTS fk_managedobjects_objectypes ON openidm.managedobjects (objecttypes_id);
+
+-- -----------------------------------------------------
+-- Table openidm.managedobjectproperties
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS openidm.managedobjectproperties (
+  managedobjects_id BIGINT NOT NULL,
+  propkey VARCHAR(255) NOT NULL,
+  proptype VARCHAR(32) NULL,
+  propvalue VARCHAR(2000) NULL,
+  CONSTRAINT fk_managedobjectproperties_managedobjects FOREIGN KEY (managedobjects_id)
+    REFERENCES openidm.managedobjects (id) ON DELETE CASCADE ON UPDATE NO ACTION
+);
+CREATE INDEX IF NOT EXISTS fk_managedobjectproperties_managedobjects ON openidm.managedobjectproperties (managedobjects_id);
+CREATE INDEX IF NOT EXISTS idx_managedobjectproperties_propkey ON openidm.managedobjectproperties (propkey);
+CREATE INDEX IF NOT EXISTS idx_managedobjectproperties_propvalue ON openidm.managedobjectproperties (propvalue);
+
+-- -----------------------------------------------------
+-- Table openidm.configobjects
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS openidm.configobjects (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  objecttypes_id BIGINT NOT NULL,
+  objectid VARCHAR(255) NOT NULL,
+  rev VARCHAR(38) NOT NULL,
+  fullobject CLOB NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT idx_configobjects_object UNIQUE (objecttypes_id, objectid),
+  CONSTRAINT fk_configobjects_objecttypes FOREIGN KEY (objecttypes_id)
+    REFERENCES openidm.objecttypes (id) ON DELETE CASCADE ON UPDATE NO ACTION
+);
+
+-- -----------------------------------------------------
+-- Table openidm.configobjectproperties
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS openidm.configobjectproperties (
+  configobjects_id BIGINT NOT NULL,
+  propkey VARCHAR(255) NOT NULL,
+  proptype VARCHAR(255) NULL,
+  propvalue VARCHAR(2000) NULL,
+  CONSTRAINT fk_configobjectproperties_configobjects FOREIGN KEY (configobjects_id)
+    REFERENCES openidm.configobjects (id) ON DELETE CASCADE ON UPDATE NO ACTION
+);
+
+-- -----------------------------------------------------
+-- Table openidm.managed_user
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS openidm.managed_user (
+  objectid VARCHAR(38) NOT NULL,
+  rev VARCHAR(38) NOT NULL,
+  userName VARCHAR(255),
+  password VARCHAR(255),
+  accountStatus VARCHAR(255),
+  postalCode VARCHAR(255),
+  stateProvince VARCHAR(255),
+  postalAddress VARCHAR(255),
+  address2 VARCHAR(255),
+  country VARCHAR(255),
+  city VARCHAR(255),
+  givenName VARCHAR(255),
+  description VARCHAR(255),
+  sn VARCHAR(255),
+  telephoneNumber VARCHAR(255),
+  mail VARCHAR(255),
+  kbaInfo CLOB,
+  lastSync CLOB,
+  preferences CLOB,
+  idpData CLOB,
+  PRIMARY KEY (objectid),
+  CONSTRAINT idx_managed_user_userName UNIQUE (userName)
+);
+CREATE INDEX IF NOT EXISTS idx_managed_user_givenName ON openidm.managed_user (givenName);
+CREATE INDEX IF NOT EXISTS idx_managed_user_sn ON openidm.managed_user (sn);
+CREATE INDEX IF NOT EXISTS idx_managed_user_mail ON openidm.managed_user (mail);
+CREATE INDEX IF NOT EXISTS idx_managed_user_accountStatus ON openidm.managed_user (accountStatus);
@@ -2,6 +2,7 @@
 * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
 *
 * Copyright (c) 2013-2015 ForgeRock AS. All Rights Reserved
+* Portions Copyright 2026 Wren Security.
 *
 * The contents of this file are subject to the terms
 * of the Common Development and Distribution License
@@ -24,6 +25,8 @@
 */
 package org.forgerock.openidm.cluster;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 import org.forgerock.json.JsonValue;
@@ -41,6 +44,13 @@ public class ClusterConfig {
     private final static String INSTANCE_CHECK_IN_INTERVAL = "instanceCheckInInterval";
     private final static String INSTANCE_CHECK_IN_OFFSET = "instanceCheckInOffset";
     private final static String ENABLED = "enabled";
+
+    // Event bus objects
+    private final static String EVENT_BUS = "eventBus";
+    private final static String EVENT_BUS_PORT = "port";
+    private final static String EVENT_BUS_GROUP = "group";
+    private final static String EVENT_BUS_PEERS = "peers";
+    private final static String EVENT_POLL_INTERVAL = "eventPollInterval";
     
     private String instanceId = "instance0";
     private long instanceTimeout = 30000;
@@ -48,6 +58,11 @@ public class ClusterConfig {
     private long instanceCheckInInterval = 5000;
     private long instanceCheckInOffset = 0;
     private boolean enabled = true;
+    private boolean eventBusEnabled = false;
+    private int eventBusPort = 7800;
+    private String eventBusGroup = null;
+    private List<String> eventBusPeers = new ArrayList<>();
+    private long eventPollInterval = 60000;
     
     public ClusterConfig(JsonValue config) {
         if (!config.isNull()) {
@@ -77,6 +92,35 @@ public class ClusterConfig {
             } else if (!value.isNull() && value.isString()) {
                 setEnabled(Boolean.parseBoolean(value.asString()));
             }
+            JsonValue eventBus = config.get(EVENT_BUS);
+            if (eventBus.isMap()) {
+                value = eventBus.get(ENABLED);
+                if (!value.isNull()) {
+                    setEventBusEnabled(Boolean.parseBoolean(value.getObject().toString()));
+                }
+                value = eventBus.get(EVENT_BUS_PORT);
+                if (!value.isNull()) {
+                    setEventBusPort(Integer.parseInt(value.getObject().toString()));
+                }
+                value = eventBus.get(EVENT_BUS_GROUP);
+                if (!value.isNull() && !value.asString().isEmpty()) {
+                    setEventBusGroup(value.asString());
+                }
+                value = eventBus.get(EVENT_BUS_PEERS);
+                if (value.isList()) {
+                    setEventBusPeers(value.asList(String.class));
+                } else if (value.isString() && !value.asString().isEmpty()) {
+                    List<String> peers = new ArrayList<>();
+                    for (String peer : value.asString().split(",")) {
+                        peers.add(peer.trim());
+                    }
+                    setEventBusPeers(peers);
+                }
+                value = eventBus.get(EVENT_POLL_INTERVAL);
+                if (!value.isNull()) {
+                    setEventPollInterval(Long.parseLong(value.getObject().toString()));
+                }
+            }
         }
     }
     
@@ -137,4 +181,66 @@ public class ClusterConfig {
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
+
+    /**
+     * Returns whether cluster events are pushed to the other instances over the event bus, in addition to being
+     * stored in the repository.
+     *
+     * @return true if the event bus is enabled
+     */
+    public boolean isEventBusEnabled() {
+        return eventBusEnabled;
+    }
+
+    public void setEventBusEnabled(boolean eventBusEnabled) {
+        this.eventBusEnabled = eventBusEnabled;
+    }
+
+    public int getEventBusPort() {
+        return eventBusPort;
+    }
+
+    public void setEventBusPort(int eventBusPort) {
+        this.eventBusPort = eventBusPort;
+    }
+
+    /**
+     * Returns the multicast group of the event bus.
+     *
+     * @return the multicast group, or null if the events are pushed to the peers
+     */
+    public String getEventBusGroup() {
+        return eventBusGroup;
+    }
+
+    public void setEventBusGroup(String eventBusGroup) {
+        this.eventBusGroup = eventBusGroup;
+    }
+
+    /**
+     * Returns the host:port addresses of the other instances, to push the events to when no multicast group is
+     * configured.
+     *
+     * @return the peer addresses
+     */
+    public List<String> getEventBusPeers() {
+        return eventBusPeers;
+    }
+
+    public void setEventBusPeers(List<String> eventBusPeers) {
+        this.eventBusPeers = eventBusPeers;
+    }
+
+    /**
+     * Returns the interval at which the repository is polled for cluster events when the event bus is enabled.
+     *
+     * @return the interval in milliseconds
+     */
+    public long getEventPollInterval() {
+        return eventPollInterval;
+    }
+
+    public void setEventPollInterval(long eventPollInterval) {
+        this.eventPollInterval = eventPollInterval;
+    }
 }
@@ -0,0 +1,196 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.cluster;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A lightweight UDP bus which notifies the other instances of the cluster as soon as a cluster event has been
+ * stored for them in the repository, so that they do not have to wait for their next poll of the repository to
+ * process it.
+ * <p>
+ * Only the id of the target instance and the id of the stored event are sent: the receiving instance reads the event
+ * itself from the repository, which remains the source of truth. A lost or forged notification therefore costs at
+ * most a read, and an event whose notification is lost is still processed by the slower repository poll.
+ * <p>
+ * Notifications are sent to a multicast group, or to a list of peer addresses where multicast is not available.
+ */
+class ClusterEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterEventBus.class);
+
+    /** The prefix of the notifications, which tells them from stray datagrams */
+    private static final String MAGIC = "OpenIDM-cluster-event";
+    private static final String SEPARATOR = "\n";
+    private static final int MAX_PACKET_SIZE = 1024;
+
+    /**
+     * Receives the notifications of the bus.
+     */
+    interface Receiver {
+
+        /**
+         * Called when an event has been stored for an instance.
+         *
+         * @param instanceId the id of the instance the event is for
+         * @param eventId the id of the event in the repository
+         */
+        void eventStored(String instanceId, String eventId);
+    }
+
+    private final int port;
+    private final InetAddress group;
+    private final List<InetSocketAddress> peers;
+    private final Receiver receiver;
+
+    private volatile DatagramSocket socket;
+    private Thread receiverThread;
+
+    /**
+     * Constructs a bus.
+     *
+     * @param port the port to receive notifications on, and to send them to with a multicast group
+     * @param group the multicast group to join, or {@code null} to send the notifications to the peers
+     * @param peers the addresses of the other instances, when no multicast group is used
+     * @param receiver the receiver of the notifications
+     */
+    ClusterEventBus(int port, InetAddress group, List<InetSocketAddress> peers, Receiver receiver) {
+        this.port = port;
+        this.group = group;
+        this.peers = new ArrayList<>(peers);
+        this.receiver = receiver;
+    }
+
+    /**
+     * Opens the socket of the bus and starts receiving notifications.
+     *
+     * @throws IOException if the socket cannot be opened
+     */
+    synchronized void start() throws IOException {
+        if (socket != null) {
+            return;
+        }
+        final DatagramSocket datagramSocket;
+        if (group != null) {
+            final MulticastSocket multicastSocket = new MulticastSocket(port);
+            multicastSocket.joinGroup(group);
+            datagramSocket = multicastSocket;
+        } else {
+            datagramSocket = new DatagramSocket(port);
+        }
+        socket = datagramSocket;
+        receiverThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                receive(datagramSocket);
+            }
+        }, "OpenIDM Cluster Event Bus");
+        receiverThread.setDaemon(true);
+        receiverThread.start();
+        logger.info("Cluster event bus listening on port {}", datagramSocket.getLocalPort());
+    }
+
+    /**
+     * Stops receiving notifications and closes the socket of the bus.
+     */
+    synchronized void stop() {
+        if (socket == null) {
+            return;
+        }
+        socket.close();
+        socket = null;
+        receiverThread = null;
+    }
+
+    /**
+     * Returns the local port of the bus.
+     *
+     * @return the local port, or -1 if the bus is not started
+     */
+    int getLocalPort() {
+        final DatagramSocket current = socket;
+        return current != null ? current.getLocalPort() : -1;
+    }
+
+    /**
+     * Notifies the other instances that an event has been stored. Failures are only logged, as the event will be
+     * processed by the repository poll anyway.
+     *
+     * @param instanceId the id of the instance the event is for
+     * @param eventId the id of the event in the repository
+     */
+    void publish(String instanceId, String eventId) {
+        final DatagramSocket current = socket;
+        if (current == null) {
+            return;
+        }
+        final byte[] data = (MAGIC + SEPARATOR + instanceId + SEPARATOR + eventId).getBytes(StandardCharsets.UTF_8);
+        if (data.length > MAX_PACKET_SIZE) {
+            logger.debug("Cluster event {} is not published, its notification is too large", eventId);
+            return;
+        }
+        try {
+            if (group != null) {
+                current.send(new DatagramPacket(data, data.length, group, port));
+            } else {
+                for (InetSocketAddress peer : peers) {
+                    current.send(new DatagramPacket(data, data.length, peer));
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to publish cluster event {}", eventId, e);
+        }
+    }
+
+    private void receive(DatagramSocket datagramSocket) {
+        final byte[] buffer = new byte[MAX_PACKET_SIZE];
+        while (!datagramSocket.isClosed()) {
+            final DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                datagramSocket.receive(packet);
+            } catch (SocketException e) {
+                // the socket was closed
+                break;
+            } catch (IOException e) {
+                logger.debug("Failed to receive cluster event notification", e);
+                continue;
+            }
+            final String[] message = new String(packet.getData(), packet.getOffset(), packet.getLength(),
+                    StandardCharsets.UTF_8).split(SEPARATOR);
+            if (message.length != 3 || !MAGIC.equals(message[0])) {
+                logger.debug("Ignoring unexpected datagram from {}", packet.getSocketAddress());
+                continue;
+            }
+            try {
+                receiver.eventStored(message[1], message[2]);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to handle cluster event notification", e);
+            }
+        }
+    }
+}
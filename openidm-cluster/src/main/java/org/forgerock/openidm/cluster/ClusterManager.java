@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Portions copyright 2013-2016 ForgeRock AS.
+ * Portions copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.cluster;
 
@@ -21,6 +22,10 @@ import static org.forgerock.json.resource.Responses.newResourceResponse;
 import static org.forgerock.openidm.core.IdentityServer.NODE_ID;
 import static org.forgerock.openidm.util.ResourceUtil.notSupported;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -174,6 +179,16 @@ public class ClusterManager implements RequestHandler, ClusterManagementService
      */
     private boolean enabled = false;
 
+    /**
+     * The bus pushing cluster events to the other instances, or null if events are only polled from the repository
+     */
+    private ClusterEventBus eventBus = null;
+
+    /**
+     * The time of the last poll of the repository for pending cluster events
+     */
+    private long lastEventPoll = 0;
+
     @Activate
     void activate(ComponentContext compContext) throws ParseException {
         logger.debug("Activating Cluster Management Service with configuration {}", compContext.getProperties());
@@ -199,6 +214,46 @@ public class ClusterManager implements RequestHandler, ClusterManagementService
             enabled = true;
             clusterManagerThread = new ClusterManagerThread(clusterConfig.getInstanceCheckInInterval(), 
             		clusterConfig.getInstanceCheckInOffset());
+            if (clusterConfig.isEventBusEnabled()) {
+                eventBus = createEventBus(clusterConfig);
+            }
+        }
+    }
+
+    /**
+     * Creates the bus pushing cluster events to the other instances.
+     *
+     * @param config the cluster configuration
+     * @return the event bus
+     */
+    private ClusterEventBus createEventBus(ClusterConfig config) {
+        try {
+            InetAddress group = config.getEventBusGroup() != null
+                    ? InetAddress.getByName(config.getEventBusGroup())
+                    : null;
+            List<InetSocketAddress> peers = new ArrayList<>();
+            for (String peer : config.getEventBusPeers()) {
+                int separator = peer.lastIndexOf(':');
+                peers.add(separator > 0
+                        ? new InetSocketAddress(peer.substring(0, separator),
+                                Integer.parseInt(peer.substring(separator + 1)))
+                        : new InetSocketAddress(peer, config.getEventBusPort()));
+            }
+            return new ClusterEventBus(config.getEventBusPort(), group, peers, new ClusterEventBus.Receiver() {
+                @Override
+                public void eventStored(String targetInstanceId, final String eventId) {
+                    if (instanceId.equals(targetInstanceId)) {
+                        clusterManagerThread.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                processStoredEvent(eventId);
+                            }
+                        });
+                    }
+                }
+            });
+        } catch (UnknownHostException | NumberFormatException e) {
+            throw new IllegalStateException("Invalid cluster event bus configuration", e);
         }
     }
 
@@ -207,6 +262,9 @@ public class ClusterManager implements RequestHandler, ClusterManagementService
         logger.debug("Deactivating Cluster Management Service {}", compContext);
         if (clusterConfig.isEnabled()) {
             clusterManagerThread.shutdown();
+            if (eventBus != null) {
+                eventBus.stop();
+            }
             synchronized (repoLock) {
                 try {
                     InstanceState state = getInstanceState(instanceId);
@@ -237,6 +295,14 @@ public class ClusterManager implements RequestHandler, ClusterManagementService
                 // Start thread
                 logger.info("Starting Cluster Management");
                 clusterManagerThread.startup();
+                if (eventBus != null) {
+                    try {
+                        eventBus.start();
+                    } catch (IOException e) {
+                        // events are still delivered by polling the repository
+                        logger.warn("Failed to start the cluster event bus", e);
+                    }
+                }
             }
         }
     }
@@ -248,6 +314,9 @@ public class ClusterManager implements RequestHandler, ClusterManagementService
                 logger.info("Stopping Cluster Management");
                 // Start thread
                 clusterManagerThread.shutdown();
+                if (eventBus != null) {
+                    eventBus.stop();
+                }
                 checkOut();
             }
         }
@@ -679,6 +748,9 @@ public class ClusterManager implements RequestHandler, ClusterManagementService
                     CreateRequest createRequest = newCreateRequest(EVENTS_RESOURCE_CONTAINER.toString(), newEvent);
                     ResourceResponse result = repoService.create(createRequest);
                     logger.debug("Creating cluster event {}", result.getId());
+                    if (eventBus != null) {
+                        eventBus.publish(instanceId, result.getId());
+                    }
                 }
             }
         } catch (ResourceException e) {
@@ -701,42 +773,73 @@ public class ClusterManager implements RequestHandler, ClusterManagementService
             // Loop through results, processing each event
             for (ResourceResponse resource : results) {
                 logger.debug("Found pending cluster event {}", resource.getId());
-                JsonValue eventMap = resource.getContent().get("event");
-                ClusterEvent event = new ClusterEvent(eventMap);
-                boolean success = false;
-                String listenerId = event.getListenerId();
-                // Check if a listener ID is specified
-                if (listenerId != null) {
-                    // Send the event to the corresponding listener
-                    ClusterEventListener listener = listeners.get(listenerId);
-                    if (listener != null) {
-                        success = listener.handleEvent(event);
-                    } else {
-                        logger.warn("No listener {} available to receive event {}", listenerId, event.toJsonValue());
-                        success = true;
-                    }
-                } else {
-                    // Send event to all listeners
-                    success = sendEventToListeners(event);
-                }
-                // If the event was successfully processed, delete it
-                if (success) {
-                    try {
-                        logger.debug("Deleting cluster event {}", resource.getId());
-                        DeleteRequest deleteRequest = newDeleteRequest(
-                                EVENTS_RESOURCE_CONTAINER.toString(), resource.getId());
-                        deleteRequest.setRevision(resource.getRevision());
-                        repoService.delete(deleteRequest);
-                    } catch (ResourceException e) {
-                        logger.error("Error deleting cluster event " + resource.getId(), e);
-                    }
-                }
+                processEvent(resource);
             }
         } catch (ResourceException e) {
             logger.error("Error processing cluster events", e);
         }
     }
 
+    /**
+     * Processes a cluster event pushed over the event bus.  The event is read from the repository, so that only
+     * events actually stored for this node are processed, and is then deleted if the processing was successful.
+     *
+     * @param eventId the id of the event in the repository
+     */
+    private void processStoredEvent(String eventId) {
+        try {
+            logger.debug("Reading pushed cluster event {}", eventId);
+            ResourceResponse resource = repoService.read(
+                    newReadRequest(EVENTS_RESOURCE_CONTAINER.child(eventId).toString()));
+            if (instanceId.equals(resource.getContent().get("instanceId").asString())) {
+                processEvent(resource);
+            }
+        } catch (NotFoundException e) {
+            // already processed by a poll of the repository
+            logger.debug("Pushed cluster event {} was already processed", eventId);
+        } catch (ResourceException e) {
+            logger.error("Error processing cluster event " + eventId, e);
+        }
+    }
+
+    /**
+     * Sends a pending cluster event to its listeners, and deletes it if the processing was successful.
+     *
+     * @param resource the pending cluster event
+     */
+    private void processEvent(ResourceResponse resource) {
+        JsonValue eventMap = resource.getContent().get("event");
+        ClusterEvent event = new ClusterEvent(eventMap);
+        boolean success = false;
+        String listenerId = event.getListenerId();
+        // Check if a listener ID is specified
+        if (listenerId != null) {
+            // Send the event to the corresponding listener
+            ClusterEventListener listener = listeners.get(listenerId);
+            if (listener != null) {
+                success = listener.handleEvent(event);
+            } else {
+                logger.warn("No listener {} available to receive event {}", listenerId, event.toJsonValue());
+                success = true;
+            }
+        } else {
+            // Send event to all listeners
+            success = sendEventToListeners(event);
+        }
+        // If the event was successfully processed, delete it
+        if (success) {
+            try {
+                logger.debug("Deleting cluster event {}", resource.getId());
+                DeleteRequest deleteRequest = newDeleteRequest(
+                        EVENTS_RESOURCE_CONTAINER.toString(), resource.getId());
+                deleteRequest.setRevision(resource.getRevision());
+                repoService.delete(deleteRequest);
+            } catch (ResourceException e) {
+                logger.error("Error deleting cluster event " + resource.getId(), e);
+            }
+        }
+    }
+
     private void deleteEvent(JsonValue eventMap) {
         String eventId = eventMap.get("_id").asString();
         try {
@@ -803,8 +906,13 @@ public class ClusterManager implements RequestHandler, ClusterManagementService
                         // Set current state
                         currentState = state;
 
-                        // Check for pending cluster events
-                        processPendingEvents();
+                        // Check for pending cluster events, only now and then if they are pushed over the bus
+                        long now = System.currentTimeMillis();
+                        if (eventBus == null || eventBus.getLocalPort() < 0
+                                || now - lastEventPoll >= clusterConfig.getEventPollInterval()) {
+                            lastEventPoll = now;
+                            processPendingEvents();
+                        }
                         
                         // Find failed instances
                         logger.debug("Finding failed instances");
@@ -836,6 +944,17 @@ public class ClusterManager implements RequestHandler, ClusterManagementService
         public boolean isRunning() {
             return running;
         }
+
+        /**
+         * Executes a task on the cluster manager thread, after the check-in in progress if any.
+         *
+         * @param task the task to execute
+         */
+        public void execute(Runnable task) {
+            if (running) {
+                scheduler.execute(task);
+            }
+        }
     }
 
     @Override
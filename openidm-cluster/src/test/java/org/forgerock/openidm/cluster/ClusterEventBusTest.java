@@ -0,0 +1,104 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.cluster;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link ClusterEventBus} between two buses on the loopback interface.
+ */
+public class ClusterEventBusTest {
+
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private CountDownLatch latch;
+    private ClusterEventBus receiver;
+    private ClusterEventBus sender;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        latch = new CountDownLatch(1);
+        receiver = new ClusterEventBus(0, null, Collections.<InetSocketAddress>emptyList(),
+                new ClusterEventBus.Receiver() {
+                    @Override
+                    public void eventStored(String instanceId, String eventId) {
+                        received.add(instanceId + "/" + eventId);
+                        latch.countDown();
+                    }
+                });
+        receiver.start();
+        sender = new ClusterEventBus(0, null,
+                Collections.singletonList(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                        receiver.getLocalPort())),
+                new ClusterEventBus.Receiver() {
+                    @Override
+                    public void eventStored(String instanceId, String eventId) {
+                        // not expected
+                    }
+                });
+        sender.start();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        sender.stop();
+        receiver.stop();
+    }
+
+    @Test
+    public void testPublishedEventIsReceived() throws Exception {
+        sender.publish("node2", "event-1");
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).containsExactly("node2/event-1");
+    }
+
+    @Test
+    public void testUnexpectedDatagramIsIgnored() throws Exception {
+        try (DatagramSocket socket = new DatagramSocket()) {
+            byte[] data = "node2\nevent-0".getBytes(StandardCharsets.UTF_8);
+            socket.send(new DatagramPacket(data, data.length, InetAddress.getLoopbackAddress(),
+                    receiver.getLocalPort()));
+        }
+        sender.publish("node2", "event-1");
+
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).containsExactly("node2/event-1");
+    }
+
+    @Test
+    public void testStoppedBusDoesNotPublish() {
+        sender.stop();
+
+        sender.publish("node2", "event-1");
+
+        assertThat(sender.getLocalPort()).isEqualTo(-1);
+    }
+}
@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 
 package org.forgerock.openidm.config.manage;
@@ -97,6 +97,8 @@ import org.osgi.framework.Constants;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.service.cm.Configuration;
 import org.osgi.service.cm.ConfigurationAdmin;
+import org.osgi.service.cm.ConfigurationEvent;
+import org.osgi.service.cm.ConfigurationListener;
 import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -115,8 +117,9 @@ import org.slf4j.LoggerFactory;
         @Property(name = Constants.SERVICE_VENDOR, value = ServerConstants.SERVER_VENDOR_NAME),
         @Property(name = ServerConstants.ROUTER_PREFIX, value = "/config*")
 })
-@Service(value = { RequestHandler.class })
-public class ConfigObjectService implements RequestHandler, ClusterEventListener, Describable<ApiDescription, Request> {
+@Service(value = { RequestHandler.class, ConfigurationListener.class })
+public class ConfigObjectService implements RequestHandler, ClusterEventListener, ConfigurationListener,
+        Describable<ApiDescription, Request> {
 
     private static final Logger logger = LoggerFactory.getLogger(ConfigObjectService.class);
     private final ConfigAuditEventLogger auditLogger;
@@ -179,6 +182,9 @@ public class ConfigObjectService implements RequestHandler, ClusterEventListener
 
     private ConfigCrypto configCrypto;
 
+    /** The parsed configuration objects, invalidated by any configuration change */
+    private final ConfigSnapshotCache snapshotCache = new ConfigSnapshotCache();
+
     public ConfigObjectService() {
         this(new ConfigAuditEventLogger());
     }
@@ -270,16 +276,27 @@ public class ConfigObjectService implements RequestHandler, ClusterEventListener
                 result.put("configurations", configList);
                 logger.debug("Read list of configurations with {} entries", configList.size());
             } else {
-                Configuration config = findExistingConfiguration(new ParsedId(resourcePath));
-                if (config == null) {
-                    return new NotFoundException(
-                            "No configuration exists for id " + resourcePath.toString())
-                            .asPromise();
+                final JsonValue snapshot = snapshotCache.get(resourcePath.toString());
+                if (snapshot != null) {
+                    // callers own the response content, so hand out a copy of the read-only snapshot
+                    result = snapshot.copy();
+                    logger.debug("Read cached configuration for service {}", resourcePath);
+                } else {
+                    final long version = snapshotCache.getVersion();
+                    Configuration config = findExistingConfiguration(new ParsedId(resourcePath));
+                    if (config == null) {
+                        return new NotFoundException(
+                                "No configuration exists for id " + resourcePath.toString())
+                                .asPromise();
+                    }
+                    Dictionary<String, Object> props = config.getProperties();
+                    result =  enhancedConfig.getRawConfiguration(props, resourcePath.toString());
+                    result.put("_id", resourcePath.toString());
+                    if (props != null) {
+                        snapshotCache.put(resourcePath.toString(), result, version);
+                    }
+                    logger.debug("Read configuration for service {}", resourcePath);
                 }
-                Dictionary<String, Object> props = config.getProperties();
-                result =  enhancedConfig.getRawConfiguration(props, resourcePath.toString());
-                result.put("_id", resourcePath.toString());
-                logger.debug("Read configuration for service {}", resourcePath);
             }
         } catch (ResourceException ex) {
             logger.warn("Failure to load configuration for {}", resourcePath, ex);
@@ -392,6 +409,7 @@ public class ConfigObjectService implements RequestHandler, ClusterEventListener
             }
 
             config.update(dict);
+            snapshotCache.invalidateAll();
             logger.debug("Created new configuration for {} with {}", parsedId.toString(), dict);
 
             JsonValue after = enhancedConfig.getRawConfiguration(config.getProperties(), resourcePath.toString());
@@ -520,6 +538,7 @@ public class ConfigObjectService implements RequestHandler, ClusterEventListener
             existingConfig = configCrypto.encrypt(parsedId.getPidOrFactoryPid(), parsedId.instanceAlias, existingConfig,
                     obj);
             config.update(existingConfig);
+            snapshotCache.invalidateAll();
             JsonValue after = enhancedConfig.getRawConfiguration(config.getProperties(), resourcePath.toString());
 
             logger.debug("Updated existing configuration for {} with {}", resourcePath.toString(), existingConfig);
@@ -608,6 +627,7 @@ public class ConfigObjectService implements RequestHandler, ClusterEventListener
                                 + ", can not delete the configuration.").asPromise();
             }
             config.delete();
+            snapshotCache.invalidateAll();
             logger.debug("Deleted configuration for {}", resourcePath.toString());
 
             return newResultPromise(new ConfigAuditState(resourcePath.toString(),
@@ -672,6 +692,7 @@ public class ConfigObjectService implements RequestHandler, ClusterEventListener
             existingConfig = configCrypto.encrypt(
                     parsedId.getPidOrFactoryPid(), parsedId.instanceAlias, existingConfig, after);
             config.update(existingConfig);
+            snapshotCache.invalidateAll();
 
             logger.debug("Patched existing configuration for {} with {}", resourcePath.toString(), existingConfig);
             return newResultPromise(
@@ -797,6 +818,19 @@ public class ConfigObjectService implements RequestHandler, ClusterEventListener
         logger.debug("Deactivating configuration management service");
     }
 
+    /**
+     * Invalidates the cached configuration objects on any change to the configuration, whether it is made through
+     * this service, by the file installer or by another node of the cluster.
+     *
+     * @param event the configuration event
+     */
+    @Override
+    public void configurationEvent(ConfigurationEvent event) {
+        logger.trace("Configuration event {} for {}, invalidating the cached configurations", event.getType(),
+                event.getPid());
+        snapshotCache.invalidateAll();
+    }
+
     @Override
     public boolean handleEvent(ClusterEvent event) {
         switch (event.getType()) {
@@ -0,0 +1,103 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.config.manage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.json.JsonValue;
+
+/**
+ * A versioned cache of the configuration objects read by the {@link ConfigObjectService}, which saves listing the
+ * configurations of the ConfigurationAdmin and parsing and expanding their properties on every read.
+ * <p>
+ * The cached snapshots are read-only. The version is incremented whenever the cache is invalidated, so that a
+ * configuration loaded before a change is not cached after it.
+ */
+class ConfigSnapshotCache {
+
+    private final ConcurrentMap<String, JsonValue> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Returns the current version of the cache, to be obtained before loading a configuration to {@link #put}.
+     *
+     * @return the version
+     */
+    long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Returns the cached snapshot of a configuration.
+     *
+     * @param id the id of the configuration, e.g. managed or provisioner.openicf/ldap
+     * @return the read-only snapshot, or {@code null} if it is not cached
+     */
+    JsonValue get(String id) {
+        return snapshots.get(id);
+    }
+
+    /**
+     * Caches a snapshot of a configuration, unless the cache has been invalidated since it was loaded.
+     *
+     * @param id the id of the configuration
+     * @param config the configuration
+     * @param loadedVersion the version of the cache obtained before the configuration was loaded
+     * @return the read-only snapshot
+     */
+    JsonValue put(String id, JsonValue config, long loadedVersion) {
+        final JsonValue snapshot = new JsonValue(freeze(config.getObject()));
+        snapshots.put(id, snapshot);
+        if (version.get() != loadedVersion) {
+            // invalidated while loading, the configuration may be stale
+            snapshots.remove(id, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Discards all cached snapshots.
+     */
+    void invalidateAll() {
+        version.incrementAndGet();
+        snapshots.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object freeze(Object value) {
+        if (value instanceof Map) {
+            final Map<String, Object> map = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+                map.put(entry.getKey(), freeze(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(map);
+        } else if (value instanceof List) {
+            final List<Object> list = new ArrayList<>(((List<Object>) value).size());
+            for (Object item : (List<Object>) value) {
+                list.add(freeze(item));
+            }
+            return Collections.unmodifiableList(list);
+        }
+        return value;
+    }
+}
@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 
 package org.forgerock.openidm.config.manage;
@@ -115,6 +115,7 @@ public class ConfigObjectServiceTest {
     private Map<String,Object> config;
     private EnhancedConfig enhancedConfig;
     private ClusterManagementService clusterManagementService;
+    private MockConfigurationAdmin configAdmin;
 
     @SuppressWarnings("unchecked")
 	@BeforeTest
@@ -139,7 +140,8 @@ public class ConfigObjectServiceTest {
         // no accessible bindConfigurationAdmin() method
         Field field = ConfigObjectService.class.getDeclaredField("configAdmin");
         field.setAccessible(true);
-        field.set(configObjectService, new MockConfigurationAdmin());
+        configAdmin = new MockConfigurationAdmin();
+        field.set(configObjectService, configAdmin);
 
         BundleContext bundleContext = mock(BundleContext.class);
         when(bundleContext.getBundles()).thenReturn(new Bundle[0]);
@@ -362,6 +364,36 @@ public class ConfigObjectServiceTest {
         assertThat(response.getContent().get("prop").asString()).isEqualTo("&{property1}");
     }
 
+    @Test(priority = 11)
+    public void testReadIsCached() throws Exception {
+        // Given
+        final ResourcePath cachedName = new ResourcePath("cachedobject");
+        final ResourcePath cachedPath = cachedName.child("cachedid");
+        configObjectService.create(cachedName, "cachedid", json(object(field("property1", "value1"))), true)
+                .getOrThrow();
+        final int listCount = configAdmin.listCount;
+
+        // When
+        readContent(cachedPath).put("property1", "modified");
+        final JsonValue cached = readContent(cachedPath);
+
+        // Then
+        assertEquals(configAdmin.listCount, listCount + 1);
+        assertEquals(cached.get("property1").asString(), "value1");
+
+        // When
+        configObjectService.handleUpdate(new TransactionIdContext(new RootContext(), new TransactionId()),
+                newUpdateRequest(cachedName, "cachedid", json(object(field("property1", "value2"))))).getOrThrow();
+
+        // Then
+        assertEquals(readContent(cachedPath).get("property1").asString(), "value2");
+    }
+
+    private JsonValue readContent(ResourcePath resourcePath) throws Exception {
+        return configObjectService.handleRead(new TransactionIdContext(new RootContext(), new TransactionId()),
+                newReadRequest(resourcePath)).getOrThrow().getContent();
+    }
+
     @Test
     public void testPatchSendsClusterEvent() {
         // given
@@ -387,6 +419,7 @@ public class ConfigObjectServiceTest {
      */
     private class MockConfigurationAdmin implements ConfigurationAdmin {
         Map<String,Configuration> configurations = new HashMap<>();
+        int listCount;
 
         @Override
         public Configuration createFactoryConfiguration(String factoryPid) throws IOException {
@@ -415,6 +448,7 @@ public class ConfigObjectServiceTest {
         @Override
         public Configuration[] listConfigurations(String filter) throws IOException, InvalidSyntaxException {
             List<Configuration> configs = new ArrayList<>();
+            listCount++;
 
             for (String key : configurations.keySet()) {
                 if (filter.contains(key)) {
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openidm.managed;
@@ -36,8 +37,6 @@ import org.forgerock.json.resource.ActionResponse;
 import org.forgerock.json.resource.BadRequestException;
 import org.forgerock.json.resource.CollectionResourceProvider;
 import org.forgerock.json.resource.ConnectionFactory;
-import org.forgerock.json.resource.CreateRequest;
-import org.forgerock.json.resource.DeleteRequest;
 import org.forgerock.json.resource.InternalServerErrorException;
 import org.forgerock.json.resource.QueryRequest;
 import org.forgerock.json.resource.QueryResourceHandler;
@@ -50,7 +49,6 @@ import org.forgerock.json.resource.ResourceResponse;
 import org.forgerock.json.resource.Resources;
 import org.forgerock.json.resource.Router;
 import org.forgerock.json.resource.SortKey;
-import org.forgerock.json.resource.UpdateRequest;
 import org.forgerock.json.resource.http.HttpUtils;
 import org.forgerock.openidm.audit.util.ActivityLogger;
 import org.forgerock.openidm.audit.util.Status;
@@ -142,8 +140,8 @@ class CollectionRelationshipProvider extends RelationshipProvider implements Col
     }
 
     @Override
-    public Promise<JsonValue, ResourceException> setRelationshipValueForResource(final boolean clearExisting, Context context, String resourceId,
-            JsonValue relationships) {
+    public Promise<JsonValue, ResourceException> setRelationshipValueForResource(final boolean clearExisting,
+            final Context context, final String resourceId, JsonValue relationships) {
         EventEntry measure = Publisher.start(Name.get("openidm/internal/relationship/collection/setRelationshipValueForResource"), resourceId, context);
 
         try {
@@ -158,67 +156,43 @@ class CollectionRelationshipProvider extends RelationshipProvider implements Col
             // Set of relationships to create (no _id field)
             final List<JsonValue> relationshipsToCreate = new ArrayList<>();
 
-            // JsonValue array to contain persisted relations
-            final JsonValue results = json(array());
-
-            try {
-                if (relationships.isNotNull() && !relationships.asList().isEmpty()) {
-                    // Split relationships in to to-be-updated (_id present) and to-be-created
-                    for (JsonValue relationship : relationships) {
-                        final JsonValue id =
-                                relationship.get(FIELD_ID);
-                        if (id != null && id.isNotNull()) { // need update
-                            relationshipsToUpdate.add(relationship);
-                            relationshipsToKeep.add(id.asString());
-                        } else { // no id. create
-                            relationshipsToCreate.add(relationship);
-                        }
-                    }
-
-                    if (clearExisting) {
-                        // Call get() so we block until they are deleted.
-                        clearNotIn(context, resourceId, relationshipsToKeep).getOrThrowUninterruptibly();
-                    }
-                } else {
-                    // We didn't get any relations to persist. Clear and return empty array.
-                    if (clearExisting) {
-                        clear(context, resourceId);
-                    }
-                    return newResultPromise(results);
+            if (relationships.isNull() || relationships.asList().isEmpty()) {
+                // We didn't get any relations to persist. Clear and return empty array.
+                if (!clearExisting) {
+                    return newResultPromise(json(array()));
                 }
+                return clear(context, resourceId).then(new Function<JsonValue, JsonValue, ResourceException>() {
+                    @Override
+                    public JsonValue apply(JsonValue deleted) throws ResourceException {
+                        return json(array());
+                    }
+                });
+            }
 
-                /*
-                 * Create or update relationships
-                 */
-
-                // List of promises returned by update and create to when() on later
-                final List<Promise<ResourceResponse, ResourceException>> promises = new ArrayList<>();
-
-                for (JsonValue toUpdate : relationshipsToUpdate) {
-                    final UpdateRequest updateRequest = Requests.newUpdateRequest("", toUpdate)
-                            .setAdditionalParameter(PARAM_MANAGED_OBJECT_ID, resourceId);
-                    promises.add(updateInstance(context, toUpdate.get(FIELD_ID).asString(), updateRequest));
+            // Split relationships in to to-be-updated (_id present) and to-be-created
+            for (JsonValue relationship : relationships) {
+                final JsonValue id = relationship.get(FIELD_ID);
+                if (id != null && id.isNotNull()) { // need update
+                    relationshipsToUpdate.add(relationship);
+                    relationshipsToKeep.add(id.asString());
+                } else { // no id. create
+                    relationshipsToCreate.add(relationship);
                 }
+            }
 
-                for (JsonValue toCreate : relationshipsToCreate) {
-                    final CreateRequest createRequest = Requests.newCreateRequest("", toCreate)
-                            .setAdditionalParameter(PARAM_MANAGED_OBJECT_ID, resourceId);
-                    promises.add(createInstance(context, createRequest));
-                }
+            if (!clearExisting) {
+                return writeRelationships(context, resourceId, relationshipsToUpdate, relationshipsToCreate);
+            }
 
-                return when(promises).then(new Function<List<ResourceResponse>, JsonValue, ResourceException>() {
-                    @Override
-                    public JsonValue apply(List<ResourceResponse> responses) throws ResourceException {
-                        final JsonValue value = json(array());
-                        for (final ResourceResponse response : responses) {
-                            value.add(response.getContent().getObject());
+            // Create or update the relationships once the others have been deleted
+            return clearNotIn(context, resourceId, relationshipsToKeep)
+                    .thenAsync(new AsyncFunction<JsonValue, JsonValue, ResourceException>() {
+                        @Override
+                        public Promise<JsonValue, ResourceException> apply(JsonValue deleted) {
+                            return writeRelationships(context, resourceId, relationshipsToUpdate,
+                                    relationshipsToCreate);
                         }
-                        return value;
-                    }
-                });
-            } catch (ResourceException e) {
-                return e.asPromise();
-            }
+                    });
         } finally {
             measure.end();
         }
@@ -230,7 +204,7 @@ class CollectionRelationshipProvider extends RelationshipProvider implements Col
      * @param context The current context.
      * @param resourceId The resource whose relationships we wish to clear
      * @param relationshipsToKeep Set of relationship ids that should not be deleted
-     * @return A promised JsonValue array of delete responses
+     * @return A promised JsonValue array of the deleted relationships
      */
     private Promise<JsonValue, ResourceException> clearNotIn(final Context context, final String resourceId,
             final Set<String> relationshipsToKeep) {
@@ -240,29 +214,16 @@ class CollectionRelationshipProvider extends RelationshipProvider implements Col
             return getRelationshipValueForResource(context, resourceId).thenAsync(new AsyncFunction<JsonValue, JsonValue, ResourceException>() {
                 @Override
                 public Promise<JsonValue, ResourceException> apply(JsonValue existingRelationships) throws ResourceException {
-                    final List<Promise<ResourceResponse, ResourceException>> promises = new ArrayList<>();
+                    final List<JsonValue> toDelete = new ArrayList<>();
 
                     for (JsonValue relationship : existingRelationships) {
-                        final String id = relationship.get(FIELD_ID).asString();
-
                         // Delete if we're not told to keep this id
-                        if (!relationshipsToKeep.contains(id)) {
-                            final DeleteRequest deleteRequest = Requests.newDeleteRequest("", id)
-                                    .setAdditionalParameter(PARAM_MANAGED_OBJECT_ID, resourceId);
-                            promises.add(deleteInstance(context, id, deleteRequest));
+                        if (!relationshipsToKeep.contains(relationship.get(FIELD_ID).asString())) {
+                            toDelete.add(relationship);
                         }
                     }
 
-                    return when(promises).then(new Function<List<ResourceResponse>, JsonValue, ResourceException>() {
-                        @Override
-                        public JsonValue apply(List<ResourceResponse> resourceResponses) throws ResourceException {
-                            final JsonValue result = json(array());
-                            for (ResourceResponse resourceResponse : resourceResponses) {
-                                result.add(resourceResponse.getContent());
-                            }
-                            return result;
-                        }
-                    });
+                    return deleteRelationships(context, toDelete);
                 }
             });
         } finally {
@@ -270,39 +231,33 @@ class CollectionRelationshipProvider extends RelationshipProvider implements Col
         }
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Unless the objects on the other side of a reverse relationship have to be synced, the relationships are
+     * deleted with a single repo command, without being read, and the promised array is empty.
+     */
     @Override
     public Promise<JsonValue, ResourceException> clear(final Context context, final String resourceId) {
         EventEntry measure = Publisher.start(Name.get("openidm/internal/relationship/collection/clear"), resourceId, null);
 
         try {
-            /*
-             * FIXME - Performance here is terrible. We read every relationship just to get the id to delete.
-             *         Need a deleteByQueryFilter() to remove all relationships for a given firstId
-             */
+            if (!isReverseSyncNeeded()) {
+                deleteByQueryFilter(context, relationshipsOfResourceFilter(resourceContainer.child(resourceId)));
+                return newResultPromise(json(array()));
+            }
             return getRelationshipValueForResource(context, resourceId).thenAsync(new AsyncFunction<JsonValue, JsonValue, ResourceException>() {
                 @Override
                 public Promise<JsonValue, ResourceException> apply(JsonValue existing) throws ResourceException {
-                    final List<Promise<ResourceResponse, ResourceException>> deleted = new ArrayList<>();
-
+                    final List<JsonValue> toDelete = new ArrayList<>();
                     for (JsonValue relationship : existing) {
-                        final DeleteRequest deleteRequest = Requests.newDeleteRequest("")
-                                .setAdditionalParameter(PARAM_MANAGED_OBJECT_ID, resourceId);
-                        deleted.add(deleteInstance(context, relationship.get(FIELD_ID).asString(), deleteRequest));
+                        toDelete.add(relationship);
                     }
-
-                    return when(deleted).then(new Function<List<ResourceResponse>, JsonValue, ResourceException>() {
-                        @Override
-                        public JsonValue apply(List<ResourceResponse> resourceResponses) throws ResourceException {
-                            final JsonValue deleted = json(array());
-                            for (ResourceResponse resourceResponse : resourceResponses) {
-                                deleted.add(resourceResponse.getContent());
-                            }
-                            return deleted;
-                        }
-                    });
+                    return deleteRelationships(context, toDelete);
                 }
             });
+        } catch (ResourceException e) {
+            return e.asPromise();
         } finally {
             measure.end();
         }
@@ -602,12 +557,14 @@ class CollectionRelationshipProvider extends RelationshipProvider implements Col
                 oldReferences.add(new RelationshipEqualityHash(oldItem));
             }
         }
+        final List<JsonValue> newItems = new ArrayList<>();
         for (JsonValue newItem : newValue) {
             // If the relationship is found in the existing/old relationships, then must skip validation.
             if (!oldReferences.contains(new RelationshipEqualityHash(newItem))) {
                 logger.debug("validating new relationship {} for {}: ", newItem, propertyPtr);
-                relationshipValidator.validateRelationship(newItem, referrerId, context, performDuplicateAssignmentCheck);
+                newItems.add(newItem);
             }
         }
+        relationshipValidator.validateRelationships(newItems, referrerId, context, performDuplicateAssignmentCheck);
     }
 }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.managed;
 
@@ -49,6 +50,15 @@ public class ForwardRelationshipValidator extends RelationshipValidator {
         return Requests.newReadRequest(relationshipField.get(REFERENCE_ID).asString());
     }
 
+    /**
+     * A forward relationship is valid as soon as the referenced object exists.
+     */
+    @Override
+    protected boolean isValidIfReferenceExists(ResourcePath referenceContainer, Context context,
+            boolean performDuplicateAssignmentCheck) {
+        return true;
+    }
+
     @Override
     protected void validateSuccessfulReadResponse(Context context, JsonValue relationshipField,
               ResourcePath referringObjectId, ResourceResponse response, boolean performDuplicateAssignmentCheck) {
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.managed;
 
@@ -84,6 +85,7 @@ import org.forgerock.openidm.smartevent.Publisher;
 import org.forgerock.openidm.sync.SyncContext;
 import org.forgerock.openidm.sync.impl.SynchronizationService;
 import org.forgerock.openidm.util.ContextUtil;
+import org.forgerock.openidm.util.ReadCacheContext;
 import org.forgerock.openidm.util.RelationshipUtil;
 import org.forgerock.openidm.util.RequestUtil;
 import org.forgerock.script.Script;
@@ -194,6 +196,9 @@ class ManagedObjectSet implements CollectionResourceProvider, ScriptListener, Ma
     /** Flag for indicating if policy enforcement is enabled */
     private final boolean enforcePolicies;
 
+    /** Flag for indicating if the scripts run by a write share a request-scoped read cache */
+    private final boolean readCacheEnabled;
+
     private final JsonValue config;
 
     /**
@@ -274,6 +279,8 @@ class ManagedObjectSet implements CollectionResourceProvider, ScriptListener, Ma
 
         enforcePolicies = Boolean.parseBoolean(IdentityServer.getInstance()
                 .getProperty("openidm.policy.enforcement.enabled", "true"));
+        readCacheEnabled = Boolean.parseBoolean(IdentityServer.getInstance()
+                .getProperty("openidm.managed.readcache.enabled", "false"));
         logger.debug("Instantiated managed object set: {}", name);
     }
 
@@ -290,6 +297,32 @@ class ManagedObjectSet implements CollectionResourceProvider, ScriptListener, Ma
                 : managedObjectPath;
     }
 
+    /**
+     * Creates the context of a managed object write. If enabled, the context holds a read cache shared by the
+     * scripts run by the write, unless the request already holds one.
+     *
+     * @param context the request context
+     * @return the managed object context
+     */
+    private Context newWriteContext(Context context) {
+        final Context managedContext = new ManagedObjectContext(context);
+        return readCacheEnabled && !context.containsContext(ReadCacheContext.class)
+                ? new ReadCacheContext(managedContext)
+                : managedContext;
+    }
+
+    /**
+     * Logs the use of the read cache created by {@link #newWriteContext(Context)}, if any.
+     *
+     * @param managedContext the managed object context of the write
+     */
+    private void logReadCacheStatistics(Context managedContext) {
+        if (managedContext instanceof ReadCacheContext && logger.isDebugEnabled()) {
+            logger.debug("Read cache of {} write: {}", name,
+                    ((ReadCacheContext) managedContext).getStatistics().toString());
+        }
+    }
+
     /**
      * Generates a fully-qualified object identifier for the repository.
      *
@@ -590,6 +623,7 @@ class ManagedObjectSet implements CollectionResourceProvider, ScriptListener, Ma
         // Persists all relationship fields that are present in the new value and updates their values.
         responseContent.asMap().putAll(persistRelationships(true, managedContext, resourceId, oldValue, responseContent, relationshipFields)
                 .asMap());
+        ReadCacheContext.invalidate(context, managedId(resourceId));
 
         // Execute the postUpdate script if configured
         executePostUpdate(context, request, resourceId, decryptedOld, responseContent);
@@ -783,7 +817,7 @@ class ManagedObjectSet implements CollectionResourceProvider, ScriptListener, Ma
     public Promise<ResourceResponse, ResourceException>  createInstance(Context context, CreateRequest request) {
         String resourceId = request.getNewResourceId();
         JsonValue content = request.getContent();
-        Context managedContext = new ManagedObjectContext(context);
+        Context managedContext = newWriteContext(context);
 
         // Check if the new id is specified in content, and use it if it is.
         if (!content.get(FIELD_CONTENT_ID).isNull()) {
@@ -827,6 +861,7 @@ class ManagedObjectSet implements CollectionResourceProvider, ScriptListener, Ma
             // Persists all relationship fields and place their persisted values in content
             content.asMap().putAll(persistRelationships(false, managedContext, resourceId, json(null), content,
                     relationshipProviders.keySet()).asMap());
+            ReadCacheContext.invalidate(managedContext, managedId(resourceId));
 
             // Execute the postCreate script if configured
             execScriptHook(managedContext, ScriptHook.postCreate, content,
@@ -847,6 +882,8 @@ class ManagedObjectSet implements CollectionResourceProvider, ScriptListener, Ma
         	return e.asPromise();
         } catch (Exception e) {
         	return new InternalServerErrorException(e.getMessage(), e).asPromise();
+        } finally {
+            logReadCacheStatistics(managedContext);
         }
     }
     @Override
@@ -982,7 +1019,7 @@ class ManagedObjectSet implements CollectionResourceProvider, ScriptListener, Ma
     public Promise<ResourceResponse, ResourceException>  updateInstance(final Context context, final String resourceId,
     		final UpdateRequest request) {
         logger.debug("update {} ", "name=" + name + " id=" + resourceId + " rev=" + request.getRevision());
-        Context managedContext = new ManagedObjectContext(context);
+        Context managedContext = newWriteContext(context);
 
         /*
         First constitute the repo read request, including all fields specified in the UpdateRequest, minus the relationship
@@ -1018,6 +1055,8 @@ class ManagedObjectSet implements CollectionResourceProvider, ScriptListener, Ma
         	return e.asPromise();
         } catch (Exception e) {
         	return new InternalServerErrorException(e.getMessage(), e).asPromise();
+        } finally {
+            logReadCacheStatistics(managedContext);
         }
     }
 
@@ -1025,7 +1064,7 @@ class ManagedObjectSet implements CollectionResourceProvider, ScriptListener, Ma
     public Promise<ResourceResponse, ResourceException> deleteInstance(final Context context, final String resourceId, 
     		final DeleteRequest request) {
         logger.debug("Delete {} ", "name=" + name + " id=" + resourceId + " rev=" + request.getRevision());
-        Context managedContext = new ManagedObjectContext(context);
+        Context managedContext = newWriteContext(context);
         try {
             ReadRequest readRequest = Requests.newReadRequest(repoId(resourceId));
             ResourceResponse resource = connectionFactory.getConnection().read(managedContext, readRequest);
@@ -1054,6 +1093,7 @@ class ManagedObjectSet implements CollectionResourceProvider, ScriptListener, Ma
             }
             // Wait for deletions to complete before continuing
             when(deleted).getOrThrowUninterruptibly();
+            ReadCacheContext.invalidate(managedContext, managedId(resourceId));
 
             activityLogger.log(managedContext, request, "delete", managedId(resource.getId()).toString(),
                     resource.getContent(), null, Status.SUCCESS);
@@ -1071,17 +1111,22 @@ class ManagedObjectSet implements CollectionResourceProvider, ScriptListener, Ma
         	return e.asPromise();
         } catch (Exception e) {
         	return new InternalServerErrorException(e.getMessage(), e).asPromise();
+        } finally {
+            logReadCacheStatistics(managedContext);
         }
     }
 
     @Override
     public Promise<ResourceResponse, ResourceException> patchInstance(Context context, String resourceId, 
     		PatchRequest request) {
+        final Context managedContext = newWriteContext(context);
         try {
-        	return newResultPromise(patchResourceById(new ManagedObjectContext(context), request, resourceId, 
+        	return newResultPromise(patchResourceById(managedContext, request, resourceId, 
         	        request.getRevision(), request.getPatchOperations()));
         } catch (ResourceException e) {
         	return e.asPromise();
+        } finally {
+            logReadCacheStatistics(managedContext);
         }
     }
 
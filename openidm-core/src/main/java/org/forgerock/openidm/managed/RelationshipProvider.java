@@ -14,7 +14,7 @@
  * "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 package org.forgerock.openidm.managed;
 
@@ -28,13 +28,17 @@ import static org.forgerock.openidm.sync.impl.SynchronizationService.SyncService
 import static org.forgerock.openidm.util.RelationshipUtil.*;
 import static org.forgerock.openidm.util.ResourceUtil.*;
 import static org.forgerock.util.promise.Promises.newResultPromise;
+import static org.forgerock.util.promise.Promises.when;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.forgerock.http.routing.UriRouterContext;
@@ -48,8 +52,11 @@ import org.forgerock.json.resource.ConnectionFactory;
 import org.forgerock.json.resource.CreateRequest;
 import org.forgerock.json.resource.DeleteRequest;
 import org.forgerock.json.resource.InternalServerErrorException;
+import org.forgerock.json.resource.NotFoundException;
 import org.forgerock.json.resource.PatchRequest;
 import org.forgerock.json.resource.PreconditionFailedException;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
 import org.forgerock.json.resource.ReadRequest;
 import org.forgerock.json.resource.Request;
 import org.forgerock.json.resource.RequestHandler;
@@ -58,6 +65,7 @@ import org.forgerock.json.resource.ResourceException;
 import org.forgerock.json.resource.ResourcePath;
 import org.forgerock.json.resource.ResourceResponse;
 import org.forgerock.json.resource.UpdateRequest;
+import org.forgerock.json.resource.http.HttpUtils;
 import org.forgerock.openidm.audit.util.ActivityLogger;
 import org.forgerock.openidm.audit.util.Status;
 import org.forgerock.openidm.patch.JsonValuePatch;
@@ -67,6 +75,7 @@ import org.forgerock.util.Function;
 import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
 import org.forgerock.util.promise.ResultHandler;
+import org.forgerock.util.query.QueryFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -127,6 +136,12 @@ public abstract class RelationshipProvider {
     /** The name of the properties field coming out of the repo service */
     protected static final String REPO_FIELD_PROPERTIES = "properties";
 
+    /** The repo action running a command, which deletes the relationships matching a _queryFilter parameter */
+    protected static final String REPO_ACTION_COMMAND = "command";
+
+    /** The maximum number of relationships matched by one repo query or command */
+    static final int BATCH_SIZE = 500;
+
     /** The name of the parameter to be used carry the managed object's ID in the Request and/or Context */
     public static final String PARAM_MANAGED_OBJECT_ID = "managedObjectId";
 
@@ -362,7 +377,8 @@ public abstract class RelationshipProvider {
      *
      * @param context The current context.
      * @param resourceId The resource whose relationship we wish to clear
-     *
+     * @return A promise completed once the relationships have been deleted, containing the relationships which had
+     *         to be read to delete them
      */
     public abstract Promise<JsonValue, ResourceException> clear(Context context, String resourceId);
 
@@ -441,10 +457,12 @@ public abstract class RelationshipProvider {
     private void validateRelationshipOperand(JsonValue createRequestContent, Context context) throws ResourceException {
         if (createRequestContent.isCollection()) {
             relationshipValidator.checkForDuplicateRelationshipsInInvocationState(createRequestContent);
+            final List<JsonValue> relationships = new ArrayList<>();
             for (JsonValue relationship : createRequestContent) {
-                relationshipValidator.validateRelationship(relationship, ResourcePath.valueOf(getManagedObjectPath(context)),
-                        context, true);
+                relationships.add(relationship);
             }
+            relationshipValidator.validateRelationships(relationships,
+                    ResourcePath.valueOf(getManagedObjectPath(context)), context, true);
         } else {
             relationshipValidator.validateRelationship(createRequestContent, ResourcePath.valueOf(getManagedObjectPath(context)),
                     context, true);
@@ -655,6 +673,220 @@ public abstract class RelationshipProvider {
         }
     }
 
+    /**
+     * Deletes relationships in batches, each with a single repo delete-by-query-filter command instead of a read and
+     * a delete per relationship. When this is a reverse relationship the objects referenced by a batch are read
+     * before it is deleted, and are notified to sync once the whole batch has been deleted.
+     *
+     * @param context the current context
+     * @param relationships the relationships to delete, in the provider response format
+     * @return A promise containing a JsonValue array of the deleted relationships
+     */
+    protected Promise<JsonValue, ResourceException> deleteRelationships(final Context context,
+            final List<JsonValue> relationships) {
+        final JsonValue deleted = json(array());
+        try {
+            for (int from = 0; from < relationships.size(); from += BATCH_SIZE) {
+                final List<JsonValue> batch =
+                        relationships.subList(from, Math.min(from + BATCH_SIZE, relationships.size()));
+                final Set<String> referencesToSync = new LinkedHashSet<>();
+                if (isReverseSyncNeeded()) {
+                    for (JsonValue relationship : batch) {
+                        referencesToSync.add(relationship.get(FIELD_REFERENCE).asString());
+                    }
+                }
+
+                final Map<String, ResourceResponse> before = readReferencedObjects(context, referencesToSync);
+                deleteByQueryFilter(context, relationshipIdsFilter(batch));
+                for (Map.Entry<String, ResourceResponse> entry : before.entrySet()) {
+                    syncReferencedObject(context, entry.getKey(), entry.getValue());
+                }
+
+                for (JsonValue relationship : batch) {
+                    deleted.add(relationship.getObject());
+                }
+            }
+            return newResultPromise(deleted);
+        } catch (ResourceException e) {
+            return e.asPromise();
+        }
+    }
+
+    /**
+     * Creates and updates relationships of a resource as a batch, without the per-edge validation of
+     * {@link #createInstance} and {@link #updateInstance}, which the caller is expected to have done for all the edges
+     * at once. The relationships to update are read with one repo query per batch rather than one read each, and only
+     * those which have changed are written. When this is a reverse relationship each referenced object is read once
+     * before the edges are written and is notified to sync once after all of them, rather than once per edge.
+     *
+     * @param context the current context
+     * @param resourceId the id of the resource the relationships belong to
+     * @param toUpdate the relationships to update, which have a {@code _refProperties._id}
+     * @param toCreate the relationships to create
+     * @return A promise containing a JsonValue array of the persisted relationships, in the provider response format,
+     *         the updated ones first
+     */
+    protected Promise<JsonValue, ResourceException> writeRelationships(final Context context, final String resourceId,
+            final List<JsonValue> toUpdate, final List<JsonValue> toCreate) {
+        try {
+            final Request request = Requests.newCreateRequest("", json(object()))
+                    .setAdditionalParameter(PARAM_MANAGED_OBJECT_ID, resourceId);
+            final ResourcePath resourcePath = firstResourcePath(context, request);
+            final Map<String, ResourceResponse> existing = readRelationships(context, toUpdate);
+
+            // the write of each relationship, or null if it is unchanged and only has to be returned
+            final List<Request> writes = new ArrayList<>(toUpdate.size() + toCreate.size());
+            final List<ResourceResponse> unchanged = new ArrayList<>(toUpdate.size());
+            final Set<String> referencesToSync = new LinkedHashSet<>();
+
+            for (JsonValue relationship : toUpdate) {
+                final String id = relationship.get(FIELD_ID).asString();
+                final ResourceResponse oldResource = existing.get(id);
+                if (oldResource == null) {
+                    throw new NotFoundException("Relationship " + id + " not found");
+                }
+                final JsonValue newValue = convertToRepoObject(resourcePath, relationship);
+                if (isEqual(oldResource.getContent(), newValue)) {
+                    writes.add(null);
+                    unchanged.add(oldResource);
+                } else {
+                    writes.add(newUpdateRequest(REPO_RESOURCE_PATH.child(id), newValue));
+                    unchanged.add(null);
+                    referencesToSync.add(relationship.get(FIELD_REFERENCE).asString());
+                }
+            }
+            for (JsonValue relationship : toCreate) {
+                writes.add(Requests.newCreateRequest(REPO_RESOURCE_PATH,
+                        convertToRepoObject(resourcePath, relationship)));
+                referencesToSync.add(relationship.get(FIELD_REFERENCE).asString());
+            }
+
+            final Map<String, ResourceResponse> before = isReverseSyncNeeded()
+                    ? readReferencedObjects(context, referencesToSync)
+                    : new LinkedHashMap<String, ResourceResponse>();
+
+            final List<Promise<ResourceResponse, ResourceException>> promises = new ArrayList<>(writes.size());
+            for (int i = 0; i < writes.size(); i++) {
+                final Request write = writes.get(i);
+                if (write == null) {
+                    final ResourceResponse oldResource = unchanged.get(i);
+                    promises.add(newResultPromise(newResourceResponse(oldResource.getId(), oldResource.getRevision(),
+                            oldResource.getContent())));
+                } else if (write instanceof UpdateRequest) {
+                    promises.add(getConnection().updateAsync(context, (UpdateRequest) write));
+                } else {
+                    promises.add(getConnection().createAsync(context, (CreateRequest) write));
+                }
+            }
+
+            return when(promises)
+                    .thenAlways(new Runnable() {
+                        @Override
+                        public void run() {
+                            // sync whether or not all writes succeeded, as some edges may have been written
+                            for (Map.Entry<String, ResourceResponse> entry : before.entrySet()) {
+                                syncReferencedObject(context, entry.getKey(), entry.getValue());
+                            }
+                        }
+                    })
+                    .then(new Function<List<ResourceResponse>, JsonValue, ResourceException>() {
+                        @Override
+                        public JsonValue apply(List<ResourceResponse> responses) throws ResourceException {
+                            final Function<ResourceResponse, ResourceResponse, NeverThrowsException> format =
+                                    formatResponseNoException(context, request);
+                            final JsonValue value = json(array());
+                            for (ResourceResponse response : responses) {
+                                value.add(format.apply(response).getContent().getObject());
+                            }
+                            return value;
+                        }
+                    });
+        } catch (ResourceException e) {
+            return e.asPromise();
+        }
+    }
+
+    /**
+     * Reads relationships from the repo with one query per batch.
+     *
+     * @param context the current context
+     * @param relationships the relationships to read, in the provider response format
+     * @return the relationships read, in the repo format, by id
+     * @throws ResourceException if the repo failed to query the relationships
+     */
+    private Map<String, ResourceResponse> readRelationships(final Context context,
+            final List<JsonValue> relationships) throws ResourceException {
+        final Map<String, ResourceResponse> existing = new HashMap<>();
+        for (int from = 0; from < relationships.size(); from += BATCH_SIZE) {
+            final QueryRequest queryRequest = Requests.newQueryRequest(REPO_RESOURCE_PATH).setQueryFilter(
+                    relationshipIdsFilter(relationships.subList(from,
+                            Math.min(from + BATCH_SIZE, relationships.size()))));
+            getConnection().query(context, queryRequest, new QueryResourceHandler() {
+                @Override
+                public boolean handleResource(ResourceResponse resource) {
+                    existing.put(resource.getId(), resource);
+                    return true;
+                }
+            });
+        }
+        return existing;
+    }
+
+    /**
+     * Returns a filter matching, in the repo format, the given relationships by id.
+     *
+     * @param relationships the relationships, in the provider response format
+     * @return the ids filter
+     */
+    private QueryFilter<JsonPointer> relationshipIdsFilter(final List<JsonValue> relationships) {
+        final List<QueryFilter<JsonPointer>> ids = new ArrayList<>(relationships.size());
+        for (JsonValue relationship : relationships) {
+            ids.add(QueryFilter.equalTo(new JsonPointer(FIELD_CONTENT_ID), relationship.get(FIELD_ID).asString()));
+        }
+        return QueryFilter.or(ids);
+    }
+
+    /**
+     * Deletes the relationships matching the filter with a single repo delete-by-query-filter command.
+     *
+     * @param context the current context
+     * @param filter a filter on the relationships in the repo format
+     * @return the number of deleted relationships
+     * @throws ResourceException if the repo failed to delete the relationships
+     */
+    protected int deleteByQueryFilter(final Context context, final QueryFilter<JsonPointer> filter)
+            throws ResourceException {
+        final ActionRequest deleteRequest = Requests.newActionRequest(REPO_RESOURCE_PATH, REPO_ACTION_COMMAND)
+                .setAdditionalParameter(HttpUtils.PARAM_QUERY_FILTER, filter.toString());
+        final JsonValue result = getConnection().action(context, deleteRequest).getJsonContent();
+        return result.isNumber() ? result.asInteger() : 0;
+    }
+
+    /**
+     * Reads the objects referenced by relationships, concurrently, so that their state before a change to the
+     * relationships can be sent to sync. An object which cannot be read is left out, as it cannot be synced.
+     *
+     * @param context the current context
+     * @param references the resource paths of the referenced objects
+     * @return the read objects by resource path
+     */
+    private Map<String, ResourceResponse> readReferencedObjects(final Context context, final Set<String> references)
+            throws ResourceException {
+        final Map<String, Promise<ResourceResponse, ResourceException>> reads = new LinkedHashMap<>();
+        for (String reference : references) {
+            reads.put(reference, getConnection().readAsync(context, Requests.newReadRequest(reference)));
+        }
+        final Map<String, ResourceResponse> objects = new LinkedHashMap<>();
+        for (Map.Entry<String, Promise<ResourceResponse, ResourceException>> read : reads.entrySet()) {
+            try {
+                objects.put(read.getKey(), read.getValue().getOrThrowUninterruptibly());
+            } catch (ResourceException e) {
+                logger.warn("Unable to read '{}', no sync will occur", read.getKey());
+            }
+        }
+        return objects;
+    }
+
     /**
      * Patch a relationship instance. Used by RequestHandler child classes.
      *
@@ -888,6 +1120,26 @@ public abstract class RelationshipProvider {
         }
     }
     
+    /**
+     * Returns a filter matching, in the repo format, the relationships of the given resource for this field. A
+     * reverse relationship may have been stored with the resource as either its first or second object.
+     *
+     * @param resourcePath the full path of the resource
+     * @return the relationships filter
+     */
+    protected QueryFilter<JsonPointer> relationshipsOfResourceFilter(final ResourcePath resourcePath) {
+        final QueryFilter<JsonPointer> firstFilter = QueryFilter.and(
+                QueryFilter.equalTo(new JsonPointer(REPO_FIELD_FIRST_ID), resourcePath.toString()),
+                QueryFilter.equalTo(new JsonPointer(REPO_FIELD_FIRST_PROPERTY_NAME), schemaField.getName()));
+        if (!schemaField.isReverseRelationship()) {
+            return firstFilter;
+        }
+        final QueryFilter<JsonPointer> secondFilter = QueryFilter.and(
+                QueryFilter.equalTo(new JsonPointer(REPO_FIELD_SECOND_ID), resourcePath.toString()),
+                QueryFilter.equalTo(new JsonPointer(REPO_FIELD_SECOND_PROPERTY_NAME), schemaField.getName()));
+        return QueryFilter.or(firstFilter, secondFilter);
+    }
+
     /**
      * Returns the managed object's ID corresponding to the passed in {@link Context}.
      * 
@@ -1109,39 +1361,50 @@ public abstract class RelationshipProvider {
 
             @Override
             public void handleResult(ResourceResponse invokeResponse) {
-                try {
-                    // now re-read the referenced object to see the aftermath of the request
-                    ResourceResponse afterResponse = getConnection()
-                            .read(context, Requests.newReadRequest(referenceToSync));
-                    // now perform the sync
-                    logger.debug("after relationship change on {}{}, making sync request on {}", resourceContainer,
-                            schemaField.getName(), referenceToSync);
-                    ResourcePath resourcePath = resourcePath(referenceToSync);
-                    final ActionRequest syncRequest = Requests.newActionRequest("sync", notifyUpdate.name())
-                            .setAdditionalParameter(ACTION_PARAM_RESOURCE_CONTAINER, resourcePath.parent().toString())
-                            .setAdditionalParameter(ACTION_PARAM_RESOURCE_ID, resourcePath.leaf())
-                            .setContent(
-                                    json(
-                                            object(
-                                                    field("oldValue", before.getContent().getObject()),
-                                                    field("newValue", afterResponse.getContent().getObject()))
-                                    ));
-                    getConnection().action(context, syncRequest);
-                } catch (Exception e) {
-                    logger.warn("request on relationship was successful, however the reverse referenced object " +
-                            referenceToSync + " failed to request a sync.", e);
-                }
+                syncReferencedObject(context, referenceToSync, before);
             }
         }
     }
 
+    /**
+     * Reads the state of an object referenced by a changed relationship and performs a sync on it.
+     *
+     * @param context context of the request made on the relationship.
+     * @param referenceToSync the resource path the the object that needs to get synced.
+     * @param before the state of the referenced object before the request on the relationship was made.
+     */
+    private void syncReferencedObject(Context context, String referenceToSync, ResourceResponse before) {
+        try {
+            // now re-read the referenced object to see the aftermath of the request
+            ResourceResponse afterResponse = getConnection()
+                    .read(context, Requests.newReadRequest(referenceToSync));
+            // now perform the sync
+            logger.debug("after relationship change on {}{}, making sync request on {}", resourceContainer,
+                    schemaField.getName(), referenceToSync);
+            ResourcePath resourcePath = resourcePath(referenceToSync);
+            final ActionRequest syncRequest = Requests.newActionRequest("sync", notifyUpdate.name())
+                    .setAdditionalParameter(ACTION_PARAM_RESOURCE_CONTAINER, resourcePath.parent().toString())
+                    .setAdditionalParameter(ACTION_PARAM_RESOURCE_ID, resourcePath.leaf())
+                    .setContent(
+                            json(
+                                    object(
+                                            field("oldValue", before.getContent().getObject()),
+                                            field("newValue", afterResponse.getContent().getObject()))
+                            ));
+            getConnection().action(context, syncRequest);
+        } catch (Exception e) {
+            logger.warn("request on relationship was successful, however the reverse referenced object " +
+                    referenceToSync + " failed to request a sync.", e);
+        }
+    }
+
     /**
      * Sync on the reverse relationship is only possible and needed on reverse relationships and if the reverse
      * property name is set correctly.
      *
      * @return true if isReverseRelationship and the reversePropertyName is set.
      */
-    private boolean isReverseSyncNeeded() {
+    protected boolean isReverseSyncNeeded() {
         return schemaField.isReverseRelationship() && null != schemaField.getReversePropertyName();
     }
 
@@ -12,26 +12,37 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.managed;
 
 import static java.text.MessageFormat.format;
+import static org.forgerock.json.resource.ResourceResponse.FIELD_CONTENT_ID;
 import static org.forgerock.openidm.util.RelationshipUtil.REFERENCE_ID;
 
 import org.forgerock.openidm.util.ResourceUtil;
 import org.forgerock.util.annotations.VisibleForTesting;
+import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.resource.BadRequestException;
 import org.forgerock.json.resource.NotFoundException;
+import org.forgerock.json.resource.QueryResourceHandler;
 import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.Requests;
 import org.forgerock.json.resource.ResourceException;
 import org.forgerock.json.resource.ResourcePath;
 import org.forgerock.json.resource.ResourceResponse;
 import org.forgerock.services.context.Context;
+import org.forgerock.util.query.QueryFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -124,6 +135,107 @@ abstract class RelationshipValidator {
         }
     }
 
+    /**
+     * Returns whether a relationship to an object of the given resource container is valid as soon as that object
+     * exists, in which case {@link #validateRelationships} may check the existence of a number of referenced objects
+     * with a single query.
+     *
+     * @param referenceContainer the resource container of the referenced object, e.g. managed/role
+     * @param context the original invocation Context.
+     * @param performDuplicateAssignmentCheck set to true if invocation state should be compared to repository state
+     *                                        to determine if existing relationships are specified in the invocation
+     * @return true if nothing but the existence of the referenced object has to be validated
+     */
+    boolean isValidIfReferenceExists(ResourcePath referenceContainer, Context context,
+            boolean performDuplicateAssignmentCheck) {
+        return false;
+    }
+
+    /**
+     * Validates a number of relationships, as {@link #validateRelationship} does. The existence of the objects
+     * referenced by relationships which need no further validation is checked with one query per resource container
+     * rather than a read per relationship; the others, and any whose referenced object the query did not return, are
+     * validated individually.
+     *
+     * @param relationshipFields the fields defining the relationships which will be validated.
+     * @param referrerId the id of the object 'hosting' the relationships, aka the referrer
+     * @param context context of the request working with the relationships.
+     * @param performDuplicateAssignmentCheck set to true if invocation state should be compared to repository state to determine if
+     *                                        existing relationships are specified in the invocation
+     * @throws ResourceException BadRequestException when a relationship is invalid, otherwise for other issues.
+     */
+    final void validateRelationships(final List<JsonValue> relationshipFields, ResourcePath referrerId,
+            Context context, boolean performDuplicateAssignmentCheck) throws ResourceException {
+        final Map<ResourcePath, List<JsonValue>> byContainer = new LinkedHashMap<>();
+        for (JsonValue relationshipField : relationshipFields) {
+            final ResourcePath reference = relationshipField.isMap() && relationshipField.get(REFERENCE_ID).isString()
+                    ? ResourcePath.valueOf(relationshipField.get(REFERENCE_ID).asString())
+                    : null;
+            if (reference == null || reference.size() < 2) {
+                validateRelationship(relationshipField, referrerId, context, performDuplicateAssignmentCheck);
+                continue;
+            }
+            List<JsonValue> fields = byContainer.get(reference.parent());
+            if (fields == null) {
+                fields = new ArrayList<>();
+                byContainer.put(reference.parent(), fields);
+            }
+            fields.add(relationshipField);
+        }
+
+        for (Map.Entry<ResourcePath, List<JsonValue>> entry : byContainer.entrySet()) {
+            final List<JsonValue> fields = entry.getValue();
+            final Set<String> existingIds = fields.size() > 1
+                    && isValidIfReferenceExists(entry.getKey(), context, performDuplicateAssignmentCheck)
+                    ? queryExistingIds(context, entry.getKey(), fields)
+                    : Collections.<String>emptySet();
+            for (JsonValue relationshipField : fields) {
+                if (!existingIds.contains(ResourcePath.valueOf(relationshipField.get(REFERENCE_ID).asString()).leaf())) {
+                    validateRelationship(relationshipField, referrerId, context, performDuplicateAssignmentCheck);
+                }
+            }
+        }
+    }
+
+    /**
+     * Queries which of the objects referenced by relationships exist, with one query per batch. A resource container
+     * which does not support the query is left to individual validation.
+     *
+     * @param context the request Context
+     * @param referenceContainer the resource container of the referenced objects
+     * @param relationshipFields the relationships referencing objects of the container
+     * @return the ids of the referenced objects which exist
+     */
+    private Set<String> queryExistingIds(Context context, ResourcePath referenceContainer,
+            List<JsonValue> relationshipFields) {
+        final Set<String> existingIds = new HashSet<>();
+        try {
+            for (int from = 0; from < relationshipFields.size(); from += RelationshipProvider.BATCH_SIZE) {
+                final List<QueryFilter<JsonPointer>> ids = new ArrayList<>();
+                for (JsonValue relationshipField : relationshipFields.subList(from,
+                        Math.min(from + RelationshipProvider.BATCH_SIZE, relationshipFields.size()))) {
+                    ids.add(QueryFilter.equalTo(new JsonPointer(FIELD_CONTENT_ID),
+                            ResourcePath.valueOf(relationshipField.get(REFERENCE_ID).asString()).leaf()));
+                }
+                relationshipProvider.getConnection().query(context,
+                        Requests.newQueryRequest(referenceContainer)
+                                .setQueryFilter(QueryFilter.or(ids))
+                                .addField(FIELD_CONTENT_ID),
+                        new QueryResourceHandler() {
+                            @Override
+                            public boolean handleResource(ResourceResponse resource) {
+                                existingIds.add(resource.getId());
+                                return true;
+                            }
+                        });
+            }
+        } catch (ResourceException e) {
+            logger.debug("Unable to query {} for the referenced objects, validating them individually",
+                    referenceContainer, e);
+        }
+        return existingIds;
+    }
+
     /**
      * Called to determine if the _refProperties of two relationships are equal.
      * @param existingRefProps the _refProperties of the existing relationship whose _ref matches that
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.managed;
 
@@ -162,6 +163,24 @@ public class ReverseRelationshipValidator extends RelationshipValidator {
          */
     }
 
+    /**
+     * A reverse relationship is valid as soon as the referenced object exists, unless the reverse property is a
+     * singleton relationship, which must not already refer to another object, or duplicate assignments of a
+     * many-to-many relationship have to be checked.
+     */
+    @Override
+    protected boolean isValidIfReferenceExists(ResourcePath referenceContainer, Context context,
+            boolean performDuplicateAssignmentCheck) {
+        switch (getReverseReferenceType(referenceContainer, context)) {
+            case RELATIONSHIP:
+                return false;
+            case ARRAY:
+                return !(performDuplicateAssignmentCheck && relationshipIsArray);
+            default:
+                return true;
+        }
+    }
+
     private void validateCollectionRelationshipReadResponse(Context context, JsonValue relationshipField, ResourcePath referrerId)
             throws ResourceException {
 
@@ -268,6 +287,10 @@ public class ReverseRelationshipValidator extends RelationshipValidator {
     }
 
     private ReverseReferenceType getReverseReferenceType(String relationshipRef, Context context) {
+        return getReverseReferenceType(getRelationshipRefResourcePath(relationshipRef), context);
+    }
+
+    private ReverseReferenceType getReverseReferenceType(ResourcePath referenceContainer, Context context) {
         /*
         Many to-be-validated relationship refs look like repo/internal/openidm-authorized. The 5.0 release only has
         API descriptor support for managed/, and these are thus the only entities for which the type of the reverse
@@ -275,18 +298,19 @@ public class ReverseRelationshipValidator extends RelationshipValidator {
         Because this method is called as part of the validation of every single relationship, I only want to disptach the
         request if there is an expectation of its satisfaction.
          */
-        if (relationshipRef.startsWith("managed/")) {
+        if (referenceContainer.toString().startsWith("managed/")) {
             final EventEntry measure = Publisher.start(
                     Name.get("openidm/internal/reverseRelationshipValidator/getReverseReferenceType"), null, null);
             try {
                 final Connection connection = getRelationshipProvider().getConnection();
                 if (connection instanceof Describable) {
                     final ApiDescription description = ((Describable<ApiDescription, Request>) connection).handleApiRequest(
-                            context, Requests.newApiRequest(getRelationshipRefResourcePath(relationshipRef)));
+                            context, Requests.newApiRequest(referenceContainer));
                     return ReverseReferenceType.parseReverseReferenceType(parsePropertiesFromAPIDescription(description),
                             relationshipReversePropertyName);
                 } else {
-                    logger.warn("Connection not Describable - cannot make API Request on relationship ref " + relationshipRef);
+                    logger.warn("Connection not Describable - cannot make API Request on relationship container "
+                            + referenceContainer);
                     return ReverseReferenceType.NA;
                 }
             } catch (Exception e) {
@@ -14,7 +14,7 @@
  * "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 package org.forgerock.openidm.sync.impl;
 
@@ -174,6 +174,15 @@ class ObjectMapping {
     /** The number of initial tasks the ReconFeeder should submit to executors */
     private int feedSize;
 
+    /**
+     * The number of source entries to prefetch the linked target objects of in one query, when the target query
+     * returns ids only and the links are prefetched. 0 to read each target individually.
+     */
+    private final int targetPrefetchSize;
+
+    /** The configuration of the adaptive number of processing threads, replacing taskThreads and feedSize if set */
+    private final JsonValue adaptiveTaskThreads;
+
     /** a reference to the {@link ConnectionFactory} */
     private final ConnectionFactory connectionFactory;
 
@@ -224,6 +233,10 @@ class ObjectMapping {
         prefetchLinks = config.get("prefetchLinks").defaultTo(true).asBoolean();
         taskThreads = config.get("taskThreads").defaultTo(DEFAULT_TASK_THREADS).asInteger();
         feedSize = config.get("feedSize").defaultTo(ReconFeeder.DEFAULT_FEED_SIZE).asInteger();
+        adaptiveTaskThreads = config.get(ReconConcurrencyLimit.CONFIG_ADAPTIVE_TASK_THREADS);
+        targetPrefetchSize = config.get("targetPrefetchSize").defaultTo(0).asInteger();
+        // validate the configuration up front
+        ReconConcurrencyLimit.fromConfig(adaptiveTaskThreads, taskThreads);
         syncEnabled = config.get("enableSync").defaultTo(true).asBoolean();
         linkingEnabled = config.get("enableLinking").defaultTo(true).asBoolean();
         reconSourceQueryPaging = config.get("reconSourceQueryPaging").defaultTo(false).asBoolean();
@@ -786,10 +799,18 @@ class ObjectMapping {
                     stats.addDuration(DurationMetric.sourceQuery, pagedSourceQueryStart);
                 }
                 // Perform source recon phase on current set of source ids
-                ReconPhase sourcePhase = 
-                        new ReconPhase(sourceIter, reconContext, context, allLinks, remainingTargetIds, sourceRecon);
+                // Prefetch the linked targets in batches if they are not preloaded
+                Iterator<ResultEntry> sourceEntries = sourceIter;
+                if (targetPrefetchSize > 0 && allLinks != null && !reconContext.hasTargetsValues()) {
+                    sourceEntries = new TargetPrefetcher(sourceIter, reconContext, context, allLinks,
+                            targetPrefetchSize, ReconFeeder.getMaxInFlight(reconContext, feedSize));
+                }
+                ReconPhase sourcePhase = new ReconPhase(sourceEntries, reconContext, context, allLinks,
+                        remainingTargetIds, sourceRecon);
                 sourcePhase.setFeedSize(feedSize);
                 sourcePhase.execute();
+                // the targets prefetched for the entries of the page and not taken are not needed anymore
+                reconContext.clearPrefetchedTargets();
                 queryNextPage = true;
             } while (reconSourceQueryPaging && sourceQueryResult.getPagingCookie() != null); // If paging, loop through next pages
 
@@ -916,6 +937,14 @@ class ObjectMapping {
         return taskThreads;
     }
 
+    /**
+     * @return a new adaptive limit of the number of tasks to process concurrently in a recon run,
+     * or null if the mapping uses a fixed number of threads.
+     */
+    ReconConcurrencyLimit newConcurrencyLimit() {
+        return ReconConcurrencyLimit.fromConfig(adaptiveTaskThreads, taskThreads);
+    }
+
     /**
      * Creates an entry in the audit log.
      *
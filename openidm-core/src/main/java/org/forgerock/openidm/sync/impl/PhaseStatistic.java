@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Portions copyright 2016 ForgeRock AS.
+ * Portions copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.sync.impl;
 
@@ -29,6 +30,7 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import org.forgerock.openidm.core.ServerConstants;
 import org.forgerock.openidm.util.DateUtil;
+import org.forgerock.openidm.util.RateMeter;
 
 /**
  * Holds the (source/target) Phase specific statistics
@@ -45,6 +47,7 @@ public class PhaseStatistic {
     private String name;
     private Map<Situation, List<String>> ids = Collections.synchronizedMap(new EnumMap<Situation, List<String>>(Situation.class));
     private AtomicLong processedEntries = new AtomicLong();
+    private RateMeter processedRate = new RateMeter();
     private List<String> notValid;
 
     long queryStartTime;
@@ -93,6 +96,7 @@ public class PhaseStatistic {
         parentStat.processed(sourceId, targetId, linkExisted, linkId, linkCreated, situation, action);
         if (id != null) {
             processedEntries.incrementAndGet();
+            processedRate.mark();
             if (situation != null) {
                 List<String> situationIds = ids.get(situation);
                 if (situationIds != null) {
@@ -112,6 +116,21 @@ public class PhaseStatistic {
         return processedEntries.get();
     }
 
+    /**
+     * Returns the throughput of the phase: the entries processed, and the rates, in entries per second, over the
+     * last 10 and 60 seconds and since the start of the reconciliation.
+     *
+     * @return the throughput of the phase
+     */
+    public Map<String, Object> getThroughput() {
+        Map<String, Object> results = new HashMap<String, Object>();
+        results.put("processed", processedRate.count());
+        results.put("rate10s", processedRate.rate(10));
+        results.put("rate60s", processedRate.rate(60));
+        results.put("meanRate", processedRate.meanRate());
+        return results;
+    }
+
     public Map<String, Object> asMap() {
         Map<String, Object> results = new HashMap<String, Object>();
 
@@ -0,0 +1,196 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.sync.impl;
+
+import static org.forgerock.openidm.util.DurationStatistics.nanoToMillis;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.JsonValueException;
+
+/**
+ * Adaptive limit of the number of recon tasks processed concurrently, which replaces the fixed {@code taskThreads}
+ * of a mapping configured with {@code adaptiveTaskThreads}.
+ * <p>
+ * The limit is adjusted after each window of completed tasks, in the manner of TCP congestion control: it is
+ * decreased multiplicatively when the mean latency of the window exceeds the baseline latency by more than the
+ * tolerance, or when the share of failed tasks exceeds the error threshold, and it is otherwise increased by one.
+ * The baseline is the best mean latency observed, which drifts slowly towards the current latency so that the
+ * limit follows a target whose speed changes over time.
+ */
+class ReconConcurrencyLimit {
+
+    /** The mapping property which configures the adaptive limit */
+    static final String CONFIG_ADAPTIVE_TASK_THREADS = "adaptiveTaskThreads";
+
+    private static final int DEFAULT_MIN_THREADS = 1;
+    private static final int DEFAULT_MAX_THREADS = 50;
+    private static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+    private static final double DEFAULT_BACKOFF_RATIO = 0.9;
+    private static final double DEFAULT_ERROR_THRESHOLD = 0.05;
+
+    /** The minimum number of tasks in a window, so that the mean latency of small limits is not too noisy */
+    private static final int MIN_WINDOW_SIZE = 10;
+    /** The share of the gap to the current latency by which the baseline drifts after each window */
+    private static final double BASELINE_DRIFT = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final double errorThreshold;
+
+    private volatile int limit;
+
+    // guarded by this
+    private double baselineLatency = Double.MAX_VALUE;
+    private double lastLatency;
+    private int windowSamples;
+    private int windowFailures;
+    private long windowLatencySum;
+    private long increases;
+    private long decreases;
+
+    /**
+     * Constructs a limit.
+     *
+     * @param initialLimit the limit to start with, clamped between the minimum and maximum limits
+     * @param minLimit the minimum limit
+     * @param maxLimit the maximum limit
+     * @param latencyTolerance the ratio of the mean latency to the baseline latency above which the limit decreases
+     * @param backoffRatio the ratio the limit is multiplied by when it decreases
+     * @param errorThreshold the share of failed tasks above which the limit decreases
+     */
+    ReconConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double latencyTolerance,
+            double backoffRatio, double errorThreshold) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid adaptive task threads range " + minLimit + "-" + maxLimit);
+        }
+        if (latencyTolerance <= 1 || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("latencyTolerance must be greater than 1, "
+                    + "and backoffRatio between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+        this.errorThreshold = errorThreshold;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+    }
+
+    /**
+     * Creates the limit configured in a mapping.
+     *
+     * @param config the {@code adaptiveTaskThreads} configuration of the mapping
+     * @param taskThreads the {@code taskThreads} of the mapping, used as the initial limit
+     * @return the limit, or {@code null} if the mapping does not configure an adaptive limit
+     * @throws JsonValueException if the configuration is invalid
+     */
+    static ReconConcurrencyLimit fromConfig(JsonValue config, int taskThreads) {
+        if (config.isNull() || !config.get("enabled").defaultTo(true).asBoolean()) {
+            return null;
+        }
+        try {
+            return new ReconConcurrencyLimit(taskThreads,
+                    config.get("minThreads").defaultTo(DEFAULT_MIN_THREADS).asInteger(),
+                    config.get("maxThreads").defaultTo(Math.max(DEFAULT_MAX_THREADS, taskThreads)).asInteger(),
+                    config.get("latencyTolerance").defaultTo(DEFAULT_LATENCY_TOLERANCE).asDouble(),
+                    config.get("backoffRatio").defaultTo(DEFAULT_BACKOFF_RATIO).asDouble(),
+                    config.get("errorThreshold").defaultTo(DEFAULT_ERROR_THRESHOLD).asDouble());
+        } catch (IllegalArgumentException e) {
+            throw new JsonValueException(config, e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the number of tasks to process concurrently
+     */
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the maximum limit.
+     *
+     * @return the maximum number of tasks to process concurrently
+     */
+    int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Records the latency of a completed task, and adjusts the limit if the task completes a window.
+     *
+     * @param latencyNanos the time the task took to process, in nanoseconds
+     */
+    synchronized void taskCompleted(long latencyNanos) {
+        windowLatencySum += latencyNanos;
+        if (++windowSamples < Math.max(limit, MIN_WINDOW_SIZE)) {
+            return;
+        }
+        lastLatency = (double) windowLatencySum / windowSamples;
+        final double errorRate = (double) windowFailures / windowSamples;
+        if (lastLatency < baselineLatency) {
+            baselineLatency = lastLatency;
+        }
+
+        if (errorRate > errorThreshold || lastLatency > baselineLatency * latencyTolerance) {
+            final int decreased = Math.max(minLimit, (int) (limit * backoffRatio));
+            if (decreased < limit) {
+                limit = decreased;
+                decreases++;
+            }
+        } else if (limit < maxLimit) {
+            limit++;
+            increases++;
+        }
+
+        baselineLatency += (lastLatency - baselineLatency) * BASELINE_DRIFT;
+        windowSamples = 0;
+        windowFailures = 0;
+        windowLatencySum = 0;
+    }
+
+    /**
+     * Records the failure of a task, which still has to be reported as completed.
+     */
+    synchronized void taskFailed() {
+        windowFailures++;
+    }
+
+    /**
+     * Returns a summary of the limit, for the recon statistics.
+     *
+     * @return the current, minimum and maximum limits, the number of adjustments, and the baseline and last mean
+     *      latencies in milliseconds
+     */
+    synchronized Map<String, Object> getSummary() {
+        final Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("limit", limit);
+        summary.put("minThreads", minLimit);
+        summary.put("maxThreads", maxLimit);
+        summary.put("increases", increases);
+        summary.put("decreases", decreases);
+        summary.put("baselineLatency", baselineLatency == Double.MAX_VALUE ? 0 : nanoToMillis((long) baselineLatency));
+        summary.put("lastLatency", nanoToMillis((long) lastLatency));
+        return summary;
+    }
+}
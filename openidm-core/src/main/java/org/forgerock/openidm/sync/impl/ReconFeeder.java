@@ -2,6 +2,7 @@
 * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
 *
 * Copyright (c) 2012-2015 ForgeRock AS. All Rights Reserved
+* Portions Copyright 2026 Wren Security.
 *
 * The contents of this file are subject to the terms
 * of the Common Development and Distribution License
@@ -40,7 +41,8 @@ import java.util.concurrent.Future;
  * multi-threaded using an executor.
  *
  * Keeps the executor loaded to a desirable level, rather than filling up
- * its queue with all tasks up front.
+ * its queue with all tasks up front: the configured feed size, or the
+ * adaptive limit of the recon when the mapping configures one.
  */
 public abstract class ReconFeeder {
     
@@ -65,6 +67,22 @@ public abstract class ReconFeeder {
         this.feedSize = feedSize;
     }
 
+    /**
+     * Returns the maximum number of entries a feeder keeps in flight: one when the recon is single threaded, else
+     * the maximum adaptive limit of the recon if it has one, or the feed size.
+     *
+     * @param reconContext the recon context
+     * @param feedSize the feed size of the feeder
+     * @return the maximum number of entries handed out and not reconciled yet
+     */
+    static int getMaxInFlight(ReconciliationContext reconContext, int feedSize) {
+        if (reconContext.getExcecutor() == null) {
+            return 1;
+        }
+        ReconConcurrencyLimit concurrencyLimit = reconContext.getConcurrencyLimit();
+        return concurrencyLimit != null ? concurrencyLimit.getMaxLimit() : feedSize;
+    }
+
     void execute() throws SynchronizationException, InterruptedException {
         Executor executor = reconContext.getExcecutor();
         if (executor == null) {
@@ -80,9 +98,11 @@ public abstract class ReconFeeder {
         } else {
             submitted = 0;
             completionService = new ExecutorCompletionService<Void>(executor);
+            ReconConcurrencyLimit concurrencyLimit = reconContext.getConcurrencyLimit();
 
-            // Pre-load configured number of items
-            for (int i = 0; i < feedSize; ++i) {
+            // Pre-load configured number of items, or as many as the adaptive limit allows
+            int preload = concurrencyLimit != null ? concurrencyLimit.getLimit() : feedSize;
+            for (int i = 0; i < preload; ++i) {
                 submitNextIfPresent();
             }
 
@@ -96,18 +116,50 @@ public abstract class ReconFeeder {
                 } catch (ExecutionException ex) {
                     translateTaskThrowable(ex);
                 }
-                submitNextIfPresent();
+                if (concurrencyLimit == null) {
+                    submitNextIfPresent();
+                } else {
+                    // Follow the adaptive limit, which may have changed with the completion of the task
+                    int limit = concurrencyLimit.getLimit();
+                    reconContext.resizeExecutor(limit);
+                    while (submitted - (processed + 1) < limit && submitNextIfPresent()) {
+                        // submitted another task
+                    }
+                }
             }
         }
     }
 
-    void submitNextIfPresent() throws SynchronizationException {
+    boolean submitNextIfPresent() throws SynchronizationException {
         reconContext.checkCanceled();
         if (entriesIter.hasNext()) {
             ResultEntry entry = entriesIter.next();
-            completionService.submit(createTask(entry));
+            completionService.submit(measure(createTask(entry)));
             ++submitted;
+            return true;
         }
+        return false;
+    }
+
+    /**
+     * Wraps a task to report its latency to the adaptive limit of the recon, if any.
+     */
+    private Callable<Void> measure(final Callable<Void> task) {
+        final ReconConcurrencyLimit concurrencyLimit = reconContext.getConcurrencyLimit();
+        if (concurrencyLimit == null) {
+            return task;
+        }
+        return new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                final long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    concurrencyLimit.taskCompleted(System.nanoTime() - start);
+                }
+            }
+        };
     }
 
     void translateTaskThrowable(Throwable throwable) throws SynchronizationException {
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Portions copyright 2011-2015 ForgeRock AS.
+ * Portions copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.sync.impl;
 
@@ -24,6 +25,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.forgerock.openidm.sync.SynchronizationException;
 import org.forgerock.services.context.Context;
@@ -55,6 +59,7 @@ public class ReconciliationContext {
     private ReconTypeHandler reconTypeHandler;
     private final ReconciliationStatistic reconStat;
     private ExecutorService executor;
+    private final ReconConcurrencyLimit concurrencyLimit;
 
     // If set, the list of all queried source Ids
     private Set<String> sourceIds;
@@ -63,6 +68,9 @@ public class ReconciliationContext {
     private Map<String, JsonValue> targets;
     // Whether the targets map contains preloaded values
     private boolean hasTargetsValues;
+
+    // The target values prefetched for the entries about to be reconciled, until they are taken
+    private final Map<String, JsonValue> prefetchedTargets = new ConcurrentHashMap<String, JsonValue>();
     
     private Integer totalSourceEntries;
     private Integer totalTargetEntries;
@@ -99,7 +107,14 @@ public class ReconciliationContext {
 
         // Initialize the executor for this recon, or null if no executor should be used
         int noOfThreads = mapping.getTaskThreads();
-        if (noOfThreads > 0) {
+        concurrencyLimit = mapping.newConcurrencyLimit();
+        if (concurrencyLimit != null) {
+            // The core threads follow the adaptive limit, the unbounded queue never grows beyond it
+            ThreadPoolExecutor threadPool = new ThreadPoolExecutor(concurrencyLimit.getLimit(),
+                    concurrencyLimit.getMaxLimit(), 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+            threadPool.allowCoreThreadTimeOut(true);
+            executor = threadPool;
+        } else if (noOfThreads > 0) {
             executor = Executors.newFixedThreadPool(noOfThreads);
         } else {
             executor = null;
@@ -266,6 +281,28 @@ public class ReconciliationContext {
         return executor;
     }
 
+    /**
+     * @return the adaptive limit of the number of tasks processed concurrently, or null if the mapping uses a
+     * fixed number of threads
+     */
+    ReconConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Resizes the executor of this recon to follow the adaptive limit.
+     *
+     * @param taskThreads the number of threads to process tasks with
+     */
+    synchronized void resizeExecutor(int taskThreads) {
+        if (executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor threadPool = (ThreadPoolExecutor) executor;
+            if (threadPool.getCorePoolSize() != taskThreads) {
+                threadPool.setCorePoolSize(taskThreads);
+            }
+        }
+    }
+
     /**
      * Query (and cache if necessary) sources to reconcile
      * @return the source ids to reconcile in this recon scope
@@ -355,6 +392,43 @@ public class ReconciliationContext {
         return hasTargetsValues;
     }
 
+    /**
+     * @param targetId the normalized id of the prefetched target
+     * @param value the prefetched target value
+     */
+    void putPrefetchedTarget(String targetId, JsonValue value) {
+        prefetchedTargets.put(targetId, value);
+    }
+
+    /**
+     * Takes a target value prefetched by a {@link TargetPrefetcher}, which is then forgotten to keep
+     * the prefetched values bounded to the entries about to be reconciled.
+     *
+     * @param targetId the normalized id of the target
+     * @return the prefetched target value, or null if the target was not prefetched
+     */
+    public JsonValue takePrefetchedTarget(String targetId) {
+        return prefetchedTargets.remove(targetId);
+    }
+
+    /**
+     * Forgets the target values prefetched which were not taken, e.g. because the entry they were prefetched for
+     * was not linked anymore by the time it was reconciled, or its link was not followed.
+     *
+     * @param targetIds the normalized ids of the targets
+     */
+    void dropPrefetchedTargets(Collection<String> targetIds) {
+        prefetchedTargets.keySet().removeAll(targetIds);
+    }
+
+    /**
+     * Forgets all the target values prefetched which were not taken, once the entries they were prefetched for have
+     * all been reconciled.
+     */
+    void clearPrefetchedTargets() {
+        prefetchedTargets.clear();
+    }
+
     /**
      * @param newStage Sets the current state and stage in the reconciliation process
      */
@@ -390,12 +464,34 @@ public class ReconciliationContext {
     private synchronized void cleanupState() {
         sourceIds = null;
         targets = null;
+        prefetchedTargets.clear();
         if (executor != null) {
             executor.shutdown();
             executor = null;
         }
     }
 
+    /**
+     * Returns a summary of the executor of the reconciliation run: its number of threads, the number of threads
+     * actively processing entries, the number of entries queued for processing and the number of entries processed.
+     * The summary also holds the adaptive limit of the run, if any. The executor statistics are missing once the
+     * run is complete, or if the run does not use an executor.
+     */
+    synchronized Map<String, Object> getExecutorSummary() {
+        Map<String, Object> executorSummary = new LinkedHashMap<String, Object>();
+        if (executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor threadPool = (ThreadPoolExecutor) executor;
+            executorSummary.put("taskThreads", threadPool.getCorePoolSize());
+            executorSummary.put("activeThreads", threadPool.getActiveCount());
+            executorSummary.put("queueDepth", threadPool.getQueue().size());
+            executorSummary.put("completedTasks", threadPool.getCompletedTaskCount());
+        }
+        if (concurrencyLimit != null) {
+            executorSummary.put("adaptiveLimit", concurrencyLimit.getSummary());
+        }
+        return executorSummary;
+    }
+
     /**
      * Returns a summary of the reconciliation run.
      */
@@ -410,6 +506,8 @@ public class ReconciliationContext {
         reconSummary.put("situationSummary", getStatistics().getSituationSummary());
         reconSummary.put("statusSummary", getStatistics().getStatusSummary());
         reconSummary.put("durationSummary", getStatistics().getDurationSummary());
+        reconSummary.put("throughputSummary", getStatistics().getThroughputSummary());
+        reconSummary.put("executorSummary", getExecutorSummary());
         reconSummary.put("parameters", reconTypeHandler.getReconParameters().getObject());
         reconSummary.put("started", getStatistics().getStarted());
         reconSummary.put("ended", getStatistics().getEnded());
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Portions copyright 2012-2015 ForgeRock AS.
+ * Portions copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.sync.impl;
 
@@ -564,6 +565,31 @@ public class ReconciliationService
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Map<String, Object>> getActiveReconciliations() {
+        final List<ReconciliationContext> runs;
+        synchronized (reconRuns) {
+            runs = new ArrayList<>(reconRuns.values());
+        }
+        final Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (ReconciliationContext run : runs) {
+            if (!"ACTIVE".equals(run.getState())) {
+                continue;
+            }
+            final Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("mapping", run.getMapping());
+            statistics.put("stage", run.getStage().toString());
+            statistics.put("throughputSummary", run.getStatistics().getThroughputSummary());
+            statistics.put("durationSummary", run.getStatistics().getDurationSummary());
+            statistics.put("executorSummary", run.getExecutorSummary());
+            result.put(run.getReconId(), statistics);
+        }
+        return result;
+    }
+
     /**
      * {@inheritDoc}
      */
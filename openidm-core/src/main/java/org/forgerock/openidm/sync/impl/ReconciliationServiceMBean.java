@@ -12,12 +12,14 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openidm.sync.impl;
 
 import org.forgerock.json.resource.ResourceException;
 
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -66,4 +68,11 @@ public interface ReconciliationServiceMBean {
      * @throws ResourceException if there is an error getting maximum allowed number of threads.
      */
     public int getMaximumPoolSize() throws ResourceException;
+
+    /**
+     * Gets the live statistics of the active reconciliation runs: the throughput of each phase, the latency
+     * percentiles of each duration metric and the state of the executor of the run.
+     * @return the live statistics of the active reconciliation runs, by reconciliation id.
+     */
+    public Map<String, Map<String, Object>> getActiveReconciliations();
 }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Portions copyright 2012-2016 ForgeRock AS.
+ * Portions copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.sync.impl;
 
@@ -27,6 +28,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.forgerock.openidm.audit.util.Status;
 import org.forgerock.openidm.core.ServerConstants;
+import org.forgerock.openidm.smartevent.LatencyHistogram;
 import org.forgerock.openidm.sync.ReconAction;
 import org.forgerock.openidm.util.DateUtil;
 import org.forgerock.openidm.util.DurationStatistics;
@@ -66,6 +68,7 @@ public class ReconciliationStatistic {
         targetLinkQuery,
         targetObjectQuery,
         targetPhase,
+        targetPrefetch,
         targetQuery,
         updateTargetObject,
         validSourceScript,
@@ -91,6 +94,7 @@ public class ReconciliationStatistic {
     
     private Map<ReconStage, Map<String, Object>> stageStat = new ConcurrentHashMap<>();
     private ConcurrentHashMap<String, DurationStatistics> durationStat = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String, LatencyHistogram> durationHistogram = new ConcurrentHashMap<>();
 
     public ReconciliationStatistic(ReconciliationContext reconContext) {
         this.reconContext = reconContext;
@@ -120,6 +124,16 @@ public class ReconciliationStatistic {
             }
         }
         entry.stopNanoTime(startNanoTime);
+
+        LatencyHistogram histogram = durationHistogram.get(metric.name());
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            final LatencyHistogram existing = durationHistogram.putIfAbsent(metric.name(), histogram);
+            if (existing != null) {
+                histogram = existing;
+            }
+        }
+        histogram.recordSince(startNanoTime);
     }
     
     public PhaseStatistic getSourceStat() {
@@ -224,6 +238,12 @@ public class ReconciliationStatistic {
 
     public void processStatus(Status status) {
         statusProcessed.get(status).incrementAndGet();
+        if (status == Status.FAILURE) {
+            final ReconConcurrencyLimit concurrencyLimit = reconContext.getConcurrencyLimit();
+            if (concurrencyLimit != null) {
+                concurrencyLimit.taskFailed();
+            }
+        }
     }
 
     /**
@@ -345,7 +365,8 @@ public class ReconciliationStatistic {
     }
 
     /**
-     * Exposes current duration statistics, gathered from calls to {@link #addDuration(DurationMetric, long)}.
+     * Exposes current duration statistics, gathered from calls to {@link #addDuration(DurationMetric, long)},
+     * including the 50th, 95th and 99th percentiles.
      *
      * @return Map of duration statistics
      */
@@ -365,8 +386,27 @@ public class ReconciliationStatistic {
             valueMap.put("max", nanoToMillis(stats.max()));
             valueMap.put("mean", mean);
             valueMap.put("stdDev", nanoToMillis(stats.stdDev()));
+            final LatencyHistogram histogram = durationHistogram.get(entry.getKey());
+            if (histogram != null) {
+                valueMap.put("p50", nanoToMillis(histogram.valueAtPercentile(50)));
+                valueMap.put("p95", nanoToMillis(histogram.valueAtPercentile(95)));
+                valueMap.put("p99", nanoToMillis(histogram.valueAtPercentile(99)));
+            }
             resultMap.put(entry.getKey(), valueMap);
         }
         return resultMap;
     }
+
+    /**
+     * Exposes the current throughput of the source and target phases, which is updated live while the
+     * reconciliation is running.
+     *
+     * @return Map of the throughput of each phase
+     */
+    public Map<String, Map<String, Object>> getThroughputSummary() {
+        final Map<String, Map<String, Object>> resultMap = new HashMap<>();
+        resultMap.put("source", sourceStat.getThroughput());
+        resultMap.put("target", targetStat.getThroughput());
+        return resultMap;
+    }
 }
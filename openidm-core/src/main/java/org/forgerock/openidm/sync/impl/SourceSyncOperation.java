@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Portions copyright 2011-2016 ForgeRock AS.
+ * Portions copyright 2026 Wren Security.
  */
 
 package org.forgerock.openidm.sync.impl;
@@ -171,6 +172,9 @@ class SourceSyncOperation extends SyncOperation {
                 // If there is a pre-loaded target value, use it
                 if (reconContext.hasTargetsValues()) {
                     preloaded = reconContext.getTargets().get(linkObject.targetId);
+                } else {
+                    // Otherwise use the target value prefetched for this entry, if any
+                    preloaded = reconContext.takePrefetchedTarget(linkObject.targetId);
                 }
             }
             if (preloaded != null) {
@@ -0,0 +1,166 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.sync.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.Requests;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.openidm.sync.impl.ReconciliationStatistic.DurationMetric;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.query.QueryFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Iterates over the source entries of a recon phase in windows, and before handing out the entries of a window,
+ * reads the target objects linked to them with a single query, so that the source sync operations find their target
+ * object already loaded instead of reading it individually.
+ * <p>
+ * The targets are read with an or-ed {@code _id eq} filter on the target object set. If the target object set fails
+ * to handle the query, prefetching is disabled for the rest of the phase, and the targets are read individually.
+ * A target which is not taken by the entry it was prefetched for is dropped once the entries of its window can no
+ * longer be in flight: the feeder keeps a bounded number of entries in flight, so that the targets of
+ * {@code ceil(inFlight / windowSize) + 1} windows are held, the window just prefetched included.
+ * This class is not thread safe, it is meant to be iterated by the {@link ReconFeeder}.
+ */
+class TargetPrefetcher implements Iterator<ResultEntry> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TargetPrefetcher.class);
+
+    private static final JsonPointer ID = new JsonPointer("_id");
+
+    private final Iterator<ResultEntry> sourceEntries;
+    private final ReconciliationContext reconContext;
+    private final Context context;
+    private final Map<String, Map<String, Link>> allLinks;
+    private final int windowSize;
+    /** The number of windows of which the targets are held */
+    private final int retainedWindows;
+    private final Deque<ResultEntry> window = new ArrayDeque<>();
+    private boolean enabled = true;
+    /** The ids of the targets prefetched for the windows held, the last window first */
+    private final Deque<Set<String>> retainedTargetIds = new ArrayDeque<>();
+
+    /**
+     * Constructs a prefetcher.
+     *
+     * @param sourceEntries the source entries to reconcile
+     * @param reconContext the recon context, which holds the prefetched targets
+     * @param context the context to query the targets with
+     * @param allLinks the links of the mapping, by link qualifier and normalized source id
+     * @param windowSize the number of source entries to prefetch the targets of at once
+     * @param inFlight the maximum number of entries the feeder keeps in flight, see
+     *                 {@link ReconFeeder#getMaxInFlight(ReconciliationContext, int)}
+     */
+    TargetPrefetcher(Iterator<ResultEntry> sourceEntries, ReconciliationContext reconContext, Context context,
+            Map<String, Map<String, Link>> allLinks, int windowSize, int inFlight) {
+        this.sourceEntries = sourceEntries;
+        this.reconContext = reconContext;
+        this.context = context;
+        this.allLinks = allLinks;
+        this.windowSize = windowSize;
+        this.retainedWindows = (Math.max(1, inFlight) + windowSize - 1) / windowSize + 1;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !window.isEmpty() || sourceEntries.hasNext();
+    }
+
+    @Override
+    public ResultEntry next() {
+        if (window.isEmpty()) {
+            fillWindow();
+        }
+        if (window.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return window.poll();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    private void fillWindow() {
+        final ObjectMapping mapping = reconContext.getObjectMapping();
+        final Set<String> targetIds = new LinkedHashSet<>();
+        while (window.size() < windowSize && sourceEntries.hasNext()) {
+            final ResultEntry entry = sourceEntries.next();
+            window.add(entry);
+            final String normalizedSourceId = mapping.getLinkType().normalizeSourceId(entry.getId());
+            for (Map<String, Link> links : allLinks.values()) {
+                final Link link = links.get(normalizedSourceId);
+                if (link != null && link.targetId != null) {
+                    targetIds.add(link.targetId);
+                }
+            }
+        }
+        retainedTargetIds.addFirst(targetIds);
+        while (retainedTargetIds.size() > retainedWindows) {
+            final Set<String> expiredTargetIds = retainedTargetIds.removeLast();
+            if (!expiredTargetIds.isEmpty()) {
+                reconContext.dropPrefetchedTargets(expiredTargetIds);
+            }
+        }
+        if (enabled && !targetIds.isEmpty()) {
+            prefetch(mapping, targetIds);
+        }
+    }
+
+    private void prefetch(final ObjectMapping mapping, Set<String> targetIds) {
+        final List<QueryFilter<JsonPointer>> filters = new ArrayList<>(targetIds.size());
+        for (String targetId : targetIds) {
+            filters.add(QueryFilter.equalTo(ID, targetId));
+        }
+        final QueryRequest request = Requests.newQueryRequest(mapping.getTargetObjectSet())
+                .setQueryFilter(QueryFilter.or(filters));
+        final long prefetchStart = ObjectMapping.startNanoTime(reconContext);
+        try {
+            mapping.getConnectionFactory().getConnection().query(context, request, new QueryResourceHandler() {
+                @Override
+                public boolean handleResource(ResourceResponse resource) {
+                    if (resource.getId() != null) {
+                        reconContext.putPrefetchedTarget(
+                                mapping.getLinkType().normalizeTargetId(resource.getId()), resource.getContent());
+                    }
+                    return true;
+                }
+            });
+        } catch (ResourceException e) {
+            logger.warn("Failed to prefetch the targets of {} entries of recon {}, reading targets individually",
+                    targetIds.size(), reconContext.getReconId(), e);
+            enabled = false;
+        } finally {
+            ObjectMapping.addDuration(reconContext, DurationMetric.targetPrefetch, prefetchStart);
+        }
+    }
+}
@@ -12,25 +12,39 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.managed;
 
 import static org.forgerock.json.JsonValue.*;
+import static org.forgerock.json.resource.Responses.newActionResponse;
+import static org.forgerock.json.resource.Responses.newQueryResponse;
 import static org.forgerock.json.resource.Responses.newResourceResponse;
 import static org.mockito.Mockito.*;
 import static org.testng.Assert.*;
 
 import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ActionRequest;
+import org.forgerock.json.resource.BadRequestException;
 import org.forgerock.json.resource.Connection;
 import org.forgerock.json.resource.ConnectionFactory;
+import org.forgerock.json.resource.DeleteRequest;
+import org.forgerock.json.resource.NotFoundException;
 import org.forgerock.json.resource.PreconditionFailedException;
+import org.forgerock.json.resource.QueryFilters;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.QueryResponse;
 import org.forgerock.json.resource.ReadRequest;
 import org.forgerock.json.resource.ResourcePath;
 import org.forgerock.openidm.audit.util.ActivityLogger;
 import org.forgerock.openidm.util.RelationshipUtil;
 import org.forgerock.services.context.Context;
 import org.forgerock.services.context.RootContext;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
@@ -147,6 +161,93 @@ public class CollectionRelationshipProviderTest {
         }
     }
 
+    @Test
+    public void testClearDeletesRelationshipsWithSingleCommand() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.action(any(Context.class), any(ActionRequest.class)))
+                .thenReturn(newActionResponse(json(3)));
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+
+        SchemaField schemaField = mock(SchemaField.class);
+        when(schemaField.getName()).thenReturn("roles");
+        when(schemaField.isReverseRelationship()).thenReturn(false);
+
+        CollectionRelationshipProvider provider = new CollectionRelationshipProvider(connectionFactory,
+                ResourcePath.resourcePath("managed/user"), schemaField, activityLogger, managedObjectSyncService);
+        provider.clear(new RootContext(), "foo").getOrThrow();
+
+        // the relationships are neither read nor deleted one by one
+        ArgumentCaptor<ActionRequest> request = ArgumentCaptor.forClass(ActionRequest.class);
+        verify(connection, times(1)).action(any(Context.class), request.capture());
+        verify(connection, never()).queryAsync(any(Context.class), any(QueryRequest.class),
+                any(QueryResourceHandler.class));
+        verify(connection, never()).deleteAsync(any(Context.class), any(DeleteRequest.class));
+        assertEquals(request.getValue().getResourcePath(), "repo/relationships");
+        assertEquals(request.getValue().getAction(), "command");
+        assertEquals(QueryFilters.parse(request.getValue().getAdditionalParameter("_queryFilter")).toString(),
+                QueryFilters.parse("/firstId eq \"managed/user/foo\" and /firstPropertyName eq \"roles\"")
+                        .toString());
+    }
+
+    @Test
+    public void testValidateFieldQueriesReferencedObjectsOnce() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.query(any(Context.class), any(QueryRequest.class), any(QueryResourceHandler.class)))
+                .thenAnswer(new Answer<QueryResponse>() {
+                    @Override
+                    public QueryResponse answer(InvocationOnMock invocation) {
+                        QueryResourceHandler handler = (QueryResourceHandler) invocation.getArguments()[2];
+                        for (String id : new String[] { "role1", "role2", "role3" }) {
+                            handler.handleResource(newResourceResponse(id, "1", json(object(field("_id", id)))));
+                        }
+                        return newQueryResponse();
+                    }
+                });
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+
+        SchemaField schemaField = mock(SchemaField.class);
+        when(schemaField.getName()).thenReturn("roles");
+        when(schemaField.isReverseRelationship()).thenReturn(false);
+
+        CollectionRelationshipProvider provider = new CollectionRelationshipProvider(connectionFactory,
+                ResourcePath.resourcePath("managed/user"), schemaField, activityLogger, managedObjectSyncService);
+        JsonValue roles = json(array(
+                object(field(RelationshipUtil.REFERENCE_ID, "managed/role/role1")),
+                object(field(RelationshipUtil.REFERENCE_ID, "managed/role/role2")),
+                object(field(RelationshipUtil.REFERENCE_ID, "managed/role/role3"))));
+        provider.validateRelationshipField(new RootContext(), json(null), roles, REFERRING_OBJECT_ID, true);
+
+        // the referenced roles are not read one by one
+        ArgumentCaptor<QueryRequest> request = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(connection, times(1)).query(any(Context.class), request.capture(), any(QueryResourceHandler.class));
+        verify(connection, never()).read(any(Context.class), any(ReadRequest.class));
+        assertEquals(request.getValue().getResourcePath(), "managed/role");
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testValidateFieldReadsMissingReferencedObject() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.query(any(Context.class), any(QueryRequest.class), any(QueryResourceHandler.class)))
+                .thenReturn(newQueryResponse());
+        when(connection.read(any(Context.class), any(ReadRequest.class)))
+                .thenThrow(new NotFoundException());
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+
+        SchemaField schemaField = mock(SchemaField.class);
+        when(schemaField.getName()).thenReturn("roles");
+        when(schemaField.isReverseRelationship()).thenReturn(false);
+
+        CollectionRelationshipProvider provider = new CollectionRelationshipProvider(connectionFactory,
+                ResourcePath.resourcePath("managed/user"), schemaField, activityLogger, managedObjectSyncService);
+        JsonValue roles = json(array(
+                object(field(RelationshipUtil.REFERENCE_ID, "managed/role/role1")),
+                object(field(RelationshipUtil.REFERENCE_ID, "managed/role/missing"))));
+        provider.validateRelationshipField(new RootContext(), json(null), roles, REFERRING_OBJECT_ID, true);
+    }
+
     private static class IsRouteMatcher extends ArgumentMatcher<ReadRequest> {
         private final String route;
 
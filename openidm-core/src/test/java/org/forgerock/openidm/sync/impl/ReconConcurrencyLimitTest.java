@@ -0,0 +1,107 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.sync.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.json.JsonValueException;
+import org.testng.annotations.Test;
+
+public class ReconConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @Test
+    public void testLimitIncreasesWhileLatencyIsStable() {
+        final ReconConcurrencyLimit limit = new ReconConcurrencyLimit(5, 1, 10, 2.0, 0.9, 0.05);
+
+        completeWindow(limit, FAST);
+        assertThat(limit.getLimit()).isEqualTo(6);
+        completeWindow(limit, FAST);
+        assertThat(limit.getLimit()).isEqualTo(7);
+    }
+
+    @Test
+    public void testLimitDecreasesWhenLatencyRises() {
+        final ReconConcurrencyLimit limit = new ReconConcurrencyLimit(10, 1, 20, 2.0, 0.9, 0.05);
+        completeWindow(limit, FAST);
+        assertThat(limit.getLimit()).isEqualTo(11);
+
+        completeWindow(limit, SLOW);
+
+        assertThat(limit.getLimit()).isEqualTo(9);
+        assertThat(limit.getSummary().get("decreases")).isEqualTo(1L);
+    }
+
+    @Test
+    public void testLimitDecreasesOnFailures() {
+        final ReconConcurrencyLimit limit = new ReconConcurrencyLimit(10, 1, 20, 2.0, 0.9, 0.05);
+        limit.taskFailed();
+        limit.taskFailed();
+
+        completeWindow(limit, FAST);
+
+        assertThat(limit.getLimit()).isEqualTo(9);
+    }
+
+    @Test
+    public void testLimitIsBounded() {
+        final ReconConcurrencyLimit limit = new ReconConcurrencyLimit(100, 4, 5, 2.0, 0.5, 0.05);
+        assertThat(limit.getLimit()).isEqualTo(5);
+        completeWindow(limit, FAST);
+        assertThat(limit.getLimit()).isEqualTo(5);
+
+        for (int i = 0; i < 3; i++) {
+            limit.taskFailed();
+            completeWindow(limit, FAST);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(4);
+        assertThat(limit.getSummary().get("decreases")).isEqualTo(1L);
+    }
+
+    @Test
+    public void testFromConfig() {
+        assertThat(ReconConcurrencyLimit.fromConfig(json(null), 10)).isNull();
+        assertThat(ReconConcurrencyLimit.fromConfig(json(object(field("enabled", false))), 10)).isNull();
+
+        final ReconConcurrencyLimit limit = ReconConcurrencyLimit.fromConfig(
+                json(object(field("minThreads", 2), field("maxThreads", 8))), 10);
+
+        assertThat(limit.getLimit()).isEqualTo(8);
+        assertThat(limit.getMaxLimit()).isEqualTo(8);
+    }
+
+    @Test(expectedExceptions = JsonValueException.class)
+    public void testFromInvalidConfig() {
+        ReconConcurrencyLimit.fromConfig(json(object(field("minThreads", 8), field("maxThreads", 2))), 10);
+    }
+
+    /** Completes a window of tasks, which is the current limit but at least 10 tasks. */
+    private void completeWindow(ReconConcurrencyLimit limit, long latencyNanos) {
+        final int windowSize = Math.max(limit.getLimit(), 10);
+        for (int i = 0; i < windowSize; i++) {
+            limit.taskCompleted(latencyNanos);
+        }
+    }
+}
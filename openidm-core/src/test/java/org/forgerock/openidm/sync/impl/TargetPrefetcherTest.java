@@ -0,0 +1,216 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.sync.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Responses.newQueryResponse;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.Connection;
+import org.forgerock.json.resource.ConnectionFactory;
+import org.forgerock.json.resource.NotSupportedException;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.QueryResponse;
+import org.forgerock.services.context.Context;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class TargetPrefetcherTest {
+
+    private static final int ENTRY_COUNT = 5;
+
+    private ReconciliationContext reconContext;
+    private Connection connection;
+    private Context context;
+    private Map<String, Map<String, Link>> allLinks;
+    private List<ResultEntry> sourceEntries;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        final LinkType linkType = mock(LinkType.class);
+        when(linkType.normalizeSourceId(anyString())).then(returnsFirstArg());
+        when(linkType.normalizeTargetId(anyString())).then(returnsFirstArg());
+        final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        connection = mock(Connection.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        final ObjectMapping mapping = mock(ObjectMapping.class);
+        when(mapping.getLinkType()).thenReturn(linkType);
+        when(mapping.getConnectionFactory()).thenReturn(connectionFactory);
+        when(mapping.getTargetObjectSet()).thenReturn("system/ldap/account");
+        reconContext = mock(ReconciliationContext.class);
+        when(reconContext.getObjectMapping()).thenReturn(mapping);
+        when(reconContext.getStatistics()).thenReturn(mock(ReconciliationStatistic.class));
+        context = mock(Context.class);
+
+        final Map<String, Link> links = new HashMap<>();
+        sourceEntries = new ArrayList<>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            sourceEntries.add(new ResultEntry("source" + i, null));
+            if (i % 2 == 0) {
+                final Link link = new Link(mapping);
+                link.targetId = "target" + i;
+                links.put("source" + i, link);
+            }
+        }
+        allLinks = new HashMap<>();
+        allLinks.put(Link.DEFAULT_LINK_QUALIFIER, links);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPrefetchesLinkedTargetsOfEachWindow() throws Exception {
+        when(connection.query(any(Context.class), any(QueryRequest.class), any(QueryResourceHandler.class)))
+                .then(new Answer<QueryResponse>() {
+                    @Override
+                    public QueryResponse answer(InvocationOnMock invocation) throws Throwable {
+                        QueryResourceHandler handler = (QueryResourceHandler) invocation.getArguments()[2];
+                        handler.handleResource(newResourceResponse("target0", null,
+                                json(object(field("_id", "target0")))));
+                        return newQueryResponse();
+                    }
+                });
+        final TargetPrefetcher prefetcher =
+                new TargetPrefetcher(sourceEntries.iterator(), reconContext, context, allLinks, 3, 1);
+
+        final List<String> ids = new ArrayList<>();
+        while (prefetcher.hasNext()) {
+            ids.add(prefetcher.next().getId());
+        }
+
+        assertThat(ids).containsExactly("source0", "source1", "source2", "source3", "source4");
+        final ArgumentCaptor<QueryRequest> requests = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(connection, times(2)).query(any(Context.class), requests.capture(), any(QueryResourceHandler.class));
+        assertThat(requests.getAllValues().get(0).getQueryFilter().toString())
+                .contains("target0", "target2").doesNotContain("target1");
+        assertThat(requests.getAllValues().get(1).getQueryFilter().toString())
+                .contains("target4").doesNotContain("target3");
+        verify(reconContext, times(2)).putPrefetchedTarget(anyString(), any(JsonValue.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDropsTargetsLeftOverByTheWindowBeforeLast() throws Exception {
+        when(connection.query(any(Context.class), any(QueryRequest.class), any(QueryResourceHandler.class)))
+                .thenReturn(newQueryResponse());
+        final TargetPrefetcher prefetcher =
+                new TargetPrefetcher(sourceEntries.iterator(), reconContext, context, allLinks, 1, 1);
+
+        while (prefetcher.hasNext()) {
+            prefetcher.next();
+        }
+
+        // the windows of source0 and source2 are dropped when the windows of source2 and source4 are prefetched
+        final ArgumentCaptor<Collection> dropped = ArgumentCaptor.forClass(Collection.class);
+        verify(reconContext, times(2)).dropPrefetchedTargets(dropped.capture());
+        assertThat(dropped.getAllValues().get(0)).containsExactly("target0");
+        assertThat(dropped.getAllValues().get(1)).containsExactly("target2");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testKeepsTargetsOfEntriesInFlight() throws Exception {
+        final Map<String, JsonValue> prefetched = new HashMap<>();
+        when(connection.query(any(Context.class), any(QueryRequest.class), any(QueryResourceHandler.class)))
+                .then(new Answer<QueryResponse>() {
+                    @Override
+                    public QueryResponse answer(InvocationOnMock invocation) throws Throwable {
+                        String filter = ((QueryRequest) invocation.getArguments()[1]).getQueryFilter().toString();
+                        QueryResourceHandler handler = (QueryResourceHandler) invocation.getArguments()[2];
+                        for (int i = 0; i < ENTRY_COUNT; i++) {
+                            if (filter.contains("target" + i)) {
+                                handler.handleResource(newResourceResponse("target" + i, null,
+                                        json(object(field("_id", "target" + i)))));
+                            }
+                        }
+                        return newQueryResponse();
+                    }
+                });
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                prefetched.put((String) invocation.getArguments()[0], (JsonValue) invocation.getArguments()[1]);
+                return null;
+            }
+        }).when(reconContext).putPrefetchedTarget(anyString(), any(JsonValue.class));
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                prefetched.keySet().removeAll((Collection<String>) invocation.getArguments()[0]);
+                return null;
+            }
+        }).when(reconContext).dropPrefetchedTargets(any(Collection.class));
+        when(reconContext.takePrefetchedTarget(anyString())).then(new Answer<JsonValue>() {
+            @Override
+            public JsonValue answer(InvocationOnMock invocation) throws Throwable {
+                return prefetched.remove((String) invocation.getArguments()[0]);
+            }
+        });
+        final TargetPrefetcher prefetcher =
+                new TargetPrefetcher(sourceEntries.iterator(), reconContext, context, allLinks, 1, 4);
+
+        // the feeder preloads four entries, so four windows, before any of their tasks runs
+        for (int i = 0; i < 4; i++) {
+            prefetcher.next();
+        }
+        assertThat(reconContext.takePrefetchedTarget("target0")).isNotNull();
+        prefetcher.next();
+        assertThat(reconContext.takePrefetchedTarget("target2")).isNotNull();
+        assertThat(reconContext.takePrefetchedTarget("target4")).isNotNull();
+        verify(reconContext, never()).dropPrefetchedTargets(any(Collection.class));
+    }
+
+    @Test
+    public void testPrefetchingStopsWhenQueryFails() throws Exception {
+        when(connection.query(any(Context.class), any(QueryRequest.class), any(QueryResourceHandler.class)))
+                .thenThrow(new NotSupportedException());
+        final TargetPrefetcher prefetcher =
+                new TargetPrefetcher(sourceEntries.iterator(), reconContext, context, allLinks, 1, 1);
+
+        int count = 0;
+        while (prefetcher.hasNext()) {
+            prefetcher.next();
+            count++;
+        }
+
+        assertThat(count).isEqualTo(ENTRY_COUNT);
+        verify(connection, times(1)).query(any(Context.class), any(QueryRequest.class),
+                any(QueryResourceHandler.class));
+    }
+}
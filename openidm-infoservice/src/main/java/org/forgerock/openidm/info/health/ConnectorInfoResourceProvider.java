@@ -0,0 +1,82 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.info.health;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.forgerock.api.annotations.Handler;
+import org.forgerock.api.annotations.Operation;
+import org.forgerock.api.annotations.Read;
+import org.forgerock.api.annotations.Schema;
+import org.forgerock.api.annotations.SingletonProvider;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.InternalServerErrorException;
+import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.openidm.info.health.api.ConnectorInfoResource;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.promise.Promise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Gets Connector Health Info: the operation latencies and errors and the connector pool gauges of each system.
+ */
+@SingletonProvider(@Handler(
+        id = "connectorInfoResourceProvider:0",
+        title = "Health - Connector operation statistics",
+        description = "Returns the latency percentiles and the error counts of the operations on each system, by "
+                + "object class and operation, and the gauges of the connector pool of each system.",
+        mvccSupported = false,
+        resourceSchema = @Schema(fromType = ConnectorInfoResource.class)))
+public class ConnectorInfoResourceProvider extends AbstractInfoResourceProvider {
+
+    private final static Logger logger = LoggerFactory.getLogger(ConnectorInfoResourceProvider.class);
+
+    private static final String MBEAN_NAME_PATTERN = "org.forgerock.openidm.provisioner:type=Connector,*";
+
+    @Read(operationDescription = @Operation(description = "Read connector operation statistics."))
+    @Override
+    public Promise<ResourceResponse, ResourceException> readInstance(Context context, ReadRequest request) {
+        try {
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            final Map<String, Object> connectors = new TreeMap<>();
+            for (ObjectName objectName : mBeanServer.queryNames(new ObjectName(MBEAN_NAME_PATTERN), null)) {
+                final Map<String, Object> connector = new LinkedHashMap<>();
+                connector.put("operations", mBeanServer.getAttribute(objectName, "Operations"));
+                connector.put("pool", mBeanServer.getAttribute(objectName, "Pool"));
+                connectors.put((String) mBeanServer.getAttribute(objectName, "SystemName"), connector);
+            }
+            final JsonValue result = json(object(field("connectors", connectors)));
+            return newResourceResponse("", "", result).asPromise();
+        } catch (Exception e) {
+            logger.error("Unable to get connector mbeans");
+            return new InternalServerErrorException("Unable to get connector mbeans", e).asPromise();
+        }
+    }
+}
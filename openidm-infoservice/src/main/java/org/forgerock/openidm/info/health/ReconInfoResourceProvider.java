@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.info.health;
 
@@ -47,7 +48,8 @@ import java.lang.management.ManagementFactory;
 @SingletonProvider(@Handler(
         id = "reconInfoResourceProvider:0",
         title = "Health - Thread pool statistics for the Reconciliation process",
-        description = "Returns the thread pool statistics of the Reconciliation process.",
+        description = "Returns the thread pool statistics of the Reconciliation process, and the live statistics of "
+                + "the active reconciliations.",
         mvccSupported = false,
         resourceSchema = @Schema(fromType = ReconInfoResource.class)))
 public class ReconInfoResourceProvider extends AbstractInfoResourceProvider {
@@ -66,7 +68,8 @@ public class ReconInfoResourceProvider extends AbstractInfoResourceProvider {
                     field("corePoolSize", mBeanServer.getAttribute(objectName, "CorePoolSize")),
                     field("largestPoolSize", mBeanServer.getAttribute(objectName, "LargestPoolSize")),
                     field("maximumPoolSize", mBeanServer.getAttribute(objectName, "MaximumPoolSize")),
-                    field("currentPoolSize", mBeanServer.getAttribute(objectName, "PoolSize"))
+                    field("currentPoolSize", mBeanServer.getAttribute(objectName, "PoolSize")),
+                    field("activeReconciliations", mBeanServer.getAttribute(objectName, "ActiveReconciliations"))
             ));
             return newResourceResponse("", "", result).asPromise();
         } catch (Exception e) {
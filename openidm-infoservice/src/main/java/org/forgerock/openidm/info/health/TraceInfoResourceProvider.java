@@ -0,0 +1,103 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.info.health;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.forgerock.api.annotations.Handler;
+import org.forgerock.api.annotations.Operation;
+import org.forgerock.api.annotations.Read;
+import org.forgerock.api.annotations.Schema;
+import org.forgerock.api.annotations.SingletonProvider;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.InternalServerErrorException;
+import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.openidm.info.health.api.TraceInfoResource;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.promise.Promise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Gets the traces of the sampled requests: the tree of the timed spans of each request, e.g. its scripts and the
+ * repository and connector operations it made. The traces of a transaction are selected with the
+ * {@code transactionId} parameter.
+ */
+@SingletonProvider(@Handler(
+        id = "traceInfoResourceProvider:0",
+        title = "Health - Request traces",
+        description = "Returns the span trees, with their timings, of the most recent sampled requests, optionally "
+                + "of a single transaction.",
+        mvccSupported = false,
+        resourceSchema = @Schema(fromType = TraceInfoResource.class)))
+public class TraceInfoResourceProvider extends AbstractInfoResourceProvider {
+
+    private final static Logger logger = LoggerFactory.getLogger(TraceInfoResourceProvider.class);
+
+    private static final String MBEAN_NAME = "OpenIDM:type=Traces";
+
+    private static final String PARAM_TRANSACTION_ID = "transactionId";
+
+    @Read(operationDescription = @Operation(description = "Read the traces of the sampled requests."))
+    @Override
+    @SuppressWarnings("unchecked")
+    public Promise<ResourceResponse, ResourceException> readInstance(Context context, ReadRequest request) {
+        try {
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = new ObjectName(MBEAN_NAME);
+            int sampling = 0;
+            List<Map<String, Object>> traces = Collections.emptyList();
+            try {
+                sampling = (Integer) mBeanServer.getAttribute(objectName, "Sampling");
+                traces = (List<Map<String, Object>>) mBeanServer.getAttribute(objectName, "Traces");
+            } catch (InstanceNotFoundException e) {
+                // no request has been traced yet
+            }
+            final String transactionId = request.getAdditionalParameter(PARAM_TRANSACTION_ID);
+            if (transactionId != null) {
+                final List<Map<String, Object>> selected = new ArrayList<>();
+                for (Map<String, Object> trace : traces) {
+                    if (transactionId.equals(trace.get("traceId"))) {
+                        selected.add(trace);
+                    }
+                }
+                traces = selected;
+            }
+            final JsonValue result = json(object(
+                    field("sampling", sampling),
+                    field("traces", traces)));
+            return newResourceResponse("", "", result).asPromise();
+        } catch (Exception e) {
+            logger.error("Unable to get trace mbean");
+            return new InternalServerErrorException("Unable to get trace mbean", e).asPromise();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.info.health.api;
+
+import org.forgerock.api.annotations.Description;
+import org.forgerock.api.annotations.ReadOnly;
+
+import java.util.Map;
+
+/**
+ * Api pojo for {@link org.forgerock.openidm.info.health.ConnectorInfoResourceProvider}
+ */
+public class ConnectorInfoResource {
+    private Map<String, Map<String, Object>> connectors;
+
+    /**
+     * Returns the operation statistics and the connector pool gauges of each system.
+     *
+     * @return The operation statistics and the connector pool gauges, by system name.
+     */
+    @Description("Latency percentiles and error counts of the operations, by object class and operation, and "
+            + "connector pool gauges, by system name")
+    @ReadOnly
+    public Map<String, Map<String, Object>> getConnectors() {
+        return connectors;
+    }
+}
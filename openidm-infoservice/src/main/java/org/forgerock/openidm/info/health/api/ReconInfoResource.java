@@ -12,12 +12,15 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.info.health.api;
 
 import org.forgerock.api.annotations.Description;
 import org.forgerock.api.annotations.ReadOnly;
 
+import java.util.Map;
+
 /**
  * Api pojo for {@link org.forgerock.openidm.info.health.ReconInfoResourceProvider}
  */
@@ -27,6 +30,7 @@ public class ReconInfoResource {
     private int largestPoolSize;
     private int maximumPoolSize;
     private int currentPoolSize;
+    private Map<String, Map<String, Object>> activeReconciliations;
 
     /**
      * Returns count of active threads.
@@ -82,4 +86,16 @@ public class ReconInfoResource {
     public int getCurrentPoolSize() {
         return currentPoolSize;
     }
+
+    /**
+     * Returns the live statistics of the active reconciliations.
+     *
+     * @return The live statistics of the active reconciliations, by reconciliation id.
+     */
+    @Description("Live throughput, duration percentiles and executor statistics of the active reconciliations, "
+            + "by reconciliation id")
+    @ReadOnly
+    public Map<String, Map<String, Object>> getActiveReconciliations() {
+        return activeReconciliations;
+    }
 }
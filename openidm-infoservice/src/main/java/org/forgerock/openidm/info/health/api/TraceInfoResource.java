@@ -0,0 +1,53 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.info.health.api;
+
+import org.forgerock.api.annotations.Description;
+import org.forgerock.api.annotations.ReadOnly;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Api pojo for {@link org.forgerock.openidm.info.health.TraceInfoResourceProvider}
+ */
+public class TraceInfoResource {
+    private int sampling;
+    private List<Map<String, Object>> traces;
+
+    /**
+     * Returns the sampling of the traced requests.
+     *
+     * @return One request in this many is traced, none if 0.
+     */
+    @Description("One request in this many is traced, none if 0")
+    @ReadOnly
+    public int getSampling() {
+        return sampling;
+    }
+
+    /**
+     * Returns the traces of the sampled requests, the most recent first.
+     *
+     * @return The span tree of each traced request.
+     */
+    @Description("Span tree of each traced request, with the transaction id as trace id and the offsets and "
+            + "durations of the spans in milliseconds, the most recent first")
+    @ReadOnly
+    public List<Map<String, Object>> getTraces() {
+        return traces;
+    }
+}
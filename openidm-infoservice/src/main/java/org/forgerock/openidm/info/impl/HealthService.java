@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.info.impl;
 
@@ -56,10 +57,12 @@ import org.forgerock.openidm.cluster.ClusterManagementService;
 import org.forgerock.openidm.core.IdentityServer;
 import org.forgerock.openidm.core.ServerConstants;
 import org.forgerock.openidm.info.HealthInfo;
+import org.forgerock.openidm.info.health.ConnectorInfoResourceProvider;
 import org.forgerock.openidm.info.health.DatabaseInfoResourceProvider;
 import org.forgerock.openidm.info.health.MemoryInfoResourceProvider;
 import org.forgerock.openidm.info.health.OsInfoResourceProvider;
 import org.forgerock.openidm.info.health.ReconInfoResourceProvider;
+import org.forgerock.openidm.info.health.TraceInfoResourceProvider;
 import org.forgerock.openidm.osgi.ServiceTrackerListener;
 import org.forgerock.openidm.osgi.ServiceTrackerNotifier;
 import org.forgerock.services.context.Context;
@@ -277,12 +280,13 @@ public class HealthService
             "org.forgerock.openidm.router.servlet",
             "org.forgerock.openidm.scheduler",
             "org.forgerock.openidm.script",
+            "org.forgerock.openidm.script.warmup",
             "org.forgerock.openidm.security",
             "org.forgerock.openidm.servletfilter.registrator"
     };
 
     /**
-     * A router used to service requests for system health endpoints such as: os, memory, recon, jdbc.
+     * A router used to service requests for system health endpoints such as: os, memory, recon, connectors, traces, jdbc.
      */
     private final Router router = new Router();
     
@@ -385,6 +389,8 @@ public class HealthService
         router.addRoute(uriTemplate("os"), new OsInfoResourceProvider());
         router.addRoute(uriTemplate("memory"), new MemoryInfoResourceProvider());
         router.addRoute(uriTemplate("recon"), new ReconInfoResourceProvider());
+        router.addRoute(uriTemplate("connectors"), new ConnectorInfoResourceProvider());
+        router.addRoute(uriTemplate("traces"), new TraceInfoResourceProvider());
         router.addRoute(uriTemplate("jdbc"), new DatabaseInfoResourceProvider());
 
         // Check if the framework has already started.  If so, schedule the start up
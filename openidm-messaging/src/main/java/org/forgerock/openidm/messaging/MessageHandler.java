@@ -12,9 +12,12 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.messaging;
 
+import java.util.List;
+
 import org.forgerock.json.resource.ResourceException;
 
 /**
@@ -34,4 +37,15 @@ public interface MessageHandler<T> {
      * @see MessageSubscriber
      */
     void handleMessage(T message) throws ResourceException;
+
+    /**
+     * The implementor is expected to handle a batch of messages, in order, as {@link #handleMessage} handles each of
+     * them. The messages of a batch are acknowledged together, so a ResourceException leaves all of them to be
+     * redelivered.
+     *
+     * @param messages the messages received by the subscriber, in the order they were received.
+     * @throws ResourceException
+     * @see MessageSubscriber
+     */
+    void handleMessages(List<T> messages) throws ResourceException;
 }
@@ -12,9 +12,15 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.messaging;
 
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import org.forgerock.json.JsonValue;
 import org.forgerock.json.resource.ResourceException;
 
 /**
@@ -57,4 +63,14 @@ public abstract class MessageSubscriber<T> {
      * Implement this method to close and cleanup any resources opened by the subscribe call.
      */
     public abstract void unsubscribe();
+
+    /**
+     * Returns the statistics of the messages received by this subscriber, e.g. its throughput and backlog. Override
+     * this method to provide statistics beyond the name of the subscriber.
+     *
+     * @return the statistics.
+     */
+    public JsonValue getStatistics() {
+        return json(object(field("name", name)));
+    }
 }
@@ -12,12 +12,17 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 
 package org.forgerock.openidm.messaging;
 
 import static org.forgerock.guava.common.collect.FluentIterable.from;
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
 
 import javax.jms.Message;
 import java.util.ArrayList;
@@ -35,12 +40,18 @@ import org.apache.felix.scr.annotations.Service;
 import org.forgerock.guava.common.base.Function;
 import org.forgerock.guava.common.base.Predicate;
 import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.AbstractRequestHandler;
+import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.RequestHandler;
 import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
 import org.forgerock.openidm.config.enhanced.EnhancedConfig;
 import org.forgerock.openidm.config.enhanced.InvalidException;
 import org.forgerock.openidm.core.ServerConstants;
 import org.forgerock.openidm.messaging.jms.JmsMessageSubscriber;
 import org.forgerock.script.ScriptRegistry;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.promise.Promise;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
@@ -68,6 +79,11 @@ import org.slf4j.LoggerFactory;
  * <p>Each subscriber has an instance of a message handler. The handler is expected to process
  * the message and take all actions that the message represents.
  *
+ * <p>Each JMS subscriber consumes messages with {@code concurrency} sessions. A {@code batchSize} greater than 1
+ * hands the handler batches of up to that many messages, received within {@code batchTimeoutMillis} and committed
+ * in a single transaction. A {@code messageGroupProperty}, e.g. JMSXGroupID, keeps the messages of a group in order.
+ * The statistics of the subscribers, including their throughput and backlog, are read from {@code /messaging}.
+ *
  * <p>Here is a sample config for the MessagingService:
  * <pre>
  * {
@@ -88,6 +104,9 @@ import org.slf4j.LoggerFactory;
  *             },
  *             "properties": {
  *                 "sessionMode": "CLIENT",
+ *                 "concurrency": 4,
+ *                 "batchSize": 50,
+ *                 "batchTimeoutMillis": 1000,
  *                 "jndi": {
  *                     "contextProperties": {
  *                         "java.naming.factory.initial": "org.apache.activemq.jndi.ActiveMQInitialContextFactory",
@@ -104,12 +123,13 @@ import org.slf4j.LoggerFactory;
  * </pre>
  */
 @Component(name = MessagingService.PID, immediate = true, policy = ConfigurationPolicy.REQUIRE)
-@Service({MessagingService.class})
+@Service({MessagingService.class, RequestHandler.class})
 @Properties({
         @Property(name = Constants.SERVICE_VENDOR, value = ServerConstants.SERVER_VENDOR_NAME),
-        @Property(name = Constants.SERVICE_DESCRIPTION, value = "OpenIDM Messaging Service")
+        @Property(name = Constants.SERVICE_DESCRIPTION, value = "OpenIDM Messaging Service"),
+        @Property(name = ServerConstants.ROUTER_PREFIX, value = "/messaging")
 })
-public class MessagingService {
+public class MessagingService extends AbstractRequestHandler {
     private static final Logger logger = LoggerFactory.getLogger(MessagingService.class);
 
     public static final String PID = "org.forgerock.openidm.messaging";
@@ -241,4 +261,21 @@ public class MessagingService {
         subscribers.clear();
         config = null;
     }
+
+    /**
+     * Returns the statistics of the activated subscribers.
+     *
+     * @param context the request context.
+     * @param request the read request.
+     * @return the statistics of each subscriber.
+     */
+    @Override
+    public Promise<ResourceResponse, ResourceException> handleRead(Context context, ReadRequest request) {
+        final JsonValue statistics = json(array());
+        for (MessageSubscriber<?> subscriber : subscribers) {
+            statistics.add(subscriber.getStatistics().getObject());
+        }
+        return newResourceResponse(null, null, json(object(field(SUBSCRIBERS, statistics.getObject()))))
+                .asPromise();
+    }
 }
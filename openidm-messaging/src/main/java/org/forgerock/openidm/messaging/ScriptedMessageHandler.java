@@ -12,9 +12,12 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.messaging;
 
+import java.util.List;
+
 import javax.script.ScriptException;
 
 import org.forgerock.json.JsonValue;
@@ -34,6 +37,7 @@ public class ScriptedMessageHandler<T> implements MessageHandler<T> {
 
     private static final String SCRIPT = "script";
     private static final String MESSAGE = "message";
+    private static final String MESSAGES = "messages";
     private final ScriptEntry scriptEntry;
 
     /**
@@ -58,10 +62,26 @@ public class ScriptedMessageHandler<T> implements MessageHandler<T> {
      */
     @Override
     public void handleMessage(final T message) throws ResourceException {
+        eval(MESSAGE, message);
+    }
+
+    /**
+     * Handles a batch of messages by passing them to the script as the "messages" attribute, so that the script is
+     * evaluated once per batch.
+     *
+     * @param messages the messages that have been received.
+     * @throws ResourceException If there is a problem invoking the script, or if the script throws an exception.
+     */
+    @Override
+    public void handleMessages(final List<T> messages) throws ResourceException {
+        eval(MESSAGES, messages);
+    }
+
+    private void eval(final String name, final Object value) throws ResourceException {
         if (scriptEntry.isActive()) {
             Script script = scriptEntry.getScript(ContextUtil.createInternalContext());
             try {
-                script.put(MESSAGE, message);
+                script.put(name, value);
                 script.eval();
             } catch (ScriptException e) {
                 throw new InternalServerErrorException("Failure running script " + script, e);
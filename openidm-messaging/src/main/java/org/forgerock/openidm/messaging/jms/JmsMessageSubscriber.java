@@ -12,13 +12,31 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.messaging.jms;
 
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
 import javax.jms.Connection;
+import javax.jms.Destination;
 import javax.jms.ExceptionListener;
 import javax.jms.JMSException;
 import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Queue;
+import javax.jms.QueueBrowser;
 import javax.jms.Session;
 
 import org.forgerock.json.JsonValue;
@@ -36,15 +54,59 @@ import org.slf4j.LoggerFactory;
 /**
  * A MessageSubscriber that subscribes to JMS destinations.  JMS messages are acknowledged only if the handler doesn't
  * throw an exception.
+ * <p>
+ * A subscriber opens a single connection, with {@code concurrency} sessions each consuming messages from the
+ * destination. When a {@code batchSize} greater than 1 is configured, each session is transacted and hands the
+ * handler up to that many messages at once, which are committed, or rolled back for redelivery, together. When a
+ * {@code messageGroupProperty} is configured, a single session receives the batches and the messages of each batch
+ * are handled in {@code concurrency} lanes, messages sharing the value of that property (e.g. JMSXGroupID) being
+ * handled in order in the same lane.
+ * <p>
+ * A batch fails as a whole when any of its messages, or lanes, fails. Its messages are then redelivered and, being
+ * flagged as redelivered, handled and committed one at a time, so that a message which keeps failing only rolls back
+ * itself and is eventually dead-lettered by the broker, rather than taking the messages it was batched with along.
  */
 public class JmsMessageSubscriber extends MessageSubscriber<Message> {
     private static final Logger logger = LoggerFactory.getLogger(JmsMessageSubscriber.class);
+
+    private static final String CONCURRENCY = "concurrency";
+    private static final String BATCH_SIZE = "batchSize";
+    private static final String BATCH_TIMEOUT = "batchTimeoutMillis";
+    private static final String MESSAGE_GROUP_PROPERTY = "messageGroupProperty";
+
+    private static final long DEFAULT_BATCH_TIMEOUT = 1000L;
+    /** How long a batch consumer waits for a first message before checking whether it is still subscribed */
+    private static final long RECEIVE_TIMEOUT = 1000L;
+    /** The maximum number of queued messages counted to report the backlog */
+    private static final int BACKLOG_LIMIT = 1000;
+    /** How long the counted backlog is reported before the queue is browsed again */
+    private static final long BACKLOG_TTL = 10000L;
+
     private final SessionModeConfig sessionMode;
     private final JndiConfiguration jndiConfiguration;
     private final String messageSelector;
+    private final int concurrency;
+    private final int batchSize;
+    private final long batchTimeout;
+    private final String messageGroupProperty;
 
-    private Session session;
+    private final List<Session> sessions = new ArrayList<>();
     private Connection connection;
+    private Destination destination;
+    private ExecutorService laneExecutor;
+    /** Whether the batch consumers started by the current subscription are to keep on receiving */
+    private AtomicBoolean consuming = new AtomicBoolean();
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong handled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long subscribedSince;
+
+    private final Object backlogLock = new Object();
+    /** The last counted backlog, guarded by {@link #backlogLock} */
+    private Integer backlog;
+    /** When the backlog was last counted, guarded by {@link #backlogLock} */
+    private long backlogCountedAt;
 
     /**
      * Constructs a JMS Subscriber using the provided instance name and configuration.  The configuration is grabbed,
@@ -58,11 +120,15 @@ public class JmsMessageSubscriber extends MessageSubscriber<Message> {
         sessionMode = SessionModeConfig.valueOf(propertiesConfig.get("sessionMode").required().asString());
         messageSelector = propertiesConfig.get("messageSelector").asString();
         jndiConfiguration = new JndiConfiguration(propertiesConfig.get("jndi").required());
+        concurrency = Math.max(1, propertiesConfig.get(CONCURRENCY).defaultTo(1).asInteger());
+        batchSize = Math.max(1, propertiesConfig.get(BATCH_SIZE).defaultTo(1).asInteger());
+        batchTimeout = propertiesConfig.get(BATCH_TIMEOUT).defaultTo(DEFAULT_BATCH_TIMEOUT).asLong();
+        messageGroupProperty = propertiesConfig.get(MESSAGE_GROUP_PROPERTY).asString();
     }
 
     /**
      * Implemented to subscribe on the JNDI configured JMS destination (queue or topic).  Implemented to use a single
-     * connection and session.
+     * connection, with a session per consumer.
      *
      * @param messageHandler an instance of a JMS message handler.
      */
@@ -75,10 +141,8 @@ public class JmsMessageSubscriber extends MessageSubscriber<Message> {
             throw new InternalServerErrorException("Failure loading JNDI JMS Context configurations.", e);
         }
 
-
-
         try {
-            if (null != connection || null != session) {
+            if (null != connection || !sessions.isEmpty()) {
                 // in case there exists an old connection or session, lets unsubscribe those before creating new ones.
                 unsubscribe();
             }
@@ -86,31 +150,37 @@ public class JmsMessageSubscriber extends MessageSubscriber<Message> {
             connection = contextManager.getConnectionFactory().createConnection();
             connection.setClientID(getName());
             connection.setExceptionListener(new SubscriptionExceptionListener(messageHandler));
-            session = connection.createSession(false, sessionMode.getMode());
-            session.createConsumer(contextManager.getDestination(), messageSelector)
-                    .setMessageListener(new javax.jms.MessageListener() {
-                        @Override
-                        public void onMessage(Message message) {
-                            String jmsMessageID = getMessageID(message);
-                            try {
-                                messageHandler.handleMessage(message);
-                                try {
-                                    logger.trace("JMS Message {} handled by {}", jmsMessageID, getName());
-                                    message.acknowledge();
-                                    logger.trace("JMS Message {} acknowledged by {}", jmsMessageID, getName());
-                                } catch (JMSException e) {
-                                    throw new InternalServerErrorException("Failure to acknowledge JMS message " +
-                                            jmsMessageID, e);
-                                }
-                            } catch (Exception e) {
-                                // if the handler throws an exception, the message won't be acknowledged.  This
-                                // leaves the message available to pick up later, by this or another subscriber.
-                                logger.error("Failure handling the JMS message {}.", jmsMessageID, e);
-                            }
-                        }
-                    });
+            destination = contextManager.getDestination();
+
+            if (batchSize == 1 && null == messageGroupProperty) {
+                for (int i = 0; i < concurrency; i++) {
+                    final Session session = connection.createSession(false, sessionMode.getMode());
+                    sessions.add(session);
+                    session.createConsumer(destination, messageSelector)
+                            .setMessageListener(newMessageListener(messageHandler));
+                }
+            } else {
+                consuming = new AtomicBoolean(true);
+                if (null != messageGroupProperty && concurrency > 1) {
+                    laneExecutor = Executors.newFixedThreadPool(concurrency);
+                }
+                final int consumerCount = null == messageGroupProperty ? concurrency : 1;
+                for (int i = 0; i < consumerCount; i++) {
+                    final Session session = connection.createSession(true, Session.SESSION_TRANSACTED);
+                    sessions.add(session);
+                    final Thread consumer = new Thread(new BatchConsumer(session,
+                            session.createConsumer(destination, messageSelector), messageHandler, consuming),
+                            getName() + "-consumer-" + i);
+                    consumer.setDaemon(true);
+                    consumer.start();
+                }
+            }
+            subscribedSince = System.currentTimeMillis();
+            synchronized (backlogLock) {
+                backlogCountedAt = 0;
+            }
             connection.start();
-            logger.debug("JMSMessageSubscriber {} is subscribed", getName());
+            logger.debug("JMSMessageSubscriber {} is subscribed with {} sessions", getName(), sessions.size());
         } catch (Exception e) {
             logger.error("Failure to create JMS subscription", e);
             unsubscribe();
@@ -118,6 +188,39 @@ public class JmsMessageSubscriber extends MessageSubscriber<Message> {
         }
     }
 
+    /**
+     * Creates the listener handling, and acknowledging, each message received by a session.
+     *
+     * @param messageHandler the handler of the messages.
+     * @return the listener.
+     */
+    private javax.jms.MessageListener newMessageListener(final MessageHandler<Message> messageHandler) {
+        return new javax.jms.MessageListener() {
+            @Override
+            public void onMessage(Message message) {
+                String jmsMessageID = getMessageID(message);
+                received.incrementAndGet();
+                try {
+                    messageHandler.handleMessage(message);
+                    try {
+                        logger.trace("JMS Message {} handled by {}", jmsMessageID, getName());
+                        message.acknowledge();
+                        logger.trace("JMS Message {} acknowledged by {}", jmsMessageID, getName());
+                    } catch (JMSException e) {
+                        throw new InternalServerErrorException("Failure to acknowledge JMS message " +
+                                jmsMessageID, e);
+                    }
+                    handled.incrementAndGet();
+                } catch (Exception e) {
+                    // if the handler throws an exception, the message won't be acknowledged.  This
+                    // leaves the message available to pick up later, by this or another subscriber.
+                    failed.incrementAndGet();
+                    logger.error("Failure handling the JMS message {}.", jmsMessageID, e);
+                }
+            }
+        };
+    }
+
     private String getMessageID(Message message) {
         String jmsMessageID = "unknown";
         try {
@@ -129,18 +232,85 @@ public class JmsMessageSubscriber extends MessageSubscriber<Message> {
     }
 
     /**
-     * Implemented to close the JMS session and connection associated with this instance.
+     * Hands a batch of messages to the handler, in lanes by message group if a message group property is configured.
+     *
+     * @param messageHandler the handler of the messages.
+     * @param batch the batch of messages, in the order they were received.
+     * @throws ResourceException if the handler failed to handle any of the messages.
+     */
+    void dispatch(final MessageHandler<Message> messageHandler, final List<Message> batch) throws ResourceException {
+        if (null == laneExecutor) {
+            messageHandler.handleMessages(batch);
+            return;
+        }
+
+        final Map<Integer, List<Message>> lanes = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            final Message message = batch.get(i);
+            final String group = getMessageGroup(message);
+            // messages without a group are not ordered, so they are spread over the lanes
+            final int lane = null == group ? i % concurrency : (group.hashCode() & Integer.MAX_VALUE) % concurrency;
+            List<Message> laneMessages = lanes.get(lane);
+            if (null == laneMessages) {
+                laneMessages = new ArrayList<>();
+                lanes.put(lane, laneMessages);
+            }
+            laneMessages.add(message);
+        }
+
+        final List<Future<Void>> results = new ArrayList<>(lanes.size());
+        for (final List<Message> laneMessages : lanes.values()) {
+            results.add(laneExecutor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws ResourceException {
+                    messageHandler.handleMessages(laneMessages);
+                    return null;
+                }
+            }));
+        }
+        ResourceException failure = null;
+        for (Future<Void> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                if (null == failure) {
+                    failure = e.getCause() instanceof ResourceException
+                            ? (ResourceException) e.getCause()
+                            : new InternalServerErrorException("Failure handling JMS messages", e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InternalServerErrorException("Interrupted handling JMS messages", e);
+            }
+        }
+        if (null != failure) {
+            throw failure;
+        }
+    }
+
+    private String getMessageGroup(Message message) {
+        try {
+            return message.getStringProperty(messageGroupProperty);
+        } catch (JMSException e) {
+            logger.warn("Failure extracting the message group of JMS message {}", getMessageID(message), e);
+            return null;
+        }
+    }
+
+    /**
+     * Implemented to close the JMS sessions and connection associated with this instance.
      */
     @Override
     public void unsubscribe() {
-        if (null != session) {
+        consuming.set(false);
+        for (Session session : sessions) {
             try {
                 session.close();
-                session = null;
             } catch (JMSException e) {
                 logger.error("Failure to close JMS session", e);
             }
         }
+        sessions.clear();
         if (null != connection) {
             try {
                 connection.close();
@@ -149,6 +319,182 @@ public class JmsMessageSubscriber extends MessageSubscriber<Message> {
                 logger.error("Failure to close JMS connection", e);
             }
         }
+        if (null != laneExecutor) {
+            laneExecutor.shutdown();
+            laneExecutor = null;
+        }
+    }
+
+    /**
+     * Returns the number of messages received, handled and failed, the number in flight (received but neither
+     * handled nor failed yet), the throughput in handled messages per second since the subscription and, for a
+     * queue, the backlog of messages waiting to be received.
+     *
+     * @return the statistics.
+     */
+    @Override
+    public JsonValue getStatistics() {
+        final long elapsed = System.currentTimeMillis() - subscribedSince;
+        final JsonValue statistics = super.getStatistics();
+        statistics.put("received", received.get());
+        statistics.put("handled", handled.get());
+        statistics.put("failed", failed.get());
+        statistics.put("inFlight", Math.max(0, received.get() - handled.get() - failed.get()));
+        statistics.put("throughput", elapsed > 0 ? handled.get() * 1000.0 / elapsed : 0.0);
+        statistics.put("backlog", getBacklog());
+        return statistics;
+    }
+
+    /**
+     * Returns the messages waiting on the queue, as counted at most {@link #BACKLOG_TTL} ms ago.
+     *
+     * @return the number of waiting messages, up to {@link #BACKLOG_LIMIT}, or null if it is unknown, e.g. for a
+     * topic.
+     */
+    private Integer getBacklog() {
+        synchronized (backlogLock) {
+            final long now = System.currentTimeMillis();
+            if (now - backlogCountedAt >= BACKLOG_TTL) {
+                backlog = countBacklog();
+                backlogCountedAt = now;
+            }
+            return backlog;
+        }
+    }
+
+    /**
+     * Counts the messages waiting on the queue, up to {@link #BACKLOG_LIMIT}, by browsing it.
+     *
+     * @return the number of waiting messages, or null if it is unknown, e.g. for a topic.
+     */
+    private Integer countBacklog() {
+        final Connection currentConnection = connection;
+        if (!(destination instanceof Queue) || null == currentConnection) {
+            return null;
+        }
+        Session session = null;
+        try {
+            session = currentConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            final QueueBrowser browser = session.createBrowser((Queue) destination, messageSelector);
+            final Enumeration<?> messages = browser.getEnumeration();
+            int backlog = 0;
+            while (messages.hasMoreElements() && backlog < BACKLOG_LIMIT) {
+                messages.nextElement();
+                backlog++;
+            }
+            return backlog;
+        } catch (JMSException e) {
+            logger.debug("Failure browsing the JMS queue of {}", getName(), e);
+            return null;
+        } finally {
+            if (null != session) {
+                try {
+                    session.close();
+                } catch (JMSException e) {
+                    logger.debug("Failure to close JMS browsing session", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Receives messages in batches on a transacted session, until unsubscribed.
+     */
+    private class BatchConsumer implements Runnable {
+        private final Session session;
+        private final MessageConsumer consumer;
+        private final MessageHandler<Message> messageHandler;
+        private final AtomicBoolean consuming;
+
+        /**
+         * Constructs the batch consumer.
+         *
+         * @param session the transacted session of the consumer.
+         * @param consumer the consumer to receive the messages from.
+         * @param messageHandler the handler of the batches of messages.
+         * @param consuming whether the subscription of the consumer is still current.
+         */
+        BatchConsumer(Session session, MessageConsumer consumer, MessageHandler<Message> messageHandler,
+                AtomicBoolean consuming) {
+            this.session = session;
+            this.consumer = consumer;
+            this.messageHandler = messageHandler;
+            this.consuming = consuming;
+        }
+
+        @Override
+        public void run() {
+            while (consuming.get()) {
+                final List<Message> batch;
+                try {
+                    batch = receiveBatch();
+                } catch (JMSException e) {
+                    if (consuming.get()) {
+                        // the exception listener of the connection takes care of reconnecting
+                        logger.error("Failure receiving JMS messages, {} stops consuming", getName(), e);
+                    }
+                    return;
+                }
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                received.addAndGet(batch.size());
+                try {
+                    dispatch(messageHandler, batch);
+                } catch (Exception e) {
+                    // the messages of the batch are redelivered, by this or another subscriber, and then handled
+                    // one at a time.
+                    failed.addAndGet(batch.size());
+                    logger.error("Failure handling a batch of {} JMS messages, starting with {}.", batch.size(),
+                            getMessageID(batch.get(0)), e);
+                    try {
+                        session.rollback();
+                    } catch (JMSException je) {
+                        logger.error("Failure to roll back the JMS session of {}", getName(), je);
+                    }
+                    continue;
+                }
+                handled.addAndGet(batch.size());
+                try {
+                    session.commit();
+                    logger.trace("Batch of {} JMS messages handled and committed by {}", batch.size(), getName());
+                } catch (JMSException e) {
+                    logger.error("Failure to commit a batch of {} JMS messages, starting with {}.", batch.size(),
+                            getMessageID(batch.get(0)), e);
+                }
+            }
+        }
+
+        /**
+         * Waits for a first message, then receives messages until the batch is full or the batch timeout elapses.
+         * A redelivered first message makes a batch on its own.
+         *
+         * @return the batch, empty if no message was received.
+         * @throws JMSException if the messages failed to be received.
+         */
+        private List<Message> receiveBatch() throws JMSException {
+            final List<Message> batch = new ArrayList<>(batchSize);
+            final Message first = consumer.receive(RECEIVE_TIMEOUT);
+            if (null == first) {
+                return batch;
+            }
+            batch.add(first);
+            if (first.getJMSRedelivered()) {
+                // the message comes from a failed batch, it is handled alone so that it is committed or rolled back
+                // on its own
+                return batch;
+            }
+            final long deadline = System.currentTimeMillis() + batchTimeout;
+            while (batch.size() < batchSize) {
+                final long remaining = deadline - System.currentTimeMillis();
+                final Message message = remaining > 0 ? consumer.receive(remaining) : consumer.receiveNoWait();
+                if (null == message) {
+                    break;
+                }
+                batch.add(message);
+            }
+            return batch;
+        }
     }
 
     /**
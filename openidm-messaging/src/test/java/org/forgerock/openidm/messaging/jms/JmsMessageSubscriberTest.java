@@ -0,0 +1,189 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.messaging.jms;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.matches;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Hashtable;
+import java.util.List;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Queue;
+import javax.jms.QueueBrowser;
+import javax.jms.Session;
+import javax.naming.NamingException;
+import javax.naming.spi.InitialContextFactory;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.InternalServerErrorException;
+import org.forgerock.openidm.messaging.MessageHandler;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the batch mode of the {@link JmsMessageSubscriber} against a mocked JMS connection loaded via JNDI.
+ */
+@SuppressWarnings("unchecked")
+public class JmsMessageSubscriberTest {
+
+    private static ConnectionFactory connectionFactory;
+    private static Destination destination;
+
+    private Connection connection;
+    private Session session;
+    private MessageConsumer consumer;
+    private MessageHandler<Message> messageHandler;
+    private JmsMessageSubscriber subscriber;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        connectionFactory = mock(ConnectionFactory.class);
+        destination = mock(Destination.class);
+        connection = mock(Connection.class);
+        session = mock(Session.class);
+        consumer = mock(MessageConsumer.class);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(eq(true), anyInt())).thenReturn(session);
+        when(session.createConsumer(any(Destination.class), anyString())).thenReturn(consumer);
+        messageHandler = mock(MessageHandler.class);
+
+        subscriber = new JmsMessageSubscriber("test#0", json(object(
+                field("sessionMode", "CLIENT"),
+                field("batchSize", 3),
+                field("batchTimeoutMillis", 100),
+                field("jndi", object(
+                        field("contextProperties", object(
+                                field("java.naming.factory.initial", TestContextFactory.class.getName()))),
+                        field("destinationName", "testQ"),
+                        field("connectionFactoryName", "TestFactory"))))));
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        subscriber.unsubscribe();
+    }
+
+    @Test
+    public void testBatchIsHandledAndCommittedOnce() throws Exception {
+        Message first = mock(Message.class);
+        Message second = mock(Message.class);
+        Message third = mock(Message.class);
+        when(consumer.receive(anyLong())).thenReturn(first, second, third, null);
+
+        subscriber.subscribe(messageHandler);
+
+        verify(session, timeout(5000)).commit();
+        ArgumentCaptor<List> batch = ArgumentCaptor.forClass(List.class);
+        verify(messageHandler).handleMessages(batch.capture());
+        assertThat(batch.getValue()).isEqualTo(Arrays.asList(first, second, third));
+        verify(messageHandler, never()).handleMessage(any(Message.class));
+        verify(session, never()).rollback();
+
+        JsonValue statistics = subscriber.getStatistics();
+        assertThat(statistics.get("received").asLong()).isEqualTo(3L);
+        assertThat(statistics.get("handled").asLong()).isEqualTo(3L);
+        assertThat(statistics.get("failed").asLong()).isEqualTo(0L);
+    }
+
+    @Test
+    public void testFailedBatchIsRolledBack() throws Exception {
+        Message message = mock(Message.class);
+        when(consumer.receive(anyLong())).thenReturn(message, null);
+        doThrow(new InternalServerErrorException("failure"))
+                .when(messageHandler).handleMessages(anyListOf(Message.class));
+
+        subscriber.subscribe(messageHandler);
+
+        verify(session, timeout(5000)).rollback();
+        verify(session, never()).commit();
+        assertThat(subscriber.getStatistics().get("failed").asLong()).isEqualTo(1L);
+    }
+
+    @Test
+    public void testRedeliveredMessageIsHandledAlone() throws Exception {
+        Message redelivered = mock(Message.class);
+        Message next = mock(Message.class);
+        when(redelivered.getJMSRedelivered()).thenReturn(true);
+        when(consumer.receive(anyLong())).thenReturn(redelivered, next, null);
+
+        subscriber.subscribe(messageHandler);
+
+        verify(session, timeout(5000).times(2)).commit();
+        ArgumentCaptor<List> batches = ArgumentCaptor.forClass(List.class);
+        verify(messageHandler, times(2)).handleMessages(batches.capture());
+        assertThat(batches.getAllValues().get(0)).isEqualTo(Arrays.asList(redelivered));
+        assertThat(batches.getAllValues().get(1)).isEqualTo(Arrays.asList(next));
+    }
+
+    @Test
+    public void testBacklogIsCountedOnceWithinTtl() throws Exception {
+        destination = mock(Queue.class);
+        Session browsingSession = mock(Session.class);
+        QueueBrowser browser = mock(QueueBrowser.class);
+        when(connection.createSession(eq(false), anyInt())).thenReturn(browsingSession);
+        when(browsingSession.createBrowser(any(Queue.class), anyString())).thenReturn(browser);
+        when(browser.getEnumeration()).thenReturn(
+                Collections.enumeration(Arrays.asList(mock(Message.class), mock(Message.class))));
+        when(consumer.receive(anyLong())).thenReturn(null);
+
+        subscriber.subscribe(messageHandler);
+
+        assertThat(subscriber.getStatistics().get("backlog").asInteger()).isEqualTo(2);
+        assertThat(subscriber.getStatistics().get("backlog").asInteger()).isEqualTo(2);
+        verify(browsingSession, times(1)).createBrowser(any(Queue.class), anyString());
+        verify(browsingSession).close();
+    }
+
+    /**
+     * A context factory for testing the subscriber.  Static class so that it can be instantiated via the JNDI
+     * context loader.
+     */
+    public static class TestContextFactory implements InitialContextFactory {
+
+        @Override
+        public javax.naming.Context getInitialContext(Hashtable<?, ?> environment) throws NamingException {
+            javax.naming.Context context = mock(javax.naming.Context.class);
+            when(context.lookup(matches("TestFactory"))).thenReturn(connectionFactory);
+            when(context.lookup(matches("testQ"))).thenReturn(destination);
+            return context;
+        }
+    }
+}
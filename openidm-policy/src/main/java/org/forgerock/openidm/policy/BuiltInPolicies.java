@@ -0,0 +1,550 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.policy;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Requests.newQueryRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.joda.time.format.ISODateTimeFormat;
+
+/**
+ * Native implementations of the policies that ship with {@code policy.js}. Each policy mirrors the behaviour of the
+ * script function with the same {@code policyExec} name so that results are identical whichever engine evaluates
+ * them.
+ */
+final class BuiltInPolicies {
+
+    static final String REQUIRED = "REQUIRED";
+    static final String UNIQUE = "UNIQUE";
+
+    /** The policy id of the uniqueness check, which the engine batches across properties. */
+    static final String UNIQUE_POLICY_ID = "unique";
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(".+@.+\\..+", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PHONE_PATTERN = Pattern.compile("^\\+?([0-9\\- \\(\\)])*$");
+    private static final Pattern NAME_PATTERN = Pattern.compile("^([A-Za'-\\u0105\\u0107\\u0119\\u0142\\u00F3\\u015B"
+            + "\\u017C\\u017A\\u0104\\u0106\\u0118\\u0141\\u00D3\\u015A\\u017B\\u0179\\u00C0\\u00C8\\u00CC\\u00D2"
+            + "\\u00D9\\u00E0\\u00E8\\u00EC\\u00F2\\u00F9\\u00C1\\u00C9\\u00CD\\u00D3\\u00DA\\u00DD\\u00E1\\u00E9"
+            + "\\u00ED\\u00F3\\u00FA\\u00FD\\u00C2\\u00CA\\u00CE\\u00D4\\u00DB\\u00E2\\u00EA\\u00EE\\u00F4\\u00FB"
+            + "\\u00C3\\u00D1\\u00D5\\u00E3\\u00F1\\u00F5\\u00C4\\u00CB\\u00CF\\u00D6\\u00DC\\u0178\\u00E4\\u00EB"
+            + "\\u00EF\\u00F6\\u00FC\\u0178\\u00A1\\u00BF\\u00E7\\u00C7\\u0152\\u0153\\u00DF\\u00D8\\u00F8\\u00C5"
+            + "\\u00E5\\u00C6\\u00E6\\u00DE\\u00FE\\u00D0\\u00F0\\-\\s])+$");
+    private static final Pattern CAPITALS_PATTERN = Pattern.compile("[(A-Z)]");
+    private static final Pattern NUMBERS_PATTERN = Pattern.compile("\\d");
+
+    /**
+     * The definition of a built-in policy: its id, the requirements it reports and how to bind it to parameters.
+     */
+    abstract static class Definition {
+        private final String policyId;
+        private final boolean validateOnlyIfPresent;
+        private final List<String> policyRequirements;
+
+        Definition(String policyId, boolean validateOnlyIfPresent, String... policyRequirements) {
+            this.policyId = policyId;
+            this.validateOnlyIfPresent = validateOnlyIfPresent;
+            List<String> requirements = new ArrayList<>(policyRequirements.length);
+            Collections.addAll(requirements, policyRequirements);
+            this.policyRequirements = Collections.unmodifiableList(requirements);
+        }
+
+        String getPolicyId() {
+            return policyId;
+        }
+
+        boolean isValidateOnlyIfPresent() {
+            return validateOnlyIfPresent;
+        }
+
+        List<String> getPolicyRequirements() {
+            return policyRequirements;
+        }
+
+        /**
+         * Binds this policy to its configured parameters, performing any expensive preparation such as compiling
+         * regular expressions once rather than on every validation.
+         *
+         * @param params the policy parameters, possibly a null JsonValue
+         * @return the bound validator
+         */
+        abstract PolicyValidator compile(JsonValue params);
+    }
+
+    private static final Map<String, Definition> DEFINITIONS = new LinkedHashMap<>();
+
+    static {
+        register(new Definition("required", false, REQUIRED) {
+            @Override
+            PolicyValidator compile(JsonValue params) {
+                return new PolicyValidator() {
+                    @Override
+                    public List<JsonValue> validate(PolicyEvaluation evaluation, JsonValue fullObject,
+                            JsonValue value, String property, List<JsonValue> failedRequirements) {
+                        return value == null ? failure(REQUIRED) : pass();
+                    }
+                };
+            }
+        });
+        register(new Definition("not-empty", true, REQUIRED) {
+            @Override
+            PolicyValidator compile(JsonValue params) {
+                return new PolicyValidator() {
+                    @Override
+                    public List<JsonValue> validate(PolicyEvaluation evaluation, JsonValue fullObject,
+                            JsonValue value, String property, List<JsonValue> failedRequirements) {
+                        if (value == null) {
+                            return pass();
+                        }
+                        boolean empty = value.isString() ? value.asString().isEmpty() : value.size() == 0;
+                        return empty ? failure(REQUIRED) : pass();
+                    }
+                };
+            }
+        });
+        register(new Definition("max-attempts-triggers-lock-cooldown", false,
+                "NO_MORE_THAN_X_ATTEMPTS_WITHIN_Y_MINUTES") {
+            @Override
+            PolicyValidator compile(JsonValue params) {
+                final double max = params.get("max").defaultTo(0).asDouble();
+                final double numMinutes = params.get("numMinutes").defaultTo(0).asDouble();
+                final String dateTimeField = params.get("dateTimeField").asString();
+                final JsonValue failureParams = json(object(
+                        field("max", params.get("max").getObject()),
+                        field("numMinutes", params.get("numMinutes").getObject())));
+                return new PolicyValidator() {
+                    @Override
+                    public List<JsonValue> validate(PolicyEvaluation evaluation, JsonValue fullObject,
+                            JsonValue value, String property, List<JsonValue> failedRequirements) {
+                        if (value == null || !value.isNumber() || value.asDouble() <= max || dateTimeField == null) {
+                            return pass();
+                        }
+                        Long lastFailed = parseDate(fullObject.get(dateTimeField));
+                        if (lastFailed != null
+                                && lastFailed + (1000 * 60 * numMinutes) > System.currentTimeMillis()) {
+                            return failure("NO_MORE_THAN_X_ATTEMPTS_WITHIN_Y_MINUTES", failureParams);
+                        }
+                        return pass();
+                    }
+                };
+            }
+        });
+        register(new Definition(UNIQUE_POLICY_ID, false, UNIQUE) {
+            @Override
+            PolicyValidator compile(JsonValue params) {
+                // uniqueness is checked by the engine with one query for all properties of a request
+                return null;
+            }
+        });
+        register(new Definition("no-internal-user-conflict", false, UNIQUE) {
+            @Override
+            PolicyValidator compile(JsonValue params) {
+                return new PolicyValidator() {
+                    @Override
+                    public List<JsonValue> validate(PolicyEvaluation evaluation, JsonValue fullObject,
+                            JsonValue value, String property, List<JsonValue> failedRequirements)
+                            throws ResourceException {
+                        if (!isNonEmpty(value)) {
+                            return pass();
+                        }
+                        QueryRequest request = newQueryRequest("repo/internal/user")
+                                .setQueryId("credential-internaluser-query")
+                                .setAdditionalParameter("username", value.asString());
+                        final List<ResourceResponse> existing = new ArrayList<>();
+                        evaluation.getConnectionFactory().getConnection()
+                                .query(evaluation.getContext(), request, existing);
+                        String requestId = evaluation.getRequestId();
+                        if (!existing.isEmpty()
+                                && (requestId == null || !requestId.equals(existing.get(0).getId()))) {
+                            return failure(UNIQUE);
+                        }
+                        return pass();
+                    }
+                };
+            }
+        });
+        register(new Definition("regexpMatches", false, "MATCH_REGEXP") {
+            @Override
+            PolicyValidator compile(JsonValue params) {
+                final String regexp = params.get("regexp").asString();
+                final String flags = params.get("flags").asString();
+                final Pattern pattern = Pattern.compile(regexp, toPatternFlags(flags));
+                final JsonValue failure = json(object(
+                        field("policyRequirement", "MATCH_REGEXP"),
+                        field("regexp", regexp),
+                        field("params", params.getObject())));
+                if (flags != null) {
+                    failure.put("flags", flags);
+                }
+                return new PolicyValidator() {
+                    @Override
+                    public List<JsonValue> validate(PolicyEvaluation evaluation, JsonValue fullObject,
+                            JsonValue value, String property, List<JsonValue> failedRequirements) {
+                        String string = value != null && value.isNumber()
+                                ? String.valueOf(value.getObject())
+                                : isNonEmpty(value) ? value.asString() : null;
+                        boolean passes = string != null && !string.isEmpty() && pattern.matcher(string).find();
+                        if ((isRequired(failedRequirements) || string != null && !string.isEmpty()) && !passes) {
+                            return Collections.singletonList(failure.copy());
+                        }
+                        return pass();
+                    }
+                };
+            }
+        });
+        register(new Definition("valid-type", false, "VALID_TYPE") {
+            @Override
+            PolicyValidator compile(JsonValue params) {
+                final JsonValue types = params.get("types");
+                final Set<String> validTypes = new HashSet<>();
+                for (JsonValue type : types) {
+                    validTypes.add(type.asString());
+                }
+                return new PolicyValidator() {
+                    @Override
+                    public List<JsonValue> validate(PolicyEvaluation evaluation, JsonValue fullObject,
+                            JsonValue value, String property, List<JsonValue> failedRequirements) {
+                        if (value == null) {
+                            return pass();
+                        }
+                        String type = typeOf(value);
+                        if (!validTypes.contains(type)) {
+                            return failure("VALID_TYPE", json(object(
+                                    field("invalidType", type),
+                                    field("validTypes", types.getObject()))));
+                        }
+                        return pass();
+                    }
+                };
+            }
+        });
+        register(new Definition("valid-date", true, "VALID_DATE") {
+            @Override
+            PolicyValidator compile(JsonValue params) {
+                return new PolicyValidator() {
+                    @Override
+                    public List<JsonValue> validate(PolicyEvaluation evaluation, JsonValue fullObject,
+                            JsonValue value, String property, List<JsonValue> failedRequirements) {
+                        boolean nonEmpty = isNonEmpty(value);
+                        boolean valid = nonEmpty && parseDate(value) != null;
+                        if ((isRequired(failedRequirements) || nonEmpty) && !valid) {
+                            return failure("VALID_DATE");
+                        }
+                        return pass();
+                    }
+                };
+            }
+        });
+        register(patternPolicy("valid-email-address-format", "VALID_EMAIL_ADDRESS_FORMAT", EMAIL_PATTERN));
+        register(patternPolicy("valid-name-format", "VALID_NAME_FORMAT", NAME_PATTERN));
+        register(patternPolicy("valid-phone-format", "VALID_PHONE_FORMAT", PHONE_PATTERN));
+        register(countPolicy("at-least-X-capitals", "AT_LEAST_X_CAPITAL_LETTERS", "numCaps", CAPITALS_PATTERN));
+        register(countPolicy("at-least-X-numbers", "AT_LEAST_X_NUMBERS", "numNums", NUMBERS_PATTERN));
+        register(new Definition("minimum-length", true, "MIN_LENGTH") {
+            @Override
+            PolicyValidator compile(JsonValue params) {
+                final int minLength = params.get("minLength").defaultTo(0).asInteger();
+                final JsonValue failureParams = json(object(field("minLength", params.get("minLength").getObject())));
+                return new PolicyValidator() {
+                    @Override
+                    public List<JsonValue> validate(PolicyEvaluation evaluation, JsonValue fullObject,
+                            JsonValue value, String property, List<JsonValue> failedRequirements) {
+                        boolean nonEmpty = isNonEmpty(value);
+                        boolean valid = nonEmpty && value.asString().length() >= minLength;
+                        if ((isRequired(failedRequirements) || nonEmpty) && !valid) {
+                            return failure("MIN_LENGTH", failureParams);
+                        }
+                        return pass();
+                    }
+                };
+            }
+        });
+        register(new Definition("cannot-contain-others", true, "CANNOT_CONTAIN_OTHERS") {
+            @Override
+            PolicyValidator compile(JsonValue params) {
+                final List<String> fields = new ArrayList<>();
+                JsonValue disallowedFields = params.get("disallowedFields");
+                if (disallowedFields.isString()) {
+                    // legacy csv support
+                    Collections.addAll(fields, disallowedFields.asString().split(","));
+                } else {
+                    for (JsonValue disallowedField : disallowedFields) {
+                        fields.add(disallowedField.asString());
+                    }
+                }
+                return new PolicyValidator() {
+                    @Override
+                    public List<JsonValue> validate(PolicyEvaluation evaluation, JsonValue fullObject,
+                            JsonValue value, String property, List<JsonValue> failedRequirements)
+                            throws ResourceException {
+                        if (!isNonEmpty(value)) {
+                            return pass();
+                        }
+                        for (String field : fields) {
+                            JsonValue other = fullObject.isMap() && fullObject.isDefined(field)
+                                    ? fullObject.get(field)
+                                    : evaluation.getExistingObject().get(field);
+                            if (other.isString() && containsMatch(value.asString(), other.asString())) {
+                                return failure("CANNOT_CONTAIN_OTHERS", json(object(field("disallowedFields", field))));
+                            }
+                        }
+                        return pass();
+                    }
+                };
+            }
+        });
+        register(new Definition("cannot-contain-characters", true, "CANNOT_CONTAIN_CHARACTERS") {
+            @Override
+            PolicyValidator compile(JsonValue params) {
+                final List<String> forbiddenChars = new ArrayList<>();
+                for (JsonValue forbiddenChar : params.get("forbiddenChars")) {
+                    forbiddenChars.add(String.valueOf(forbiddenChar.getObject()));
+                }
+                final StringBuilder joined = new StringBuilder();
+                for (String forbiddenChar : forbiddenChars) {
+                    if (joined.length() > 0) {
+                        joined.append(", ");
+                    }
+                    joined.append(forbiddenChar);
+                }
+                final JsonValue failureParams = json(object(field("forbiddenChars", joined.toString())));
+                return new PolicyValidator() {
+                    @Override
+                    public List<JsonValue> validate(PolicyEvaluation evaluation, JsonValue fullObject,
+                            JsonValue value, String property, List<JsonValue> failedRequirements) {
+                        if (isNonEmpty(value)) {
+                            for (String forbiddenChar : forbiddenChars) {
+                                if (value.asString().contains(forbiddenChar)) {
+                                    return failure("CANNOT_CONTAIN_CHARACTERS", failureParams);
+                                }
+                            }
+                        }
+                        return pass();
+                    }
+                };
+            }
+        });
+        register(new Definition("cannot-contain-duplicates", true, "CANNOT_CONTAIN_DUPLICATES") {
+            @Override
+            PolicyValidator compile(JsonValue params) {
+                return new PolicyValidator() {
+                    @Override
+                    public List<JsonValue> validate(PolicyEvaluation evaluation, JsonValue fullObject,
+                            JsonValue value, String property, List<JsonValue> failedRequirements) {
+                        if (value == null || !value.isList()) {
+                            return pass();
+                        }
+                        Set<String> checkedValues = new HashSet<>();
+                        for (JsonValue item : value) {
+                            String key = String.valueOf(item.getObject());
+                            if (!checkedValues.add(key)) {
+                                return failure("CANNOT_CONTAIN_DUPLICATES",
+                                        json(object(field("duplicateValue", item.getObject()))));
+                            }
+                        }
+                        return pass();
+                    }
+                };
+            }
+        });
+        register(new Definition("mapping-exists", false, "MAPPING_EXISTS") {
+            @Override
+            PolicyValidator compile(JsonValue params) {
+                return new PolicyValidator() {
+                    @Override
+                    public List<JsonValue> validate(PolicyEvaluation evaluation, JsonValue fullObject,
+                            JsonValue value, String property, List<JsonValue> failedRequirements)
+                            throws ResourceException {
+                        if (value != null && value.isString()
+                                && evaluation.getMappingNames().contains(value.asString())) {
+                            return pass();
+                        }
+                        return failure("MAPPING_EXISTS");
+                    }
+                };
+            }
+        });
+    }
+
+    private BuiltInPolicies() {
+        // prevent instantiation
+    }
+
+    /**
+     * Returns the definition of the built-in policy with the given id.
+     *
+     * @param policyId the id of the policy
+     * @return the definition, or {@code null} if the policy is not built in (e.g. a custom policy)
+     */
+    static Definition get(String policyId) {
+        return DEFINITIONS.get(policyId);
+    }
+
+    private static void register(Definition definition) {
+        DEFINITIONS.put(definition.getPolicyId(), definition);
+    }
+
+    private static Definition patternPolicy(String policyId, final String requirement, final Pattern pattern) {
+        return new Definition(policyId, true, requirement) {
+            @Override
+            PolicyValidator compile(JsonValue params) {
+                return new PolicyValidator() {
+                    @Override
+                    public List<JsonValue> validate(PolicyEvaluation evaluation, JsonValue fullObject,
+                            JsonValue value, String property, List<JsonValue> failedRequirements) {
+                        boolean nonEmpty = isNonEmpty(value);
+                        boolean passes = nonEmpty && pattern.matcher(value.asString()).find();
+                        if ((isRequired(failedRequirements) || nonEmpty) && !passes) {
+                            return failure(requirement);
+                        }
+                        return pass();
+                    }
+                };
+            }
+        };
+    }
+
+    private static Definition countPolicy(String policyId, final String requirement, final String param,
+            final Pattern pattern) {
+        return new Definition(policyId, true, requirement) {
+            @Override
+            PolicyValidator compile(JsonValue params) {
+                final int minimum = params.get(param).defaultTo(0).asInteger();
+                final JsonValue failureParams = json(object(field(param, params.get(param).getObject())));
+                return new PolicyValidator() {
+                    @Override
+                    public List<JsonValue> validate(PolicyEvaluation evaluation, JsonValue fullObject,
+                            JsonValue value, String property, List<JsonValue> failedRequirements) {
+                        boolean nonEmpty = isNonEmpty(value);
+                        int count = 0;
+                        if (nonEmpty) {
+                            Matcher matcher = pattern.matcher(value.asString());
+                            while (matcher.find()) {
+                                count++;
+                            }
+                        }
+                        if ((isRequired(failedRequirements) || nonEmpty) && !(count > 0 && count >= minimum)) {
+                            return failure(requirement, failureParams);
+                        }
+                        return pass();
+                    }
+                };
+            }
+        };
+    }
+
+    static List<JsonValue> pass() {
+        return Collections.emptyList();
+    }
+
+    static List<JsonValue> failure(String requirement) {
+        return Collections.singletonList(json(object(field("policyRequirement", requirement))));
+    }
+
+    private static List<JsonValue> failure(String requirement, JsonValue params) {
+        return Collections.singletonList(json(object(
+                field("policyRequirement", requirement),
+                field("params", params.copy().getObject()))));
+    }
+
+    /**
+     * Equivalent of the {@code isRequired} check of {@code policy.js}: whether a {@code REQUIRED} requirement has
+     * already failed for the property being validated.
+     */
+    private static boolean isRequired(List<JsonValue> failedRequirements) {
+        for (JsonValue failed : failedRequirements) {
+            if (REQUIRED.equals(failed.get("policyRequirement").asString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNonEmpty(JsonValue value) {
+        return value != null && value.isString() && !value.asString().isEmpty();
+    }
+
+    /**
+     * Returns the JavaScript type name used by the {@code valid-type} policy.
+     */
+    static String typeOf(JsonValue value) {
+        if (value.isNull()) {
+            return "null";
+        } else if (value.isList()) {
+            return "array";
+        } else if (value.isMap()) {
+            return "object";
+        } else if (value.isString()) {
+            return "string";
+        } else if (value.isNumber()) {
+            return "number";
+        } else if (value.isBoolean()) {
+            return "boolean";
+        }
+        return "object";
+    }
+
+    private static Long parseDate(JsonValue value) {
+        if (value == null || !value.isString()) {
+            return null;
+        }
+        try {
+            return ISODateTimeFormat.dateTimeParser().parseMillis(value.asString());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Mirrors {@code value.match(other)} of the script, which treats the other field value as a regular expression.
+     */
+    private static boolean containsMatch(String value, String other) {
+        try {
+            return Pattern.compile(other).matcher(value).find();
+        } catch (PatternSyntaxException e) {
+            return value.contains(other);
+        }
+    }
+
+    private static int toPatternFlags(String flags) {
+        int result = 0;
+        if (flags != null) {
+            if (flags.contains("i")) {
+                result |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+            }
+            if (flags.contains("m")) {
+                result |= Pattern.MULTILINE;
+            }
+        }
+        return result;
+    }
+}
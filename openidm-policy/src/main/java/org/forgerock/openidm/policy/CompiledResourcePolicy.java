@@ -0,0 +1,230 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.policy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.json.JsonValue;
+
+/**
+ * The policies of a single resource (e.g. {@code managed/user/*}), merged from {@code policy.json} and the managed
+ * object schema and bound to their native validators.
+ * <p>
+ * A resource is only {@link #isNative() native} if every policy it references, including conditional and fallback
+ * policies, has a built-in implementation. Resources which reference custom policies are evaluated by the policy
+ * script instead.
+ */
+final class CompiledResourcePolicy {
+
+    /**
+     * A policy bound to its parameters.
+     */
+    static final class Policy {
+        private final String policyId;
+        private final boolean validateOnlyIfPresent;
+        private final PolicyValidator validator;
+
+        Policy(String policyId, boolean validateOnlyIfPresent, PolicyValidator validator) {
+            this.policyId = policyId;
+            this.validateOnlyIfPresent = validateOnlyIfPresent;
+            this.validator = validator;
+        }
+
+        String getPolicyId() {
+            return policyId;
+        }
+
+        boolean isValidateOnlyIfPresent() {
+            return validateOnlyIfPresent;
+        }
+
+        boolean isUnique() {
+            return BuiltInPolicies.UNIQUE_POLICY_ID.equals(policyId);
+        }
+
+        PolicyValidator getValidator() {
+            return validator;
+        }
+    }
+
+    /**
+     * A set of policies which only apply when the condition script evaluates to true.
+     */
+    static final class ConditionalPolicies {
+        private final JsonValue condition;
+        private final List<String> dependencies;
+        private final List<Policy> policies;
+
+        ConditionalPolicies(JsonValue condition, List<String> dependencies, List<Policy> policies) {
+            this.condition = condition;
+            this.dependencies = dependencies;
+            this.policies = policies;
+        }
+
+        JsonValue getCondition() {
+            return condition;
+        }
+
+        List<String> getDependencies() {
+            return dependencies;
+        }
+
+        List<Policy> getPolicies() {
+            return policies;
+        }
+    }
+
+    /**
+     * The policies of a single property.
+     */
+    static final class Property {
+        private final String name;
+        private final boolean arrayElements;
+        private final List<Policy> policies;
+        private final List<ConditionalPolicies> conditionalPolicies;
+        private final List<Policy> fallbackPolicies;
+
+        Property(String name, List<Policy> policies, List<ConditionalPolicies> conditionalPolicies,
+                List<Policy> fallbackPolicies) {
+            this.name = name;
+            this.arrayElements = name.endsWith("[*]");
+            this.policies = policies;
+            this.conditionalPolicies = conditionalPolicies;
+            this.fallbackPolicies = fallbackPolicies;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        /**
+         * Returns whether the policies apply to each element of an array property ({@code name[*]}).
+         */
+        boolean isArrayElements() {
+            return arrayElements;
+        }
+
+        List<Policy> getPolicies() {
+            return policies;
+        }
+
+        List<ConditionalPolicies> getConditionalPolicies() {
+            return conditionalPolicies;
+        }
+
+        List<Policy> getFallbackPolicies() {
+            return fallbackPolicies;
+        }
+    }
+
+    private final boolean nativeResource;
+    private final List<Property> properties;
+    private final Map<String, Property> propertiesByName = new HashMap<>();
+
+    private CompiledResourcePolicy(boolean nativeResource, List<Property> properties) {
+        this.nativeResource = nativeResource;
+        this.properties = properties;
+        for (Property property : properties) {
+            if (!propertiesByName.containsKey(property.getName())) {
+                propertiesByName.put(property.getName(), property);
+            }
+        }
+    }
+
+    boolean isNative() {
+        return nativeResource;
+    }
+
+    /**
+     * Returns the compiled properties, in the order in which they are configured.
+     */
+    List<Property> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Returns the first configured property with the given name, as {@code validateProperty} does in the script.
+     */
+    Property getProperty(String name) {
+        return propertiesByName.get(name);
+    }
+
+    /**
+     * Compiles the merged resource configuration produced by the {@link PolicyEngine}.
+     *
+     * @param resource the merged resource configuration, with a {@code properties} array
+     * @return the compiled resource
+     */
+    static CompiledResourcePolicy compile(JsonValue resource) {
+        final List<Property> properties = new ArrayList<>();
+        boolean nativeResource = true;
+        for (JsonValue property : resource.get("properties")) {
+            List<Policy> policies = compilePolicies(property.get("policies"));
+            List<Policy> fallbackPolicies = compilePolicies(property.get("fallbackPolicies"));
+            List<ConditionalPolicies> conditionalPolicies = new ArrayList<>();
+            boolean nativeProperty = policies != null && fallbackPolicies != null;
+            for (JsonValue conditional : property.get("conditionalPolicies")) {
+                List<Policy> compiled = compilePolicies(conditional.get("policies"));
+                if (compiled == null) {
+                    nativeProperty = false;
+                    break;
+                }
+                List<String> dependencies = new ArrayList<>();
+                for (JsonValue dependency : conditional.get("dependencies")) {
+                    dependencies.add(dependency.asString());
+                }
+                conditionalPolicies.add(new ConditionalPolicies(conditional.get("condition").copy(), dependencies,
+                        compiled));
+            }
+            if (!nativeProperty) {
+                nativeResource = false;
+                break;
+            }
+            properties.add(new Property(property.get("name").required().asString(), policies, conditionalPolicies,
+                    fallbackPolicies));
+        }
+        return new CompiledResourcePolicy(nativeResource,
+                nativeResource ? properties : Collections.<Property>emptyList());
+    }
+
+    /**
+     * Compiles a list of policy references.
+     *
+     * @return the compiled policies, or {@code null} if any of them cannot be evaluated natively
+     */
+    private static List<Policy> compilePolicies(JsonValue policies) {
+        final List<Policy> compiled = new ArrayList<>();
+        for (JsonValue policy : policies) {
+            BuiltInPolicies.Definition definition = BuiltInPolicies.get(policy.get("policyId").asString());
+            if (definition == null) {
+                return null;
+            }
+            try {
+                compiled.add(new Policy(definition.getPolicyId(), definition.isValidateOnlyIfPresent(),
+                        definition.compile(policy.get("params"))));
+            } catch (RuntimeException e) {
+                // parameters the native engine cannot bind (e.g. a JavaScript-only regular expression) are left to
+                // the script, which reports its own errors
+                return null;
+            }
+        }
+        return compiled;
+    }
+}
@@ -0,0 +1,689 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.policy;
+
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Requests.newActionRequest;
+import static org.forgerock.json.resource.Requests.newQueryRequest;
+import static org.forgerock.json.resource.Requests.newReadRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ActionRequest;
+import org.forgerock.json.resource.BadRequestException;
+import org.forgerock.json.resource.ConnectionFactory;
+import org.forgerock.json.resource.NotFoundException;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourcePath;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.openidm.crypto.CryptoService;
+import org.forgerock.openidm.policy.CompiledResourcePolicy.ConditionalPolicies;
+import org.forgerock.openidm.policy.CompiledResourcePolicy.Policy;
+import org.forgerock.openidm.policy.CompiledResourcePolicy.Property;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.query.QueryFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluates {@code validateObject} and {@code validateProperty} requests natively.
+ * <p>
+ * The policies of each resource are merged from {@code policy.json} and the managed object schema the same way
+ * {@code policy.js} does, then compiled into {@link CompiledResourcePolicy} instances which are cached until the
+ * policy, managed or sync configuration changes. Uniqueness checks for all properties of a request are combined into
+ * a single query. Resources referencing custom policies are not compiled, and {@link #validate} returns {@code null}
+ * for them so that the request is handed to the script.
+ */
+class PolicyEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PolicyEngine.class);
+
+    static final String ACTION_VALIDATE_OBJECT = "validateObject";
+    static final String ACTION_VALIDATE_PROPERTY = "validateProperty";
+
+    private static final String ARRAY_SUFFIX = "[*]";
+
+    private final ConnectionFactory connectionFactory;
+    private final CryptoService cryptoService;
+
+    /** The {@code resources} of the policy configuration. */
+    private volatile JsonValue resources = json(array());
+
+    /** The {@code objects} of {@code config/managed}, read on first use after each change. */
+    private volatile JsonValue managedObjects;
+
+    /** The mapping names of {@code config/sync}, read on first use after each change. */
+    private volatile Set<String> mappingNames;
+
+    private final ConcurrentMap<String, CompiledResourcePolicy> compiled = new ConcurrentHashMap<>();
+
+    /**
+     * Counts the configuration changes, so that a value computed from the configuration before a change is not
+     * cached after it. Changed, and compared before caching a value, while holding the lock of {@link #compiled}.
+     */
+    private final AtomicLong configGeneration = new AtomicLong();
+
+    /** Whether validations are evaluated natively, or all handed to the script. */
+    private volatile boolean enabled = true;
+
+    PolicyEngine(ConnectionFactory connectionFactory, CryptoService cryptoService) {
+        this.connectionFactory = connectionFactory;
+        this.cryptoService = cryptoService;
+    }
+
+    ConnectionFactory getConnectionFactory() {
+        return connectionFactory;
+    }
+
+    /**
+     * Sets the {@code resources} of the policy configuration, discarding all compiled policies.
+     *
+     * @param resources the configured resources
+     */
+    void setResources(JsonValue resources) {
+        this.resources = resources.isNull() ? json(array()) : resources.copy();
+        synchronized (compiled) {
+            configGeneration.incrementAndGet();
+            compiled.clear();
+        }
+    }
+
+    /**
+     * Enables or disables native validation. While disabled, every validation is handed to the script.
+     *
+     * @param enabled whether validations are evaluated natively
+     */
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Discards the cached managed object configuration and all policies compiled from it.
+     */
+    void managedConfigChanged() {
+        synchronized (compiled) {
+            configGeneration.incrementAndGet();
+            managedObjects = null;
+            compiled.clear();
+        }
+    }
+
+    /**
+     * Discards the cached mapping names.
+     */
+    void syncConfigChanged() {
+        synchronized (compiled) {
+            configGeneration.incrementAndGet();
+            mappingNames = null;
+        }
+    }
+
+    /**
+     * Validates the content of a policy action request.
+     *
+     * @param context the request context
+     * @param request the {@code validateObject} or {@code validateProperty} request
+     * @return the validation result, or {@code null} if native validation is disabled or the resource has policies
+     *         which must be evaluated by the script
+     * @throws ResourceException if a policy could not be evaluated
+     */
+    JsonValue validate(Context context, ActionRequest request) throws ResourceException {
+        final String action = request.getAction();
+        if (!enabled) {
+            return null;
+        }
+        if (!ACTION_VALIDATE_OBJECT.equals(action) && !ACTION_VALIDATE_PROPERTY.equals(action)) {
+            return null;
+        }
+        final ResourcePath resourcePath = request.getResourcePathObject();
+        if (resourcePath.isEmpty()) {
+            throw new BadRequestException("No resource specified");
+        }
+        final CompiledResourcePolicy resource = getCompiledResource(context, resourcePath);
+        if (!resource.isNative()) {
+            return null;
+        }
+
+        final PolicyEvaluation evaluation = new PolicyEvaluation(this, context, resourcePath);
+        final JsonValue fullObject = request.getContent();
+        final List<Object> failures = new ArrayList<>();
+        final List<PendingUniqueCheck> uniqueChecks = new ArrayList<>();
+        if (ACTION_VALIDATE_OBJECT.equals(action)) {
+            for (Property property : resource.getProperties()) {
+                validate(evaluation, property, fullObject, getPropertyValue(fullObject, property.getName()),
+                        failures, uniqueChecks);
+            }
+        } else if (fullObject.isMap()) {
+            for (String name : fullObject.keys()) {
+                Property property = resource.getProperty(name);
+                if (property != null) {
+                    validate(evaluation, property, fullObject, fullObject.get(name), failures, uniqueChecks);
+                }
+            }
+        }
+        checkUniqueness(evaluation, uniqueChecks, failures);
+
+        return json(object(
+                field("result", failures.isEmpty()),
+                field("failedPolicyRequirements", failures)));
+    }
+
+    /**
+     * Validates a single property, appending a failure entry per failing policy and value.
+     */
+    private void validate(PolicyEvaluation evaluation, Property property, JsonValue fullObject, JsonValue value,
+            List<Object> failures, List<PendingUniqueCheck> uniqueChecks) throws ResourceException {
+        final List<Policy> policies = new ArrayList<>(property.getPolicies());
+        policies.addAll(getAppliedConditionalPolicies(evaluation, property, fullObject));
+
+        final List<JsonValue> failedRequirements = new ArrayList<>();
+        for (Policy policy : policies) {
+            if (policy.isValidateOnlyIfPresent() && value == null) {
+                continue;
+            }
+            final List<JsonValue> values = new ArrayList<>();
+            if (property.isArrayElements()) {
+                if (value == null || !value.isList()) {
+                    continue;
+                }
+                for (JsonValue element : value) {
+                    values.add(element);
+                }
+            } else {
+                values.add(value);
+            }
+            for (int i = 0; i < values.size(); i++) {
+                final String propertyName = property.isArrayElements()
+                        ? property.getName().substring(0, property.getName().length() - ARRAY_SUFFIX.length())
+                                + "[" + i + "]"
+                        : property.getName();
+                final JsonValue item = decryptIfNecessary(values.get(i));
+                if (policy.isUnique()) {
+                    if (item != null && item.isString() && !item.asString().isEmpty()) {
+                        uniqueChecks.add(new PendingUniqueCheck(failures.size(), propertyName,
+                                property.getName(), item.asString()));
+                    }
+                    continue;
+                }
+                final List<JsonValue> failed = policy.getValidator().validate(evaluation, fullObject, item,
+                        property.getName(), failedRequirements);
+                if (!failed.isEmpty()) {
+                    final List<Object> requirements = new ArrayList<>(failed.size());
+                    for (JsonValue requirement : failed) {
+                        failedRequirements.add(requirement);
+                        requirements.add(requirement.getObject());
+                    }
+                    failures.add(object(
+                            field("property", propertyName),
+                            field("policyRequirements", requirements)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the conditional policies whose condition holds for the object, or the fallback policies if none do.
+     */
+    private List<Policy> getAppliedConditionalPolicies(PolicyEvaluation evaluation, Property property,
+            JsonValue fullObject) throws ResourceException {
+        final List<Policy> applied = new ArrayList<>();
+        for (ConditionalPolicies conditional : property.getConditionalPolicies()) {
+            boolean satisfied = true;
+            for (String dependency : conditional.getDependencies()) {
+                if (!fullObject.isMap() || !fullObject.isDefined(dependency)) {
+                    satisfied = false;
+                    break;
+                }
+            }
+            if (satisfied && evaluateCondition(evaluation.getContext(), conditional.getCondition(), fullObject)) {
+                applied.addAll(conditional.getPolicies());
+            }
+        }
+        if (applied.isEmpty()) {
+            applied.addAll(property.getFallbackPolicies());
+        }
+        return applied;
+    }
+
+    private boolean evaluateCondition(Context context, JsonValue condition, JsonValue fullObject)
+            throws ResourceException {
+        final JsonValue content = condition.copy();
+        content.put("fullObject", fullObject.getObject());
+        final JsonValue result = connectionFactory.getConnection()
+                .action(context, newActionRequest("script", "eval").setContent(content))
+                .getJsonContent();
+        if (result.isNull()) {
+            return false;
+        } else if (result.isBoolean()) {
+            return result.asBoolean();
+        } else if (result.isString()) {
+            return !result.asString().isEmpty();
+        } else if (result.isNumber()) {
+            return result.asDouble() != 0;
+        }
+        return true;
+    }
+
+    /**
+     * Runs the uniqueness checks of a request as a single query against the parent collection and inserts the
+     * failures at the position the script would have reported them.
+     * <p>
+     * A hit of the combined query is attributed to a check only if its value of the checked field is exactly the
+     * checked value. Should the repository match values differently, for instance ignoring their case, some hits are
+     * not attributable to any check; the checks are then repeated one query per field, as the script runs them.
+     */
+    private void checkUniqueness(PolicyEvaluation evaluation, List<PendingUniqueCheck> checks, List<Object> failures)
+            throws ResourceException {
+        if (checks.isEmpty()) {
+            return;
+        }
+        final boolean[] failed = new boolean[checks.size()];
+        if (checks.size() == 1) {
+            failed[0] = !queryDuplicates(evaluation, checks).isEmpty();
+        } else {
+            boolean attributed = true;
+            for (ResourceResponse response : queryDuplicates(evaluation, checks)) {
+                boolean matched = false;
+                for (int i = 0; i < checks.size(); i++) {
+                    final PendingUniqueCheck check = checks.get(i);
+                    if (check.value.equals(response.getContent().get(new JsonPointer(check.field)).getObject())) {
+                        failed[i] = true;
+                        matched = true;
+                    }
+                }
+                attributed &= matched;
+            }
+            if (!attributed) {
+                for (int i = 0; i < checks.size(); i++) {
+                    if (!failed[i]) {
+                        failed[i] = !queryDuplicates(evaluation, checks.subList(i, i + 1)).isEmpty();
+                    }
+                }
+            }
+        }
+        // insert in reverse so that the recorded positions stay valid
+        for (int i = checks.size() - 1; i >= 0; i--) {
+            if (failed[i]) {
+                final PendingUniqueCheck check = checks.get(i);
+                failures.add(check.position, object(
+                        field("property", check.property),
+                        field("policyRequirements", array(
+                                object(field("policyRequirement", BuiltInPolicies.UNIQUE))))));
+            }
+        }
+    }
+
+    /**
+     * Queries the parent collection for the objects, other than the validated one, holding any of the checked values.
+     */
+    private List<ResourceResponse> queryDuplicates(PolicyEvaluation evaluation, List<PendingUniqueCheck> checks)
+            throws ResourceException {
+        final List<QueryFilter<JsonPointer>> filters = new ArrayList<>(checks.size());
+        final Set<String> fields = new HashSet<>();
+        for (PendingUniqueCheck check : checks) {
+            filters.add(QueryFilter.equalTo(new JsonPointer(check.field), check.value));
+            fields.add(check.field);
+        }
+        final QueryRequest request = newQueryRequest(evaluation.getResourcePath().parent())
+                .setQueryFilter(filters.size() == 1 ? filters.get(0) : QueryFilter.or(filters));
+        request.addField("_id");
+        for (String field : fields) {
+            request.addField(field);
+        }
+        final List<ResourceResponse> existing = new ArrayList<>();
+        connectionFactory.getConnection().query(evaluation.getContext(), request, existing);
+
+        final String requestId = evaluation.getRequestId();
+        final List<ResourceResponse> duplicates = new ArrayList<>(existing.size());
+        for (ResourceResponse response : existing) {
+            if (requestId == null || !requestId.equals(response.getId())) {
+                duplicates.add(response);
+            }
+        }
+        return duplicates;
+    }
+
+    private JsonValue decryptIfNecessary(JsonValue value) {
+        if (value != null && cryptoService != null && cryptoService.isEncrypted(value)) {
+            return cryptoService.decrypt(value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the compiled policies for the resource path, compiling them on first use.
+     */
+    CompiledResourcePolicy getCompiledResource(Context context, ResourcePath resourcePath)
+            throws ResourceException {
+        final long generation = configGeneration.get();
+        final JsonValue configuredResource = getResource(resourcePath);
+        final String managedObjectName = getManagedObjectName(resourcePath);
+        final String key = configuredResource.get("resource").defaultTo("").asString() + "|"
+                + (managedObjectName != null ? managedObjectName : "");
+        CompiledResourcePolicy resource = compiled.get(key);
+        if (resource == null) {
+            final JsonValue merged = configuredResource.copy();
+            if (managedObjectName != null) {
+                mergeManagedPolicies(merged, getManagedObject(context, managedObjectName, generation));
+            }
+            resource = CompiledResourcePolicy.compile(merged);
+            if (!resource.isNative()) {
+                logger.debug("Policies of {} reference custom policies, validating with the policy script",
+                        resourcePath);
+            }
+            synchronized (compiled) {
+                // a configuration change while compiling discards the compiled policies
+                if (generation == configGeneration.get()) {
+                    compiled.putIfAbsent(key, resource);
+                }
+            }
+        }
+        return resource;
+    }
+
+    /**
+     * Returns the first configured resource matching the path, or an empty resource.
+     */
+    private JsonValue getResource(ResourcePath resourcePath) {
+        final String path = resourcePath.toString();
+        for (JsonValue resource : resources) {
+            if (resourceMatches(resource.get("resource").asString(), path)) {
+                return resource;
+            }
+        }
+        return json(object(field("properties", array())));
+    }
+
+    static boolean resourceMatches(String resource1, String resource2) {
+        if (resource1 == null) {
+            return false;
+        }
+        final String[] rsrc1 = resource1.split("/", -1);
+        final String[] rsrc2 = resource2.split("/", -1);
+        if (rsrc1.length != rsrc2.length) {
+            return false;
+        }
+        for (int i = 0; i < rsrc1.length; i++) {
+            if (!rsrc1[i].equals(rsrc2[i]) && !"*".equals(rsrc1[i]) && !"*".equals(rsrc2[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the managed object name of paths which support schema policies ({@code managed/<name>[/<id>]}).
+     */
+    private static String getManagedObjectName(ResourcePath resourcePath) {
+        if (resourcePath.size() < 2 || resourcePath.size() > 3 || !"managed".equals(resourcePath.get(0))) {
+            return null;
+        }
+        return resourcePath.get(1);
+    }
+
+    private JsonValue getManagedObject(Context context, String name, long generation) throws ResourceException {
+        JsonValue objects = managedObjects;
+        if (objects == null) {
+            objects = readConfig(context, "config/managed").get("objects").copy();
+            synchronized (compiled) {
+                if (generation == configGeneration.get()) {
+                    managedObjects = objects;
+                }
+            }
+        }
+        for (JsonValue object : objects) {
+            if (name.equals(object.get("name").asString())) {
+                return object;
+            }
+        }
+        return json(null);
+    }
+
+    /**
+     * Returns the names of the mappings configured in {@code config/sync}.
+     */
+    Set<String> getMappingNames(Context context) throws ResourceException {
+        Set<String> names = mappingNames;
+        if (names == null) {
+            final long generation = configGeneration.get();
+            names = new HashSet<>();
+            for (JsonValue mapping : readConfig(context, "config/sync").get("mappings")) {
+                names.add(mapping.get("name").asString());
+            }
+            names = Collections.unmodifiableSet(names);
+            synchronized (compiled) {
+                if (generation == configGeneration.get()) {
+                    mappingNames = names;
+                }
+            }
+        }
+        return names;
+    }
+
+    private JsonValue readConfig(Context context, String path) throws ResourceException {
+        try {
+            return connectionFactory.getConnection().read(context, newReadRequest(path)).getContent();
+        } catch (NotFoundException e) {
+            return json(object());
+        }
+    }
+
+    /**
+     * Merges the policies derived from the managed object schema into the configured resource, as
+     * {@code updateResourceConfig} does in the script.
+     */
+    static void mergeManagedPolicies(JsonValue resource, JsonValue managedObject) {
+        final JsonValue schemaProperties = managedObject.get("schema").get("properties");
+        if (!schemaProperties.isMap()) {
+            return;
+        }
+        if (!resource.get("properties").isList()) {
+            resource.put("properties", array());
+        }
+        final JsonValue properties = resource.get("properties");
+        final Set<String> required = new HashSet<>();
+        for (JsonValue name : managedObject.get("schema").get("required")) {
+            required.add(name.asString());
+        }
+        for (String name : schemaProperties.keys()) {
+            final JsonValue newProp = getSchemaPolicies(name, schemaProperties.get(name), required.contains(name));
+            JsonValue existing = null;
+            for (JsonValue prop : properties) {
+                if (name.equals(prop.get("name").asString())) {
+                    existing = prop;
+                    mergeProperty(prop, newProp);
+                }
+            }
+            if (existing == null) {
+                properties.add(newProp.getObject());
+            }
+        }
+    }
+
+    private static void mergeProperty(JsonValue prop, JsonValue newProp) {
+        final JsonValue policies = prop.get("policies");
+        if (policies.isList() && policies.size() > 0) {
+            prop.put("policies", mergePolicies(policies, newProp.get("policies")));
+        } else {
+            prop.put("policies", newProp.get("policies").getObject());
+        }
+        final JsonValue conditionalPolicies = prop.get("conditionalPolicies");
+        if (conditionalPolicies.isList() && conditionalPolicies.size() > 0) {
+            for (JsonValue conditional : newProp.get("conditionalPolicies")) {
+                conditionalPolicies.add(conditional.getObject());
+            }
+        } else {
+            prop.put("conditionalPolicies", newProp.get("conditionalPolicies").getObject());
+        }
+    }
+
+    private static List<Object> mergePolicies(JsonValue oldPolicies, JsonValue newPolicies) {
+        final List<Object> result = new ArrayList<>(oldPolicies.asList());
+        for (JsonValue newPolicy : newPolicies) {
+            boolean found = false;
+            for (int i = 0; i < result.size(); i++) {
+                if (newPolicy.get("policyId").asString().equals(
+                        json(result.get(i)).get("policyId").asString())) {
+                    result.set(i, newPolicy.getObject());
+                    found = true;
+                }
+            }
+            if (!found) {
+                result.add(object(
+                        field("policyId", newPolicy.get("policyId").getObject()),
+                        field("params", newPolicy.get("params").isMap()
+                                ? newPolicy.get("params").copy().getObject()
+                                : object())));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Derives the standard policies of a schema property, as {@code getAdditionalPolicies} does in the script.
+     */
+    private static JsonValue getSchemaPolicies(String name, JsonValue schema, boolean required) {
+        final JsonValue type = schema.get("type");
+        final JsonValue minLength = schema.get("minLength");
+        final List<Object> policies = new ArrayList<>();
+        if (required) {
+            policies.add(object(field("policyId", "required")));
+        }
+        if ((type.isList() && !type.asList().contains("null")) || (minLength.isNumber() && minLength.asDouble() > 0)) {
+            policies.add(object(field("policyId", "not-empty")));
+        }
+        if ((type.isList() && type.asList().contains("string")) || "string".equals(type.getObject())) {
+            Integer length = parseInt(minLength);
+            if (length != null) {
+                policies.add(object(
+                        field("policyId", "minimum-length"),
+                        field("params", object(field("minLength", length)))));
+            }
+            if (schema.get("pattern").isString()) {
+                policies.add(object(
+                        field("policyId", "regexpMatches"),
+                        field("params", object(field("regexp", schema.get("pattern").asString())))));
+            }
+        }
+        final List<Object> types = new ArrayList<>();
+        if (type.isString()) {
+            types.add(type.asString());
+        } else {
+            for (JsonValue t : type) {
+                types.add(t.getObject());
+            }
+        }
+        // treat a relationship type as an object
+        for (int i = 0; i < types.size(); i++) {
+            if ("relationship".equals(types.get(i))) {
+                types.set(i, "object");
+            }
+        }
+        policies.add(object(
+                field("policyId", "valid-type"),
+                field("params", object(field("types", types)))));
+        for (JsonValue policy : schema.get("policies")) {
+            policies.add(policy.getObject());
+        }
+
+        return json(object(
+                field("name", name),
+                field("policies", policies),
+                field("conditionalPolicies", schema.get("conditionalPolicies").getObject()),
+                field("fallbackPolicies", schema.get("fallbackPolicies").getObject())));
+    }
+
+    private static Integer parseInt(JsonValue value) {
+        if (value.isNumber()) {
+            return value.asNumber().intValue();
+        } else if (value.isString()) {
+            try {
+                return Integer.parseInt(value.asString().trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value of a property, or {@code null} if it is not present. Properties are addressed the way
+     * {@code getPropertyValue} of the script addresses them: slash separated, with any trailing {@code [*]} removed.
+     */
+    static JsonValue getPropertyValue(JsonValue object, String name) {
+        if (object.isNull()) {
+            return object;
+        }
+        JsonValue current = object;
+        for (String token : name.split("/")) {
+            if (token.endsWith(ARRAY_SUFFIX)) {
+                token = token.substring(0, token.length() - ARRAY_SUFFIX.length());
+            }
+            if (current.isMap()) {
+                if (!current.isDefined(token)) {
+                    return null;
+                }
+                current = current.get(token);
+            } else if (current.isList()) {
+                try {
+                    int index = Integer.parseInt(token);
+                    if (index < 0 || index >= current.size()) {
+                        return null;
+                    }
+                    current = current.get(index);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+            if (current.isNull()) {
+                return current;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * A uniqueness check deferred until all properties have been validated.
+     */
+    private static final class PendingUniqueCheck {
+        private final int position;
+        private final String property;
+        private final String field;
+        private final String value;
+
+        private PendingUniqueCheck(int position, String property, String field, String value) {
+            this.position = position;
+            this.property = property;
+            this.field = field;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.policy;
+
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Requests.newReadRequest;
+
+import java.util.Set;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ConnectionFactory;
+import org.forgerock.json.resource.NotFoundException;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourcePath;
+import org.forgerock.services.context.Context;
+
+/**
+ * Holds the state of a single policy validation request: the calling context, the resource being validated and any
+ * resources which were read on behalf of the validators.
+ */
+final class PolicyEvaluation {
+
+    private final PolicyEngine engine;
+    private final Context context;
+    private final ResourcePath resourcePath;
+
+    /** The stored copy of the resource being validated, read at most once per request. */
+    private JsonValue existingObject;
+
+    PolicyEvaluation(PolicyEngine engine, Context context, ResourcePath resourcePath) {
+        this.engine = engine;
+        this.context = context;
+        this.resourcePath = resourcePath;
+    }
+
+    Context getContext() {
+        return context;
+    }
+
+    ResourcePath getResourcePath() {
+        return resourcePath;
+    }
+
+    ConnectionFactory getConnectionFactory() {
+        return engine.getConnectionFactory();
+    }
+
+    /**
+     * Returns the id of the resource being validated, which is {@code "*"} when validating an object to be created.
+     *
+     * @return the id of the resource being validated, or {@code null} if the path is empty
+     */
+    String getRequestId() {
+        return resourcePath.isEmpty() ? null : resourcePath.leaf();
+    }
+
+    /**
+     * Returns the stored copy of the resource being validated. Objects which are about to be created (those whose
+     * path ends with {@code "*"}) and objects which do not exist yield an empty object.
+     *
+     * @return the stored object
+     * @throws ResourceException if the object could not be read
+     */
+    JsonValue getExistingObject() throws ResourceException {
+        if (existingObject == null) {
+            if (resourcePath.isEmpty() || "*".equals(resourcePath.leaf())) {
+                existingObject = json(object());
+            } else {
+                try {
+                    existingObject = getConnectionFactory().getConnection()
+                            .read(context, newReadRequest(resourcePath)).getContent();
+                } catch (NotFoundException e) {
+                    existingObject = json(object());
+                }
+            }
+        }
+        return existingObject;
+    }
+
+    /**
+     * Returns the names of the mappings configured in {@code config/sync}.
+     *
+     * @return the configured mapping names
+     * @throws ResourceException if the sync configuration could not be read
+     */
+    Set<String> getMappingNames() throws ResourceException {
+        return engine.getMappingNames(context);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.policy;
+
+import static org.forgerock.json.resource.Responses.newActionResponse;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ActionRequest;
+import org.forgerock.json.resource.ActionResponse;
+import org.forgerock.json.resource.CreateRequest;
+import org.forgerock.json.resource.DeleteRequest;
+import org.forgerock.json.resource.PatchRequest;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.QueryResponse;
+import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.RequestHandler;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.json.resource.UpdateRequest;
+import org.forgerock.openidm.smartevent.EventEntry;
+import org.forgerock.openidm.smartevent.Name;
+import org.forgerock.openidm.smartevent.Publisher;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.promise.Promise;
+
+/**
+ * Serves policy validation actions with the native {@link PolicyEngine} and delegates every other request, as well as
+ * validations of resources with custom policies, to the policy script.
+ */
+class PolicyRequestHandler implements RequestHandler {
+
+    /** Event name for monitoring native policy validation. */
+    private static final Name EVENT_NATIVE_VALIDATION = Name.get("openidm/internal/policy/native/action");
+
+    private final RequestHandler scriptHandler;
+    private final PolicyEngine engine;
+
+    PolicyRequestHandler(RequestHandler scriptHandler, PolicyEngine engine) {
+        this.scriptHandler = scriptHandler;
+        this.engine = engine;
+    }
+
+    @Override
+    public Promise<ActionResponse, ResourceException> handleAction(Context context, ActionRequest request) {
+        EventEntry measure = Publisher.start(EVENT_NATIVE_VALIDATION, request, null);
+        try {
+            JsonValue result = engine.validate(context, request);
+            if (result != null) {
+                measure.setResult(result);
+                return newActionResponse(result).asPromise();
+            }
+        } catch (ResourceException e) {
+            return e.asPromise();
+        } finally {
+            measure.end();
+        }
+        return scriptHandler.handleAction(context, request);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> handleCreate(Context context, CreateRequest request) {
+        return scriptHandler.handleCreate(context, request);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> handleDelete(Context context, DeleteRequest request) {
+        return scriptHandler.handleDelete(context, request);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> handlePatch(Context context, PatchRequest request) {
+        return scriptHandler.handlePatch(context, request);
+    }
+
+    @Override
+    public Promise<QueryResponse, ResourceException> handleQuery(Context context, QueryRequest request,
+            QueryResourceHandler handler) {
+        return scriptHandler.handleQuery(context, request, handler);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> handleRead(Context context, ReadRequest request) {
+        return scriptHandler.handleRead(context, request);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> handleUpdate(Context context, UpdateRequest request) {
+        return scriptHandler.handleUpdate(context, request);
+    }
+}
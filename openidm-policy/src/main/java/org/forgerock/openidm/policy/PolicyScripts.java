@@ -0,0 +1,88 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.policy;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.forgerock.openidm.filter.ScriptFunctions;
+
+/**
+ * Tells whether the deployed policy script evaluates the built-in policies as shipped, so that the
+ * {@link PolicyEngine} may evaluate them natively.
+ * <p>
+ * The policy script is compared with the shipped {@code policy.js} by the checksum of its source, with runs of
+ * whitespace collapsed, so that any change to it, including to the policy requirements or the failure messages of
+ * a built-in policy, leaves the validation to the script. An additional policy file redefines the built-in policies
+ * if it declares a policy with the id of a built-in one, or refers to the variables of {@code policy.js} which hold
+ * the policies and their implementations, rather than adding its policies with {@code addPolicy}.
+ */
+final class PolicyScripts {
+
+    /** The checksum of the shipped {@code policy.js}, see {@link ScriptFunctions#checksum(String)} */
+    static final String SHIPPED_POLICY_SCRIPT_CHECKSUM = "APznFx6X1zaNRsNg59IQ2MVyjuKyK9Mc9Iwn4ZSNOoQ=";
+
+    /** The variables of {@code policy.js} through which an additional policy file can change the built-in policies */
+    private static final Pattern POLICY_VARIABLES =
+            Pattern.compile("\\b(config|impl|policyConfig|policyImpl|policyFunctions|policyProcessor)\\b");
+
+    /** The declaration of a policy id */
+    private static final Pattern POLICY_ID =
+            Pattern.compile("[\"']?policyId[\"']?\\s*:\\s*[\"']([^\"']*)[\"']");
+
+    private PolicyScripts() {
+        // static utility
+    }
+
+    /**
+     * Returns whether the policy script and its additional policy files evaluate the built-in policies as shipped.
+     *
+     * @param source the source of the policy script, or {@code null} if it is unknown
+     * @param additionalSources the sources of the additional policy files
+     * @return whether the built-in policies may be evaluated natively
+     */
+    static boolean areShipped(String source, List<String> additionalSources) {
+        if (source == null || !SHIPPED_POLICY_SCRIPT_CHECKSUM.equals(ScriptFunctions.checksum(source))) {
+            return false;
+        }
+        for (String additionalSource : additionalSources) {
+            if (redefinesBuiltInPolicies(additionalSource)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether an additional policy file redefines, or may redefine, a built-in policy.
+     *
+     * @param source the source of the additional policy file
+     * @return whether the file changes the built-in policies
+     */
+    static boolean redefinesBuiltInPolicies(String source) {
+        if (POLICY_VARIABLES.matcher(source).find()) {
+            return true;
+        }
+        final Matcher policyId = POLICY_ID.matcher(source);
+        while (policyId.find()) {
+            if (BuiltInPolicies.get(policyId.group(1)) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -12,9 +12,12 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.policy;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
@@ -31,39 +34,62 @@ import org.apache.felix.scr.annotations.Properties;
 import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferencePolicy;
+import org.apache.felix.scr.annotations.Service;
 import org.forgerock.services.context.Context;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.resource.ActionRequest;
 import org.forgerock.json.resource.ReadRequest;
 import org.forgerock.json.resource.RequestType;
+import org.forgerock.json.resource.RequestHandler;
 import org.forgerock.json.resource.ResourceException;
 import org.forgerock.openidm.config.enhanced.EnhancedConfig;
 import org.forgerock.openidm.core.IdentityServer;
 import org.forgerock.openidm.core.ServerConstants;
+import org.forgerock.openidm.crypto.CryptoService;
+import org.forgerock.openidm.router.IDMConnectionFactory;
 import org.forgerock.openidm.script.AbstractScriptedService;
+import org.forgerock.openidm.script.ScriptedRequestHandler;
 import org.forgerock.openidm.util.FileUtil;
+import org.forgerock.openidm.util.Scripts;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
+import org.osgi.service.cm.ConfigurationEvent;
+import org.osgi.service.cm.ConfigurationListener;
 import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A Policy Service for policy validation.
- * 
+ * <p>
+ * Validation of resources whose policies are all built in is performed by the native {@link PolicyEngine}, as long
+ * as the configured script and its additional files evaluate the built-in policies as shipped; the configured
+ * script handles reads of the policy metadata and validation of resources with custom policies. The
+ * service listens for configuration events so that compiled policies are discarded when the managed object or
+ * mapping configuration changes.
  */
 @Component(name = PolicyService.PID, policy = ConfigurationPolicy.REQUIRE, metatype = true,
         description = "OpenIDM Policy Service", immediate = true)
+@Service(ConfigurationListener.class)
 @Properties({
     @Property(name = Constants.SERVICE_VENDOR, value = ServerConstants.SERVER_VENDOR_NAME),
     @Property(name = Constants.SERVICE_DESCRIPTION, value = "OpenIDM Policy Service"),
     @Property(name = ServerConstants.ROUTER_PREFIX, value = "/policy*"),
     @Property(name = "suppressMetatypeWarning", value = "true")
 })
-public class PolicyService extends AbstractScriptedService {
+public class PolicyService extends AbstractScriptedService implements ConfigurationListener {
 
     public static final String PID = "org.forgerock.openidm.policy";
 
+    /** PID of the managed object configuration, from which the schema policies are derived. */
+    private static final String MANAGED_PID = "org.forgerock.openidm.managed";
+
+    /** PID of the sync configuration, read by the {@code mapping-exists} policy. */
+    private static final String SYNC_PID = "org.forgerock.openidm.sync";
+
+    /** Configuration property to disable the native policy engine and validate everything with the script. */
+    private static final String CONFIG_NATIVE_VALIDATION = "nativeValidation";
+
     /**
      * Setup logging for the {@link PolicyService}.
      */
@@ -73,10 +99,20 @@ public class PolicyService extends AbstractScriptedService {
     @Reference(policy = ReferencePolicy.DYNAMIC)
     private volatile EnhancedConfig enhancedConfig;
 
+    /** The connection factory used by the native engine to read configuration and query for uniqueness. */
+    @Reference(policy = ReferencePolicy.STATIC)
+    private IDMConnectionFactory connectionFactory;
+
+    /** Used by the native engine to decrypt values before validating them. */
+    @Reference
+    private CryptoService cryptoService;
+
     private ComponentContext context;
     
     private JsonValue configuration;
 
+    private PolicyEngine policyEngine;
+
     public PolicyService() {
         super(EnumSet.of(RequestType.ACTION, RequestType.READ));
     }
@@ -90,6 +126,7 @@ public class PolicyService extends AbstractScriptedService {
     protected void activate(ComponentContext context) {
         this.context = context;
         setProperties(context);
+        policyEngine = new PolicyEngine(connectionFactory, cryptoService);
         configuration = getConfiguration(context);
         registerService(context.getBundleContext(), configuration);
         logger.info("OpenIDM Policy Service component is activated.");
@@ -125,9 +162,9 @@ public class PolicyService extends AbstractScriptedService {
     
     private void init(JsonValue configuration) {
         JsonValue additionalPolicies = configuration.get("additionalFiles");
+        List<String> list = new ArrayList<String>();
         if (!additionalPolicies.isNull()) {
             configuration.remove("additionalFiles");
-            List<String> list = new ArrayList<String>();
             for (JsonValue policy : additionalPolicies) {
                 try {
                     list.add(FileUtil.readFile(IdentityServer.getFileForProjectPath(policy.asString())));
@@ -137,8 +174,55 @@ public class PolicyService extends AbstractScriptedService {
             }
             configuration.add("additionalPolicies", list);
         }
+        if (policyEngine != null) {
+            policyEngine.setResources(configuration.get("resources"));
+            policyEngine.setEnabled(configuration.get(CONFIG_NATIVE_VALIDATION).defaultTo(true).asBoolean()
+                    && isShippedPolicyScript(configuration, list));
+        }
+    }
+
+    /**
+     * Returns whether the configured policy script and additional policy files evaluate the built-in policies as
+     * shipped, so that the native engine may evaluate them.
+     */
+    private boolean isShippedPolicyScript(JsonValue configuration, List<String> additionalPolicies) {
+        String source = null;
+        File scriptFile = Scripts.getScriptFile(configuration);
+        if (scriptFile != null) {
+            try {
+                source = FileUtil.readFile(scriptFile);
+            } catch (IOException e) {
+                logger.debug("Failed to read {}", scriptFile, e);
+            }
+        }
+        if (!PolicyScripts.areShipped(source, additionalPolicies)) {
+            logger.info("Policy script {} or its additional files do not evaluate the built-in policies as shipped, "
+                    + "validating with the script", configuration.get("file").asString());
+            return false;
+        }
+        return true;
     }
     
+    @Override
+    protected RequestHandler decorateRequestHandler(final ScriptedRequestHandler handler) {
+        if (policyEngine == null) {
+            return handler;
+        }
+        return new PolicyRequestHandler(handler, policyEngine);
+    }
+
+    @Override
+    public void configurationEvent(ConfigurationEvent event) {
+        if (policyEngine == null) {
+            return;
+        }
+        if (MANAGED_PID.equals(event.getPid())) {
+            policyEngine.managedConfigChanged();
+        } else if (SYNC_PID.equals(event.getPid())) {
+            policyEngine.syncConfigChanged();
+        }
+    }
+
     @Override
     public void handleAction(final Context context, final ActionRequest request,
             final Bindings handler) throws ResourceException {
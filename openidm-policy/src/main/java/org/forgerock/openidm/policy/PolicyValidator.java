@@ -0,0 +1,41 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.policy;
+
+import java.util.List;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ResourceException;
+
+/**
+ * A native implementation of a single policy, bound to the policy parameters it was compiled with.
+ */
+interface PolicyValidator {
+
+    /**
+     * Validates a single property value.
+     *
+     * @param evaluation the state of the policy request being evaluated
+     * @param fullObject the complete object submitted for validation
+     * @param value the value to validate, or {@code null} if the property is not present
+     * @param property the name of the property being validated
+     * @param failedRequirements the requirements that have already failed for this property
+     * @return the failed policy requirements, or an empty list if the value passes
+     * @throws ResourceException if the policy could not be evaluated
+     */
+    List<JsonValue> validate(PolicyEvaluation evaluation, JsonValue fullObject, JsonValue value, String property,
+            List<JsonValue> failedRequirements) throws ResourceException;
+}
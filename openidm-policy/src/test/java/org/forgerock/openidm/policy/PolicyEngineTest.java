@@ -0,0 +1,337 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.policy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Requests.newActionRequest;
+import static org.forgerock.json.resource.Responses.newQueryResponse;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ActionRequest;
+import org.forgerock.json.resource.Connection;
+import org.forgerock.json.resource.ConnectionFactory;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResponse;
+import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link PolicyEngine} and the {@link BuiltInPolicies}.
+ */
+public class PolicyEngineTest {
+
+    private static final JsonValue MANAGED_CONFIG = json(object(
+            field("objects", array(
+                    object(
+                            field("name", "user"),
+                            field("schema", object(
+                                    field("required", array("userName", "password")),
+                                    field("properties", object(
+                                            field("userName", object(
+                                                    field("type", "string"),
+                                                    field("policies", array(
+                                                            object(field("policyId", "unique")))))),
+                                            field("mail", object(
+                                                    field("type", "string"),
+                                                    field("policies", array(
+                                                            object(field("policyId", "unique")),
+                                                            object(field("policyId",
+                                                                    "valid-email-address-format")))))),
+                                            field("password", object(
+                                                    field("type", "string"),
+                                                    field("policies", array(
+                                                            object(
+                                                                    field("policyId", "minimum-length"),
+                                                                    field("params", object(field("minLength", 8)))),
+                                                            object(
+                                                                    field("policyId", "cannot-contain-others"),
+                                                                    field("params", object(field("disallowedFields",
+                                                                            "userName"))))))))))))),
+                    object(
+                            field("name", "device"),
+                            field("schema", object(
+                                    field("properties", object(
+                                            field("serial", object(
+                                                    field("type", "string"),
+                                                    field("policies", array(
+                                                            object(field("policyId", "custom-policy"))))))))))))));
+
+    private Connection connection;
+    private PolicyEngine engine;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        connection = mock(Connection.class);
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.read(any(Context.class), any(ReadRequest.class)))
+                .thenReturn(newResourceResponse("managed", null, MANAGED_CONFIG));
+        engine = new PolicyEngine(connectionFactory, null);
+        engine.setResources(json(array()));
+    }
+
+    @Test
+    public void testValidObjectPasses() throws Exception {
+        stubQueryResults();
+
+        JsonValue result = engine.validate(new RootContext(), validateObject("managed/user/*",
+                json(object(
+                        field("userName", "bjensen"),
+                        field("mail", "bjensen@example.com"),
+                        field("password", "Passw0rd!")))));
+
+        assertThat(result.get("result").asBoolean()).isTrue();
+        assertThat(result.get("failedPolicyRequirements").asList()).isEmpty();
+    }
+
+    @Test
+    public void testFailedRequirementsAreReported() throws Exception {
+        stubQueryResults();
+
+        JsonValue result = engine.validate(new RootContext(), validateObject("managed/user/*",
+                json(object(
+                        field("mail", "not-an-address"),
+                        field("password", "short")))));
+
+        assertThat(result.get("result").asBoolean()).isFalse();
+        JsonValue failures = result.get("failedPolicyRequirements");
+        assertThat(failures.size()).isEqualTo(3);
+        assertThat(failures.get(0).get("property").asString()).isEqualTo("userName");
+        assertThat(failures.get(0).get("policyRequirements").get(0).get("policyRequirement").asString())
+                .isEqualTo("REQUIRED");
+        assertThat(failures.get(1).get("property").asString()).isEqualTo("mail");
+        assertThat(failures.get(1).get("policyRequirements").get(0).get("policyRequirement").asString())
+                .isEqualTo("VALID_EMAIL_ADDRESS_FORMAT");
+        assertThat(failures.get(2).get("property").asString()).isEqualTo("password");
+        assertThat(failures.get(2).get("policyRequirements").get(0).get("params").get("minLength").asInteger())
+                .isEqualTo(8);
+    }
+
+    @Test
+    public void testUniquenessIsCheckedWithOneQuery() throws Exception {
+        stubQueryResults(newResourceResponse("existing", null,
+                json(object(field("_id", "existing"), field("mail", "bjensen@example.com")))));
+
+        JsonValue result = engine.validate(new RootContext(), validateObject("managed/user/*",
+                json(object(
+                        field("userName", "bjensen"),
+                        field("mail", "bjensen@example.com"),
+                        field("password", "Passw0rd!")))));
+
+        ArgumentCaptor<QueryRequest> query = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(connection, times(1)).query(any(Context.class), query.capture(),
+                anyCollectionOf(ResourceResponse.class));
+        assertThat(query.getValue().getResourcePath()).isEqualTo("managed/user");
+        assertThat(query.getValue().getQueryFilter().toString()).contains("userName").contains("mail");
+
+        JsonValue failures = result.get("failedPolicyRequirements");
+        assertThat(failures.size()).isEqualTo(1);
+        assertThat(failures.get(0).get("property").asString()).isEqualTo("mail");
+        assertThat(failures.get(0).get("policyRequirements").get(0).get("policyRequirement").asString())
+                .isEqualTo("UNIQUE");
+    }
+
+    @Test
+    public void testUniquenessHitsAreAttributedByExactValue() throws Exception {
+        stubQueryResults(newResourceResponse("existing", null,
+                json(object(field("_id", "existing"), field("userName", "BJensen"),
+                        field("mail", "bjensen@example.com")))));
+
+        JsonValue result = engine.validate(new RootContext(), validateObject("managed/user/*",
+                json(object(
+                        field("userName", "bjensen"),
+                        field("mail", "bjensen@example.com"),
+                        field("password", "Passw0rd!")))));
+
+        verify(connection, times(1)).query(any(Context.class), any(QueryRequest.class),
+                anyCollectionOf(ResourceResponse.class));
+        JsonValue failures = result.get("failedPolicyRequirements");
+        assertThat(failures.size()).isEqualTo(1);
+        assertThat(failures.get(0).get("property").asString()).isEqualTo("mail");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUnattributedUniquenessHitsAreCheckedPerField() throws Exception {
+        // a repository matching userName ignoring case
+        final ResourceResponse existing = newResourceResponse("existing", null,
+                json(object(field("_id", "existing"), field("userName", "BJensen"), field("mail", "other"))));
+        when(connection.query(any(Context.class), any(QueryRequest.class), anyCollectionOf(ResourceResponse.class)))
+                .thenAnswer(new Answer<QueryResponse>() {
+                    @Override
+                    public QueryResponse answer(InvocationOnMock invocation) throws Throwable {
+                        QueryRequest request = (QueryRequest) invocation.getArguments()[1];
+                        if (request.getQueryFilter().toString().contains("userName")) {
+                            ((Collection<ResourceResponse>) invocation.getArguments()[2]).add(existing);
+                        }
+                        return newQueryResponse();
+                    }
+                });
+
+        JsonValue result = engine.validate(new RootContext(), validateObject("managed/user/*",
+                json(object(
+                        field("userName", "bjensen"),
+                        field("mail", "bjensen@example.com"),
+                        field("password", "Passw0rd!")))));
+
+        verify(connection, times(3)).query(any(Context.class), any(QueryRequest.class),
+                anyCollectionOf(ResourceResponse.class));
+        JsonValue failures = result.get("failedPolicyRequirements");
+        assertThat(failures.size()).isEqualTo(1);
+        assertThat(failures.get(0).get("property").asString()).isEqualTo("userName");
+    }
+
+    @Test
+    public void testDisabledEngineLeavesValidationToTheScript() throws Exception {
+        engine.setEnabled(false);
+
+        JsonValue result = engine.validate(new RootContext(), validateObject("managed/user/*",
+                json(object(field("userName", "bjensen")))));
+
+        assertThat(result).isNull();
+    }
+
+    @Test
+    public void testUpdatedObjectIsNotItsOwnDuplicate() throws Exception {
+        stubQueryResults(newResourceResponse("bjensen", null,
+                json(object(field("_id", "bjensen"), field("userName", "bjensen")))));
+
+        JsonValue result = engine.validate(new RootContext(),
+                newActionRequest("managed/user/bjensen", PolicyEngine.ACTION_VALIDATE_PROPERTY)
+                        .setContent(json(object(field("userName", "bjensen")))));
+
+        assertThat(result.get("result").asBoolean()).isTrue();
+    }
+
+    @Test
+    public void testCannotContainOthersUsesStoredObject() throws Exception {
+        when(connection.read(any(Context.class), any(ReadRequest.class))).thenAnswer(
+                new Answer<ResourceResponse>() {
+                    @Override
+                    public ResourceResponse answer(InvocationOnMock invocation) throws Throwable {
+                        ReadRequest request = (ReadRequest) invocation.getArguments()[1];
+                        if (request.getResourcePath().equals("config/managed")) {
+                            return newResourceResponse("managed", null, MANAGED_CONFIG);
+                        }
+                        return newResourceResponse("bjensen", null, json(object(field("userName", "bjensen"))));
+                    }
+                });
+
+        JsonValue result = engine.validate(new RootContext(),
+                newActionRequest("managed/user/bjensen", PolicyEngine.ACTION_VALIDATE_PROPERTY)
+                        .setContent(json(object(field("password", "Xbjensen123")))));
+
+        assertThat(result.get("result").asBoolean()).isFalse();
+        assertThat(result.get("failedPolicyRequirements").get(0).get("policyRequirements").get(0)
+                .get("policyRequirement").asString()).isEqualTo("CANNOT_CONTAIN_OTHERS");
+    }
+
+    @Test
+    public void testCustomPoliciesAreLeftToTheScript() throws Exception {
+        JsonValue result = engine.validate(new RootContext(), validateObject("managed/device/*",
+                json(object(field("serial", "1234")))));
+
+        assertThat(result).isNull();
+        verify(connection, never()).query(any(Context.class), any(QueryRequest.class),
+                anyCollectionOf(ResourceResponse.class));
+    }
+
+    @Test
+    public void testCompiledPoliciesAreCachedUntilConfigChanges() throws Exception {
+        stubQueryResults();
+        ActionRequest request = validateObject("managed/user/*", json(object(field("userName", "bjensen"))));
+
+        engine.validate(new RootContext(), request);
+        engine.validate(new RootContext(), request);
+        verify(connection, times(1)).read(any(Context.class), any(ReadRequest.class));
+
+        engine.managedConfigChanged();
+        engine.validate(new RootContext(), request);
+        verify(connection, times(2)).read(any(Context.class), any(ReadRequest.class));
+    }
+
+    @Test
+    public void testPoliciesCompiledDuringConfigChangeAreNotCached() throws Exception {
+        stubQueryResults();
+        when(connection.read(any(Context.class), any(ReadRequest.class))).then(new Answer<ResourceResponse>() {
+            private boolean changed;
+
+            @Override
+            public ResourceResponse answer(InvocationOnMock invocation) throws Throwable {
+                // the managed configuration changes once, while the first compilation reads it
+                if (!changed) {
+                    changed = true;
+                    engine.managedConfigChanged();
+                }
+                return newResourceResponse("managed", null, MANAGED_CONFIG);
+            }
+        });
+        ActionRequest request = validateObject("managed/user/*", json(object(field("userName", "bjensen"))));
+
+        engine.validate(new RootContext(), request);
+        engine.validate(new RootContext(), request);
+        engine.validate(new RootContext(), request);
+        verify(connection, times(2)).read(any(Context.class), any(ReadRequest.class));
+    }
+
+    @Test
+    public void testResourceMatches() {
+        assertThat(PolicyEngine.resourceMatches("managed/user/*", "managed/user/bjensen")).isTrue();
+        assertThat(PolicyEngine.resourceMatches("managed/user/*", "managed/user")).isFalse();
+        assertThat(PolicyEngine.resourceMatches("repo/internal/user/*", "managed/user/*")).isFalse();
+    }
+
+    private static ActionRequest validateObject(String resourcePath, JsonValue content) {
+        return newActionRequest(resourcePath, PolicyEngine.ACTION_VALIDATE_OBJECT).setContent(content);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubQueryResults(final ResourceResponse... results) throws Exception {
+        when(connection.query(any(Context.class), any(QueryRequest.class), anyCollectionOf(ResourceResponse.class)))
+                .thenAnswer(new Answer<QueryResponse>() {
+                    @Override
+                    public QueryResponse answer(InvocationOnMock invocation) throws Throwable {
+                        Collection<ResourceResponse> collection =
+                                (Collection<ResourceResponse>) invocation.getArguments()[2];
+                        for (ResourceResponse result : results) {
+                            collection.add(result);
+                        }
+                        return newQueryResponse();
+                    }
+                });
+    }
+}
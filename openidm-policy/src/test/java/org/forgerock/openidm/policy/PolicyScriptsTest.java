@@ -0,0 +1,69 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.policy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link PolicyScripts}.
+ */
+public class PolicyScriptsTest {
+
+    @Test
+    public void testShippedScriptIsRecognized() throws Exception {
+        assertThat(PolicyScripts.areShipped(readShippedScript(), Collections.<String>emptyList())).isTrue();
+        assertThat(PolicyScripts.areShipped("\n" + readShippedScript().replace("    ", "\t") + "\n",
+                Collections.<String>emptyList())).isTrue();
+    }
+
+    @Test
+    public void testChangedScriptIsNotShipped() throws Exception {
+        final String changed = readShippedScript().replace("\"MIN_LENGTH\"", "\"TOO_SHORT\"");
+        assertThat(changed).isNotEqualTo(readShippedScript());
+        assertThat(PolicyScripts.areShipped(changed, Collections.<String>emptyList())).isFalse();
+        assertThat(PolicyScripts.areShipped(null, Collections.<String>emptyList())).isFalse();
+    }
+
+    @Test
+    public void testAdditionalPoliciesRedefiningBuiltInPolicies() throws Exception {
+        final String custom = "addPolicy({ \"policyId\" : \"is-even\", \"policyExec\" : \"isEven\", "
+                + "\"policyRequirements\" : [\"EVEN\"] });\n"
+                + "function isEven(fullObject, value, params, property) { return []; }";
+        assertThat(PolicyScripts.areShipped(readShippedScript(), Arrays.asList(custom))).isTrue();
+
+        assertThat(PolicyScripts.redefinesBuiltInPolicies(custom)).isFalse();
+        assertThat(PolicyScripts.redefinesBuiltInPolicies(
+                "addPolicy({ policyId : 'minimum-length', policyExec : 'minLength' });")).isTrue();
+        assertThat(PolicyScripts.redefinesBuiltInPolicies(
+                "policyImpl.minLength = function() { return []; };")).isTrue();
+        assertThat(PolicyScripts.redefinesBuiltInPolicies("config.policies.length = 0;")).isTrue();
+        assertThat(PolicyScripts.areShipped(readShippedScript(), Arrays.asList(custom,
+                "addPolicy({ \"policyId\" : \"required\" });"))).isFalse();
+    }
+
+    private static String readShippedScript() throws Exception {
+        return new String(Files.readAllBytes(Paths.get(PolicyScriptsTest.class.getResource("policy.js").toURI())),
+                StandardCharsets.UTF_8);
+    }
+}
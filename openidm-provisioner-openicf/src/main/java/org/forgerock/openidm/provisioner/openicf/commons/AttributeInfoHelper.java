@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 package org.forgerock.openidm.provisioner.openicf.commons;
 
@@ -74,6 +74,10 @@ public class AttributeInfoHelper {
     // TODO Revisit function of this property
     private final Set<AttributeFlag> flags;
 
+    // Converters of the attribute values, resolved once from the schema
+    private final ValueConverter jsonValueConverter;
+    private final ValueConverter connectorValueConverter;
+
     public AttributeInfoHelper(String name, boolean isOperationalOption, JsonValue schema)
             throws SchemaException {
         this.name = name;
@@ -166,11 +170,15 @@ public class AttributeInfoHelper {
                 builder.setRequired(schema.get(Constants.REQUIRED).asBoolean());
             }
             attributeInfo = builder.build();
+            jsonValueConverter = ValueConverter.forType(attributeInfo.isMultiValued() ? Object.class : type);
+            connectorValueConverter = ValueConverter.forType(attributeInfo.getType());
         } else {
             key = null;
             cipher = null;
             flags = null;
             attributeInfo = null;
+            jsonValueConverter = null;
+            connectorValueConverter = null;
         }
     }
 
@@ -287,14 +295,13 @@ public class AttributeInfoHelper {
         if (null == source) {
             attribute = AttributeBuilder.build(attributeInfo.getName());
         } else {
+            final ValueConverter converter = attributeInfo == this.attributeInfo
+                    ? connectorValueConverter
+                    : ValueConverter.forType(attributeInfo.getType());
             if (attributeInfo.isMultiValued()) {
-                attribute =
-                        AttributeBuilder.build(attributeInfo.getName(), getMultiValue(source,
-                                attributeInfo.getType()));
+                attribute = AttributeBuilder.build(attributeInfo.getName(), getMultiValue(source, converter));
             } else {
-                attribute =
-                        AttributeBuilder.build(attributeInfo.getName(), getSingleValue(source,
-                                attributeInfo.getType()));
+                attribute = AttributeBuilder.build(attributeInfo.getName(), getSingleValue(source, converter));
             }
         }
         return attribute;
@@ -306,15 +313,13 @@ public class AttributeInfoHelper {
             if (null != source.getValue()) {
                 List<Object> value = new ArrayList<Object>(source.getValue().size());
                 for (Object o : source.getValue()) {
-                    value.add(ConnectorUtil.coercedTypeCasting(o, Object.class));
+                    value.add(jsonValueConverter.convert(o));
                 }
                 resultValue = value;
             }
         } else {
             try {
-                resultValue =
-                        ConnectorUtil
-                                .coercedTypeCasting(AttributeUtil.getSingleValue(source), type);
+                resultValue = jsonValueConverter.convert(AttributeUtil.getSingleValue(source));
             } catch (IllegalArgumentException e) {
                 logger.warn(
                         "Incorrect schema configuration. Expecting {} attribute to be single but it has multi value.",
@@ -384,7 +389,12 @@ public class AttributeInfoHelper {
         }
     }
 
+    @SuppressWarnings("unchecked")
     private <T> T getSingleValue(Object source, Class<T> clazz) {
+        return (T) getSingleValue(source, ValueConverter.forType(clazz));
+    }
+
+    private Object getSingleValue(Object source, ValueConverter converter) {
         if (null == source) {
             return null;
         } 
@@ -400,7 +410,7 @@ public class AttributeInfoHelper {
                 if (c.isEmpty()) {
                     return null;
                 } else {
-                    return ConnectorUtil.coercedTypeCasting(c.get(0), clazz);
+                    return converter.convert(c.get(0));
                 }
             }
             logger.error("Non multivalued [{}] argument has collection value", name);
@@ -411,11 +421,16 @@ public class AttributeInfoHelper {
             throw new IllegalArgumentException("Non multivalued argument [" + name
                     + "] has array value");
         } else {
-            return ConnectorUtil.coercedTypeCasting(source, clazz);
+            return converter.convert(source);
         }
     }
 
+    @SuppressWarnings("unchecked")
     private <T> Collection<T> getMultiValue(Object source, Class<T> clazz) {
+        return (Collection<T>) getMultiValue(source, ValueConverter.forType(clazz));
+    }
+
+    private Collection<Object> getMultiValue(Object source, ValueConverter converter) {
         if (null == source) {
             return null;
         }
@@ -424,20 +439,20 @@ public class AttributeInfoHelper {
             source = ((JsonValue) source).getObject();
         }
         
-        List<T> newValues = null;
+        List<Object> newValues = null;
         if (source instanceof Collection) {
-            newValues = new ArrayList<T>(((Collection) source).size());
+            newValues = new ArrayList<Object>(((Collection) source).size());
             for (Object o : (Collection) source) {
-                newValues.add(ConnectorUtil.coercedTypeCasting(o, clazz));
+                newValues.add(converter.convert(o));
             }
         } else if (source.getClass().isArray()) {
-            newValues = new ArrayList<T>(((Object[]) source).length);
+            newValues = new ArrayList<Object>(((Object[]) source).length);
             for (Object o : (Object[]) source) {
-                newValues.add(ConnectorUtil.coercedTypeCasting(o, clazz));
+                newValues.add(converter.convert(o));
             }
         } else {
-            newValues = new ArrayList<T>(1);
-            newValues.add(ConnectorUtil.coercedTypeCasting(source, clazz));
+            newValues = new ArrayList<Object>(1);
+            newValues.add(converter.convert(source));
         }
 
         return newValues;
@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 package org.forgerock.openidm.provisioner.openicf.commons;
 
@@ -21,6 +21,7 @@ import static org.forgerock.json.JsonValue.object;
 import static org.forgerock.http.util.Paths.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -81,6 +82,10 @@ public class ObjectClassInfoHelper {
     private final JsonValue properties;
     private final Predicate<String> attributesToRunAsUser;
 
+    // The conversion plan of the object class, resolved once from the schema
+    private final AttributeInfoHelper[] readableAttributes;
+    private final Map<String, AttributeInfoHelper> attributesByName;
+
     /**
      * Creates a new {@link ObjectClassInfoHelper}.
      * @param objectClass the {@link ObjectClass} to create the helper for.
@@ -96,6 +101,17 @@ public class ObjectClassInfoHelper {
         this.attributes = attributes;
         this.attributesReturnedByDefault = attributesReturnedByDefault;
         this.properties = properties;
+        final List<AttributeInfoHelper> readable = new ArrayList<>(attributes.size());
+        this.attributesByName = new HashMap<>(attributes.size() * 2);
+        for (AttributeInfoHelper attributeInfo : attributes) {
+            if (attributeInfo.getAttributeInfo().isReadable()) {
+                readable.add(attributeInfo);
+            }
+            if (!attributesByName.containsKey(attributeInfo.getName())) {
+                attributesByName.put(attributeInfo.getName(), attributeInfo);
+            }
+        }
+        this.readableAttributes = readable.toArray(new AttributeInfoHelper[readable.size()]);
         this.attributesToRunAsUser = new Predicate<String>() {
             @Override
             public boolean apply(String attribute) {
@@ -508,10 +524,12 @@ public class ObjectClassInfoHelper {
         if (logger.isTraceEnabled()) {
             logger.trace("ConnectorObject source: {}", SerializerUtil.serializeXmlObject(source, false));
         }
-        JsonValue result = new JsonValue(new LinkedHashMap<String, Object>(source.getAttributes().size()));
-        for (AttributeInfoHelper attributeInfo : attributes) {
+        // sized for the readable attributes, the _id and the _rev without rehashing
+        JsonValue result = new JsonValue(
+                new LinkedHashMap<String, Object>((readableAttributes.length + 2) * 4 / 3 + 1));
+        for (AttributeInfoHelper attributeInfo : readableAttributes) {
             Attribute attribute = source.getAttributeByName(attributeInfo.getAttributeInfo().getName());
-            if (null != attribute && attributeInfo.getAttributeInfo().isReadable()) {
+            if (null != attribute) {
                 result.put(attributeInfo.getName(), attributeInfo.build(attribute, cryptoService));
             }
         }
@@ -526,10 +544,9 @@ public class ObjectClassInfoHelper {
     }
 
     public Attribute build(String attributeName, Object source, CryptoService cryptoService) throws Exception {
-        for (AttributeInfoHelper attributeInfoHelper : attributes) {
-            if (attributeInfoHelper.getName().equals(attributeName)) {
-                return attributeInfoHelper.build(source, cryptoService);
-            }
+        final AttributeInfoHelper attributeInfoHelper = attributesByName.get(attributeName);
+        if (attributeInfoHelper != null) {
+            return attributeInfoHelper.build(source, cryptoService);
         }
         if (source instanceof Collection) {
             return AttributeBuilder.build(attributeName, (Collection) source);
@@ -0,0 +1,75 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.provisioner.openicf.commons;
+
+import org.forgerock.json.JsonValue;
+
+/**
+ * Converts the values of an attribute to the type of the attribute, as {@link ConnectorUtil#coercedTypeCasting}
+ * does, but with the type dispatch resolved once when the attribute schema is read: values which already have the
+ * expected type, by far the most common case, are returned after a single type check, and only the other values go
+ * through the generic coercion.
+ */
+abstract class ValueConverter {
+
+    /**
+     * Converts values to JSON values, for the values of multi-valued attributes and for attributes of type
+     * {@code any}.
+     */
+    private static final ValueConverter TO_JSON = new ValueConverter() {
+        @Override
+        Object convert(Object value) {
+            if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+                return value;
+            }
+            return ConnectorUtil.coercedTypeCasting(value, Object.class);
+        }
+    };
+
+    /**
+     * Returns a converter of values to a type.
+     *
+     * @param type the type to convert values to
+     * @return the converter
+     */
+    static ValueConverter forType(final Class<?> type) {
+        if (Object.class.equals(type)) {
+            return TO_JSON;
+        }
+        return new ValueConverter() {
+            @Override
+            Object convert(Object value) {
+                if (type.isInstance(value)) {
+                    return value;
+                }
+                if (value instanceof JsonValue) {
+                    return convert(((JsonValue) value).getObject());
+                }
+                return ConnectorUtil.coercedTypeCasting(value, type);
+            }
+        };
+    }
+
+    /**
+     * Converts a value.
+     *
+     * @param value the value to convert, which may be {@code null} or a {@link JsonValue}
+     * @return the converted value, or {@code null} if the value is {@code null}
+     * @throws IllegalArgumentException if the value can not be converted
+     */
+    abstract Object convert(Object value);
+}
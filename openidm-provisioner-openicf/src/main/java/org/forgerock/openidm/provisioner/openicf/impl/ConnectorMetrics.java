@@ -0,0 +1,340 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.provisioner.openicf.impl;
+
+import static org.forgerock.openidm.util.DurationStatistics.nanoToMillis;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.forgerock.json.resource.ActionRequest;
+import org.forgerock.json.resource.ActionResponse;
+import org.forgerock.json.resource.CreateRequest;
+import org.forgerock.json.resource.DeleteRequest;
+import org.forgerock.json.resource.PatchRequest;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.QueryResponse;
+import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.RequestHandler;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.json.resource.UpdateRequest;
+import org.forgerock.openidm.smartevent.LatencyHistogram;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.promise.ExceptionHandler;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.ResultHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the latency and the server errors of the operations on the objects of a system, per object class and
+ * operation, and the saturation of its connector pool, and publishes them through JMX.
+ * <p>
+ * The connector pool does not expose its state, so its gauges are derived from the operations in progress on the
+ * system, each of which holds a pooled connector or waits for one when the pool is exhausted. The number of waiting
+ * operations is only an estimate, published as {@code estimatedWaiting}: it assumes that every pooled connector is
+ * held by an operation in progress, while a connector may also be borrowed, for instance to validate it, or be
+ * idle while an operation is still being prepared.
+ * <p>
+ * Thread-Safe
+ */
+public class ConnectorMetrics implements ConnectorMetricsMBean {
+
+    /** The domain and type of the names of the connector MBeans, which are also named after their system */
+    public static final String MBEAN_NAME_PREFIX = "org.forgerock.openidm.provisioner:type=Connector,name=";
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectorMetrics.class);
+
+    private final String systemName;
+    private final ConcurrentMap<String, OperationMetric> operations = new ConcurrentHashMap<>();
+    private final AtomicInteger inProgress = new AtomicInteger();
+    /** The maximum number of pooled connectors, or -1 if the connector is not pooled */
+    private volatile int maxObjects = -1;
+    private ObjectName objectName;
+
+    /**
+     * Constructs the metrics of a system.
+     *
+     * @param systemName the name of the system
+     */
+    ConnectorMetrics(String systemName) {
+        this.systemName = systemName;
+    }
+
+    /**
+     * Sets the size of the connector pool, once the connector is configured.
+     *
+     * @param maxObjects the maximum number of pooled connectors, or -1 if the connector is not pooled
+     */
+    void setMaxObjects(int maxObjects) {
+        this.maxObjects = maxObjects;
+    }
+
+    /**
+     * Returns a request handler which records the operations handled by the handler of an object class.
+     *
+     * @param objectClass the name of the object class
+     * @param handler the handler of the object class
+     * @return the measured request handler
+     */
+    RequestHandler measure(String objectClass, RequestHandler handler) {
+        return new MeasuredRequestHandler(objectClass, handler);
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server.
+     */
+    synchronized void register() {
+        try {
+            final ObjectName name = new ObjectName(MBEAN_NAME_PREFIX + ObjectName.quote(systemName));
+            final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (mBeanServer.isRegistered(name)) {
+                mBeanServer.unregisterMBean(name);
+            }
+            mBeanServer.registerMBean(this, name);
+            objectName = name;
+        } catch (Exception e) {
+            logger.warn("Failed to register the connector metrics MBean of {}", systemName, e);
+        }
+    }
+
+    /**
+     * Unregisters the metrics from the platform MBean server.
+     */
+    synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (Exception e) {
+            logger.warn("Failed to unregister the connector metrics MBean of {}", systemName, e);
+        } finally {
+            objectName = null;
+        }
+    }
+
+    @Override
+    public String getSystemName() {
+        return systemName;
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getOperations() {
+        final Map<String, Map<String, Object>> result = new TreeMap<>();
+        for (Map.Entry<String, OperationMetric> entry : operations.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().getSummary());
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getPool() {
+        final int operationsInProgress = Math.max(0, inProgress.get());
+        final int poolSize = maxObjects;
+        final Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("pooled", poolSize >= 0);
+        pool.put("inProgress", operationsInProgress);
+        if (poolSize >= 0) {
+            final int active = Math.min(operationsInProgress, poolSize);
+            pool.put("maxObjects", poolSize);
+            pool.put("active", active);
+            pool.put("available", poolSize - active);
+            pool.put("estimatedWaiting", operationsInProgress - active);
+        }
+        return pool;
+    }
+
+    private OperationMetric getOperationMetric(String objectClass, String operation) {
+        final String key = objectClass + "/" + operation;
+        OperationMetric metric = operations.get(key);
+        if (metric == null) {
+            metric = new OperationMetric();
+            final OperationMetric existing = operations.putIfAbsent(key, metric);
+            if (existing != null) {
+                metric = existing;
+            }
+        }
+        return metric;
+    }
+
+    private long begin() {
+        inProgress.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    private void failed(OperationMetric metric, long start) {
+        inProgress.decrementAndGet();
+        metric.completed(start, true);
+    }
+
+    private <V> Promise<V, ResourceException> end(final OperationMetric metric, final long start,
+            Promise<V, ResourceException> promise) {
+        return promise.thenOnResultOrException(
+                new ResultHandler<V>() {
+                    @Override
+                    public void handleResult(V result) {
+                        inProgress.decrementAndGet();
+                        metric.completed(start, false);
+                    }
+                },
+                new ExceptionHandler<ResourceException>() {
+                    @Override
+                    public void handleException(ResourceException exception) {
+                        inProgress.decrementAndGet();
+                        metric.completed(start, exception.getCode() >= 500);
+                    }
+                });
+    }
+
+    /**
+     * The latency and the errors of an operation on an object class.
+     */
+    private static final class OperationMetric {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+
+        void completed(long startNanoTime, boolean error) {
+            latency.recordSince(startNanoTime);
+            if (error) {
+                errors.incrementAndGet();
+            }
+        }
+
+        Map<String, Object> getSummary() {
+            final Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", latency.count());
+            summary.put("errors", errors.get());
+            summary.put("mean", nanoToMillis(latency.mean()));
+            summary.put("p50", nanoToMillis(latency.valueAtPercentile(50)));
+            summary.put("p95", nanoToMillis(latency.valueAtPercentile(95)));
+            summary.put("p99", nanoToMillis(latency.valueAtPercentile(99)));
+            summary.put("max", nanoToMillis(latency.max()));
+            return summary;
+        }
+    }
+
+    /**
+     * Measures the operations of the handler of an object class. Only server errors are counted as errors, as
+     * client errors such as a missing object are not failures of the system.
+     */
+    private final class MeasuredRequestHandler implements RequestHandler {
+        private final String objectClass;
+        private final RequestHandler delegate;
+
+        MeasuredRequestHandler(String objectClass, RequestHandler delegate) {
+            this.objectClass = objectClass;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Promise<ActionResponse, ResourceException> handleAction(Context context, ActionRequest request) {
+            final long start = begin();
+            try {
+                return end(getOperationMetric(objectClass, "action"), start,
+                        delegate.handleAction(context, request));
+            } catch (RuntimeException e) {
+                failed(getOperationMetric(objectClass, "action"), start);
+                throw e;
+            }
+        }
+
+        @Override
+        public Promise<ResourceResponse, ResourceException> handleCreate(Context context, CreateRequest request) {
+            final long start = begin();
+            try {
+                return end(getOperationMetric(objectClass, "create"), start,
+                        delegate.handleCreate(context, request));
+            } catch (RuntimeException e) {
+                failed(getOperationMetric(objectClass, "create"), start);
+                throw e;
+            }
+        }
+
+        @Override
+        public Promise<ResourceResponse, ResourceException> handleDelete(Context context, DeleteRequest request) {
+            final long start = begin();
+            try {
+                return end(getOperationMetric(objectClass, "delete"), start,
+                        delegate.handleDelete(context, request));
+            } catch (RuntimeException e) {
+                failed(getOperationMetric(objectClass, "delete"), start);
+                throw e;
+            }
+        }
+
+        @Override
+        public Promise<ResourceResponse, ResourceException> handlePatch(Context context, PatchRequest request) {
+            final long start = begin();
+            try {
+                return end(getOperationMetric(objectClass, "patch"), start,
+                        delegate.handlePatch(context, request));
+            } catch (RuntimeException e) {
+                failed(getOperationMetric(objectClass, "patch"), start);
+                throw e;
+            }
+        }
+
+        @Override
+        public Promise<QueryResponse, ResourceException> handleQuery(Context context, QueryRequest request,
+                QueryResourceHandler handler) {
+            final long start = begin();
+            try {
+                return end(getOperationMetric(objectClass, "query"), start,
+                        delegate.handleQuery(context, request, handler));
+            } catch (RuntimeException e) {
+                failed(getOperationMetric(objectClass, "query"), start);
+                throw e;
+            }
+        }
+
+        @Override
+        public Promise<ResourceResponse, ResourceException> handleRead(Context context, ReadRequest request) {
+            final long start = begin();
+            try {
+                return end(getOperationMetric(objectClass, "read"), start,
+                        delegate.handleRead(context, request));
+            } catch (RuntimeException e) {
+                failed(getOperationMetric(objectClass, "read"), start);
+                throw e;
+            }
+        }
+
+        @Override
+        public Promise<ResourceResponse, ResourceException> handleUpdate(Context context, UpdateRequest request) {
+            final long start = begin();
+            try {
+                return end(getOperationMetric(objectClass, "update"), start,
+                        delegate.handleUpdate(context, request));
+            } catch (RuntimeException e) {
+                failed(getOperationMetric(objectClass, "update"), start);
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.provisioner.openicf.impl;
+
+import java.util.Map;
+
+/**
+ * JMX interface of the operation metrics of a system.
+ */
+public interface ConnectorMetricsMBean {
+
+    /**
+     * Gets the name of the system.
+     *
+     * @return the name of the system
+     */
+    String getSystemName();
+
+    /**
+     * Gets the metrics of the operations on the system, keyed by object class and operation, as in
+     * {@code account/read}: the number of operations and of server errors, and the latency percentiles.
+     *
+     * @return the metrics of the operations
+     */
+    Map<String, Map<String, Object>> getOperations();
+
+    /**
+     * Gets the gauges of the connector pool of the system: the operations in progress, those of them which hold a
+     * pooled connector and an estimate of those which wait for one, derived from the size of the pool.
+     *
+     * @return the gauges of the connector pool
+     */
+    Map<String, Object> getPool();
+}
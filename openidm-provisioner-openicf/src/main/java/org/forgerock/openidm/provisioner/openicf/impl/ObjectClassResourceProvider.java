@@ -12,12 +12,11 @@
  * own identifying information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openidm.provisioner.openicf.impl;
 
-import static org.forgerock.json.JsonValue.array;
-import static org.forgerock.json.JsonValue.json;
 import static org.forgerock.json.resource.Responses.*;
 import static org.forgerock.util.promise.Promises.newResultPromise;
 
@@ -123,6 +122,8 @@ class ObjectClassResourceProvider implements RequestHandler {
     private final String objectClass;
     private final OpenICFProvisionerService provisionerService;
     private final JsonValue jsonConfiguration;
+    private final QueryActivityLog.Mode queryActivityLogMode;
+    private final int queryActivityLogSampleSize;
 
     ObjectClassResourceProvider(String objectClass, ObjectClassInfoHelper objectClassInfoHelper,
             Map<Class<? extends APIOperation>, OperationOptionInfoHelper> operations,
@@ -133,6 +134,9 @@ class ObjectClassResourceProvider implements RequestHandler {
         this.objectClass = objectClass;
         this.provisionerService = provisionerService;
         this.jsonConfiguration = jsonConfiguration;
+        final JsonValue queryActivityLogConfig = jsonConfiguration.get(QueryActivityLog.CONFIG_QUERY_ACTIVITY_LOG);
+        this.queryActivityLogMode = QueryActivityLog.getMode(queryActivityLogConfig);
+        this.queryActivityLogSampleSize = QueryActivityLog.getSampleSize(queryActivityLogConfig);
     }
 
     /**
@@ -271,6 +275,7 @@ class ObjectClassResourceProvider implements RequestHandler {
 
             Uid uid = facade.create(objectClassInfoHelper.getObjectClass(),
                     AttributeUtil.filterUid(createAttributes), operationOptions);
+            invalidateReads(uid.getUidValue());
 
             ResourceResponse resource = getCurrentResource(facade, uid, null);
             provisionerService.getActivityLogger().log(context, request, "message",
@@ -335,6 +340,8 @@ class ObjectClassResourceProvider implements RequestHandler {
             return new BadRequestException(e.getMessage(), e).asPromise();
         } catch (Exception e) {
             return new InternalServerErrorException(e.getMessage(), e).asPromise();
+        } finally {
+            invalidateReads(resourceId);
         }
     }
 
@@ -389,6 +396,7 @@ class ObjectClassResourceProvider implements RequestHandler {
             
             // update remaining attributes
             uid = executePatchOperations(facade, getOperationOptionsBuilder(null, null, UpdateApiOp.class).build(), attributes, uid);
+            invalidateReads(uid.getUidValue());
 
             ResourceResponse resource = getCurrentResource(facade, uid, null);
             provisionerService.getActivityLogger().log(context, request, "message",
@@ -406,6 +414,8 @@ class ObjectClassResourceProvider implements RequestHandler {
             return new BadRequestException(e.getMessage(), e).asPromise();
         } catch (Exception e) {
             return new InternalServerErrorException(e.getMessage(), e).asPromise();
+        } finally {
+            invalidateReads(resourceId);
         }
     }
 
@@ -467,7 +477,9 @@ class ObjectClassResourceProvider implements RequestHandler {
                 objectClassInfoHelper.setAttributesToGet(operationOptionsBuilder, request.getFields());
             }
 
-            final JsonValue logValue = json(array());
+            // Only keep what is logged of the results, so that they stream to the handler
+            final QueryActivityLog queryActivityLog =
+                    new QueryActivityLog(queryActivityLogMode, queryActivityLogSampleSize);
             final Exception[] ex = new Exception[] { null };
             SearchResult searchResult = facade.search(objectClassInfoHelper.getObjectClass(), filter,
                     new ResultsHandler() {
@@ -476,7 +488,7 @@ class ObjectClassResourceProvider implements RequestHandler {
                             try {
                                 ResourceResponse resource = objectClassInfoHelper.build(obj,
                                         provisionerService.getCryptoService());
-                                logValue.add(resource.getContent().getObject());
+                                queryActivityLog.add(resource);
                                 return handler.handleResource(resource);
                             } catch (Exception e) {
                                 ex[0] = e;
@@ -492,8 +504,9 @@ class ObjectClassResourceProvider implements RequestHandler {
                     "query: " + request.getQueryId()
                             + ", queryExpression: " + request.getQueryExpression()
                             + ", queryFilter: " + (request.getQueryFilter() != null ? request.getQueryFilter().toString() : null)
-                            + ", parameters: " + request.getAdditionalParameters(),
-                    request.getQueryId(), null, logValue, Status.SUCCESS);
+                            + ", parameters: " + request.getAdditionalParameters()
+                            + ", results: " + queryActivityLog.getCount(),
+                    request.getQueryId(), null, queryActivityLog.getLogValue(), Status.SUCCESS);
 
             // TODO Support count policy and totalPagedResults
             return newResultPromise(
@@ -527,7 +540,7 @@ class ObjectClassResourceProvider implements RequestHandler {
 
             final ConnectorFacade facade = getConnectorFacade0(GetApiOp.class);
             Uid uid = new Uid(resourceId);
-            ConnectorObject connectorObject = getConnectorObject(facade, uid, request.getFields());
+            ConnectorObject connectorObject = readConnectorObject(facade, uid, request.getFields());
 
             if (null != connectorObject) {
                 ResourceResponse resource = objectClassInfoHelper.build(connectorObject,
@@ -607,6 +620,7 @@ class ObjectClassResourceProvider implements RequestHandler {
                     AttributeUtil.filterUid(attributes),
                     getOperationOptionsBuilder(null, null, UpdateApiOp.class).build()
             );
+            invalidateReads(uid.getUidValue());
 
             ResourceResponse resource = getCurrentResource(facade, uid, null);
             provisionerService.getActivityLogger().log(context, request, "message",
@@ -624,6 +638,8 @@ class ObjectClassResourceProvider implements RequestHandler {
             return new BadRequestException(e.getMessage(), e).asPromise();
         } catch (Exception e) {
             return new InternalServerErrorException(e.getMessage(), e).asPromise();
+        } finally {
+            invalidateReads(resourceId);
         }
     }
 
@@ -733,6 +749,33 @@ class ObjectClassResourceProvider implements RequestHandler {
         return facade.getObject(objectClassInfoHelper.getObjectClass(), uid, operationOptions);
     }
 
+    /**
+     * Reads an object through the read coalescer of the provisioner, if read coalescing is enabled.
+     */
+    private ConnectorObject readConnectorObject(final ConnectorFacade facade,
+            final Uid uid, final List<JsonPointer> fields) throws IOException, JsonCryptoException {
+        final ReadCoalescer readCoalescer = provisionerService.getReadCoalescer();
+        if (readCoalescer == null) {
+            return getConnectorObject(facade, uid, fields);
+        }
+        return readCoalescer.read(objectClass, uid.getUidValue(), fields, new ReadCoalescer.Read() {
+            @Override
+            public ConnectorObject read() throws IOException, JsonCryptoException {
+                return getConnectorObject(facade, uid, fields);
+            }
+        });
+    }
+
+    /**
+     * Invalidates the coalesced reads of an object which has been written, if read coalescing is enabled.
+     */
+    private void invalidateReads(String uidValue) {
+        final ReadCoalescer readCoalescer = provisionerService.getReadCoalescer();
+        if (readCoalescer != null && uidValue != null) {
+            readCoalescer.invalidate(objectClass, uidValue);
+        }
+    }
+
     OperationOptionsBuilder getOperationOptionsBuilder(String userName, GuardedString password, Class<?> c) throws IOException {
         OperationOptionsBuilder operationOptionsBuilder = operations.get(c).build(jsonConfiguration, objectClassInfoHelper);
         if (userName != null && password != null) {
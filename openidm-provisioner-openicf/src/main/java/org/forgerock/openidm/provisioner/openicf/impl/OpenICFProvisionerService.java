@@ -14,7 +14,7 @@
  * "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 package org.forgerock.openidm.provisioner.openicf.impl;
 
@@ -145,6 +145,8 @@ public class OpenICFProvisionerService implements ProvisionerService, SingletonR
     private ConnectorReference connectorReference = null;
     private SyncFailureHandler syncFailureHandler = null;
     private String factoryPid = null;
+    private volatile ReadCoalescer readCoalescer = null;
+    private ConnectorMetrics connectorMetrics = null;
 
     /** use null-object activity logger until/unless ConnectionFactory binder updates it */
     private ActivityLogger activityLogger = NullActivityLogger.INSTANCE;
@@ -229,6 +231,12 @@ public class OpenICFProvisionerService implements ProvisionerService, SingletonR
 
             loadLocalSystemActions(jsonConfiguration);
 
+            readCoalescer = ReadCoalescer.fromConfig(jsonConfiguration.get(ReadCoalescer.CONFIG_READ_COALESCING));
+
+            final ConnectorMetrics metrics = new ConnectorMetrics(systemIdentifier.getName());
+            connectorMetrics = metrics;
+            metrics.register();
+
             connectorReference = ConnectorUtil.getConnectorReference(jsonConfiguration);
 
             syncFailureHandler = syncFailureHandlerFactory.create(jsonConfiguration.get("syncFailureHandler"));
@@ -252,12 +260,13 @@ public class OpenICFProvisionerService implements ProvisionerService, SingletonR
                                             objectTypes.entrySet()) {
 
                                         objectClassHandlers.put(entry.getKey(),
+                                                metrics.measure(entry.getKey(),
                                                     new ObjectClassResourceProvider(
                                                             entry.getKey(),
                                                             entry.getValue(),
                                                             objectOperations.get(entry.getKey()),
                                                             provisionerService,
-                                                            jsonConfiguration));
+                                                            jsonConfiguration)));
                                     }
                                 } catch (Exception e) {
                                     logger.error("OpenICF connector jsonConfiguration of {} has errors.", systemIdentifier.getName(), e);
@@ -266,6 +275,9 @@ public class OpenICFProvisionerService implements ProvisionerService, SingletonR
                                 }
 
                                 ConnectorUtil.configureDefaultAPIConfiguration(jsonConfiguration, config, cryptoService);
+                                metrics.setMaxObjects(config.isConnectorPoolingSupported()
+                                        ? config.getConnectorPoolConfiguration().getMaxObjects()
+                                        : -1);
 
                                 final ConnectorFacade facade = connectorInfoProvider.createConnectorFacade(config);
 
@@ -333,6 +345,10 @@ public class OpenICFProvisionerService implements ProvisionerService, SingletonR
             ((LocalConnectorFacadeImpl) connectorFacade.get()).dispose();
         }
         connectorFacade.set(null);
+        if (null != connectorMetrics) {
+            connectorMetrics.unregister();
+            connectorMetrics = null;
+        }
         logger.info("OpenICF Provisioner Service component {} is deactivated.", systemIdentifier.getName());
         systemIdentifier = null;
     }
@@ -640,6 +656,8 @@ public class OpenICFProvisionerService implements ProvisionerService, SingletonR
      * "ok": false
      * }}
      *
+     * When read coalescing is enabled, the report also contains its statistics in {@code readCoalescing}.
+     *
      * @param context the Context of the request requesting the status
      * @return a Map of the current status of a connector
      */
@@ -678,6 +696,9 @@ public class OpenICFProvisionerService implements ProvisionerService, SingletonR
             jv.put("error", e.getMessage());
         }
 
+        if (readCoalescer != null) {
+            jv.put(ReadCoalescer.CONFIG_READ_COALESCING, readCoalescer.getStatistics());
+        }
         jv.put("ok", ok);
         return result;
     }
@@ -1010,4 +1031,13 @@ public class OpenICFProvisionerService implements ProvisionerService, SingletonR
     CryptoService getCryptoService() {
         return cryptoService;
     }
+
+    /**
+     * Gets the coalescer of the reads of system objects.
+     *
+     * @return the read coalescer, or {@code null} if read coalescing is not enabled
+     */
+    ReadCoalescer getReadCoalescer() {
+        return readCoalescer;
+    }
 }
@@ -0,0 +1,149 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.provisioner.openicf.impl;
+
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.json;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.JsonValueException;
+import org.forgerock.json.resource.ResourceResponse;
+
+/**
+ * Gathers the results of a system object query for the activity log, within constant memory unless configured to
+ * log all the returned objects, so that a query streams its results end to end however many there are.
+ * <p>
+ * What is logged is configured by the {@code queryActivityLog} property of the provisioner configuration:
+ * <pre>
+ * "queryActivityLog" : {
+ *     "mode" : "sample",
+ *     "sampleSize" : 100
+ * }
+ * </pre>
+ * Not thread safe, an instance gathers the results of a single query.
+ */
+class QueryActivityLog {
+
+    /** The provisioner configuration property of the query activity log */
+    static final String CONFIG_QUERY_ACTIVITY_LOG = "queryActivityLog";
+
+    private static final Mode DEFAULT_MODE = Mode.SAMPLE;
+    private static final int DEFAULT_SAMPLE_SIZE = 100;
+
+    /**
+     * What is logged of the results of a query.
+     */
+    enum Mode {
+        /** The content of all the returned objects, which are kept in memory until the query completes */
+        CONTENTS,
+        /** The content of the first {@code sampleSize} returned objects */
+        SAMPLE,
+        /** The ids of all the returned objects */
+        IDS,
+        /** Only the number of returned objects */
+        COUNT
+    }
+
+    private final Mode mode;
+    private final int sampleSize;
+    private final JsonValue logValue;
+    private int count;
+
+    /**
+     * Constructs the activity log of a query.
+     *
+     * @param mode what is logged of the results
+     * @param sampleSize the number of objects logged in {@link Mode#SAMPLE} mode
+     */
+    QueryActivityLog(Mode mode, int sampleSize) {
+        this.mode = mode;
+        this.sampleSize = sampleSize;
+        this.logValue = mode == Mode.COUNT ? json(null) : json(array());
+    }
+
+    /**
+     * Parses the mode of the query activity log from the provisioner configuration.
+     *
+     * @param config the {@code queryActivityLog} configuration
+     * @return the configured mode
+     * @throws JsonValueException if the mode is not supported
+     */
+    static Mode getMode(JsonValue config) {
+        final JsonValue mode = config.get("mode").defaultTo(DEFAULT_MODE.name());
+        try {
+            return Mode.valueOf(mode.asString().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new JsonValueException(mode, "Unsupported query activity log mode, expecting one of "
+                    + Arrays.toString(Mode.values()));
+        }
+    }
+
+    /**
+     * Parses the sample size of the query activity log from the provisioner configuration.
+     *
+     * @param config the {@code queryActivityLog} configuration
+     * @return the configured sample size
+     */
+    static int getSampleSize(JsonValue config) {
+        return config.get("sampleSize").defaultTo(DEFAULT_SAMPLE_SIZE).asInteger();
+    }
+
+    /**
+     * Records a returned object.
+     *
+     * @param resource the returned object
+     */
+    void add(ResourceResponse resource) {
+        count++;
+        switch (mode) {
+        case CONTENTS:
+            logValue.add(resource.getContent().getObject());
+            break;
+        case SAMPLE:
+            if (count <= sampleSize) {
+                logValue.add(resource.getContent().getObject());
+            }
+            break;
+        case IDS:
+            logValue.add(resource.getId());
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Returns the number of returned objects.
+     *
+     * @return the number of objects recorded
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the value to log as the result of the query.
+     *
+     * @return the contents or ids of the returned objects, or a null value in {@link Mode#COUNT} mode
+     */
+    JsonValue getLogValue() {
+        return logValue;
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.provisioner.openicf.impl;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.JsonValueException;
+import org.forgerock.json.crypto.JsonCryptoException;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+
+/**
+ * Coalesces the concurrent identical reads of system objects into a single connector call, so that a burst of reads
+ * of the same object, from implicit synchronization, reconciliation and the UI, costs the target system one read.
+ * Reads of the same object with the same fields which start while a connector call for it is in flight wait for and
+ * share its result.
+ * <p>
+ * The results may also be cached for a very short time. Writes through the provisioner invalidate the cached results
+ * of the object they change, as well as the reads in flight for it, but changes made directly on the target system
+ * are only seen once the cached result has expired.
+ * <p>
+ * Coalescing is enabled by the {@code readCoalescing} property of the provisioner configuration:
+ * <pre>
+ * "readCoalescing" : {
+ *     "enabled" : true,
+ *     "cacheTtl" : 500,
+ *     "cacheMaxEntries" : 10000
+ * }
+ * </pre>
+ * where {@code cacheTtl} is the time to live of the cached results in milliseconds, 0 (the default) to not cache.
+ * <p>
+ * Thread-Safe
+ */
+class ReadCoalescer {
+
+    /** The provisioner configuration property of the read coalescing */
+    static final String CONFIG_READ_COALESCING = "readCoalescing";
+
+    private static final long DEFAULT_CACHE_TTL = 0L;
+    private static final int DEFAULT_CACHE_MAX_ENTRIES = 10000;
+
+    /**
+     * A read of a system object from the connector.
+     */
+    interface Read {
+
+        /**
+         * Reads the object from the connector.
+         *
+         * @return the object, or {@code null} if it does not exist
+         * @throws IOException if the read options can not be built
+         * @throws JsonCryptoException if the read options can not be decrypted
+         */
+        ConnectorObject read() throws IOException, JsonCryptoException;
+    }
+
+    private final long cacheTtlNanos;
+    private final int cacheMaxEntries;
+    private final ConcurrentMap<Key, FutureTask<ConnectorObject>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key, CachedObject> cache = new ConcurrentHashMap<>();
+    /** Incremented by each write, so that reads which overlap a write do not cache their result */
+    private final AtomicLong writeGeneration = new AtomicLong();
+    private final AtomicLong connectorReads = new AtomicLong();
+    private final AtomicLong coalescedReads = new AtomicLong();
+    private final AtomicLong cachedReads = new AtomicLong();
+
+    /**
+     * Constructs a read coalescer.
+     *
+     * @param cacheTtl the time to live of the cached results, in milliseconds, 0 to not cache
+     * @param cacheMaxEntries the maximum number of cached results
+     */
+    ReadCoalescer(long cacheTtl, int cacheMaxEntries) {
+        this.cacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(cacheTtl);
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    /**
+     * Creates a read coalescer from the {@code readCoalescing} property of the provisioner configuration.
+     *
+     * @param config the {@code readCoalescing} configuration
+     * @return the read coalescer, or {@code null} if read coalescing is not enabled
+     * @throws JsonValueException if the configuration is invalid
+     */
+    static ReadCoalescer fromConfig(JsonValue config) {
+        if (config.isNull() || !config.get("enabled").defaultTo(true).asBoolean()) {
+            return null;
+        }
+        final long cacheTtl = config.get("cacheTtl").defaultTo(DEFAULT_CACHE_TTL).asLong();
+        if (cacheTtl < 0) {
+            throw new JsonValueException(config.get("cacheTtl"), "Expecting a positive number of milliseconds");
+        }
+        final int cacheMaxEntries = config.get("cacheMaxEntries").defaultTo(DEFAULT_CACHE_MAX_ENTRIES).asInteger();
+        if (cacheMaxEntries < 1) {
+            throw new JsonValueException(config.get("cacheMaxEntries"), "Expecting a positive number of entries");
+        }
+        return new ReadCoalescer(cacheTtl, cacheMaxEntries);
+    }
+
+    /**
+     * Reads a system object, sharing the connector call of a concurrent identical read or the cached result of a
+     * recent one.
+     *
+     * @param objectClass the object class of the object
+     * @param uid the uid of the object
+     * @param fields the fields to read, {@code null} or empty to read the default attributes
+     * @param read the read of the object from the connector
+     * @return the object, or {@code null} if it does not exist
+     * @throws IOException if the read options can not be built
+     * @throws JsonCryptoException if the read options can not be decrypted
+     */
+    ConnectorObject read(String objectClass, String uid, List<JsonPointer> fields, final Read read)
+            throws IOException, JsonCryptoException {
+        final Key key = new Key(objectClass, uid, fields);
+        if (cacheTtlNanos > 0) {
+            final CachedObject cached = cache.get(key);
+            if (cached != null) {
+                if (!cached.isExpired(System.nanoTime())) {
+                    cachedReads.incrementAndGet();
+                    return cached.object;
+                }
+                cache.remove(key, cached);
+            }
+        }
+
+        final long generation = writeGeneration.get();
+        final FutureTask<ConnectorObject> task = new FutureTask<>(new Callable<ConnectorObject>() {
+            @Override
+            public ConnectorObject call() throws Exception {
+                return read.read();
+            }
+        });
+        final FutureTask<ConnectorObject> flight = inFlight.putIfAbsent(key, task);
+        if (flight != null) {
+            coalescedReads.incrementAndGet();
+            return getResult(flight);
+        }
+
+        connectorReads.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            inFlight.remove(key, task);
+        }
+        final ConnectorObject object = getResult(task);
+        if (cacheTtlNanos > 0 && writeGeneration.get() == generation) {
+            cacheResult(key, object, generation);
+        }
+        return object;
+    }
+
+    /**
+     * Invalidates the cached results of an object and the reads in flight for it, after it has been written.
+     *
+     * @param objectClass the object class of the object
+     * @param uid the uid of the object
+     */
+    void invalidate(String objectClass, String uid) {
+        writeGeneration.incrementAndGet();
+        for (Iterator<Key> keys = inFlight.keySet().iterator(); keys.hasNext();) {
+            if (keys.next().isObject(objectClass, uid)) {
+                keys.remove();
+            }
+        }
+        for (Iterator<Key> keys = cache.keySet().iterator(); keys.hasNext();) {
+            if (keys.next().isObject(objectClass, uid)) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of connector calls, coalesced reads and cached reads.
+     *
+     * @return the read statistics
+     */
+    Map<String, Object> getStatistics() {
+        final Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("connectorReads", connectorReads.get());
+        statistics.put("coalescedReads", coalescedReads.get());
+        statistics.put("cachedReads", cachedReads.get());
+        statistics.put("inFlight", inFlight.size());
+        statistics.put("cached", cache.size());
+        return statistics;
+    }
+
+    private void cacheResult(Key key, ConnectorObject object, long generation) {
+        final long now = System.nanoTime();
+        if (cache.size() >= cacheMaxEntries) {
+            for (Iterator<CachedObject> cached = cache.values().iterator(); cached.hasNext();) {
+                if (cached.next().isExpired(now)) {
+                    cached.remove();
+                }
+            }
+            if (cache.size() >= cacheMaxEntries) {
+                return;
+            }
+        }
+        final CachedObject cached = new CachedObject(object, now + cacheTtlNanos);
+        cache.put(key, cached);
+        // a write which raced with the put must not leave a stale result behind
+        if (writeGeneration.get() != generation) {
+            cache.remove(key, cached);
+        }
+    }
+
+    private static ConnectorObject getResult(FutureTask<ConnectorObject> task)
+            throws IOException, JsonCryptoException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a coalesced read");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof JsonCryptoException) {
+                throw (JsonCryptoException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Identifies a read by the object and the fields read.
+     */
+    private static final class Key {
+        private final String objectClass;
+        private final String uid;
+        private final List<JsonPointer> fields;
+        private final int hashCode;
+
+        Key(String objectClass, String uid, List<JsonPointer> fields) {
+            this.objectClass = objectClass;
+            this.uid = uid;
+            this.fields = fields == null || fields.isEmpty()
+                    ? Collections.<JsonPointer>emptyList()
+                    : new ArrayList<>(fields);
+            this.hashCode = 31 * (31 * objectClass.hashCode() + uid.hashCode()) + this.fields.hashCode();
+        }
+
+        boolean isObject(String objectClass, String uid) {
+            return this.objectClass.equals(objectClass) && this.uid.equals(uid);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return isObject(other.objectClass, other.uid) && fields.equals(other.fields);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * A cached result, which may be {@code null} for an object that does not exist.
+     */
+    private static final class CachedObject {
+        private final ConnectorObject object;
+        private final long expiryNanoTime;
+
+        CachedObject(ConnectorObject object, long expiryNanoTime) {
+            this.object = object;
+            this.expiryNanoTime = expiryNanoTime;
+        }
+
+        boolean isExpired(long nanoTime) {
+            return nanoTime - expiryNanoTime >= 0;
+        }
+    }
+}
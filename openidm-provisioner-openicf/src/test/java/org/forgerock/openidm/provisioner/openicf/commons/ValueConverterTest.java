@@ -0,0 +1,63 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.provisioner.openicf.commons;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.json;
+
+import java.math.BigInteger;
+import java.util.Collections;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link ValueConverter} converts values as {@link ConnectorUtil#coercedTypeCasting} does.
+ */
+public class ValueConverterTest {
+
+    @DataProvider
+    public Object[][] conversions() {
+        return new Object[][] {
+            { "value", Object.class },
+            { 42, Object.class },
+            { true, Object.class },
+            { Collections.singletonMap("key", "value"), Object.class },
+            { new BigInteger("42"), Object.class },
+            { 'c', Object.class },
+            { "value", String.class },
+            { 42, String.class },
+            { "42", Integer.class },
+            { 42, Integer.class },
+            { 42L, Long.class },
+            { "true", Boolean.class },
+            { 1, Boolean.class },
+            { 42, Double.class },
+            { asList("a", "b"), Object.class },
+            { json("wrapped"), String.class },
+            { json(42), Object.class },
+            { null, String.class }
+        };
+    }
+
+    @Test(dataProvider = "conversions")
+    public void testConvertsAsCoercedTypeCasting(Object value, Class<?> type) {
+        assertThat(ValueConverter.forType(type).convert(value))
+                .isEqualTo(ConnectorUtil.coercedTypeCasting(value, type));
+    }
+}
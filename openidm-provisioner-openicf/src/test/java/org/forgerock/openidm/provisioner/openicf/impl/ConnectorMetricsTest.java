@@ -0,0 +1,124 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.provisioner.openicf.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.forgerock.json.resource.CreateRequest;
+import org.forgerock.json.resource.InternalServerErrorException;
+import org.forgerock.json.resource.NotFoundException;
+import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.RequestHandler;
+import org.forgerock.json.resource.Requests;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.util.promise.PromiseImpl;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link ConnectorMetrics}.
+ */
+public class ConnectorMetricsTest {
+
+    private final Context context = new RootContext();
+
+    @Test
+    public void testOperationsAndErrorsAreRecordedPerObjectClass() {
+        ConnectorMetrics metrics = new ConnectorMetrics("ldap");
+        RequestHandler delegate = mock(RequestHandler.class);
+        when(delegate.handleRead(any(Context.class), any(ReadRequest.class))).thenReturn(
+                newResourceResponse("1", null, json(object())).asPromise(),
+                new NotFoundException().<ResourceResponse>asPromise(),
+                new InternalServerErrorException().<ResourceResponse>asPromise());
+        when(delegate.handleCreate(any(Context.class), any(CreateRequest.class))).thenReturn(
+                newResourceResponse("1", null, json(object())).asPromise());
+        RequestHandler handler = metrics.measure("account", delegate);
+
+        for (int i = 0; i < 3; i++) {
+            handler.handleRead(context, Requests.newReadRequest("system/ldap/account/1"));
+        }
+        handler.handleCreate(context, Requests.newCreateRequest("system/ldap/account", json(object())));
+
+        Map<String, Map<String, Object>> operations = metrics.getOperations();
+        assertThat(operations).containsOnlyKeys("account/create", "account/read");
+        assertThat(operations.get("account/read"))
+                .containsEntry("count", 3L)
+                .containsEntry("errors", 1L)
+                .containsKeys("p50", "p95", "p99", "max");
+        assertThat(operations.get("account/create")).containsEntry("errors", 0L);
+        assertThat(metrics.getPool()).containsEntry("inProgress", 0);
+    }
+
+    @Test
+    public void testPoolGaugesFollowOperationsInProgress() {
+        ConnectorMetrics metrics = new ConnectorMetrics("ldap");
+        assertThat(metrics.getPool()).containsEntry("pooled", false).doesNotContainKey("active");
+
+        metrics.setMaxObjects(1);
+        PromiseImpl<ResourceResponse, ResourceException> pending = PromiseImpl.create();
+        RequestHandler delegate = mock(RequestHandler.class);
+        when(delegate.handleRead(any(Context.class), any(ReadRequest.class))).thenReturn(pending);
+        RequestHandler handler = metrics.measure("account", delegate);
+
+        handler.handleRead(context, Requests.newReadRequest("system/ldap/account/1"));
+        handler.handleRead(context, Requests.newReadRequest("system/ldap/account/1"));
+
+        assertThat(metrics.getPool())
+                .containsEntry("pooled", true)
+                .containsEntry("inProgress", 2)
+                .containsEntry("active", 1)
+                .containsEntry("available", 0)
+                .containsEntry("estimatedWaiting", 1);
+
+        pending.handleResult(newResourceResponse("1", null, json(object())));
+
+        assertThat(metrics.getPool())
+                .containsEntry("inProgress", 0)
+                .containsEntry("available", 1)
+                .containsEntry("estimatedWaiting", 0);
+    }
+
+    @Test
+    public void testMetricsArePublishedThroughJmx() throws Exception {
+        ConnectorMetrics metrics = new ConnectorMetrics("ldap");
+        ObjectName name = new ObjectName(ConnectorMetrics.MBEAN_NAME_PREFIX + ObjectName.quote("ldap"));
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+        metrics.register();
+        try {
+            assertThat(mBeanServer.getAttribute(name, "SystemName")).isEqualTo("ldap");
+            assertThat(mBeanServer.getAttribute(name, "Pool")).isInstanceOf(Map.class);
+        } finally {
+            metrics.unregister();
+        }
+        assertThat(mBeanServer.isRegistered(name)).isFalse();
+    }
+}
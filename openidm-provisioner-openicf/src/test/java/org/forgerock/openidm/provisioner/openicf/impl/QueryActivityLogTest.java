@@ -0,0 +1,77 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.provisioner.openicf.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+
+import org.forgerock.json.JsonValueException;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link QueryActivityLog} class.
+ */
+public class QueryActivityLogTest {
+
+    @Test
+    public void testDefaultConfiguration() {
+        assertThat(QueryActivityLog.getMode(json(null))).isEqualTo(QueryActivityLog.Mode.SAMPLE);
+        assertThat(QueryActivityLog.getSampleSize(json(null))).isEqualTo(100);
+        assertThat(QueryActivityLog.getMode(json(object(field("mode", "ids"))))).isEqualTo(QueryActivityLog.Mode.IDS);
+    }
+
+    @Test(expectedExceptions = JsonValueException.class)
+    public void testUnsupportedMode() {
+        QueryActivityLog.getMode(json(object(field("mode", "everything"))));
+    }
+
+    @Test
+    public void testSampleKeepsFirstContents() {
+        final QueryActivityLog log = record(new QueryActivityLog(QueryActivityLog.Mode.SAMPLE, 2), 5);
+
+        assertThat(log.getCount()).isEqualTo(5);
+        assertThat(log.getLogValue().size()).isEqualTo(2);
+        assertThat(log.getLogValue().get(1).get("_id").asString()).isEqualTo("1");
+    }
+
+    @Test
+    public void testIdsAndCount() {
+        final QueryActivityLog ids = record(new QueryActivityLog(QueryActivityLog.Mode.IDS, 2), 5);
+        final QueryActivityLog count = record(new QueryActivityLog(QueryActivityLog.Mode.COUNT, 2), 5);
+
+        assertThat(ids.getLogValue().asList()).containsExactly("0", "1", "2", "3", "4");
+        assertThat(count.getCount()).isEqualTo(5);
+        assertThat(count.getLogValue().isNull()).isTrue();
+    }
+
+    @Test
+    public void testContentsKeepsAll() {
+        final QueryActivityLog log = record(new QueryActivityLog(QueryActivityLog.Mode.CONTENTS, 2), 5);
+
+        assertThat(log.getLogValue().size()).isEqualTo(5);
+    }
+
+    private QueryActivityLog record(QueryActivityLog log, int results) {
+        for (int i = 0; i < results; i++) {
+            log.add(newResourceResponse(String.valueOf(i), null, json(object(field("_id", String.valueOf(i))))));
+        }
+        return log;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.provisioner.openicf.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValueException;
+import org.forgerock.json.crypto.JsonCryptoException;
+import org.identityconnectors.framework.common.exceptions.ConnectorException;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link ReadCoalescer}.
+ */
+public class ReadCoalescerTest {
+
+    private static final String ACCOUNT = "account";
+    private static final List<JsonPointer> NO_FIELDS = Collections.emptyList();
+
+    private final ConnectorObject object = new ConnectorObjectBuilder()
+            .setObjectClass(ObjectClass.ACCOUNT)
+            .setUid("1")
+            .setName("bjensen")
+            .build();
+    private final AtomicInteger calls = new AtomicInteger();
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void setUp() {
+        calls.set(0);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentReadsShareOneConnectorCall() throws Exception {
+        final ReadCoalescer coalescer = new ReadCoalescer(0, 10);
+        final CountDownLatch started = new CountDownLatch(1);
+        Future<ConnectorObject> leader = executor.submit(new Callable<ConnectorObject>() {
+            @Override
+            public ConnectorObject call() throws Exception {
+                return coalescer.read(ACCOUNT, "1", NO_FIELDS, new ReadCoalescer.Read() {
+                    @Override
+                    public ConnectorObject read() {
+                        calls.incrementAndGet();
+                        started.countDown();
+                        // hold the connector call until the other read has joined it
+                        long deadline = System.currentTimeMillis() + 5000;
+                        while (!Long.valueOf(1L).equals(coalescer.getStatistics().get("coalescedReads"))
+                                && System.currentTimeMillis() < deadline) {
+                            Thread.yield();
+                        }
+                        return object;
+                    }
+                });
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        ConnectorObject coalesced = coalescer.read(ACCOUNT, "1", null, countingRead());
+
+        assertThat(coalesced).isSameAs(object);
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isSameAs(object);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(coalescer.getStatistics())
+                .containsEntry("connectorReads", 1L)
+                .containsEntry("coalescedReads", 1L);
+    }
+
+    @Test
+    public void testSequentialReadsAreNotCoalescedWithoutCache() throws Exception {
+        ReadCoalescer coalescer = new ReadCoalescer(0, 10);
+
+        coalescer.read(ACCOUNT, "1", NO_FIELDS, countingRead());
+        coalescer.read(ACCOUNT, "1", NO_FIELDS, countingRead());
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testCachedResultIsInvalidatedByWrite() throws Exception {
+        ReadCoalescer coalescer = new ReadCoalescer(60000, 10);
+
+        coalescer.read(ACCOUNT, "1", NO_FIELDS, countingRead());
+        assertThat(coalescer.read(ACCOUNT, "1", NO_FIELDS, countingRead())).isSameAs(object);
+        assertThat(calls.get()).isEqualTo(1);
+
+        coalescer.read(ACCOUNT, "1", Collections.singletonList(new JsonPointer("name")), countingRead());
+        coalescer.read("group", "1", NO_FIELDS, countingRead());
+        assertThat(calls.get()).isEqualTo(3);
+
+        coalescer.invalidate(ACCOUNT, "1");
+        coalescer.read(ACCOUNT, "1", NO_FIELDS, countingRead());
+        assertThat(calls.get()).isEqualTo(4);
+        assertThat(coalescer.getStatistics()).containsEntry("cachedReads", 1L);
+    }
+
+    @Test
+    public void testCacheIsBounded() throws Exception {
+        ReadCoalescer coalescer = new ReadCoalescer(60000, 1);
+
+        coalescer.read(ACCOUNT, "1", NO_FIELDS, countingRead());
+        coalescer.read(ACCOUNT, "2", NO_FIELDS, countingRead());
+        coalescer.read(ACCOUNT, "2", NO_FIELDS, countingRead());
+
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(coalescer.getStatistics()).containsEntry("cached", 1);
+    }
+
+    @Test(expectedExceptions = ConnectorException.class)
+    public void testConnectorExceptionIsPropagated() throws Exception {
+        new ReadCoalescer(0, 10).read(ACCOUNT, "1", NO_FIELDS, new ReadCoalescer.Read() {
+            @Override
+            public ConnectorObject read() {
+                throw new ConnectorException("unavailable");
+            }
+        });
+    }
+
+    @Test
+    public void testFailedReadIsNotCached() throws Exception {
+        ReadCoalescer coalescer = new ReadCoalescer(60000, 10);
+        try {
+            coalescer.read(ACCOUNT, "1", NO_FIELDS, new ReadCoalescer.Read() {
+                @Override
+                public ConnectorObject read() throws IOException {
+                    throw new IOException("unavailable");
+                }
+            });
+        } catch (IOException e) {
+            // expected
+        }
+
+        assertThat(coalescer.read(ACCOUNT, "1", NO_FIELDS, countingRead())).isSameAs(object);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testConfiguration() {
+        assertThat(ReadCoalescer.fromConfig(json(null))).isNull();
+        assertThat(ReadCoalescer.fromConfig(json(object(field("enabled", false))))).isNull();
+        assertThat(ReadCoalescer.fromConfig(json(object(field("cacheTtl", 500))))).isNotNull();
+    }
+
+    @Test(expectedExceptions = JsonValueException.class)
+    public void testNegativeCacheTtlIsRejected() {
+        ReadCoalescer.fromConfig(json(object(field("cacheTtl", -1))));
+    }
+
+    private ReadCoalescer.Read countingRead() {
+        return new ReadCoalescer.Read() {
+            @Override
+            public ConnectorObject read() throws IOException, JsonCryptoException {
+                calls.incrementAndGet();
+                return object;
+            }
+        };
+    }
+}
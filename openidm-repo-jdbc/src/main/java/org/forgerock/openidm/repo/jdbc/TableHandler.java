@@ -2,6 +2,7 @@
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
  * Copyright © 2011-2015 ForgeRock AS. All rights reserved.
+ * Portions Copyright 2026 Wren Security.
  *
  * The contents of this file are subject to the terms
  * of the Common Development and Distribution License
@@ -161,7 +162,8 @@ public interface TableHandler {
      * Performs the command on the specified target and returns the number of affected objects
      * <p>
      * Commands are parametric; a set of named parameters is provided as the query criteria.
-     * The command returns the number of records altered/updated/deleted.
+     * The command returns the number of records altered/updated/deleted. A {@code _queryFilter}
+     * parameter, in place of a command id or expression, deletes the relationships matching the filter.
      *
      * @param type identifies the object to query.
      * @param params the parameters of the query to perform.
@@ -195,6 +197,16 @@ public interface TableHandler {
      * @return the raw query String
      */
     public String renderQueryFilter(QueryFilter<JsonPointer> filter, Map<String, Object> replacementTokens, Map<String, Object> params);
+
+    /**
+     * Builds a raw statement deleting the objects matching the supplied filter.
+     *
+     * @param filter the query filter
+     * @param replacementTokens a map to store any replacement tokens
+     * @param params a map containing query parameters
+     * @return the raw delete statement String
+     */
+    public String renderDeleteQueryFilter(QueryFilter<JsonPointer> filter, Map<String, Object> replacementTokens, Map<String, Object> params);
     
     /**
      * Query if a given exception signifies a well known error type
@@ -5,7 +5,7 @@
  *
  * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
  * specific language governing permission and limitations under the License.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  *
  * When distributing Covered Software, include this CDDL Header Notice in each file and include
  * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
@@ -681,6 +681,42 @@ public class GenericTableHandler implements TableHandler {
         return builder.toSQL();
     }
 
+    /**
+     * Render an SQL DELETE statement with placeholders for the given query filter.  The properties of the deleted
+     * objects are removed by the ON DELETE CASCADE of the properties table.
+     *
+     * @param filter the query filter
+     * @param replacementTokens a map to store any replacement tokens
+     * @param params a map containing query parameters
+     * @return an SQL DELETE statement
+     */
+    @Override
+    public String renderDeleteQueryFilter(QueryFilter<JsonPointer> filter, Map<String, Object> replacementTokens, Map<String, Object> params) {
+        SQLBuilder builder = new SQLBuilder() {
+            @Override
+            public String toSQL() {
+                // select the ids through a derived table as MySQL does not allow a subquery on the deleted table
+                return "DELETE FROM ${_dbSchema}.${_mainTable} WHERE id IN (SELECT id FROM (SELECT "
+                        + getColumns().toSQL()
+                        + getFromClause().toSQL()
+                        + getJoinClause().toSQL()
+                        + getWhereClause().toSQL()
+                        + ") matched)";
+            }
+        };
+
+        builder.addColumn("obj.id")
+                .from("${_dbSchema}.${_mainTable} obj")
+                .join("${_dbSchema}.objecttypes", "objecttypes")
+                .on(where("obj.objecttypes_id = objecttypes.id")
+                        .and("objecttypes.objecttype = ${otype}"))
+                .where(filter.accept(new GenericSQLQueryFilterVisitor(getSearchableLength(), builder), replacementTokens));
+
+        replacementTokens.put("otype", params.get("_resource"));
+
+        return builder.toSQL();
+    }
+
     /**
      * Loops through sort keys constructing the inner join and key statements.
      *
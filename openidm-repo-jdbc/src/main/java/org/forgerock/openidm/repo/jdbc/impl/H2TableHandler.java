@@ -0,0 +1,49 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.repo.jdbc.impl;
+
+import java.util.Map;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.openidm.repo.jdbc.SQLExceptionHandler;
+
+/**
+ * TableHandler appropriate for H2-specific query syntax.  The repository uses it for the H2 database type, in place
+ * of the {@link GenericTableHandler}, whose MySQL-style multi-table DELETE statements and FOR UPDATE on a join H2
+ * rejects.
+ */
+public class H2TableHandler extends GenericTableHandler {
+
+    public H2TableHandler(JsonValue tableConfig, String dbSchemaName, JsonValue queriesConfig, JsonValue commandsConfig,
+            int maxBatchSize, SQLExceptionHandler sqlExceptionHandler) {
+        super(tableConfig, dbSchemaName, queriesConfig, commandsConfig, maxBatchSize, sqlExceptionHandler);
+    }
+
+    @Override
+    protected Map<QueryDefinition, String> initializeQueryMap() {
+        Map<QueryDefinition, String> result = super.initializeQueryMap();
+        String typeTable = dbSchemaName == null ? "objecttypes" : dbSchemaName + ".objecttypes";
+        String mainTable = dbSchemaName == null ? mainTableName : dbSchemaName + "." + mainTableName;
+        String propertyTable = dbSchemaName == null ? propTableName : dbSchemaName + "." + propTableName;
+
+        // H2 does not allow "FOR UPDATE" on a join, nor multi-table DELETE statements
+        result.put(QueryDefinition.READFORUPDATEQUERYSTR, "SELECT obj.* FROM " + mainTable + " obj WHERE obj.objecttypes_id = (SELECT objtype.id FROM " + typeTable + " objtype WHERE objtype.objecttype = ?) AND obj.objectid = ? FOR UPDATE");
+        result.put(QueryDefinition.UPDATEQUERYSTR, "UPDATE " + mainTable + " SET objectid = ?, rev = ?, fullobject = ? WHERE id = ?");
+        result.put(QueryDefinition.DELETEQUERYSTR, "DELETE FROM " + mainTable + " obj WHERE EXISTS (SELECT 1 FROM " + typeTable + " objtype WHERE obj.objecttypes_id = objtype.id AND objtype.objecttype = ?) AND obj.objectid = ? AND obj.rev = ?");
+        result.put(QueryDefinition.PROPDELETEQUERYSTR, "DELETE FROM " + propertyTable + " WHERE " + mainTableName + "_id IN (SELECT obj.id FROM " + mainTable + " obj INNER JOIN " + typeTable + " objtype ON obj.objecttypes_id = objtype.id WHERE objtype.objecttype = ? AND obj.objectid = ?)");
+        return result;
+    }
+}
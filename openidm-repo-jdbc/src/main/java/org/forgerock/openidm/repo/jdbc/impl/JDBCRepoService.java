@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.repo.jdbc.impl;
 
@@ -61,6 +62,7 @@ import org.forgerock.openidm.smartevent.EventEntry;
 import org.forgerock.openidm.smartevent.Name;
 import org.forgerock.openidm.smartevent.Publisher;
 import org.forgerock.services.context.Context;
+import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.resource.ActionRequest;
 import org.forgerock.json.resource.ActionResponse;
@@ -73,6 +75,7 @@ import org.forgerock.json.resource.InternalServerErrorException;
 import org.forgerock.json.resource.NotSupportedException;
 import org.forgerock.json.resource.PatchRequest;
 import org.forgerock.json.resource.PreconditionFailedException;
+import org.forgerock.json.resource.QueryFilters;
 import org.forgerock.json.resource.QueryRequest;
 import org.forgerock.json.resource.QueryResourceHandler;
 import org.forgerock.json.resource.QueryResponse;
@@ -91,8 +94,10 @@ import org.forgerock.openidm.repo.RepositoryService;
 import org.forgerock.openidm.repo.jdbc.DatabaseType;
 import org.forgerock.openidm.repo.jdbc.ErrorType;
 import org.forgerock.openidm.repo.jdbc.TableHandler;
+import org.forgerock.openidm.repo.util.DeleteQueryFilters;
 import org.forgerock.openidm.util.Accessor;
 import org.forgerock.util.promise.Promise;
+import org.forgerock.util.query.QueryFilter;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.ComponentContext;
@@ -744,14 +749,27 @@ public class JDBCRepoService implements RequestHandler, RepoBootService, Reposit
     }
 
     /**
-     * Performs the repo command defined by the {@code request).
+     * Performs the repo command defined by the {@code request).  A {@code _queryFilter} parameter in place of the
+     * commandId or commandExpression deletes the relationships matching the filter with a single statement; see
+     * {@link DeleteQueryFilters} for the filters which are accepted.
      *
-     * @param request the request specifying the commandId or commandExpression and command parameters
+     * @param request the request specifying the commandId, commandExpression or _queryFilter and command parameters
      * @return the number of records affected
      * @throws ResourceException on failure to execute the command query
      */
     private ActionResponse command(ActionRequest request) throws ResourceException {
         final String type = request.getResourcePath();
+        final Map<String, Object> params = new HashMap<String, Object>(request.getAdditionalParameters());
+        if (params.get(QUERY_FILTER) != null) {
+            final QueryFilter<JsonPointer> filter;
+            try {
+                filter = QueryFilters.parse((String) params.get(QUERY_FILTER));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid " + QUERY_FILTER + ": " + e.getMessage(), e);
+            }
+            DeleteQueryFilters.validate(type, filter);
+            params.put(QUERY_FILTER, filter);
+        }
 
         JsonValue result = null;
         Connection connection = null;
@@ -770,7 +788,7 @@ public class JDBCRepoService implements RequestHandler, RepoBootService, Reposit
                 connection = getConnection();
                 connection.setAutoCommit(false);
 
-                result = new JsonValue(handler.command(type, new HashMap<String, Object>(request.getAdditionalParameters()), connection));
+                result = new JsonValue(handler.command(type, new HashMap<String, Object>(params), connection));
 
                 connection.commit();
             } catch (SQLException ex) {
@@ -1010,6 +1028,10 @@ public class JDBCRepoService implements RequestHandler, RepoBootService, Reposit
             return
                     new MSSQLTableHandler(tableConfig, dbSchemaName, queries, commands, maxBatchSize,
                             new MSSQLExceptionHandler());
+        case H2:
+            return
+                    new H2TableHandler(tableConfig, dbSchemaName, queries, commands, maxBatchSize,
+                            new DefaultSQLExceptionHandler());
         default:
             return
                     new GenericTableHandler(tableConfig, dbSchemaName, queries, commands, maxBatchSize,
@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 package org.forgerock.openidm.repo.jdbc.impl;
 
@@ -517,6 +517,11 @@ public class MappedTableHandler implements TableHandler {
                 + pageClause;
     }
 
+    @Override
+    public String renderDeleteQueryFilter(QueryFilter<JsonPointer> filter, Map<String, Object> replacementTokens, Map<String, Object> params) {
+        return "DELETE FROM ${_dbSchema}.${_mainTable}" + getFilterString(filter, replacementTokens);
+    }
+
     /**
      * Loops through sort keys constructing the key statements.
      *
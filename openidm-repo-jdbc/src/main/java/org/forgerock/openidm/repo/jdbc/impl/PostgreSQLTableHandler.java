@@ -2,6 +2,7 @@
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
  * Copyright © 2012-2015 ForgeRock AS. All rights reserved.
+ * Portions Copyright 2026 Wren Security.
  *
  * The contents of this file are subject to the terms
  * of the Common Development and Distribution License
@@ -169,4 +170,13 @@ public class PostgreSQLTableHandler extends GenericTableHandler {
                 + " WHERE "
                 + filter.accept(new JsonExtractPathQueryFilterVisitor(), replacementTokens).toSQL() + pageClause;
     }
+
+    @Override
+    public String renderDeleteQueryFilter(QueryFilter<JsonPointer> filter, Map<String, Object> replacementTokens, Map<String, Object> params) {
+        replacementTokens.put("otype", params.get("_resource"));
+        return "DELETE FROM ${_dbSchema}.${_mainTable} obj"
+                + " USING ${_dbSchema}.objecttypes objtype"
+                + " WHERE objtype.id = obj.objecttypes_id AND objtype.objecttype = ${otype} AND ("
+                + filter.accept(new JsonExtractPathQueryFilterVisitor(), replacementTokens).toSQL() + ")";
+    }
 }
@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 package org.forgerock.openidm.repo.jdbc.impl.query;
 
@@ -371,15 +371,18 @@ public class TableQueries {
         Integer result = null;
         params.put(ServerConstants.RESOURCE_NAME, type);
 
+        QueryFilter<JsonPointer> queryFilter = getQueryFilterFromParamMap(params);
         String queryExpression = (String) params.get("commandExpression");
         String queryId = (String) params.get("commandId");
-        if (queryId == null && queryExpression == null) {
-            throw new BadRequestException("Either " + "commandId" + " or " + "commandExpression"
-                    + " to identify/define a query must be passed in the parameters. " + params);
+        if (queryId == null && queryExpression == null && queryFilter == null) {
+            throw new BadRequestException("Either " + "commandId" + ", " + "commandExpression" + ", or "
+                    + QUERY_FILTER + " to identify/define a query must be passed in the parameters. " + params);
         }
         final PreparedStatement foundQuery;
         try {
-            if (queryExpression != null) {
+            if (queryFilter != null) {
+                foundQuery = parseDeleteQueryFilter(con, queryFilter, params);
+            } else if (queryExpression != null) {
                 foundQuery = resolveInlineQuery(con, queryExpression, params);
             } else if (commands.queryIdExists(queryId)) {
                 foundQuery = commands.getQuery(con, queryId, type, params);
@@ -388,7 +391,9 @@ public class TableQueries {
                         + " does not match any configured commands on the JDBC repository service.");
             }
         } catch (SQLException ex) {
-            if (queryExpression == null) {
+            if (queryFilter != null) {
+                queryExpression = queryFilter.toString();
+            } else if (queryExpression == null) {
                 queryExpression = commands.getQueryInfo(queryId).getQueryString();
             }
             logger.debug("DB reported failure preparing command: {} with params: {} error code: {} sqlstate: {} " +
@@ -430,6 +435,33 @@ public class TableQueries {
 
         String rawQuery = tableHandler.renderQueryFilter(filter, replacementTokens, params);
 
+        return resolveRawQuery(con, rawQuery, replacementTokens);
+    }
+
+    /**
+     * Resolves a query filter to a statement deleting the matching objects.
+     *
+     * @param con
+     *            The db connection
+     * @param filter
+     *            the query filter to parse
+     * @return A resolved statement
+     */
+    PreparedStatement parseDeleteQueryFilter(Connection con, QueryFilter<JsonPointer> filter,
+            Map<String, Object> params) throws SQLException, ResourceException {
+        Map<String, Object> replacementTokens = new LinkedHashMap<>();
+
+        String rawQuery = tableHandler.renderDeleteQueryFilter(filter, replacementTokens, params);
+
+        return resolveRawQuery(con, rawQuery, replacementTokens);
+    }
+
+    /**
+     * Resolves a statement rendered by the table handler, replacing the table name tokens and converting the
+     * value tokens to prepared statement placeholders.
+     */
+    private PreparedStatement resolveRawQuery(Connection con, String rawQuery, Map<String, Object> replacementTokens)
+            throws SQLException, ResourceException {
         Map<String, String> replacements = new LinkedHashMap<>();
         replacements.put("_mainTable", mainTableName);
         replacements.put("_propTable", propTableName);
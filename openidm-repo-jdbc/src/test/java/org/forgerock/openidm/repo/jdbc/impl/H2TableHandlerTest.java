@@ -0,0 +1,100 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.repo.jdbc.impl;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.openidm.repo.jdbc.DatabaseType;
+import org.forgerock.openidm.repo.jdbc.impl.GenericTableHandler.QueryDefinition;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the statements of the {@link H2TableHandler}, which replace the MySQL-style statements of the
+ * {@link GenericTableHandler} that H2 does not run.
+ */
+public class H2TableHandlerTest {
+
+    private static final JsonValue TABLE_CONFIG = json(object(
+            field("mainTable", "genericobjects"),
+            field("propertiesTable", "genericobjectproperties")));
+
+    private H2TableHandler newH2TableHandler() {
+        return new H2TableHandler(TABLE_CONFIG, "openidm", json(object()), json(object()), 1, null);
+    }
+
+    @Test
+    public void testH2DatabaseTypeUsesH2TableHandler() {
+        final JDBCRepoService repo = new JDBCRepoService();
+
+        assertEquals(repo.getGenericTableHandler(DatabaseType.H2, TABLE_CONFIG, "openidm",
+                json(object()), json(object()), 1).getClass(), H2TableHandler.class);
+        assertEquals(repo.getGenericTableHandler(DatabaseType.ANSI_SQL99, TABLE_CONFIG, "openidm",
+                json(object()), json(object()), 1).getClass(), GenericTableHandler.class);
+    }
+
+    @Test
+    public void testReadForUpdateDoesNotLockAJoin() {
+        final String readForUpdate = newH2TableHandler().initializeQueryMap().get(QueryDefinition.READFORUPDATEQUERYSTR);
+
+        assertEquals(readForUpdate, "SELECT obj.* FROM openidm.genericobjects obj WHERE obj.objecttypes_id = "
+                + "(SELECT objtype.id FROM openidm.objecttypes objtype WHERE objtype.objecttype = ?) "
+                + "AND obj.objectid = ? FOR UPDATE");
+        assertFalse(readForUpdate.contains("JOIN"));
+    }
+
+    @Test
+    public void testDeletesAreSingleTable() {
+        final Map<QueryDefinition, String> queries = newH2TableHandler().initializeQueryMap();
+
+        assertEquals(queries.get(QueryDefinition.DELETEQUERYSTR), "DELETE FROM openidm.genericobjects obj WHERE EXISTS "
+                + "(SELECT 1 FROM openidm.objecttypes objtype WHERE obj.objecttypes_id = objtype.id "
+                + "AND objtype.objecttype = ?) AND obj.objectid = ? AND obj.rev = ?");
+        assertEquals(queries.get(QueryDefinition.PROPDELETEQUERYSTR), "DELETE FROM openidm.genericobjectproperties "
+                + "WHERE genericobjects_id IN (SELECT obj.id FROM openidm.genericobjects obj "
+                + "INNER JOIN openidm.objecttypes objtype ON obj.objecttypes_id = objtype.id "
+                + "WHERE objtype.objecttype = ? AND obj.objectid = ?)");
+    }
+
+    @Test
+    public void testUpdateDoesNotQualifyColumns() {
+        assertEquals(newH2TableHandler().initializeQueryMap().get(QueryDefinition.UPDATEQUERYSTR),
+                "UPDATE openidm.genericobjects SET objectid = ?, rev = ?, fullobject = ? WHERE id = ?");
+    }
+
+    @Test
+    public void testOtherStatementsAreTheGenericOnes() {
+        final Map<QueryDefinition, String> h2Queries = newH2TableHandler().initializeQueryMap();
+        final Map<QueryDefinition, String> genericQueries =
+                new GenericTableHandler(TABLE_CONFIG, "openidm", json(object()), json(object()), 1, null)
+                        .initializeQueryMap();
+
+        for (QueryDefinition definition : new QueryDefinition[] { QueryDefinition.CREATETYPEQUERYSTR,
+                QueryDefinition.READTYPEQUERYSTR, QueryDefinition.READQUERYSTR, QueryDefinition.CREATEQUERYSTR,
+                QueryDefinition.PROPCREATEQUERYSTR, QueryDefinition.QUERYALLIDS }) {
+            assertEquals(h2Queries.get(definition), genericQueries.get(definition), definition.name());
+        }
+        assertTrue(h2Queries.keySet().containsAll(genericQueries.keySet()));
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.repo.jdbc.impl;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.util.query.QueryFilter.and;
+import static org.forgerock.util.query.QueryFilter.equalTo;
+import static org.forgerock.util.query.QueryFilter.or;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+import org.forgerock.openidm.util.Accessor;
+import org.forgerock.util.query.QueryFilter;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the DELETE statements rendered by the table handlers for the delete-by-query-filter command.
+ */
+public class RenderDeleteQueryFilterTest {
+
+    /** A single relationship by id. */
+    private static final QueryFilter<JsonPointer> ONE_ID = equalTo(new JsonPointer("_id"), "a");
+
+    /** A batch of relationships by id, as deleted by RelationshipProvider.deleteRelationships(). */
+    private static final QueryFilter<JsonPointer> IDS = or(
+            equalTo(new JsonPointer("_id"), "a"),
+            equalTo(new JsonPointer("_id"), "b"));
+
+    /** All the relationships of a resource, as deleted by CollectionRelationshipProvider.clear(). */
+    private static final QueryFilter<JsonPointer> OF_RESOURCE = or(
+            and(equalTo(new JsonPointer("firstId"), "managed/user/1"),
+                    equalTo(new JsonPointer("firstPropertyName"), "roles")),
+            and(equalTo(new JsonPointer("secondId"), "managed/user/1"),
+                    equalTo(new JsonPointer("secondPropertyName"), "roles")));
+
+    private static final String GENERIC_PREFIX = "DELETE FROM ${_dbSchema}.${_mainTable} WHERE id IN (SELECT id FROM "
+            + "(SELECT obj.id FROM ${_dbSchema}.${_mainTable} obj INNER JOIN ${_dbSchema}.objecttypes objecttypes "
+            + "ON (obj.objecttypes_id = objecttypes.id AND objecttypes.objecttype = ${otype})";
+
+    private static final String POSTGRESQL_PREFIX = "DELETE FROM ${_dbSchema}.${_mainTable} obj "
+            + "USING ${_dbSchema}.objecttypes objtype "
+            + "WHERE objtype.id = obj.objecttypes_id AND objtype.objecttype = ${otype} AND (";
+
+    private Map<String, Object> params() {
+        final Map<String, Object> params = new HashMap<>();
+        params.put("_resource", "relationships");
+        return params;
+    }
+
+    private GenericTableHandler newGenericTableHandler() {
+        return new GenericTableHandler(genericTableConfig(), "openidm", json(object()), json(object()), 1, null);
+    }
+
+    private PostgreSQLTableHandler newPostgreSQLTableHandler() {
+        return new PostgreSQLTableHandler(genericTableConfig(), "openidm", json(object()), json(object()), 1, null);
+    }
+
+    private JsonValue genericTableConfig() {
+        return json(object(
+                field("mainTable", "relationships"),
+                field("propertiesTable", "relationshipproperties")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private MappedTableHandler newMappedTableHandler() throws Exception {
+        final Map<String, Object> mapping = new LinkedHashMap<>();
+        mapping.put("_id", "objectid");
+        mapping.put("_rev", "rev");
+        mapping.put("firstId", "firstid");
+        mapping.put("firstPropertyName", "firstpropname");
+        mapping.put("secondId", "secondid");
+        mapping.put("secondPropertyName", "secondpropname");
+        return new MappedTableHandler("relationships", mapping, "openidm", json(object()), json(object()), null,
+                mock(Accessor.class));
+    }
+
+    @Test
+    public void testGenericDeleteOfOneId() {
+        final Map<String, Object> tokens = new LinkedHashMap<>();
+
+        final String sql = newGenericTableHandler().renderDeleteQueryFilter(ONE_ID, tokens, params());
+
+        assertEquals(sql, GENERIC_PREFIX + " WHERE obj.objectid = ${v1}) matched)");
+        assertEquals(tokens.get("v1"), "a");
+        assertEquals(tokens.get("otype"), "relationships");
+    }
+
+    @Test
+    public void testGenericDeleteOfIds() {
+        final Map<String, Object> tokens = new LinkedHashMap<>();
+
+        final String sql = newGenericTableHandler().renderDeleteQueryFilter(IDS, tokens, params());
+
+        assertEquals(sql, GENERIC_PREFIX + " WHERE (obj.objectid = ${v1} OR obj.objectid = ${v2})) matched)");
+        assertEquals(tokens.get("v1"), "a");
+        assertEquals(tokens.get("v2"), "b");
+        assertEquals(tokens.get("otype"), "relationships");
+    }
+
+    @Test
+    public void testGenericDeleteOfResourceRelationships() {
+        final Map<String, Object> tokens = new LinkedHashMap<>();
+
+        final String sql = newGenericTableHandler().renderDeleteQueryFilter(OF_RESOURCE, tokens, params());
+
+        assertEquals(sql, GENERIC_PREFIX
+                + " LEFT OUTER JOIN ${_dbSchema}.${_propTable} prop1 ON (prop1.${_mainTable}_id = obj.id AND prop1.propkey = ${k1})"
+                + " LEFT OUTER JOIN ${_dbSchema}.${_propTable} prop2 ON (prop2.${_mainTable}_id = obj.id AND prop2.propkey = ${k2})"
+                + " LEFT OUTER JOIN ${_dbSchema}.${_propTable} prop3 ON (prop3.${_mainTable}_id = obj.id AND prop3.propkey = ${k3})"
+                + " LEFT OUTER JOIN ${_dbSchema}.${_propTable} prop4 ON (prop4.${_mainTable}_id = obj.id AND prop4.propkey = ${k4})"
+                + " WHERE ((prop1.propvalue = ${v1} AND prop2.propvalue = ${v2})"
+                + " OR (prop3.propvalue = ${v3} AND prop4.propvalue = ${v4}))) matched)");
+        assertEquals(tokens.get("k1"), "/firstId");
+        assertEquals(tokens.get("v1"), "managed/user/1");
+        assertEquals(tokens.get("k4"), "/secondPropertyName");
+        assertEquals(tokens.get("v4"), "roles");
+    }
+
+    @Test
+    public void testPostgreSQLDeleteOfIds() {
+        final Map<String, Object> tokens = new LinkedHashMap<>();
+
+        final String sql = newPostgreSQLTableHandler().renderDeleteQueryFilter(IDS, tokens, params());
+
+        assertEquals(sql, POSTGRESQL_PREFIX + "((obj.objectid = ${v1}) OR (obj.objectid = ${v2})))");
+        assertEquals(tokens.get("v1"), "a");
+        assertEquals(tokens.get("v2"), "b");
+        assertEquals(tokens.get("otype"), "relationships");
+    }
+
+    @Test
+    public void testPostgreSQLDeleteOfResourceRelationships() {
+        final Map<String, Object> tokens = new LinkedHashMap<>();
+
+        final String sql = newPostgreSQLTableHandler().renderDeleteQueryFilter(OF_RESOURCE, tokens, params());
+
+        assertEquals(sql, POSTGRESQL_PREFIX
+                + "(((json_extract_path_text(obj.fullobject, ${p2}) = (${v1}))"
+                + " AND (json_extract_path_text(obj.fullobject, ${p4}) = (${v3})))"
+                + " OR ((json_extract_path_text(obj.fullobject, ${p6}) = (${v5}))"
+                + " AND (json_extract_path_text(obj.fullobject, ${p8}) = (${v7})))))");
+        assertEquals(tokens.get("p2"), "firstId");
+        assertEquals(tokens.get("v1"), "managed/user/1");
+        assertEquals(tokens.get("p8"), "secondPropertyName");
+        assertEquals(tokens.get("v7"), "roles");
+    }
+
+    @Test
+    public void testMappedDeleteOfIds() throws Exception {
+        final Map<String, Object> tokens = new LinkedHashMap<>();
+
+        final String sql = newMappedTableHandler().renderDeleteQueryFilter(IDS, tokens, params());
+
+        assertEquals(sql, "DELETE FROM ${_dbSchema}.${_mainTable} WHERE (objectid = ${v1} OR objectid = ${v2})");
+        assertEquals(tokens.get("v1"), "a");
+        assertEquals(tokens.get("v2"), "b");
+    }
+
+    @Test
+    public void testMappedDeleteOfResourceRelationships() throws Exception {
+        final Map<String, Object> tokens = new LinkedHashMap<>();
+
+        final String sql = newMappedTableHandler().renderDeleteQueryFilter(OF_RESOURCE, tokens, params());
+
+        assertEquals(sql, "DELETE FROM ${_dbSchema}.${_mainTable} WHERE ((firstid = ${v1} AND firstpropname = ${v2})"
+                + " OR (secondid = ${v3} AND secondpropname = ${v4}))");
+        assertEquals(tokens.get("v1"), "managed/user/1");
+        assertEquals(tokens.get("v4"), "roles");
+    }
+}
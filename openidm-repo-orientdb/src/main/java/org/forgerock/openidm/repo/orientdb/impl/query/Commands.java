@@ -13,6 +13,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.repo.orientdb.impl.query;
 
@@ -20,13 +21,17 @@ import java.util.HashMap;
 import java.util.Map;
 
 import com.orientechnologies.common.exception.OException;
+import org.forgerock.json.JsonPointer;
 import org.forgerock.json.resource.ActionRequest;
 import org.forgerock.json.resource.BadRequestException;
+import org.forgerock.json.resource.QueryFilters;
 import org.forgerock.openidm.repo.QueryConstants;
 import org.forgerock.openidm.repo.orientdb.impl.OrientDBRepoService;
+import org.forgerock.openidm.repo.util.DeleteQueryFilters;
 import org.forgerock.openidm.smartevent.EventEntry;
 import org.forgerock.openidm.smartevent.Name;
 import org.forgerock.openidm.smartevent.Publisher;
+import org.forgerock.util.query.QueryFilter;
 
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.core.exception.OQueryParsingException;
@@ -63,6 +68,34 @@ public class Commands extends ConfiguredQueries<OCommandSQL, ActionRequest, Inte
         return new OCommandSQL(queryString);
     }
 
+    /**
+     * Find the QueryInfo according to the commandId, commandExpression or, deleting the matching relationships, the
+     * query filter, which is restricted as described by {@link DeleteQueryFilters}.
+     *
+     * @param type the type/resource to command
+     * @param commandId the commandId parameter
+     * @param commandExpression the commandExpression parameter
+     * @param queryFilter the _queryFilter parameter
+     * @param params the command parameters, which receive the tokens of the query filter
+     * @return the QueryInfo of the command
+     * @throws BadRequestException if the query filter is invalid or not allowed
+     */
+    private QueryInfo<OCommandSQL> findQueryInfo(String type, String commandId, String commandExpression,
+            String queryFilter, Map<String, String> params) throws BadRequestException {
+        if (queryFilter != null) {
+            final QueryFilter<JsonPointer> filter;
+            try {
+                filter = QueryFilters.parse(queryFilter);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid " + QueryConstants.QUERY_FILTER + ": " + e.getMessage(), e);
+            }
+            DeleteQueryFilters.validate(type, filter);
+            return findQueryInfo(type, null, "DELETE FROM ${unquoted:_resource} WHERE "
+                    + filter.accept(new Queries.OrientQueryFilterVisitor(), params).toSQL());
+        }
+        return findQueryInfo(type, commandId, commandExpression);
+    }
+
     /**
      * Execute a command, either a pre-configured command by using the command ID, or a command expression passed as
      * part of the params.
@@ -82,14 +115,17 @@ public class Commands extends ConfiguredQueries<OCommandSQL, ActionRequest, Inte
         final Map<String, String> params = new HashMap<String, String>(request.getAdditionalParameters());
         params.put(QueryConstants.RESOURCE_NAME, OrientDBRepoService.typeToOrientClassName(type));
 
-        if (params.get(COMMAND_ID) == null && params.get(COMMAND_EXPRESSION) == null) {
-            throw new BadRequestException("Either " + COMMAND_ID + " or " + COMMAND_EXPRESSION
-                    + " to identify/define a command must be passed in the parameters. " + params);
+        if (params.get(COMMAND_ID) == null && params.get(COMMAND_EXPRESSION) == null
+                && params.get(QueryConstants.QUERY_FILTER) == null) {
+            throw new BadRequestException("Either " + COMMAND_ID + ", " + COMMAND_EXPRESSION + ", or "
+                    + QueryConstants.QUERY_FILTER + " to identify/define a command must be passed in the parameters. "
+                    + params);
         }
 
         final QueryInfo<OCommandSQL> queryInfo;
         try {
-            queryInfo = findQueryInfo(type, params.get(COMMAND_ID), params.get(COMMAND_EXPRESSION));
+            queryInfo = findQueryInfo(type, params.get(COMMAND_ID), params.get(COMMAND_EXPRESSION),
+                    params.remove(QueryConstants.QUERY_FILTER), params);
         } catch (IllegalArgumentException e) {
             throw new BadRequestException("The passed command identifier " + params.get(COMMAND_ID)
                     + " does not match any configured commands on the OrientDB repository service.");
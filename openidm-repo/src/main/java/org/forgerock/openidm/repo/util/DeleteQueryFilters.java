@@ -0,0 +1,247 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.repo.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.resource.BadRequestException;
+import org.forgerock.util.query.QueryFilter;
+import org.forgerock.util.query.QueryFilterVisitor;
+
+/**
+ * Validates the filter of a repo delete-by-query-filter command.
+ * <p>
+ * The command exists to delete relationship edges in bulk, so it is only accepted on the {@code relationships}
+ * resource and with a filter which selects specific edges: a disjunction of terms, each being either an
+ * equality on {@code _id}, or equalities on both {@code firstId} and {@code firstPropertyName}, or on both
+ * {@code secondId} and {@code secondPropertyName}. Any other filter, including {@code true}, is rejected, so that
+ * the command cannot be used to delete arbitrary objects.
+ */
+public final class DeleteQueryFilters {
+
+    /** The resource which the delete-by-query-filter command is restricted to. */
+    public static final String RELATIONSHIPS = "relationships";
+
+    /** The sets of fields, each of which pins a term of the filter to specific relationships. */
+    private static final Set<Set<JsonPointer>> SELECTOR_FIELDS = new HashSet<>(Arrays.asList(
+            fields("_id"),
+            fields("firstId", "firstPropertyName"),
+            fields("secondId", "secondPropertyName")));
+
+    private static final SelectorsVisitor SELECTORS = new SelectorsVisitor();
+
+    private static final EqualityFieldsVisitor EQUALITY_FIELDS = new EqualityFieldsVisitor();
+
+    private DeleteQueryFilters() {
+    }
+
+    /**
+     * Checks that a delete-by-query-filter command targets the relationships and only selects specific ones.
+     *
+     * @param type the resource the command is performed on
+     * @param filter the query filter of the command
+     * @throws BadRequestException if the command is not allowed on the resource or with the filter
+     */
+    public static void validate(String type, QueryFilter<JsonPointer> filter) throws BadRequestException {
+        if (!RELATIONSHIPS.equals(type)) {
+            throw new BadRequestException("A delete by query filter is not supported on " + type);
+        }
+        if (!filter.accept(SELECTORS, null)) {
+            throw new BadRequestException("The query filter " + filter
+                    + " does not select relationships by _id, firstId and firstPropertyName,"
+                    + " or secondId and secondPropertyName");
+        }
+    }
+
+    private static Set<JsonPointer> fields(String... names) {
+        final Set<JsonPointer> fields = new HashSet<>();
+        for (String name : names) {
+            fields.add(new JsonPointer(name));
+        }
+        return Collections.unmodifiableSet(fields);
+    }
+
+    private static boolean isSelector(QueryFilter<JsonPointer> filter) {
+        return SELECTOR_FIELDS.contains(filter.accept(EQUALITY_FIELDS, null));
+    }
+
+    /**
+     * Returns whether a filter is a non-empty disjunction of selectors, or a single selector.
+     */
+    private static final class SelectorsVisitor implements QueryFilterVisitor<Boolean, Void, JsonPointer> {
+
+        @Override
+        public Boolean visitAndFilter(Void p, List<QueryFilter<JsonPointer>> subFilters) {
+            return isSelector(QueryFilter.and(subFilters));
+        }
+
+        @Override
+        public Boolean visitBooleanLiteralFilter(Void p, boolean value) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitContainsFilter(Void p, JsonPointer field, Object valueAssertion) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitEqualsFilter(Void p, JsonPointer field, Object valueAssertion) {
+            return isSelector(QueryFilter.equalTo(field, valueAssertion));
+        }
+
+        @Override
+        public Boolean visitExtendedMatchFilter(Void p, JsonPointer field, String operator, Object valueAssertion) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitGreaterThanFilter(Void p, JsonPointer field, Object valueAssertion) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitGreaterThanOrEqualToFilter(Void p, JsonPointer field, Object valueAssertion) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitLessThanFilter(Void p, JsonPointer field, Object valueAssertion) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitLessThanOrEqualToFilter(Void p, JsonPointer field, Object valueAssertion) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitNotFilter(Void p, QueryFilter<JsonPointer> subFilter) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitOrFilter(Void p, List<QueryFilter<JsonPointer>> subFilters) {
+            if (subFilters.isEmpty()) {
+                return false;
+            }
+            for (QueryFilter<JsonPointer> subFilter : subFilters) {
+                if (!isSelector(subFilter)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Boolean visitPresentFilter(Void p, JsonPointer field) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitStartsWithFilter(Void p, JsonPointer field, Object valueAssertion) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the fields of a conjunction of equalities to string values, or null for any other filter.
+     */
+    private static final class EqualityFieldsVisitor implements QueryFilterVisitor<Set<JsonPointer>, Void, JsonPointer> {
+
+        @Override
+        public Set<JsonPointer> visitAndFilter(Void p, List<QueryFilter<JsonPointer>> subFilters) {
+            if (subFilters.isEmpty()) {
+                return null;
+            }
+            final Set<JsonPointer> fields = new HashSet<>();
+            for (QueryFilter<JsonPointer> subFilter : subFilters) {
+                final Set<JsonPointer> subFields = subFilter.accept(this, p);
+                if (subFields == null) {
+                    return null;
+                }
+                fields.addAll(subFields);
+            }
+            return fields;
+        }
+
+        @Override
+        public Set<JsonPointer> visitBooleanLiteralFilter(Void p, boolean value) {
+            return null;
+        }
+
+        @Override
+        public Set<JsonPointer> visitContainsFilter(Void p, JsonPointer field, Object valueAssertion) {
+            return null;
+        }
+
+        @Override
+        public Set<JsonPointer> visitEqualsFilter(Void p, JsonPointer field, Object valueAssertion) {
+            return valueAssertion instanceof String ? Collections.singleton(field) : null;
+        }
+
+        @Override
+        public Set<JsonPointer> visitExtendedMatchFilter(Void p, JsonPointer field, String operator,
+                Object valueAssertion) {
+            return null;
+        }
+
+        @Override
+        public Set<JsonPointer> visitGreaterThanFilter(Void p, JsonPointer field, Object valueAssertion) {
+            return null;
+        }
+
+        @Override
+        public Set<JsonPointer> visitGreaterThanOrEqualToFilter(Void p, JsonPointer field, Object valueAssertion) {
+            return null;
+        }
+
+        @Override
+        public Set<JsonPointer> visitLessThanFilter(Void p, JsonPointer field, Object valueAssertion) {
+            return null;
+        }
+
+        @Override
+        public Set<JsonPointer> visitLessThanOrEqualToFilter(Void p, JsonPointer field, Object valueAssertion) {
+            return null;
+        }
+
+        @Override
+        public Set<JsonPointer> visitNotFilter(Void p, QueryFilter<JsonPointer> subFilter) {
+            return null;
+        }
+
+        @Override
+        public Set<JsonPointer> visitOrFilter(Void p, List<QueryFilter<JsonPointer>> subFilters) {
+            return null;
+        }
+
+        @Override
+        public Set<JsonPointer> visitPresentFilter(Void p, JsonPointer field) {
+            return null;
+        }
+
+        @Override
+        public Set<JsonPointer> visitStartsWithFilter(Void p, JsonPointer field, Object valueAssertion) {
+            return null;
+        }
+    }
+}
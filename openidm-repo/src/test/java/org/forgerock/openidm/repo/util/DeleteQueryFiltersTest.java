@@ -0,0 +1,92 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.repo.util;
+
+import static org.forgerock.util.query.QueryFilter.alwaysTrue;
+import static org.forgerock.util.query.QueryFilter.and;
+import static org.forgerock.util.query.QueryFilter.equalTo;
+import static org.forgerock.util.query.QueryFilter.not;
+import static org.forgerock.util.query.QueryFilter.or;
+import static org.forgerock.util.query.QueryFilter.present;
+import static org.forgerock.util.query.QueryFilter.startsWith;
+
+import java.util.Collections;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.resource.BadRequestException;
+import org.forgerock.util.query.QueryFilter;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the filters accepted by the delete-by-query-filter command.
+ */
+public class DeleteQueryFiltersTest {
+
+    private static final JsonPointer ID = new JsonPointer("_id");
+    private static final JsonPointer FIRST_ID = new JsonPointer("firstId");
+    private static final JsonPointer FIRST_PROPERTY_NAME = new JsonPointer("firstPropertyName");
+    private static final JsonPointer SECOND_ID = new JsonPointer("secondId");
+    private static final JsonPointer SECOND_PROPERTY_NAME = new JsonPointer("secondPropertyName");
+
+    @DataProvider
+    public Object[][] acceptedFilters() {
+        return new Object[][] {
+            { equalTo(ID, "a") },
+            { or(equalTo(ID, "a"), equalTo(ID, "b")) },
+            { and(equalTo(FIRST_ID, "managed/user/1"), equalTo(FIRST_PROPERTY_NAME, "roles")) },
+            { or(and(equalTo(FIRST_ID, "managed/user/1"), equalTo(FIRST_PROPERTY_NAME, "roles")),
+                    and(equalTo(SECOND_ID, "managed/user/1"), equalTo(SECOND_PROPERTY_NAME, "roles"))) }
+        };
+    }
+
+    @DataProvider
+    public Object[][] rejectedFilters() {
+        return new Object[][] {
+            // empty filters
+            { alwaysTrue() },
+            { or(Collections.<QueryFilter<JsonPointer>>emptyList()) },
+            { and(Collections.<QueryFilter<JsonPointer>>emptyList()) },
+            // filters not pinned to specific relationships
+            { present(ID) },
+            { startsWith(ID, "a") },
+            { not(equalTo(ID, "a")) },
+            { equalTo(FIRST_ID, "managed/user/1") },
+            { equalTo(FIRST_PROPERTY_NAME, "roles") },
+            { and(equalTo(FIRST_ID, "managed/user/1"), equalTo(SECOND_PROPERTY_NAME, "roles")) },
+            { and(equalTo(FIRST_ID, "managed/user/1"), equalTo(FIRST_PROPERTY_NAME, "roles"),
+                    equalTo(new JsonPointer("properties"), "x")) },
+            { or(equalTo(ID, "a"), present(ID)) },
+            { or(equalTo(ID, "a"), or(equalTo(ID, "b"), equalTo(ID, "c"))) },
+            { equalTo(ID, 1) }
+        };
+    }
+
+    @Test(dataProvider = "acceptedFilters")
+    public void testAcceptedFilter(QueryFilter<JsonPointer> filter) throws Exception {
+        DeleteQueryFilters.validate(DeleteQueryFilters.RELATIONSHIPS, filter);
+    }
+
+    @Test(dataProvider = "rejectedFilters", expectedExceptions = BadRequestException.class)
+    public void testRejectedFilter(QueryFilter<JsonPointer> filter) throws Exception {
+        DeleteQueryFilters.validate(DeleteQueryFilters.RELATIONSHIPS, filter);
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testRejectedResource() throws Exception {
+        DeleteQueryFilters.validate("managed/user", equalTo(ID, "a"));
+    }
+}
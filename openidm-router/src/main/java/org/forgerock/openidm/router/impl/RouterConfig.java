@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openidm.router.impl;
@@ -48,10 +49,13 @@ import org.forgerock.json.resource.Filters;
 import org.forgerock.json.resource.Request;
 import org.forgerock.json.resource.RequestType;
 import org.forgerock.openidm.config.enhanced.EnhancedConfig;
+import org.forgerock.openidm.core.IdentityServer;
 import org.forgerock.openidm.core.ServerConstants;
 import org.forgerock.openidm.router.RouterFilterRegistration;
+import org.forgerock.openidm.filter.AuthorizationFilter;
 import org.forgerock.openidm.filter.ScriptedFilter;
 import org.forgerock.openidm.util.JsonUtil;
+import org.forgerock.openidm.util.Scripts;
 import org.forgerock.script.Script;
 import org.forgerock.script.ScriptEntry;
 import org.forgerock.script.ScriptRegistry;
@@ -75,6 +79,9 @@ public class RouterConfig {
 
     static final String PID = "org.forgerock.openidm.router";
 
+    /** The project path of the access configuration enforced by an authorization filter. */
+    private static final String DEFAULT_ACCESS_CONFIG = "script/access.js";
+
     /** Logger for this class. */
     private final static Logger logger = LoggerFactory.getLogger(RouterConfig.class);
 
@@ -225,9 +232,11 @@ public class RouterConfig {
         }
 
         // Create the filter
+        final Filter handler = newHandlerFilter(config.get("authorization"), config.get("onRequest"), onRequest,
+                onResponse, onFailure);
         Filter filter = (null == filterCondition)
-                ? new ScriptedFilter(onRequest, onResponse, onFailure)
-                : Filters.conditionalFilter(filterCondition, new ScriptedFilter(onRequest, onResponse, onFailure));
+                ? handler
+                : Filters.conditionalFilter(filterCondition, handler);
 
         // Check for a condition script
         if (null != condition) {
@@ -250,6 +259,33 @@ public class RouterConfig {
         return filter;
     }
 
+    /**
+     * Create the Filter which evaluates the scripts, enforcing the access configuration natively if the filter is
+     * configured as the authorization filter.
+     *
+     * @param authorization the authorization configuration of the filter
+     * @param onRequestConfig the configuration of the onRequest script
+     * @param onRequest the onRequest script
+     * @param onResponse the onResponse script
+     * @param onFailure the onFailure script
+     * @return a Filter
+     * @throws JsonValueException if the authorization filter has other than an onRequest script
+     */
+    private Filter newHandlerFilter(JsonValue authorization, JsonValue onRequestConfig,
+            Pair<JsonPointer, ScriptEntry> onRequest, Pair<JsonPointer, ScriptEntry> onResponse,
+            Pair<JsonPointer, ScriptEntry> onFailure) {
+        if (authorization.expect(Map.class).isNull()) {
+            return new ScriptedFilter(onRequest, onResponse, onFailure);
+        }
+        if (null == onRequest || null != onResponse || null != onFailure) {
+            throw new JsonValueException(authorization, "The authorization filter requires only an onRequest script");
+        }
+        final String accessConfig = authorization.get("accessConfig").defaultTo(DEFAULT_ACCESS_CONFIG).asString();
+        return new AuthorizationFilter(onRequest.getLeft(), onRequest.getRight(),
+                Scripts.getScriptFile(onRequestConfig),
+                IdentityServer.isInitialized() ? IdentityServer.getFileForProjectPath(accessConfig) : null);
+    }
+
     private Pair<JsonPointer, ScriptEntry> getScript(JsonValue scriptJson) throws ScriptException {
         if (scriptJson.expect(Map.class).isNull()) {
             return null;
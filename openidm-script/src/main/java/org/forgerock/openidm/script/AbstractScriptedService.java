@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 package org.forgerock.openidm.script;
 
@@ -120,13 +120,25 @@ public abstract class AbstractScriptedService implements ScriptCustomizer, Scrip
         this.properties.put(key, value);
     }
 
+    /**
+     * Returns the {@link RequestHandler} to register for the given scripted handler. Subclasses may override this to
+     * serve some requests natively and delegate the remainder to the script.
+     *
+     * @param handler the handler backed by the configured script
+     * @return the handler to register with the router
+     */
+    protected RequestHandler decorateRequestHandler(final ScriptedRequestHandler handler) {
+        return handler;
+    }
+
     protected void registerService(final BundleContext context, final JsonValue configuration) {
         try {
             ScriptEntry scriptEntry = scriptRegistry.takeScript(configuration);
             scriptEntry.addScriptListener(this);
             scriptName = scriptEntry.getName();
             embeddedHandler = new ScriptedRequestHandler(scriptEntry, getScriptCustomizer());
-            selfRegistration = context.registerService(RequestHandler.class, embeddedHandler, getProperties());
+            selfRegistration = context.registerService(RequestHandler.class, decorateRequestHandler(embeddedHandler),
+                    getProperties());
         } catch (ScriptException e) {
             final String factoryPid = configuration.get(ServerConstants.CONFIG_FACTORY_PID).defaultTo("").asString();
             throw new ComponentException("Failed to take script: " + factoryPid, e);
@@ -178,8 +190,8 @@ public abstract class AbstractScriptedService implements ScriptCustomizer, Scrip
                         selfRegistration =
                                 getBundleContext().registerService(
                                         RequestHandler.class,
-                                        new ScriptedRequestHandler(scriptEntry,
-                                                getScriptCustomizer()), getProperties());
+                                        decorateRequestHandler(new ScriptedRequestHandler(scriptEntry,
+                                                getScriptCustomizer())), getProperties());
                     }
                 }
             }
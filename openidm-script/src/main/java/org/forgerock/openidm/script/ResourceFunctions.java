@@ -2,6 +2,7 @@
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
  * Copyright (c) 2012-2015 ForgeRock AS. All Rights Reserved
+ * Portions Copyright 2026 Wren Security.
  *
  * The contents of this file are subject to the terms
  * of the Common Development and Distribution License
@@ -61,6 +62,7 @@ import org.forgerock.json.resource.Requests;
 import org.forgerock.json.resource.ResourceResponse;
 import org.forgerock.json.resource.ResourceException;
 import org.forgerock.json.resource.UpdateRequest;
+import org.forgerock.openidm.util.ReadCacheContext;
 import org.forgerock.util.Factory;
 import org.forgerock.util.LazyMap;
 
@@ -287,7 +289,18 @@ public final class ResourceFunctions {
                 setAdditionalParameter(rr, name, params.get(name));
             }
 
-            return connectionFactory.getConnection().read(scope.getContext(context), rr);
+            final Context readContext = scope.getContext(context);
+            if (!readContext.containsContext(ReadCacheContext.class)) {
+                return connectionFactory.getConnection().read(readContext, rr);
+            }
+            // serve the repeated reads of the request from its read cache
+            final ReadCacheContext readCache = readContext.asContext(ReadCacheContext.class);
+            ResourceResponse resource = readCache.get(rr);
+            if (resource == null) {
+                resource = connectionFactory.getConnection().read(readContext, rr);
+                readCache.put(rr, resource);
+            }
+            return resource;
         }
     }
 
@@ -536,14 +549,20 @@ public final class ResourceFunctions {
 
     /**
      * <pre>
-     * query(String resourceContainer, Map params [, List fieldFilter][,Map context])
+     * query(String resourceContainer, Map params [, List fieldFilter][,Map context][, Function callback])
      * </pre>
+     * Without a callback, the results are returned in the "result" list. With a callback, each result is handed to
+     * the callback as it arrives and none are held: the callback returns {@code false} to stop the query, and the
+     * {@code _pageAll} parameter, together with {@code _pageSize}, pages through all the results transparently.
      */
     private static final class QueryFunction extends AbstractFunction {
 
         /** Serializable class a version number. */
         static final long serialVersionUID = 2L;
 
+        /** The parameter requesting the callback to be handed the results of all pages, not only the first. */
+        private static final String PAGE_ALL = "_pageAll";
+
         private QueryFunction(ConnectionFactory connectionFactory) {
             super(connectionFactory);
         }
@@ -690,36 +709,78 @@ public final class ResourceFunctions {
                                     + name + "' could not be parsed as a valid query filter");
 
                         }
-                    } else {
+                    } else if (!name.equals(PAGE_ALL)) {
                         setAdditionalParameter(qr, name, params.get(name));
                     }
                 }
 
-                return connectionFactory.getConnection().query(scope.getContext(context), qr,
-                        new QueryResourceHandler() {
-                            @Override
-                            public boolean handleResource(ResourceResponse resource) {
-                                if (null != callback) {
-                                    try {
-                                        callback.call(scope, null, resource.getContent());
-                                    } catch (ResourceException e) {
-                                        // TODO log
-                                        return false;
-                                    } catch (NoSuchMethodException e) {
-                                        // TODO log
-                                        return false;
-                                    }
-                                } else {
+                if (null == callback) {
+                    return connectionFactory.getConnection().query(scope.getContext(context), qr,
+                            new QueryResourceHandler() {
+                                @Override
+                                public boolean handleResource(ResourceResponse resource) {
                                     results.add(resource.getContent().getObject());
+                                    return true;
                                 }
-                                return true;
-                            }
-                        });
+                            });
+                }
+                return stream(scope, context, qr, callback, params.get(PAGE_ALL).defaultTo(false).asBoolean());
             } else {
                 throw new BadRequestException(
                         "Only one of [_queryId, _queryExpression, _queryFilter] is supported; multiple detected");
             }
         }
+
+        /**
+         * Hands each resource to the callback as it is returned, without holding the results. The query stops as
+         * soon as the callback returns {@code false}. When {@code pageAll} is set, the query is repeated with the
+         * paged results cookie, or offset, of the previous page until all the pages are handled.
+         */
+        private QueryResponse stream(final Parameter scope, final Context context, final QueryRequest qr,
+                final Function<?> callback, final boolean pageAll) throws ResourceException {
+            final ResourceException[] failure = new ResourceException[1];
+            final boolean[] stopped = new boolean[1];
+            final int[] count = new int[1];
+            final QueryResourceHandler handler = new QueryResourceHandler() {
+                @Override
+                public boolean handleResource(ResourceResponse resource) {
+                    count[0]++;
+                    try {
+                        stopped[0] = Boolean.FALSE.equals(callback.call(scope, null, resource.getContent()));
+                    } catch (ResourceException e) {
+                        failure[0] = e;
+                        stopped[0] = true;
+                    } catch (NoSuchMethodException e) {
+                        failure[0] = new BadRequestException("The query callback could not be called", e);
+                        stopped[0] = true;
+                    }
+                    return !stopped[0];
+                }
+            };
+
+            final int pageSize = qr.getPageSize();
+            int offset = qr.getPagedResultsOffset();
+            QueryResponse response;
+            while (true) {
+                count[0] = 0;
+                response = connectionFactory.getConnection().query(scope.getContext(context), qr, handler);
+                if (null != failure[0]) {
+                    throw failure[0];
+                }
+                if (!pageAll || pageSize <= 0 || stopped[0] || count[0] == 0) {
+                    return response;
+                }
+                if (null != response.getPagedResultsCookie()) {
+                    qr.setPagedResultsCookie(response.getPagedResultsCookie());
+                } else if (null == qr.getPagedResultsCookie() && count[0] == pageSize) {
+                    // the resource does not page with cookies, request the next page by offset
+                    offset += pageSize;
+                    qr.setPagedResultsOffset(offset);
+                } else {
+                    return response;
+                }
+            }
+        }
     }
 
     public static Function<JsonValue> newDeleteFunction(ConnectionFactory connectionFactory) {
@@ -0,0 +1,289 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.script.impl;
+
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.openidm.smartevent.LatencyHistogram;
+import org.forgerock.script.Script;
+import org.forgerock.script.ScriptEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Profiles the execution of the scripts taken from the {@link ScriptRegistryService}: the number of evaluations of
+ * each script, their failures, and histograms of their evaluation time and of the time to get the script with its
+ * bindings from the script entry.
+ * <p>
+ * Script entries are profiled by wrapping them, and the scripts they return, in proxies of the {@link ScriptEntry}
+ * and {@link Script} interfaces. Recording is lock-free, so the profiler can stay enabled in production.
+ */
+public class ScriptProfiler implements ScriptProfilerMBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScriptProfiler.class);
+
+    /** The name of the script profiler MBean */
+    public static final String MBEAN_NAME = "OpenIDM:type=ScriptProfiler";
+
+    private static final String METHOD_GET_SCRIPT = "getScript";
+    private static final String METHOD_EVAL = "eval";
+    private static final String METHOD_EQUALS = "equals";
+
+    /**
+     * The execution profile of a script.
+     */
+    static final class ScriptStatistics {
+        private final LatencyHistogram evaluations = new LatencyHistogram();
+        private final LatencyHistogram bindings = new LatencyHistogram();
+        private final AtomicLong failures = new AtomicLong();
+
+        JsonValue toJsonValue(String name) {
+            return json(object(
+                    field("name", name),
+                    field("invocations", evaluations.count()),
+                    field("failures", failures.get()),
+                    field("totalTime", toMillis(evaluations.sum())),
+                    field("meanTime", toMillis(evaluations.mean())),
+                    field("p50Time", toMillis(evaluations.valueAtPercentile(50))),
+                    field("p90Time", toMillis(evaluations.valueAtPercentile(90))),
+                    field("p99Time", toMillis(evaluations.valueAtPercentile(99))),
+                    field("maxTime", toMillis(evaluations.max())),
+                    field("bindingsCount", bindings.count()),
+                    field("bindingsTotalTime", toMillis(bindings.sum())),
+                    field("bindingsP99Time", toMillis(bindings.valueAtPercentile(99)))));
+        }
+
+        void reset() {
+            evaluations.reset();
+            bindings.reset();
+            failures.set(0);
+        }
+    }
+
+    private final ConcurrentMap<String, ScriptStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * Wraps a script entry to profile the scripts it returns.
+     *
+     * @param scriptEntry the script entry
+     * @param name the name under which the executions of the script are recorded
+     * @return the profiled script entry
+     */
+    ScriptEntry profile(final ScriptEntry scriptEntry, final String name) {
+        return (ScriptEntry) Proxy.newProxyInstance(ScriptEntry.class.getClassLoader(),
+                new Class<?>[] { ScriptEntry.class }, new ProfiledScriptEntry(scriptEntry, statisticsFor(name)));
+    }
+
+    private ScriptStatistics statisticsFor(final String name) {
+        ScriptStatistics scriptStatistics = statistics.get(name);
+        if (scriptStatistics == null) {
+            final ScriptStatistics newStatistics = new ScriptStatistics();
+            scriptStatistics = statistics.putIfAbsent(name, newStatistics);
+            if (scriptStatistics == null) {
+                scriptStatistics = newStatistics;
+            }
+        }
+        return scriptStatistics;
+    }
+
+    /**
+     * Returns the execution profile of each script, with times in milliseconds.
+     *
+     * @return the execution profile of each script
+     */
+    public JsonValue getStatistics() {
+        final JsonValue result = json(array());
+        for (Map.Entry<String, ScriptStatistics> entry : new TreeMap<>(statistics).entrySet()) {
+            result.add(entry.getValue().toJsonValue(entry.getKey()).getObject());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the execution profile of the scripts which took the most evaluation time.
+     *
+     * @param count the number of scripts to return
+     * @return the execution profile of the hot scripts, the hottest first
+     */
+    public JsonValue getHotScriptStatistics(final int count) {
+        final List<Map.Entry<String, ScriptStatistics>> entries = new ArrayList<>(statistics.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, ScriptStatistics>>() {
+            @Override
+            public int compare(Map.Entry<String, ScriptStatistics> e1, Map.Entry<String, ScriptStatistics> e2) {
+                return Long.compare(e2.getValue().evaluations.sum(), e1.getValue().evaluations.sum());
+            }
+        });
+        final JsonValue result = json(array());
+        for (Map.Entry<String, ScriptStatistics> entry : entries.subList(0, Math.min(count, entries.size()))) {
+            if (entry.getValue().evaluations.count() > 0) {
+                result.add(entry.getValue().toJsonValue(entry.getKey()).getObject());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, String> getTotals() {
+        final Map<String, String> totals = new TreeMap<>();
+        for (JsonValue script : getStatistics()) {
+            totals.put(script.get("name").asString(), script.toString());
+        }
+        return totals;
+    }
+
+    @Override
+    public Map<String, String> getHotScripts(final int count) {
+        final Map<String, String> hotScripts = new LinkedHashMap<>();
+        for (JsonValue script : getHotScriptStatistics(count)) {
+            hotScripts.put(script.get("name").asString(), script.toString());
+        }
+        return hotScripts;
+    }
+
+    @Override
+    public void resetStatistics() {
+        for (ScriptStatistics scriptStatistics : statistics.values()) {
+            scriptStatistics.reset();
+        }
+    }
+
+    /**
+     * Registers the profiler MBean.
+     */
+    void registerMBean() {
+        final MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(MBEAN_NAME);
+            if (!mbs.isRegistered(name)) {
+                mbs.registerMBean(this, name);
+            }
+        } catch (Exception ex) {
+            logger.info("Failed to register script profiler MBean", ex);
+        }
+    }
+
+    /**
+     * Unregisters the profiler MBean.
+     */
+    void unregisterMBean() {
+        final MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(MBEAN_NAME);
+            if (mbs.isRegistered(name)) {
+                mbs.unregisterMBean(name);
+            }
+        } catch (Exception ex) {
+            logger.info("Failed to unregister script profiler MBean", ex);
+        }
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / 1000000.0;
+    }
+
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Records the time to get the script, with its bindings, from the script entry.
+     */
+    private static final class ProfiledScriptEntry implements InvocationHandler {
+        private final ScriptEntry scriptEntry;
+        private final ScriptStatistics scriptStatistics;
+
+        private ProfiledScriptEntry(final ScriptEntry scriptEntry, final ScriptStatistics scriptStatistics) {
+            this.scriptEntry = scriptEntry;
+            this.scriptStatistics = scriptStatistics;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (METHOD_EQUALS.equals(method.getName()) && args != null && args.length == 1) {
+                return proxy == args[0] || scriptEntry.equals(args[0]);
+            }
+            if (!METHOD_GET_SCRIPT.equals(method.getName())) {
+                return ScriptProfiler.invoke(scriptEntry, method, args);
+            }
+            final long start = System.nanoTime();
+            final Script script = (Script) ScriptProfiler.invoke(scriptEntry, method, args);
+            scriptStatistics.bindings.recordSince(start);
+            return script == null
+                    ? null
+                    : Proxy.newProxyInstance(Script.class.getClassLoader(), new Class<?>[] { Script.class },
+                            new ProfiledScript(script, scriptStatistics));
+        }
+    }
+
+    /**
+     * Records the evaluation time of the script.
+     */
+    private static final class ProfiledScript implements InvocationHandler {
+        private final Script script;
+        private final ScriptStatistics scriptStatistics;
+
+        private ProfiledScript(final Script script, final ScriptStatistics scriptStatistics) {
+            this.script = script;
+            this.scriptStatistics = scriptStatistics;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (METHOD_EQUALS.equals(method.getName()) && args != null && args.length == 1) {
+                return proxy == args[0] || script.equals(args[0]);
+            }
+            if (!METHOD_EVAL.equals(method.getName())) {
+                return ScriptProfiler.invoke(script, method, args);
+            }
+            final long start = System.nanoTime();
+            try {
+                return ScriptProfiler.invoke(script, method, args);
+            } catch (Throwable t) {
+                scriptStatistics.failures.incrementAndGet();
+                throw t;
+            } finally {
+                scriptStatistics.evaluations.recordSince(start);
+            }
+        }
+    }
+}
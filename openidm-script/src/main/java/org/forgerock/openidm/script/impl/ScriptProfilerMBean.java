@@ -0,0 +1,40 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.script.impl;
+
+import java.util.Map;
+
+/**
+ * Provides JMX access to the script execution profile.
+ */
+public interface ScriptProfilerMBean {
+
+    /**
+     * @return a summary of the executions of each script, by script name
+     */
+    Map<String, String> getTotals();
+
+    /**
+     * @param count the number of scripts to return
+     * @return a summary of the executions of the scripts which took the most time, by script name
+     */
+    Map<String, String> getHotScripts(int count);
+
+    /**
+     * Reset the execution profile of all scripts.
+     */
+    void resetStatistics();
+}
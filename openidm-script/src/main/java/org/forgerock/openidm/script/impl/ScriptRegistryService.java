@@ -12,11 +12,16 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openidm.script.impl;
 
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
 import static org.forgerock.json.resource.Responses.newActionResponse;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
 import static org.forgerock.util.promise.Promises.newResultPromise;
 
 import java.io.File;
@@ -27,6 +32,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -100,7 +106,9 @@ import org.forgerock.script.source.SourceUnit;
 import org.forgerock.util.promise.Promise;
 import org.ops4j.pax.swissbox.extender.BundleWatcher;
 import org.ops4j.pax.swissbox.extender.ManifestEntry;
+import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -163,6 +171,9 @@ public class ScriptRegistryService extends ScriptRegistryImpl implements Request
     // Public Constants
     public static final String PID = "org.forgerock.openidm.script";
 
+    /** The PID of the service registered once the configured scripts have been warmed up */
+    public static final String WARM_UP_PID = "org.forgerock.openidm.script.warmup";
+
     private ConnectionFactory connectionFactory = null;
 
     /**
@@ -193,6 +204,24 @@ public class ScriptRegistryService extends ScriptRegistryImpl implements Request
     private enum Action {
         compile, eval
     }
+
+    /** The resource of the script execution profile */
+    private static final String PROFILE = "profile";
+    /** The action resetting the script execution profile */
+    private static final String ACTION_RESET = "reset";
+    /** The parameter of the number of hot scripts in the execution profile */
+    private static final String PARAM_TOP = "top";
+    private static final int DEFAULT_TOP = 10;
+
+    /** Records the executions of the scripts taken from the registry */
+    private final ScriptProfiler profiler = new ScriptProfiler();
+    private volatile boolean profilerEnabled = true;
+
+    /** Guards the registration of the warm-up service */
+    private final Object warmUpLock = new Object();
+    private ServiceRegistration<?> warmUpRegistration;
+    private boolean warmUpCancelled;
+    private volatile JsonValue warmUpStatistics = json(object(field("completed", false)));
     
     private BundleWatcher<ManifestEntry> manifestWatcher;
 
@@ -279,9 +308,73 @@ public class ScriptRegistryService extends ScriptRegistryImpl implements Request
         // Initialize the registry in ScriptUtil
         Scripts.init(this);
 
+        profilerEnabled = Boolean.parseBoolean(
+                IdentityServer.getInstance().getProperty("openidm.script.profiler.enabled", "true"));
+        if (profilerEnabled) {
+            profiler.registerMBean();
+        }
+
+        warmUp(context.getBundleContext(), configuration.get(ScriptWarmUp.CONFIG_WARM_UP));
+
         logger.info("OpenIDM Script Service component is activated.");
     }
 
+    /**
+     * Compiles the configured scripts in the background, then registers the {@value #WARM_UP_PID} service which the
+     * health service requires before reporting the node ready. The service is registered straight away if the
+     * warm-up is disabled, as it is by default.
+     *
+     * @param bundleContext the bundle context to register the warm-up service with
+     * @param config the warm-up configuration
+     */
+    private void warmUp(final BundleContext bundleContext, final JsonValue config) {
+        synchronized (warmUpLock) {
+            warmUpCancelled = false;
+        }
+        final ScriptWarmUp scriptWarmUp = ScriptWarmUp.fromConfig(this, config);
+        if (scriptWarmUp == null) {
+            warmUpStatistics = json(object(field("enabled", false)));
+            registerWarmUp(bundleContext);
+            return;
+        }
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final File configDirectory =
+                            new File(IdentityServer.getInstance().getProjectLocation(), "conf");
+                    warmUpStatistics = scriptWarmUp.warmUp(ScriptWarmUp.discoverScripts(configDirectory),
+                            ScriptWarmUp.registeredScripts(config));
+                } catch (Exception e) {
+                    logger.warn("Script warm-up failed", e);
+                } finally {
+                    registerWarmUp(bundleContext);
+                }
+            }
+        }, "OpenIDM Script Warm-Up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void registerWarmUp(final BundleContext bundleContext) {
+        synchronized (warmUpLock) {
+            if (warmUpCancelled || warmUpRegistration != null) {
+                return;
+            }
+            final Hashtable<String, Object> properties = new Hashtable<String, Object>();
+            properties.put(Constants.SERVICE_PID, WARM_UP_PID);
+            properties.put(Constants.SERVICE_VENDOR, ServerConstants.SERVER_VENDOR_NAME);
+            properties.put(Constants.SERVICE_DESCRIPTION, "OpenIDM Script Warm-Up");
+            try {
+                warmUpRegistration = bundleContext.registerService(
+                        JsonValue.class.getName(), warmUpStatistics, properties);
+            } catch (IllegalStateException e) {
+                // the bundle is stopping
+                logger.debug("Script warm-up service not registered", e);
+            }
+        }
+    }
+
     @Modified
     protected void modified(ComponentContext context) {
         JsonValue configuration = enhancedConfig.getConfigurationAsJson(context);
@@ -325,6 +418,14 @@ public class ScriptRegistryService extends ScriptRegistryImpl implements Request
     protected void deactivate(ComponentContext context) {
         // Clear the registry in ScriptUtil
         Scripts.init(null);
+        profiler.unregisterMBean();
+        synchronized (warmUpLock) {
+            warmUpCancelled = true;
+            if (warmUpRegistration != null) {
+                warmUpRegistration.unregister();
+                warmUpRegistration = null;
+            }
+        }
         
         if (null != manifestWatcher) {
             manifestWatcher.stop();
@@ -600,7 +701,7 @@ public class ScriptRegistryService extends ScriptRegistryImpl implements Request
                 scriptEntry.put(key, globals.get(key).getObject());
             }
         }
-        return scriptEntry;
+        return profilerEnabled ? profiler.profile(scriptEntry, scriptEntry.getName().getName()) : scriptEntry;
     }
     
     private static enum IdentityServerFunctions implements Function<Object> {
@@ -688,7 +789,13 @@ public class ScriptRegistryService extends ScriptRegistryImpl implements Request
         JsonValue config = new JsonValue(new HashMap<String, Object>());
         ScriptEntry scriptEntry = null;
         try {
-            if (resourcePath == null || "".equals(resourcePath)) {
+            if (PROFILE.equals(resourcePath)) {
+                if (!ACTION_RESET.equals(request.getAction())) {
+                    throw new BadRequestException("Unrecognized action ID " + request.getAction());
+                }
+                profiler.resetStatistics();
+                return newActionResponse(json(object())).asPromise();
+            } else if (resourcePath == null || "".equals(resourcePath)) {
                 for (String key : content.keys()) {
                     if (isSourceUnit(key)) {
                         config.put(key, content.get(key).getObject());
@@ -743,8 +850,23 @@ public class ScriptRegistryService extends ScriptRegistryImpl implements Request
     }
 
     public Promise<ResourceResponse, ResourceException> handleRead(final Context context, final ReadRequest request) {
-        final ResourceException e = new NotSupportedException("Read operations are not supported");
-        return e.asPromise();
+        if (!PROFILE.equals(request.getResourcePath())) {
+            final ResourceException e = new NotSupportedException("Read operations are not supported");
+            return e.asPromise();
+        }
+        final int top;
+        try {
+            top = request.getAdditionalParameter(PARAM_TOP) != null
+                    ? Integer.parseInt(request.getAdditionalParameter(PARAM_TOP))
+                    : DEFAULT_TOP;
+        } catch (NumberFormatException e) {
+            return new BadRequestException("The parameter " + PARAM_TOP + " is not a number").asPromise();
+        }
+        return newResourceResponse(PROFILE, null, json(object(
+                field("enabled", profilerEnabled),
+                field("warmUp", warmUpStatistics.getObject()),
+                field("hotScripts", profiler.getHotScriptStatistics(top).getObject()),
+                field("scripts", profiler.getStatistics().getObject())))).asPromise();
     }
 
     public Promise<ResourceResponse, ResourceException> handleCreate(final Context context, final CreateRequest request) {
@@ -0,0 +1,279 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.script.impl;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.openidm.util.ContextUtil;
+import org.forgerock.openidm.util.JsonUtil;
+import org.forgerock.script.Script;
+import org.forgerock.script.ScriptEntry;
+import org.forgerock.script.ScriptRegistry;
+import org.forgerock.script.source.SourceUnit;
+import org.forgerock.services.context.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles the scripts referenced by the configuration ahead of their first use, so that the first requests after a
+ * start do not pay for compiling every script they touch.
+ * <p>
+ * Scripts are discovered by walking the configuration files of the project for script objects, that is objects with
+ * a {@code type} and a {@code file} or {@code source}, and are compiled in parallel on a fork-join pool. Scripts may
+ * also be registered in the {@value #CONFIG_WARM_UP} configuration of the script service with {@code bindings} to be
+ * evaluated with, which warms up the code paths the compiler cannot reach on its own.
+ * <p>
+ * The warm-up is disabled unless {@code enabled} is set. As the node is not reported ready until the warm-up
+ * completes, it gives up after {@code timeoutSeconds}, 30 by default.
+ */
+class ScriptWarmUp {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScriptWarmUp.class);
+
+    /** The warm-up key in the script service configuration. */
+    static final String CONFIG_WARM_UP = "warmUp";
+
+    private static final String CONFIG_ENABLED = "enabled";
+    private static final String CONFIG_PARALLELISM = "parallelism";
+    private static final String CONFIG_TIMEOUT = "timeoutSeconds";
+    private static final String CONFIG_SCRIPTS = "scripts";
+    private static final String CONFIG_BINDINGS = "bindings";
+
+    private static final String SCRIPT_FILE = "file";
+    private static final long DEFAULT_TIMEOUT = 30;
+
+    private final ScriptRegistry scriptRegistry;
+    private final int parallelism;
+    private final long timeout;
+
+    private final AtomicInteger compiled = new AtomicInteger();
+    private final AtomicInteger evaluated = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    /**
+     * Constructs a script warm-up.
+     *
+     * @param scriptRegistry the registry to take the scripts from
+     * @param parallelism the number of scripts compiled in parallel
+     * @param timeout the maximum time to wait for the warm-up to complete, in seconds
+     */
+    ScriptWarmUp(ScriptRegistry scriptRegistry, int parallelism, long timeout) {
+        this.scriptRegistry = scriptRegistry;
+        this.parallelism = parallelism;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Creates a script warm-up from the script service configuration.
+     *
+     * @param scriptRegistry the registry to take the scripts from
+     * @param config the {@value #CONFIG_WARM_UP} configuration
+     * @return the script warm-up, or {@code null} if it is not enabled, which is the default
+     */
+    static ScriptWarmUp fromConfig(ScriptRegistry scriptRegistry, JsonValue config) {
+        if (!config.get(CONFIG_ENABLED).defaultTo(false).asBoolean()) {
+            return null;
+        }
+        return new ScriptWarmUp(scriptRegistry,
+                config.get(CONFIG_PARALLELISM).defaultTo(Runtime.getRuntime().availableProcessors()).asInteger(),
+                config.get(CONFIG_TIMEOUT).defaultTo(DEFAULT_TIMEOUT).asLong());
+    }
+
+    /**
+     * Returns the script objects found in the configuration files of a directory, without duplicates.
+     *
+     * @param configDirectory the configuration directory, e.g. the conf directory of the project
+     * @return the script objects
+     */
+    static List<JsonValue> discoverScripts(File configDirectory) {
+        final Map<String, JsonValue> scripts = new LinkedHashMap<>();
+        final File[] files = configDirectory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.isFile() && file.getName().endsWith(".json");
+            }
+        });
+        if (files != null) {
+            Arrays.sort(files);
+            for (File file : files) {
+                try {
+                    discoverScripts(JsonUtil.parseURL(file.toURI().toURL()), scripts);
+                } catch (Exception e) {
+                    logger.debug("Skipping {} for script warm-up", file, e);
+                }
+            }
+        }
+        return new ArrayList<>(scripts.values());
+    }
+
+    /**
+     * Returns the script objects found in a configuration, without duplicates.
+     *
+     * @param config the configuration
+     * @return the script objects
+     */
+    static List<JsonValue> discoverScripts(JsonValue config) {
+        final Map<String, JsonValue> scripts = new LinkedHashMap<>();
+        discoverScripts(config, scripts);
+        return new ArrayList<>(scripts.values());
+    }
+
+    private static void discoverScripts(JsonValue value, Map<String, JsonValue> scripts) {
+        if (value.isMap()) {
+            final String key = scriptKey(value);
+            if (key != null) {
+                if (!scripts.containsKey(key)) {
+                    scripts.put(key, value);
+                }
+                return;
+            }
+            for (String name : value.keys()) {
+                discoverScripts(value.get(name), scripts);
+            }
+        } else if (value.isList()) {
+            for (JsonValue item : value) {
+                discoverScripts(item, scripts);
+            }
+        }
+    }
+
+    private static String scriptKey(JsonValue value) {
+        final JsonValue type = value.get(SourceUnit.ATTR_TYPE);
+        if (!type.isString()) {
+            return null;
+        }
+        final JsonValue file = value.get(SCRIPT_FILE);
+        final JsonValue source = value.get(SourceUnit.ATTR_SOURCE);
+        if (file.isString()) {
+            return type.asString() + ":file:" + file.asString();
+        } else if (source.isString()) {
+            return type.asString() + ":source:" + source.asString();
+        }
+        return null;
+    }
+
+    /**
+     * Compiles the scripts and evaluates the registered scripts with their bindings, waiting for all of them to
+     * complete or for the timeout to expire.
+     *
+     * @param scripts the script objects to compile
+     * @param registered the script objects to evaluate with their {@code bindings}
+     * @return the warm-up statistics
+     */
+    JsonValue warmUp(List<JsonValue> scripts, List<JsonValue> registered) {
+        final long start = System.nanoTime();
+        final Context context = ContextUtil.createInternalContext();
+        final List<Callable<Void>> tasks = new ArrayList<>(scripts.size() + registered.size());
+        for (final JsonValue script : scripts) {
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    warmUp(context, script, null);
+                    return null;
+                }
+            });
+        }
+        for (final JsonValue script : registered) {
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    warmUp(context, script, script.get(CONFIG_BINDINGS));
+                    return null;
+                }
+            });
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        boolean completed = false;
+        try {
+            for (Callable<Void> task : tasks) {
+                pool.submit(task);
+            }
+            pool.shutdown();
+            completed = pool.awaitTermination(timeout, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        final JsonValue statistics = json(object(
+                field("scripts", tasks.size()),
+                field("compiled", compiled.get()),
+                field("evaluated", evaluated.get()),
+                field("failed", failed.get()),
+                field("completed", completed),
+                field("durationMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))));
+        logger.info("Script warm-up {}: {}", completed ? "completed" : "timed out", statistics);
+        return statistics;
+    }
+
+    private void warmUp(Context context, JsonValue script, JsonValue bindings) {
+        final JsonValue config = script.clone();
+        config.remove(CONFIG_BINDINGS);
+        try {
+            final ScriptEntry scriptEntry = scriptRegistry.takeScript(config);
+            if (scriptEntry == null || !scriptEntry.isActive()) {
+                logger.debug("Script {} is not available for warm-up", config);
+                failed.incrementAndGet();
+                return;
+            }
+            final Script compiledScript = scriptEntry.getScript(context);
+            compiled.incrementAndGet();
+            if (bindings != null && bindings.isMap()) {
+                for (String name : bindings.keys()) {
+                    compiledScript.put(name, bindings.get(name).getObject());
+                }
+                compiledScript.eval();
+                evaluated.incrementAndGet();
+            }
+        } catch (Exception e) {
+            logger.debug("Failed to warm up script {}", config, e);
+            failed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the script objects registered in the warm-up configuration.
+     *
+     * @param config the {@value #CONFIG_WARM_UP} configuration
+     * @return the registered script objects
+     */
+    static List<JsonValue> registeredScripts(JsonValue config) {
+        final List<JsonValue> scripts = new ArrayList<>();
+        if (config.get(CONFIG_SCRIPTS).isList()) {
+            for (JsonValue script : config.get(CONFIG_SCRIPTS)) {
+                scripts.add(script);
+            }
+        }
+        return scripts;
+    }
+}
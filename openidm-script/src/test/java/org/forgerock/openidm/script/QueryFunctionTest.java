@@ -0,0 +1,120 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.script;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Router.uriTemplate;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ConnectionFactory;
+import org.forgerock.json.resource.MemoryBackend;
+import org.forgerock.json.resource.Requests;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.Resources;
+import org.forgerock.json.resource.Router;
+import org.forgerock.script.scope.Function;
+import org.forgerock.script.scope.Parameter;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the streaming of the query function results to a callback.
+ */
+public class QueryFunctionTest {
+
+    private static final int USER_COUNT = 25;
+
+    private Function<JsonValue> queryFunction;
+    private Parameter scope;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        final Router router = new Router();
+        router.addRoute(uriTemplate("/Users"), new MemoryBackend());
+        final ConnectionFactory connectionFactory = Resources.newInternalConnectionFactory(router);
+        for (int i = 0; i < USER_COUNT; i++) {
+            connectionFactory.getConnection().create(new RootContext(),
+                    Requests.newCreateRequest("/Users", "user" + i, json(object(field("index", i)))));
+        }
+        queryFunction = ResourceFunctions.newQueryFunction(connectionFactory);
+        scope = mock(Parameter.class);
+        when(scope.getContext(any(Context.class))).thenReturn(new RootContext());
+    }
+
+    @Test
+    public void testCallbackIsHandedAllPages() throws Exception {
+        final RecordingCallback callback = new RecordingCallback(-1);
+
+        JsonValue result = queryFunction.call(scope, callback, "Users",
+                json(object(field("_queryFilter", "true"), field("_pageSize", 10), field("_pageAll", true))));
+
+        assertThat(callback.ids).hasSize(USER_COUNT);
+        assertThat(result.isDefined("result")).isFalse();
+    }
+
+    @Test
+    public void testCallbackIsHandedFirstPageOnly() throws Exception {
+        final RecordingCallback callback = new RecordingCallback(-1);
+
+        queryFunction.call(scope, callback, "Users",
+                json(object(field("_queryFilter", "true"), field("_pageSize", 10))));
+
+        assertThat(callback.ids).hasSize(10);
+    }
+
+    @Test
+    public void testCallbackStopsQuery() throws Exception {
+        final RecordingCallback callback = new RecordingCallback(3);
+
+        queryFunction.call(scope, callback, "Users",
+                json(object(field("_queryFilter", "true"), field("_pageSize", 10), field("_pageAll", true))));
+
+        assertThat(callback.ids).hasSize(3);
+    }
+
+    /**
+     * Records the ids of the resources it is handed, and returns {@code false} once it has been handed the given
+     * number of resources.
+     */
+    private static final class RecordingCallback implements Function<Object> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> ids = new ArrayList<>();
+        private final int limit;
+
+        private RecordingCallback(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public Object call(Parameter scope, Function<?> callback, Object... arguments)
+                throws ResourceException, NoSuchMethodException {
+            ids.add(((JsonValue) arguments[0]).get("_id").asString());
+            return ids.size() != limit;
+        }
+    }
+}
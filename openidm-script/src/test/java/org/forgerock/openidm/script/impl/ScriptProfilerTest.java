@@ -0,0 +1,105 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.script.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import javax.script.ScriptException;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.script.Script;
+import org.forgerock.script.ScriptEntry;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link ScriptProfiler}.
+ */
+public class ScriptProfilerTest {
+
+    private ScriptProfiler profiler;
+
+    @BeforeMethod
+    public void setUp() {
+        profiler = new ScriptProfiler();
+    }
+
+    @Test
+    public void testEvaluationsAreRecorded() throws Exception {
+        ScriptEntry fast = profiler.profile(scriptEntry(0), "fast.js");
+        ScriptEntry slow = profiler.profile(scriptEntry(5), "slow.groovy");
+
+        fast.getScript(new RootContext()).eval();
+        fast.getScript(new RootContext()).eval();
+        slow.getScript(new RootContext()).eval();
+
+        JsonValue hotScripts = profiler.getHotScriptStatistics(1);
+        assertThat(hotScripts.size()).isEqualTo(1);
+        assertThat(hotScripts.get(0).get("name").asString()).isEqualTo("slow.groovy");
+        assertThat(hotScripts.get(0).get("invocations").asLong()).isEqualTo(1L);
+        assertThat(hotScripts.get(0).get("p99Time").asDouble()).isGreaterThanOrEqualTo(4.0);
+
+        JsonValue scripts = profiler.getStatistics();
+        assertThat(scripts.get(0).get("name").asString()).isEqualTo("fast.js");
+        assertThat(scripts.get(0).get("invocations").asLong()).isEqualTo(2L);
+        assertThat(scripts.get(0).get("bindingsCount").asLong()).isEqualTo(2L);
+        assertThat(fast.isActive()).isTrue();
+    }
+
+    @Test
+    public void testFailuresAreRecordedAndRethrown() throws Exception {
+        ScriptEntry entry = mock(ScriptEntry.class);
+        Script script = mock(Script.class);
+        when(entry.getScript(any(Context.class))).thenReturn(script);
+        when(script.eval()).thenThrow(new ScriptException("failure"));
+
+        try {
+            profiler.profile(entry, "failing.js").getScript(new RootContext()).eval();
+            fail("The script exception should have been rethrown");
+        } catch (ScriptException e) {
+            assertThat(e.getMessage()).contains("failure");
+        }
+
+        assertThat(profiler.getStatistics().get(0).get("failures").asLong()).isEqualTo(1L);
+
+        profiler.resetStatistics();
+        assertThat(profiler.getStatistics().get(0).get("failures").asLong()).isEqualTo(0L);
+        assertThat(profiler.getHotScripts(10)).isEmpty();
+    }
+
+    private static ScriptEntry scriptEntry(final long evalMillis) throws Exception {
+        ScriptEntry entry = mock(ScriptEntry.class);
+        Script script = mock(Script.class);
+        when(entry.isActive()).thenReturn(true);
+        when(entry.getScript(any(Context.class))).thenReturn(script);
+        when(script.eval()).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Exception {
+                Thread.sleep(evalMillis);
+                return null;
+            }
+        });
+        return entry;
+    }
+}
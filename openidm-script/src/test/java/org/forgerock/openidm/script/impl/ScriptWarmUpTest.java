@@ -0,0 +1,100 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.script.impl;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.script.engine.ScriptEngineFactory;
+import org.forgerock.script.javascript.RhinoScriptEngineFactory;
+import org.forgerock.script.registry.ScriptRegistryImpl;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link ScriptWarmUp}.
+ */
+public class ScriptWarmUpTest {
+
+    private static final String TYPE = RhinoScriptEngineFactory.LANGUAGE_NAME;
+
+    private ScriptRegistryImpl scriptRegistry;
+
+    @BeforeMethod
+    public void setUp() {
+        Map<String, Object> configuration = new HashMap<>();
+        configuration.put(TYPE, new HashMap<String, Object>());
+        scriptRegistry = new ScriptRegistryImpl(configuration,
+                Collections.<ScriptEngineFactory>singleton(new RhinoScriptEngineFactory()), null, null);
+    }
+
+    @Test
+    public void shouldDiscoverScriptsWithoutDuplicates() {
+        JsonValue config = json(object(
+                field("onCreate", object(field("type", TYPE), field("file", "script/onCreate.js"))),
+                field("mappings", array(
+                        object(
+                                field("name", "systemLdap_managedUser"),
+                                field("validSource", object(field("type", TYPE), field("source", "true;"))),
+                                field("onLink", object(field("type", TYPE), field("file", "script/onCreate.js")))),
+                        object(
+                                field("type", "not a script"))))));
+
+        List<JsonValue> scripts = ScriptWarmUp.discoverScripts(config);
+
+        assertThat(scripts).hasSize(2);
+        assertThat(scripts.get(0).get("file").asString()).isEqualTo("script/onCreate.js");
+        assertThat(scripts.get(1).get("source").asString()).isEqualTo("true;");
+    }
+
+    @Test
+    public void shouldCompileAndEvaluateScripts() {
+        ScriptWarmUp scriptWarmUp = new ScriptWarmUp(scriptRegistry, 2, 60);
+        List<JsonValue> scripts = asList(
+                json(object(field("type", TYPE), field("source", "var a = 1; a;"))),
+                json(object(field("type", TYPE), field("source", "var b = 2; b;"))));
+        List<JsonValue> registered = ScriptWarmUp.registeredScripts(json(object(
+                field("scripts", array(object(
+                        field("type", TYPE),
+                        field("source", "content.key + 'xformed';"),
+                        field("bindings", object(field("content", object(field("key", "value")))))))))));
+
+        JsonValue statistics = scriptWarmUp.warmUp(scripts, registered);
+
+        assertThat(statistics.get("completed").asBoolean()).isTrue();
+        assertThat(statistics.get("scripts").asInteger()).isEqualTo(3);
+        assertThat(statistics.get("compiled").asInteger()).isEqualTo(3);
+        assertThat(statistics.get("evaluated").asInteger()).isEqualTo(1);
+        assertThat(statistics.get("failed").asInteger()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotBeCreatedWhenDisabled() {
+        assertThat(ScriptWarmUp.fromConfig(scriptRegistry, json(object(field("enabled", false))))).isNull();
+        assertThat(ScriptWarmUp.fromConfig(scriptRegistry, json(null))).isNull();
+        assertThat(ScriptWarmUp.fromConfig(scriptRegistry, json(object(field("enabled", true))))).isNotNull();
+    }
+}
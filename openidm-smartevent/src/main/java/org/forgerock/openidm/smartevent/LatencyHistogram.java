@@ -0,0 +1,164 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.smartevent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe, lock-free histogram of time-durations, in the manner of HdrHistogram, which records
+ * {@link #count() count}, {@link #sum() sum} and {@link #max() max} values and approximate
+ * {@link #valueAtPercentile(double) percentiles} with a fixed memory footprint.
+ * <p>
+ * Durations are recorded with microsecond resolution in log-linear buckets: each power of two is divided into
+ * {@value #SUB_BUCKET_COUNT} buckets, which bounds the error of a percentile to about 3%. Durations longer than
+ * about 19 hours are recorded in the last bucket.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /** The highest recorded duration is 2^HIGHEST_BIT microseconds */
+    private static final int HIGHEST_BIT = 36;
+    private static final int BUCKET_COUNT = (HIGHEST_BIT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+    private static final long HIGHEST_VALUE = (1L << HIGHEST_BIT) - 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a time-duration.
+     *
+     * @param durationNanos the duration, in nanoseconds
+     */
+    public void record(final long durationNanos) {
+        final long duration = Math.max(0, durationNanos);
+        buckets.incrementAndGet(bucketIndex(Math.min(TimeUnit.NANOSECONDS.toMicros(duration), HIGHEST_VALUE)));
+        count.incrementAndGet();
+        sum.addAndGet(duration);
+        while (true) {
+            final long current = max.get();
+            if (current >= duration || max.compareAndSet(current, duration)) {
+                break;
+            }
+            // need to try-again, because max was updated by another thread
+        }
+    }
+
+    /**
+     * Records the time-duration since a start-time obtained from {@link System#nanoTime()}.
+     *
+     * @param startNanoTime start-time, in nanoseconds
+     */
+    public void recordSince(final long startNanoTime) {
+        record(System.nanoTime() - startNanoTime);
+    }
+
+    /**
+     * Get number of recorded time-durations.
+     *
+     * @return number of data points recorded
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * Get aggregate summation of time-durations, in nanoseconds.
+     *
+     * @return summation of time-durations, in nanoseconds
+     */
+    public long sum() {
+        return sum.get();
+    }
+
+    /**
+     * Get maximum time-duration, in nanoseconds.
+     *
+     * @return max time-duration, in nanoseconds
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Get average time-duration, in nanoseconds.
+     *
+     * @return average time-duration, in nanoseconds
+     */
+    public long mean() {
+        final long n = count.get();
+        return n > 0 ? sum.get() / n : 0;
+    }
+
+    /**
+     * Get the approximate time-duration below which the given percentage of the durations fall.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the upper bound of the bucket holding the percentile, in nanoseconds, at most the {@link #max() max}
+     */
+    public long valueAtPercentile(final double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += buckets.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(TimeUnit.MICROSECONDS.toNanos(bucketUpperBound(i)), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Clears the recorded time-durations. Durations recorded concurrently may be partially cleared.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    static int bucketIndex(final long value) {
+        if (value < 2 * SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) ((value >> shift) - SUB_BUCKET_COUNT);
+    }
+
+    static long bucketUpperBound(final int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKET_COUNT - 1;
+        final long lowerBound = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
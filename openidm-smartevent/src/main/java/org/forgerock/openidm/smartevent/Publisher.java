@@ -2,6 +2,7 @@
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
  *
  * Copyright (c) 2013 ForgeRock AS. All Rights Reserved
+ * Portions Copyright 2026 Wren Security.
  *
  * The contents of this file are subject to the terms
  * of the Common Development and Distribution License
@@ -41,6 +42,9 @@ public class Publisher {
      * at the very least the EventEntry should be unreferenced so it gets
      * garbage collected. Event entries where end() was not called do not
      * qualify for inclusion in statistics and may not be in the event history.
+     * <p>
+     * If the current thread is tracing a request, the event is also timed as a
+     * child span of the current {@link Span}, see {@link Tracer}.
      * 
      * @param eventName
      *            the object representing the hierarchical event name and its
@@ -53,7 +57,12 @@ public class Publisher {
      *            (and monitoring) can act upon it
      */
     public final static EventEntry start(Name eventName, Object payload, Object context) {
-        return eventName.publisherImpl.start(eventName, payload, context);
+        final EventEntry entry = eventName.publisherImpl.start(eventName, payload, context);
+        final Span parent = Tracer.currentSpan();
+        if (parent == null) {
+            return entry;
+        }
+        return new TracedEventEntry(entry, Tracer.startSpan(parent, eventName.asString()));
     }
 
     // TDOO: support sending of events without start/end relationship
@@ -0,0 +1,171 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.smartevent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A timed span of the work done for a traced request, e.g. a router request, a script or a connector operation.
+ * Spans form a tree: the root span is the request which started the trace, and each span records the spans started
+ * while it was the {@link Tracer#currentSpan() current span}.
+ * <p>
+ * A span is started and ended through the {@link Tracer}.
+ */
+public final class Span {
+
+    private final String traceId;
+    private final String spanId;
+    private final Span parent;
+    private final Span root;
+    private final String name;
+    private final long startTime;
+    private final long startNanos;
+    private final List<Span> children;
+    /** The number of spans of the trace and of those not recorded in the tree, counted by the root span */
+    private final AtomicInteger spanCount;
+    private final AtomicInteger droppedSpanCount;
+    private volatile long durationNanos = -1;
+
+    Span(String traceId, String spanId, Span parent, String name) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parent = parent;
+        this.root = parent != null ? parent.root : this;
+        this.name = name;
+        this.startTime = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+        this.children = Collections.synchronizedList(new ArrayList<Span>());
+        this.spanCount = parent != null ? null : new AtomicInteger(1);
+        this.droppedSpanCount = parent != null ? null : new AtomicInteger();
+    }
+
+    /**
+     * Returns the id of the trace, which is the transaction id of the request which started it.
+     *
+     * @return the id of the trace
+     */
+    public String getTraceId() {
+        return traceId;
+    }
+
+    /**
+     * Returns the id of this span, unique within its trace.
+     *
+     * @return the id of this span
+     */
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * Returns the id of the parent span.
+     *
+     * @return the id of the parent span, or {@code null} for the root span of the trace
+     */
+    public String getParentId() {
+        return parent != null ? parent.spanId : null;
+    }
+
+    /**
+     * Returns the name of this span.
+     *
+     * @return the name of this span
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the duration of this span.
+     *
+     * @return the duration of this span in nanoseconds, or -1 if it has not ended
+     */
+    public long getDuration() {
+        return durationNanos;
+    }
+
+    Span getParent() {
+        return parent;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    boolean isRoot() {
+        return parent == null;
+    }
+
+    /**
+     * Records a child of this span in the tree of the trace, unless the trace already has its maximum number of spans.
+     *
+     * @param child the child span
+     * @param maxSpans the maximum number of spans of a trace
+     */
+    void addChild(Span child, int maxSpans) {
+        if (root.spanCount.incrementAndGet() <= maxSpans) {
+            children.add(child);
+        } else {
+            root.droppedSpanCount.incrementAndGet();
+        }
+    }
+
+    void end() {
+        durationNanos = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Returns this span and its children as a tree of maps, with the times in milliseconds. The start of each span
+     * is relative to the start of the root span.
+     *
+     * @param rootStartNanos the start of the root span, from {@link System#nanoTime()}
+     * @return this span as a map
+     */
+    Map<String, Object> toMap(long rootStartNanos) {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        map.put("spanId", spanId);
+        map.put("parentId", getParentId());
+        map.put("name", name);
+        if (isRoot()) {
+            map.put("traceId", traceId);
+            map.put("startTime", startTime);
+            map.put("droppedSpans", droppedSpanCount.get());
+        } else {
+            map.put("offset", nanosToMillis(startNanos - rootStartNanos));
+        }
+        final long duration = durationNanos;
+        map.put("duration", duration >= 0 ? nanosToMillis(duration) : null);
+        final List<Map<String, Object>> childMaps = new ArrayList<>();
+        synchronized (children) {
+            for (Span child : children) {
+                childMaps.add(child.toMap(rootStartNanos));
+            }
+        }
+        map.put("children", childMaps);
+        return map;
+    }
+
+    private static double nanosToMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.smartevent;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded in-memory buffer of the most recently completed traces, which evicts the oldest trace once it is full.
+ */
+public class TraceBuffer implements TraceBufferMBean {
+
+    private final static Logger logger = LoggerFactory.getLogger(TraceBuffer.class);
+
+    public final static String MBEAN_NAME = "OpenIDM:type=Traces";
+
+    private final int capacity;
+    private final int sampling;
+    private final Deque<Span> traces;
+
+    /**
+     * Constructs an empty buffer.
+     *
+     * @param capacity the number of traces kept
+     * @param sampling the sampling of the traced requests, for monitoring
+     */
+    TraceBuffer(int capacity, int sampling) {
+        this.capacity = capacity;
+        this.sampling = sampling;
+        this.traces = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Registers the buffer as an MBean, from the activation of the component which traces the requests.
+     */
+    public void register() {
+        final MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        try {
+            mbs.registerMBean(this, new ObjectName(MBEAN_NAME));
+        } catch (Exception ex) {
+            logger.info("Failed to register trace MBean", ex);
+        }
+    }
+
+    /**
+     * Unregisters the MBean of the buffer, from the deactivation of the component which traces the requests.
+     */
+    public void unregister() {
+        final MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(MBEAN_NAME);
+            if (mbs.isRegistered(name)) {
+                mbs.unregisterMBean(name);
+            }
+        } catch (Exception ex) {
+            logger.info("Failed to unregister trace MBean", ex);
+        }
+    }
+
+    /**
+     * Keeps a completed trace, evicting the oldest trace if the buffer is full.
+     *
+     * @param root the root span of the trace
+     */
+    synchronized void add(Span root) {
+        if (traces.size() >= capacity) {
+            traces.removeLast();
+        }
+        traces.addFirst(root);
+    }
+
+    @Override
+    public List<Map<String, Object>> getTraces() {
+        final List<Span> roots;
+        synchronized (this) {
+            roots = new ArrayList<>(traces);
+        }
+        final List<Map<String, Object>> result = new ArrayList<>(roots.size());
+        for (Span root : roots) {
+            result.add(root.toMap(root.getStartNanos()));
+        }
+        return result;
+    }
+
+    @Override
+    public int getSampling() {
+        return sampling;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public synchronized void reset() {
+        traces.clear();
+    }
+}
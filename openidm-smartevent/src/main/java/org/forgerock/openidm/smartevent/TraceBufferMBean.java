@@ -0,0 +1,49 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.smartevent;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provide JMX / MBean access to the traces of the sampled requests.
+ */
+public interface TraceBufferMBean {
+
+    /**
+     * Returns the completed traces, the most recent first. Each trace is the tree of its spans, with the transaction
+     * id of the request as trace id and the offsets and durations of the spans in milliseconds.
+     *
+     * @return the completed traces
+     */
+    List<Map<String, Object>> getTraces();
+
+    /**
+     * @return one request in this many is traced, none if 0
+     */
+    int getSampling();
+
+    /**
+     * @return the number of completed traces kept
+     */
+    int getCapacity();
+
+    /**
+     * Discards the completed traces.
+     */
+    void reset();
+}
@@ -0,0 +1,49 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.smartevent;
+
+/**
+ * Event entry of an event started while a trace is current, which times the event as a child span of the current
+ * span and makes it the current span until the event ends.
+ */
+final class TracedEventEntry implements EventEntry {
+
+    private final EventEntry entry;
+    private final Span span;
+    private final Span previous;
+
+    TracedEventEntry(EventEntry entry, Span span) {
+        this.entry = entry;
+        this.span = span;
+        this.previous = Tracer.activate(span);
+    }
+
+    @Override
+    public void end() {
+        Tracer.end(span);
+        // an event ended on another thread leaves the current span of that thread alone
+        if (Tracer.currentSpan() == span) {
+            Tracer.restore(previous);
+        }
+        entry.end();
+    }
+
+    @Override
+    public void setResult(Object result) {
+        entry.setResult(result);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.smartevent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Traces a sample of the requests as trees of timed {@link Span spans}.
+ * <p>
+ * The span being executed is held per thread: an event {@link Publisher#start(Name, Object, Object) started} while a
+ * span is current is timed as a child span, so that the scripts, repository and connector operations run by a traced
+ * request are nested under it. Traces started on one thread are carried over to another by the caller, e.g. through
+ * the request context, and {@link #activate(Span) activated} there.
+ * <p>
+ * The completed traces are kept in a bounded in-memory {@link TraceBuffer buffer}. Tracing is configured with system
+ * properties:
+ * <ul>
+ *     <li>openidm.smartevent.trace.sampling - trace one request in this many, none if 0 (the default)</li>
+ *     <li>openidm.smartevent.trace.buffersize - the number of completed traces kept, 100 by default</li>
+ *     <li>openidm.smartevent.trace.maxspans - the number of spans recorded per trace, 1000 by default</li>
+ * </ul>
+ */
+public final class Tracer {
+
+    private static final int SAMPLING = Math.max(0, Integer.getInteger("openidm.smartevent.trace.sampling", 0));
+
+    private static final int MAX_SPANS = Math.max(1, Integer.getInteger("openidm.smartevent.trace.maxspans", 1000));
+
+    private static final TraceBuffer BUFFER =
+            new TraceBuffer(Math.max(1, Integer.getInteger("openidm.smartevent.trace.buffersize", 100)), SAMPLING);
+
+    private static final ThreadLocal<Span> CURRENT_SPAN = new ThreadLocal<>();
+
+    private static final AtomicLong REQUEST_COUNT = new AtomicLong();
+
+    private static final AtomicLong SPAN_IDS = new AtomicLong();
+
+    private Tracer() {
+        // static utility
+    }
+
+    /**
+     * Decides whether a request which is not part of a trace yet starts one.
+     *
+     * @return true if the request is to be traced
+     */
+    public static boolean isSampled() {
+        return SAMPLING > 0 && REQUEST_COUNT.getAndIncrement() % SAMPLING == 0;
+    }
+
+    /**
+     * Starts a trace. The root span is not made current, see {@link #activate(Span)}.
+     *
+     * @param traceId the id of the trace, e.g. the transaction id of the request
+     * @param name the name of the root span
+     * @return the root span of the trace
+     */
+    public static Span startTrace(String traceId, String name) {
+        return new Span(traceId, nextSpanId(), null, name);
+    }
+
+    /**
+     * Starts a child span. The span is not made current, see {@link #activate(Span)}.
+     *
+     * @param parent the parent span
+     * @param name the name of the span
+     * @return the child span
+     */
+    public static Span startSpan(Span parent, String name) {
+        final Span span = new Span(parent.getTraceId(), nextSpanId(), parent, name);
+        parent.addChild(span, MAX_SPANS);
+        return span;
+    }
+
+    /**
+     * Ends a span. The trace is kept in the buffer once its root span has ended.
+     *
+     * @param span the span to end
+     */
+    public static void end(Span span) {
+        span.end();
+        if (span.isRoot()) {
+            BUFFER.add(span);
+        }
+    }
+
+    /**
+     * Returns the span being executed by the current thread.
+     *
+     * @return the current span, or {@code null} if the current thread is not tracing
+     */
+    public static Span currentSpan() {
+        return CURRENT_SPAN.get();
+    }
+
+    /**
+     * Makes a span the current span of the current thread.
+     *
+     * @param span the span to make current, or {@code null} to stop tracing on the current thread
+     * @return the previous current span, to {@link #restore(Span) restore} once the span is done on this thread
+     */
+    public static Span activate(Span span) {
+        final Span previous = CURRENT_SPAN.get();
+        CURRENT_SPAN.set(span);
+        return previous;
+    }
+
+    /**
+     * Restores the current span of the current thread, as it was before a span was {@link #activate(Span) activated}.
+     *
+     * @param previous the span returned by {@link #activate(Span)}
+     */
+    public static void restore(Span previous) {
+        if (previous != null) {
+            CURRENT_SPAN.set(previous);
+        } else {
+            CURRENT_SPAN.remove();
+        }
+    }
+
+    /**
+     * Returns the buffer of the completed traces.
+     *
+     * @return the trace buffer
+     */
+    public static TraceBuffer getTraceBuffer() {
+        return BUFFER;
+    }
+
+    private static String nextSpanId() {
+        return Long.toHexString(SPAN_IDS.incrementAndGet());
+    }
+}
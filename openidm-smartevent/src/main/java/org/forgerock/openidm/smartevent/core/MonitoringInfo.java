@@ -12,30 +12,65 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright © 2012 ForgeRock AS. All rights reserved.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openidm.smartevent.core;
 
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.openidm.smartevent.LatencyHistogram;
+
 /**
  * Holds monitoring and statistics info
  * 
  */
 public class MonitoringInfo {
 
-    public long totalInvokes;
-    public long totalTime;
+    /**
+     * Counted by the single event consumer, read and reset from the JMX threads
+     */
+    public final AtomicLong totalInvokes = new AtomicLong();
+    public final AtomicLong totalTime = new AtomicLong();
+
+    /**
+     * Sampled event durations, for the percentiles
+     */
+    public final LatencyHistogram histogram = new LatencyHistogram();
+
+    /**
+     * Records the duration of an event
+     *
+     * @param duration the duration of the event, in nanoseconds
+     * @param sampling the histogram records one event in {@code sampling} events, none if 0
+     */
+    void record(long duration, int sampling) {
+        totalTime.addAndGet(duration);
+        long invokes = totalInvokes.incrementAndGet();
+        if (sampling > 0 && invokes % sampling == 0) {
+            histogram.record(duration);
+        }
+    }
 
     /**
      * Reset the statistics
      */
     public void reset() {
-        totalInvokes = 0;
-        totalTime = 0;
+        totalInvokes.set(0);
+        totalTime.set(0);
+        histogram.reset();
     }
 
     public String toString() {
-        return "Invocations: " + totalInvokes + " total time: "
-                + StatisticsHandler.formatNsAsMs(totalTime) + " mean: "
-                + StatisticsHandler.formatNsAsMs(totalInvokes > 0 ? totalTime / totalInvokes : -1);
+        long invokes = totalInvokes.get();
+        long time = totalTime.get();
+        return "Invocations: " + invokes + " total time: "
+                + StatisticsHandler.formatNsAsMs(time) + " mean: "
+                + StatisticsHandler.formatNsAsMs(invokes > 0 ? time / invokes : -1)
+                + (histogram.count() > 0
+                        ? " p50: " + StatisticsHandler.formatNsAsMs(histogram.valueAtPercentile(50))
+                                + " p99: " + StatisticsHandler.formatNsAsMs(histogram.valueAtPercentile(99))
+                                + " max: " + StatisticsHandler.formatNsAsMs(histogram.max())
+                        : "");
     }
 }
@@ -14,16 +14,17 @@
  * "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright © 2012 ForgeRock AS. All rights reserved.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 package org.forgerock.openidm.smartevent.core;
 
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -51,6 +52,8 @@ public class StatisticsHandler implements EventHandler<DisruptorReferringEventEn
 
     final static NumberFormat MILLISEC_FORMAT = new DecimalFormat("###,###,##0.### ms");
 
+    final static double[] PROMETHEUS_QUANTILES = { 0.5, 0.9, 0.95, 0.99, 0.999 };
+
     /**
      * Access to the ring buffer for monitoring/history display purposes
      */
@@ -59,7 +62,13 @@ public class StatisticsHandler implements EventHandler<DisruptorReferringEventEn
     /**
      * Keep track of monitoring data per event Name
      */
-    public Map<String, MonitoringInfo> map = new HashMap<>();
+    public Map<String, MonitoringInfo> map = new ConcurrentHashMap<>();
+
+    /**
+     * The latency histograms record one event in this many events of a Name, none if 0
+     */
+    private final int histogramSampling =
+            Math.max(0, Integer.getInteger("openidm.smartevent.histogram.sampling", 1));
 
     // Regular statistics logging option
     private ScheduledExecutorService logScheduler;
@@ -235,13 +244,7 @@ public class StatisticsHandler implements EventHandler<DisruptorReferringEventEn
          * += diff; ++info.totalInvokes;
          */
 
-        MonitoringInfo entry = map.get(eventEntry.eventName.asString());
-        if (entry == null) {
-            entry = new MonitoringInfo();
-            map.put(eventEntry.eventName.asString(), entry);
-        }
-        entry.totalTime += diff;
-        entry.totalInvokes++;
+        record(eventEntry.eventName, diff);
     }
 
     // TODO: more research on latency of batched end time option
@@ -274,13 +277,7 @@ public class StatisticsHandler implements EventHandler<DisruptorReferringEventEn
         EventEntryImpl eventEntry = (EventEntryImpl) eventEntryParam;
         long diff = eventEntry.endTime - eventEntry.startTime;
 
-        MonitoringInfo entry = map.get(eventEntry.eventName.asString());
-        if (entry == null) {
-            entry = new MonitoringInfo();
-            map.put(eventEntry.eventName.asString(), entry);
-        }
-        entry.totalTime += diff;
-        entry.totalInvokes++;
+        record(eventEntry.eventName, diff);
         if (endOfBatch) {
             newBatch = true;
         } else {
@@ -288,6 +285,66 @@ public class StatisticsHandler implements EventHandler<DisruptorReferringEventEn
         }
     }
 
+    /**
+     * Records the duration of an event of a Name, from the single consumer of the events
+     */
+    private void record(Name eventName, long diff) {
+        MonitoringInfo entry = map.get(eventName.asString());
+        if (entry == null) {
+            entry = new MonitoringInfo();
+            map.put(eventName.asString(), entry);
+        }
+        entry.record(diff, histogramSampling);
+    }
+
+    public String getPrometheusMetrics() {
+        StringBuilder metrics = new StringBuilder();
+        Map<String, MonitoringInfo> sorted = new TreeMap<>(map);
+        metrics.append("# HELP openidm_smartevent_duration_seconds Duration of the smartevent events\n");
+        metrics.append("# TYPE openidm_smartevent_duration_seconds summary\n");
+        for (Map.Entry<String, MonitoringInfo> entry : sorted.entrySet()) {
+            String label = "event=\"" + escapeLabelValue(entry.getKey()) + "\"";
+            MonitoringInfo info = entry.getValue();
+            if (info.histogram.count() > 0) {
+                for (double quantile : PROMETHEUS_QUANTILES) {
+                    metrics.append("openidm_smartevent_duration_seconds{").append(label)
+                            .append(",quantile=\"").append(quantile).append("\"} ")
+                            .append(formatNsAsSeconds(info.histogram.valueAtPercentile(quantile * 100)))
+                            .append('\n');
+                }
+            }
+            metrics.append("openidm_smartevent_duration_seconds_sum{").append(label).append("} ")
+                    .append(formatNsAsSeconds(info.totalTime.get())).append('\n');
+            metrics.append("openidm_smartevent_duration_seconds_count{").append(label).append("} ")
+                    .append(info.totalInvokes.get()).append('\n');
+        }
+        metrics.append("# HELP openidm_smartevent_duration_max_seconds Longest sampled duration of the smartevent "
+                + "events\n");
+        metrics.append("# TYPE openidm_smartevent_duration_max_seconds gauge\n");
+        for (Map.Entry<String, MonitoringInfo> entry : sorted.entrySet()) {
+            if (entry.getValue().histogram.count() > 0) {
+                metrics.append("openidm_smartevent_duration_max_seconds{event=\"")
+                        .append(escapeLabelValue(entry.getKey())).append("\"} ")
+                        .append(formatNsAsSeconds(entry.getValue().histogram.max())).append('\n');
+            }
+        }
+        return metrics.toString();
+    }
+
+    /**
+     * Escapes a label value of the Prometheus text format
+     */
+    static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Helper to format nanoseconds as seconds, as Prometheus expects
+     */
+    static String formatNsAsSeconds(long nanoseconds) {
+        return String.format(Locale.ROOT, "%.9f", nanoseconds / 1000000000d);
+    }
+
     /**
      * Helper to format nanosecond difference in human readable ms if a negative
      * value is passed, returns "N/A"
@@ -12,6 +12,7 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright © 2012 ForgeRock AS. All rights reserved.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openidm.smartevent.core;
@@ -32,6 +33,13 @@ public interface StatisticsHandlerMBean {
      */
     Map<String, String> getTotals();
 
+    /**
+     * @return The statistics in the Prometheus text exposition format: the
+     *         count, the total and the sampled percentiles of the durations
+     *         of the events, labelled with the event name
+     */
+    String getPrometheusMetrics();
+
     /**
      * @return the recent history of events, mapping from start time to the
      *         event detail
@@ -0,0 +1,64 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.smartevent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.count()).isEqualTo(0);
+        assertThat(histogram.sum()).isEqualTo(0);
+        assertThat(histogram.max()).isEqualTo(0);
+        assertThat(histogram.mean()).isEqualTo(0);
+        assertThat(histogram.valueAtPercentile(99)).isEqualTo(0);
+    }
+
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+
+        assertThat(histogram.count()).isEqualTo(1000);
+        assertThat(histogram.max()).isEqualTo(TimeUnit.MICROSECONDS.toNanos(1000));
+        assertThat((double) histogram.valueAtPercentile(50)).isCloseTo(500000, within(500000 * 0.04));
+        assertThat((double) histogram.valueAtPercentile(99)).isCloseTo(990000, within(990000 * 0.04));
+        assertThat(histogram.valueAtPercentile(100)).isEqualTo(histogram.max());
+
+        histogram.reset();
+        assertThat(histogram.count()).isEqualTo(0);
+        assertThat(histogram.valueAtPercentile(50)).isEqualTo(0);
+    }
+
+    @Test
+    public void testBucketsAreContiguous() {
+        for (int i = 1; i < 1000; i++) {
+            assertThat(LatencyHistogram.bucketIndex(LatencyHistogram.bucketUpperBound(i - 1) + 1)).isEqualTo(i);
+        }
+        assertThat(LatencyHistogram.bucketIndex((1L << 36) - 1)).isEqualTo(1023);
+    }
+}
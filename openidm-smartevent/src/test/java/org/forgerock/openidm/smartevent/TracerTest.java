@@ -0,0 +1,113 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.smartevent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the span trees of the {@link Tracer}.
+ */
+public class TracerTest {
+
+    private static final Name EVENT_SCRIPT = Name.get("openidm/test/trace/script");
+    private static final Name EVENT_REPO = Name.get("openidm/test/trace/repo");
+
+    @BeforeMethod
+    public void setUp() {
+        Tracer.getTraceBuffer().reset();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        Tracer.restore(null);
+    }
+
+    @Test
+    public void testEventsAreNestedUnderCurrentSpan() {
+        final Span root = Tracer.startTrace("txn-1", "update managed/user/bjensen");
+        final Span previous = Tracer.activate(root);
+        final EventEntry script = Publisher.start(EVENT_SCRIPT, null, null);
+        final Span scriptSpan = Tracer.currentSpan();
+        final EventEntry repo = Publisher.start(EVENT_REPO, null, null);
+        assertThat(Tracer.currentSpan().getParentId()).isEqualTo(scriptSpan.getSpanId());
+        repo.end();
+        assertThat(Tracer.currentSpan()).isSameAs(scriptSpan);
+        script.end();
+        assertThat(Tracer.currentSpan()).isSameAs(root);
+        Tracer.restore(previous);
+        Tracer.end(root);
+
+        final List<Map<String, Object>> traces = Tracer.getTraceBuffer().getTraces();
+        assertThat(traces).hasSize(1);
+        final Map<String, Object> trace = traces.get(0);
+        assertThat(trace.get("traceId")).isEqualTo("txn-1");
+        assertThat(trace.get("name")).isEqualTo("update managed/user/bjensen");
+        assertThat((Double) trace.get("duration")).isGreaterThanOrEqualTo(0d);
+        final Map<String, Object> scriptMap = onlyChild(trace);
+        assertThat(scriptMap.get("name")).isEqualTo(EVENT_SCRIPT.asString());
+        assertThat(scriptMap.get("parentId")).isEqualTo(root.getSpanId());
+        assertThat(onlyChild(scriptMap).get("name")).isEqualTo(EVENT_REPO.asString());
+    }
+
+    @Test
+    public void testEventsAreNotTracedWithoutCurrentSpan() {
+        final EventEntry script = Publisher.start(EVENT_SCRIPT, null, null);
+        assertThat(Tracer.currentSpan()).isNull();
+        script.end();
+
+        assertThat(Tracer.getTraceBuffer().getTraces()).isEmpty();
+    }
+
+    @Test
+    public void testTraceIsKeptOnceRootSpanEnds() {
+        final Span root = Tracer.startTrace("txn-2", "read managed/user/bjensen");
+        final Span child = Tracer.startSpan(root, "read repo/managed/user/bjensen");
+        Tracer.end(child);
+        assertThat(Tracer.getTraceBuffer().getTraces()).isEmpty();
+
+        Tracer.end(root);
+        assertThat(Tracer.getTraceBuffer().getTraces()).hasSize(1);
+    }
+
+    @Test
+    public void testTraceBufferIsRegisteredUntilUnregistered() throws Exception {
+        final ObjectName name = new ObjectName(TraceBuffer.MBEAN_NAME);
+        assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(name)).isFalse();
+
+        Tracer.getTraceBuffer().register();
+        assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(name)).isTrue();
+
+        Tracer.getTraceBuffer().unregister();
+        assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(name)).isFalse();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> onlyChild(Map<String, Object> span) {
+        final List<Map<String, Object>> children = (List<Map<String, Object>>) span.get("children");
+        assertThat(children).hasSize(1);
+        return children.get(0);
+    }
+}
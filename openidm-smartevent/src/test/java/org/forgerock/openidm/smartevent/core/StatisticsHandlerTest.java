@@ -0,0 +1,56 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.smartevent.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.openidm.smartevent.Name;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the Prometheus export of {@link StatisticsHandler}.
+ */
+public class StatisticsHandlerTest {
+
+    @Test
+    public void testPrometheusMetrics() {
+        StatisticsHandler handler = new StatisticsHandler(null);
+        for (int i = 0; i < 10; i++) {
+            handler.onEvent(event("openidm/test/prometheus \"quoted\"", TimeUnit.MILLISECONDS.toNanos(2)), -1, true);
+        }
+
+        String metrics = handler.getPrometheusMetrics();
+
+        String label = "event=\"openidm/test/prometheus \\\"quoted\\\"\"";
+        assertThat(metrics)
+                .contains("# TYPE openidm_smartevent_duration_seconds summary\n")
+                .contains("openidm_smartevent_duration_seconds_count{" + label + "} 10\n")
+                .contains("openidm_smartevent_duration_seconds_sum{" + label + "} 0.020000000\n")
+                .contains("openidm_smartevent_duration_seconds{" + label + ",quantile=\"0.99\"} 0.002000000\n")
+                .contains("openidm_smartevent_duration_max_seconds{" + label + "} 0.002000000\n");
+    }
+
+    private EventEntryImpl event(String name, long duration) {
+        EventEntryImpl event = new EventEntryImpl();
+        event.eventName = Name.get(name);
+        event.startTime = 1;
+        event.endTime = 1 + duration;
+        return event;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.forgerock.json.JsonValue;
+
+/**
+ * A single entry of the {@code httpAccessConfig} defined in {@code access.js}, compiled for repeated evaluation.
+ * Matching follows the semantics of {@code passesAccessConfig} in {@code router-authz.js}: roles, methods and
+ * actions are comma separated lists compared ignoring case, where a single {@code "*"} matches anything, and
+ * patterns ending in {@code "/*"} match every resource below the parent path.
+ */
+final class AccessRule {
+
+    private static final String WILDCARD = "*";
+
+    private final String pattern;
+    private final List<String> excludePatterns;
+    private final Set<String> roles;
+    private final Set<String> methods;
+    private final Set<String> actions;
+    private final AuthorizationExpression customAuthz;
+
+    private AccessRule(String pattern, List<String> excludePatterns, Set<String> roles,
+            Set<String> methods, Set<String> actions, AuthorizationExpression customAuthz) {
+        this.pattern = pattern;
+        this.excludePatterns = excludePatterns;
+        this.roles = roles;
+        this.methods = methods;
+        this.actions = actions;
+        this.customAuthz = customAuthz;
+    }
+
+    /**
+     * Compiles an access configuration entry.
+     *
+     * @param config the configuration entry
+     * @param nativeFunctions the {@code customAuthz} functions which may be evaluated natively
+     * @return the compiled rule
+     */
+    static AccessRule fromConfig(JsonValue config, Set<String> nativeFunctions) {
+        final List<String> excludePatterns = new ArrayList<>();
+        if (config.get("excludePatterns").isString()) {
+            Collections.addAll(excludePatterns, config.get("excludePatterns").asString().split(","));
+        }
+        final JsonValue customAuthz = config.get("customAuthz");
+        return new AccessRule(
+                config.get("pattern").defaultTo("").asString(),
+                excludePatterns,
+                toItems(config.get("roles")),
+                toItems(config.get("methods")),
+                toItems(config.get("actions")),
+                customAuthz.isString()
+                        ? AuthorizationExpression.parse(customAuthz.asString(), nativeFunctions)
+                        : null);
+    }
+
+    /**
+     * Returns the items of a comma separated configuration value, lower cased, or {@code null} if it matches
+     * anything.
+     */
+    private static Set<String> toItems(JsonValue value) {
+        final Set<String> items = new HashSet<>();
+        if (value.isList()) {
+            for (JsonValue item : value) {
+                items.add(String.valueOf(item.getObject()).toLowerCase(Locale.ROOT));
+            }
+        } else if (value.isString()) {
+            for (String item : value.asString().split(",")) {
+                items.add(item.toLowerCase(Locale.ROOT));
+            }
+        }
+        return items.size() == 1 && items.contains(WILDCARD) ? null : items;
+    }
+
+    /**
+     * Returns the first path element which every resource matched by this rule shares, or {@code null} if the
+     * rule matches resources of any path.
+     */
+    String getIndexKey() {
+        return WILDCARD.equals(pattern) ? null : firstElement(pattern);
+    }
+
+    AuthorizationExpression getCustomAuthz() {
+        return customAuthz;
+    }
+
+    boolean matchesResource(String resourcePath) {
+        if (!matchesResourceIdPattern(resourcePath, pattern)) {
+            return false;
+        }
+        for (String excludePattern : excludePatterns) {
+            if (matchesResourceIdPattern(resourcePath, excludePattern)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether any of the (lower cased) roles are allowed by this rule.
+     */
+    boolean matchesRoles(Collection<String> requestRoles) {
+        if (roles == null) {
+            return true;
+        }
+        for (String role : requestRoles) {
+            if (roles.contains(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean matchesMethod(String method) {
+        return methods == null || methods.contains(method.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns whether the action is allowed by this rule; requests other than actions always match.
+     */
+    boolean matchesAction(String action) {
+        return action.isEmpty() || actions == null || actions.contains(action.toLowerCase(Locale.ROOT));
+    }
+
+    static boolean matchesResourceIdPattern(String id, String pattern) {
+        if (WILDCARD.equals(pattern) || id.equals(pattern)) {
+            return true;
+        } else if (pattern.endsWith("/*")) {
+            return id.startsWith(pattern.substring(0, pattern.length() - 1));
+        }
+        return false;
+    }
+
+    static String firstElement(String path) {
+        final int slash = path.indexOf('/');
+        return slash < 0 ? path : path.substring(0, slash);
+    }
+}
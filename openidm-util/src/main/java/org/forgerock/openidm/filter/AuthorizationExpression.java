@@ -0,0 +1,363 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.filter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.forgerock.json.resource.ActionRequest;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.Request;
+import org.forgerock.json.resource.RequestType;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.SecurityContext;
+
+/**
+ * A compiled {@code customAuthz} expression of an access rule.
+ * <p>
+ * Expressions are parsed into a tree of {@code ||}, {@code &&} and {@code !} operators over function calls. The
+ * functions of {@code router-authz.js} which only inspect the request and the security context are evaluated
+ * natively, provided the deployed script defines them as shipped. Every other function call (or an expression
+ * which cannot be parsed) is handed to the script.
+ */
+abstract class AuthorizationExpression {
+
+    /** The checksums of the functions with a native implementation, as shipped in {@code router-authz.js} */
+    static final Map<String, String> NATIVE_FUNCTION_CHECKSUMS;
+
+    static {
+        final Map<String, String> checksums = new HashMap<>();
+        checksums.put("ownDataOnly", "9MFJDuKI3bo6JMJooUQcM5bYsxBO/XG1Bfw/53WpIdQ=");
+        checksums.put("disallowQueryExpression", "+edzRGL1O5wgxT75HWQ/JHvGSvi7KvuQ/ZhAQf7If64=");
+        checksums.put("disallowCommandAction", "hKHcpPxC8dKaYRcM/4tijY0MasQdvpYxUGmStzIIZ7A=");
+        checksums.put("isSelfServiceRequest", "eAItjvGB9OqvO0mQ6pKfYs6IHq25cImgFgHO9vIdJ1w=");
+        NATIVE_FUNCTION_CHECKSUMS = Collections.unmodifiableMap(checksums);
+    }
+
+    /**
+     * Evaluates script expressions on behalf of the compiled expression.
+     */
+    interface ScriptEvaluator {
+        boolean evaluate(Context context, Request request, String expression) throws ResourceException;
+    }
+
+    /**
+     * Evaluates the expression.
+     *
+     * @param context the request context
+     * @param request the request being authorized
+     * @param evaluator evaluates the parts of the expression which are not native
+     * @return whether the expression allows the request
+     * @throws ResourceException if a script fails
+     */
+    abstract boolean evaluate(Context context, Request request, ScriptEvaluator evaluator) throws ResourceException;
+
+    /**
+     * Returns whether the expression can be evaluated without a script.
+     */
+    abstract boolean isNative();
+
+    /**
+     * Returns the functions with a native implementation which the deployed authorization script defines as
+     * shipped, and which the access configuration does not redefine.
+     *
+     * @param authorizationScript the source of the deployed {@code router-authz.js}, or {@code null} if unknown
+     * @param accessConfig the source of the access configuration, or {@code null} if unknown
+     * @return the names of the functions which may be evaluated natively
+     */
+    static Set<String> getNativeFunctions(String authorizationScript, String accessConfig) {
+        final Set<String> functions = new HashSet<>();
+        for (Map.Entry<String, String> function : NATIVE_FUNCTION_CHECKSUMS.entrySet()) {
+            if (ScriptFunctions.isShipped(authorizationScript, accessConfig, function.getKey(), function.getValue())) {
+                functions.add(function.getKey());
+            }
+        }
+        return functions;
+    }
+
+    /**
+     * Compiles an expression, falling back to a single script expression if it cannot be parsed.
+     *
+     * @param source the expression source
+     * @param nativeFunctions the functions which may be evaluated natively
+     * @return the compiled expression
+     */
+    static AuthorizationExpression parse(String source, Set<String> nativeFunctions) {
+        try {
+            Parser parser = new Parser(source, nativeFunctions);
+            AuthorizationExpression expression = parser.parseOr();
+            parser.skipWhitespace();
+            if (parser.position == source.length()) {
+                return expression;
+            }
+        } catch (IllegalArgumentException e) {
+            // not a plain boolean combination of function calls
+        }
+        return new ScriptCall(source);
+    }
+
+    /**
+     * A recursive descent parser for boolean combinations of function calls.
+     */
+    private static final class Parser {
+        private final String source;
+        private final Set<String> nativeFunctions;
+        private int position;
+
+        Parser(String source, Set<String> nativeFunctions) {
+            this.source = source;
+            this.nativeFunctions = nativeFunctions;
+        }
+
+        AuthorizationExpression parseOr() {
+            AuthorizationExpression left = parseAnd();
+            while (consume("||")) {
+                left = new Or(left, parseAnd());
+            }
+            return left;
+        }
+
+        AuthorizationExpression parseAnd() {
+            AuthorizationExpression left = parseUnary();
+            while (consume("&&")) {
+                left = new And(left, parseUnary());
+            }
+            return left;
+        }
+
+        AuthorizationExpression parseUnary() {
+            if (consume("!")) {
+                return new Not(parseUnary());
+            }
+            if (consume("(")) {
+                AuthorizationExpression expression = parseOr();
+                if (!consume(")")) {
+                    throw new IllegalArgumentException("Expected ) at " + position);
+                }
+                return expression;
+            }
+            return parseCall();
+        }
+
+        AuthorizationExpression parseCall() {
+            skipWhitespace();
+            final int start = position;
+            while (position < source.length()
+                    && (Character.isJavaIdentifierPart(source.charAt(position)) || source.charAt(position) == '.')) {
+                position++;
+            }
+            if (start == position || !consume("(")) {
+                throw new IllegalArgumentException("Expected function call at " + start);
+            }
+            final String name = source.substring(start, position - 1).trim();
+            final int argumentsStart = position;
+            int depth = 1;
+            char quote = 0;
+            while (position < source.length() && depth > 0) {
+                char c = source.charAt(position++);
+                if (quote != 0) {
+                    if (c == '\\') {
+                        position++;
+                    } else if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '\'' || c == '"') {
+                    quote = c;
+                } else if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                }
+            }
+            if (depth > 0) {
+                throw new IllegalArgumentException("Unbalanced parentheses in " + source);
+            }
+            final String call = source.substring(start, position);
+            if (source.substring(argumentsStart, position - 1).trim().isEmpty() && nativeFunctions.contains(name)) {
+                switch (name) {
+                case "disallowQueryExpression":
+                    return DISALLOW_QUERY_EXPRESSION;
+                case "disallowCommandAction":
+                    return DISALLOW_COMMAND_ACTION;
+                case "ownDataOnly":
+                    return OWN_DATA_ONLY;
+                case "isSelfServiceRequest":
+                    return IS_SELF_SERVICE_REQUEST;
+                default:
+                    break;
+                }
+            }
+            return new ScriptCall(call);
+        }
+
+        boolean consume(String token) {
+            skipWhitespace();
+            if (source.startsWith(token, position)) {
+                // "!" must not consume the start of "!="
+                if (token.equals("!") && source.startsWith("!=", position)) {
+                    return false;
+                }
+                position += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        void skipWhitespace() {
+            while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+                position++;
+            }
+        }
+    }
+
+    private static final class Or extends AuthorizationExpression {
+        private final AuthorizationExpression left;
+        private final AuthorizationExpression right;
+
+        Or(AuthorizationExpression left, AuthorizationExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean evaluate(Context context, Request request, ScriptEvaluator evaluator) throws ResourceException {
+            return left.evaluate(context, request, evaluator) || right.evaluate(context, request, evaluator);
+        }
+
+        @Override
+        boolean isNative() {
+            return left.isNative() && right.isNative();
+        }
+    }
+
+    private static final class And extends AuthorizationExpression {
+        private final AuthorizationExpression left;
+        private final AuthorizationExpression right;
+
+        And(AuthorizationExpression left, AuthorizationExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean evaluate(Context context, Request request, ScriptEvaluator evaluator) throws ResourceException {
+            return left.evaluate(context, request, evaluator) && right.evaluate(context, request, evaluator);
+        }
+
+        @Override
+        boolean isNative() {
+            return left.isNative() && right.isNative();
+        }
+    }
+
+    private static final class Not extends AuthorizationExpression {
+        private final AuthorizationExpression operand;
+
+        Not(AuthorizationExpression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        boolean evaluate(Context context, Request request, ScriptEvaluator evaluator) throws ResourceException {
+            return !operand.evaluate(context, request, evaluator);
+        }
+
+        @Override
+        boolean isNative() {
+            return operand.isNative();
+        }
+    }
+
+    /**
+     * An expression evaluated by {@code router-authz.js}.
+     */
+    private static final class ScriptCall extends AuthorizationExpression {
+        private final String expression;
+
+        ScriptCall(String expression) {
+            this.expression = expression;
+        }
+
+        @Override
+        boolean evaluate(Context context, Request request, ScriptEvaluator evaluator) throws ResourceException {
+            return evaluator.evaluate(context, request, expression);
+        }
+
+        @Override
+        boolean isNative() {
+            return false;
+        }
+    }
+
+    /**
+     * A function of {@code router-authz.js} implemented natively.
+     */
+    private abstract static class NativeCall extends AuthorizationExpression {
+        @Override
+        boolean evaluate(Context context, Request request, ScriptEvaluator evaluator) {
+            return evaluate(context, request);
+        }
+
+        abstract boolean evaluate(Context context, Request request);
+
+        @Override
+        boolean isNative() {
+            return true;
+        }
+    }
+
+    private static final AuthorizationExpression DISALLOW_QUERY_EXPRESSION = new NativeCall() {
+        @Override
+        boolean evaluate(Context context, Request request) {
+            return !(request instanceof QueryRequest)
+                    || ((QueryRequest) request).getQueryExpression() == null
+                    || ((QueryRequest) request).getQueryExpression().isEmpty();
+        }
+    };
+
+    private static final AuthorizationExpression DISALLOW_COMMAND_ACTION = new NativeCall() {
+        @Override
+        boolean evaluate(Context context, Request request) {
+            return request.getRequestType() != RequestType.ACTION
+                    || !"command".equals(((ActionRequest) request).getAction());
+        }
+    };
+
+    private static final AuthorizationExpression OWN_DATA_ONLY = new NativeCall() {
+        @Override
+        boolean evaluate(Context context, Request request) {
+            if (!context.containsContext(SecurityContext.class)) {
+                return false;
+            }
+            Map<String, Object> authorization = context.asContext(SecurityContext.class).getAuthorization();
+            return request.getResourcePath().equals(
+                    authorization.get(SecurityContext.AUTHZID_COMPONENT) + "/"
+                            + authorization.get(SecurityContext.AUTHZID_ID));
+        }
+    };
+
+    private static final AuthorizationExpression IS_SELF_SERVICE_REQUEST = new NativeCall() {
+        @Override
+        boolean evaluate(Context context, Request request) {
+            return "selfservice".equals(context.getContextName());
+        }
+    };
+}
@@ -0,0 +1,464 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.filter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ActionRequest;
+import org.forgerock.json.resource.ActionResponse;
+import org.forgerock.json.resource.CreateRequest;
+import org.forgerock.json.resource.DeleteRequest;
+import org.forgerock.json.resource.Filter;
+import org.forgerock.json.resource.ForbiddenException;
+import org.forgerock.json.resource.PatchRequest;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.QueryResponse;
+import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.Request;
+import org.forgerock.json.resource.RequestHandler;
+import org.forgerock.json.resource.RequestType;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.json.resource.ServiceUnavailableException;
+import org.forgerock.json.resource.UpdateRequest;
+import org.forgerock.json.resource.http.HttpContext;
+import org.forgerock.openidm.util.FileUtil;
+import org.forgerock.script.Script;
+import org.forgerock.script.ScriptEntry;
+import org.forgerock.script.engine.Utils;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.SecurityContext;
+import org.forgerock.util.promise.Promise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A router filter which enforces the {@code httpAccessConfig} of {@code access.js} natively, instead of evaluating
+ * {@code router-authz.js} for every request.
+ * <p>
+ * The access configuration is obtained once from the authorization script and compiled into {@link AccessRule}s,
+ * indexed by the first element of their resource pattern. The rules which may apply to a combination of roles,
+ * method, action and resource path prefix are cached, so that a request only checks the resource patterns of its
+ * candidate rules and evaluates their {@code customAuthz} expression. Only the functions of such an expression
+ * which have no native implementation are evaluated by the script, by binding the expression as
+ * {@code customAuthz}.
+ * <p>
+ * Natively enforcing the access configuration is only equivalent to the script as long as the deployed
+ * {@code router-authz.js} defines the functions which enforce it as shipped, and {@code customAuthz} functions are
+ * only evaluated natively if the deployed script and {@code access.js} leave them as shipped; functions are compared
+ * by checksum, see {@link ScriptFunctions}. The configuration is compiled again once either file is modified. If
+ * the enforcing functions have been customized, or the configuration cannot be obtained from the script, each
+ * request is authorized by the script as by a {@link ScriptedFilter}.
+ */
+public class AuthorizationFilter implements Filter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationFilter.class);
+
+    /** The script binding which asks the authorization script to evaluate an expression rather than authorize. */
+    static final String CUSTOM_AUTHZ_BINDING = "customAuthz";
+
+    /** The expression which evaluates to the access configuration. */
+    static final String ACCESS_CONFIG_EXPRESSION = "httpAccessConfig";
+
+    /** How often the access configuration file is checked for modifications, in milliseconds. */
+    private static final long MODIFICATION_CHECK_INTERVAL = 1000L;
+
+    /** The maximum number of cached candidate rule lists before the cache is cleared. */
+    private static final int MAX_CACHED_CANDIDATES = 1000;
+
+    /** The checksums of the functions of {@code router-authz.js} which enforce the access configuration */
+    static final Map<String, String> ENFORCING_FUNCTION_CHECKSUMS;
+
+    static {
+        final Map<String, String> checksums = new HashMap<>();
+        checksums.put("allow", "xUhzypIj6Hem8+8lR99cSHIh/RtdQVFIa5xvBzvBGQQ=");
+        checksums.put("passesAccessConfig", "/Jn48HErsRcd6joEEYoUmzy95B+aHzcz+0zNRs8njQ4=");
+        checksums.put("matchesResourceIdPattern", "O+OjeC4lI9wHy+v8VYdnCn10YU/HpfHSQgI++XV7pl4=");
+        checksums.put("containsItems", "9M6gHA6ihwmRFI/BCDu+XvHP9uxYPgkJTCYhaIdOa1s=");
+        checksums.put("containsItem", "+nPJP5/4COWmi1ZeDsf/3UgpAsrzACRYUVJ7SAWs02A=");
+        checksums.put("containsIgnoreCase", "U9Gk9OwmWictzDst2A9Mx74w8+WjbGw21Bj98VFsqQo=");
+        checksums.put("isAJAXRequest", "An48qH4SIF7vxlv2gxf64ouDbt2fA0kflZjmOjLnmOw=");
+        ENFORCING_FUNCTION_CHECKSUMS = Collections.unmodifiableMap(checksums);
+    }
+
+    /** Headers of which one must be present on HTTP requests other than reads, to prevent CSRF attacks. */
+    private static final String[] AJAX_HEADERS = { "X-Requested-With", "Authorization", "X-OpenIDM-Username" };
+
+    /** the authorization script and the config path at which it is defined */
+    private final JsonPointer scriptPath;
+    private final ScriptEntry scriptEntry;
+    /** the file of the authorization script, or {@code null} if it is unknown */
+    private final File scriptFile;
+    /** the access configuration file, or {@code null} if it is unknown */
+    private final File accessConfigFile;
+
+    private volatile CompiledAccessConfig accessConfig;
+    private volatile long scriptLastModified;
+    private volatile long accessConfigLastModified;
+    private volatile long lastModificationCheck;
+
+    /**
+     * Construct an AuthorizationFilter from the authorization script.
+     *
+     * @param scriptPath the config path at which the authorization script is defined
+     * @param scriptEntry the authorization script
+     * @param scriptFile the file of the authorization script, or {@code null} if it is unknown, in which case
+     *                   every request is authorized by the script
+     * @param accessConfigFile the file defining the access configuration, or {@code null}
+     */
+    public AuthorizationFilter(JsonPointer scriptPath, ScriptEntry scriptEntry, File scriptFile,
+            File accessConfigFile) {
+        this.scriptPath = scriptPath;
+        this.scriptEntry = scriptEntry;
+        this.scriptFile = scriptFile;
+        this.accessConfigFile = accessConfigFile;
+    }
+
+    @Override
+    public Promise<ActionResponse, ResourceException> filterAction(Context context,
+            ActionRequest request, RequestHandler next) {
+        try {
+            authorize(context, request);
+        } catch (ResourceException e) {
+            return e.asPromise();
+        }
+        return next.handleAction(context, request);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterCreate(Context context,
+            CreateRequest request, RequestHandler next) {
+        try {
+            authorize(context, request);
+        } catch (ResourceException e) {
+            return e.asPromise();
+        }
+        return next.handleCreate(context, request);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterDelete(Context context,
+            DeleteRequest request, RequestHandler next) {
+        try {
+            authorize(context, request);
+        } catch (ResourceException e) {
+            return e.asPromise();
+        }
+        return next.handleDelete(context, request);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterPatch(Context context,
+            PatchRequest request, RequestHandler next) {
+        try {
+            authorize(context, request);
+        } catch (ResourceException e) {
+            return e.asPromise();
+        }
+        return next.handlePatch(context, request);
+    }
+
+    @Override
+    public Promise<QueryResponse, ResourceException> filterQuery(Context context,
+            QueryRequest request, QueryResourceHandler handler, RequestHandler next) {
+        try {
+            authorize(context, request);
+        } catch (ResourceException e) {
+            return e.asPromise();
+        }
+        return next.handleQuery(context, request, handler);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterRead(Context context,
+            ReadRequest request, RequestHandler next) {
+        try {
+            authorize(context, request);
+        } catch (ResourceException e) {
+            return e.asPromise();
+        }
+        return next.handleRead(context, request);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterUpdate(Context context,
+            UpdateRequest request, RequestHandler next) {
+        try {
+            authorize(context, request);
+        } catch (ResourceException e) {
+            return e.asPromise();
+        }
+        return next.handleUpdate(context, request);
+    }
+
+    /**
+     * Authorizes the request, as {@code allow()} in {@code router-authz.js} does.
+     *
+     * @param context the request context
+     * @param request the request
+     * @throws ResourceException if the request is not allowed or the authorization script fails
+     */
+    void authorize(Context context, Request request) throws ResourceException {
+        if (!scriptEntry.isActive()) {
+            throw new ServiceUnavailableException("Failed to execute inactive script: " + scriptEntry.getName());
+        }
+        final CompiledAccessConfig config = getAccessConfig(context, request);
+        if (config == null) {
+            evalScript(populateScript(context, request));
+            return;
+        }
+
+        // We only need to block non-AJAX requests when the method is not "read"
+        if (context.containsContext(HttpContext.class)
+                && request.getRequestType() != RequestType.READ
+                && !isAJAXRequest(context.asContext(HttpContext.class))) {
+            throw new ForbiddenException("Access denied");
+        }
+
+        final List<String> roles = getRoles(context);
+        final String action = request.getRequestType() == RequestType.ACTION
+                ? ((ActionRequest) request).getAction()
+                : "";
+        final String resourcePath = request.getResourcePath();
+        logger.debug("Access Check for HTTP request for resource id: {}, role: {}, method: {}, action: {}",
+                resourcePath, roles, request.getRequestType(), action);
+
+        for (AccessRule rule : config.getCandidates(roles, request.getRequestType(), action, resourcePath)) {
+            if (rule.matchesResource(resourcePath)
+                    && (rule.getCustomAuthz() == null || rule.getCustomAuthz().evaluate(context, request,
+                            scriptEvaluator))) {
+                logger.debug("Request allowed");
+                return;
+            }
+        }
+        throw new ForbiddenException("Access denied");
+    }
+
+    /**
+     * Returns the compiled access configuration, compiling it first if it has not been or the authorization script
+     * or the access configuration file has been modified since.
+     *
+     * @return the compiled access configuration or {@code null} if requests must be authorized by the script
+     */
+    private CompiledAccessConfig getAccessConfig(Context context, Request request) {
+        final long now = System.currentTimeMillis();
+        if (now - lastModificationCheck > MODIFICATION_CHECK_INTERVAL) {
+            lastModificationCheck = now;
+            final long scriptModified = scriptFile != null ? scriptFile.lastModified() : 0L;
+            final long accessConfigModified = accessConfigFile != null ? accessConfigFile.lastModified() : 0L;
+            if (scriptModified != scriptLastModified || accessConfigModified != accessConfigLastModified) {
+                scriptLastModified = scriptModified;
+                accessConfigLastModified = accessConfigModified;
+                accessConfig = null;
+            }
+        }
+        CompiledAccessConfig config = accessConfig;
+        if (config == null) {
+            synchronized (this) {
+                config = accessConfig;
+                if (config == null) {
+                    config = compile(context, request);
+                    accessConfig = config;
+                }
+            }
+        }
+        return config.isNative() ? config : null;
+    }
+
+    private CompiledAccessConfig compile(Context context, Request request) {
+        final String scriptSource = readSource(scriptFile);
+        final String accessConfigSource = readSource(accessConfigFile);
+        if (!ScriptFunctions.areShipped(scriptSource, accessConfigSource, ENFORCING_FUNCTION_CHECKSUMS)) {
+            logger.info("Authorization script {} does not enforce the access configuration as shipped, "
+                    + "requests are authorized by the script", scriptEntry.getName());
+            return new CompiledAccessConfig(null);
+        }
+        final Set<String> nativeFunctions = AuthorizationExpression.getNativeFunctions(scriptSource,
+                accessConfigSource);
+        logger.debug("customAuthz functions evaluated natively: {}", nativeFunctions);
+        try {
+            final Script script = populateScript(context, request);
+            script.put(CUSTOM_AUTHZ_BINDING, ACCESS_CONFIG_EXPRESSION);
+            final JsonValue configs = new JsonValue(script.eval()).get("configs");
+            if (configs.isList()) {
+                final List<AccessRule> rules = new ArrayList<>(configs.size());
+                for (JsonValue rule : configs) {
+                    rules.add(AccessRule.fromConfig(rule, nativeFunctions));
+                }
+                logger.debug("Compiled {} access rules from {}", rules.size(), scriptEntry.getName());
+                return new CompiledAccessConfig(rules);
+            }
+            logger.warn("Authorization script {} does not provide the access configuration, "
+                    + "requests are authorized by the script", scriptEntry.getName());
+        } catch (Exception e) {
+            logger.warn("Failed to obtain the access configuration from {}, requests are authorized by the script",
+                    scriptEntry.getName(), e);
+        }
+        return new CompiledAccessConfig(null);
+    }
+
+    /**
+     * Reads a source file.
+     *
+     * @return the content of the file, or {@code null} if it is unknown or cannot be read
+     */
+    private static String readSource(File file) {
+        if (file == null) {
+            return null;
+        }
+        try {
+            return FileUtil.readFile(file);
+        } catch (IOException e) {
+            logger.debug("Failed to read {}", file, e);
+            return null;
+        }
+    }
+
+    /** Evaluates the non-native parts of {@code customAuthz} expressions with the authorization script. */
+    private final AuthorizationExpression.ScriptEvaluator scriptEvaluator =
+            new AuthorizationExpression.ScriptEvaluator() {
+                @Override
+                public boolean evaluate(Context context, Request request, String expression)
+                        throws ResourceException {
+                    final Script script = populateScript(context, request);
+                    script.put(CUSTOM_AUTHZ_BINDING, expression);
+                    return isTruthy(evalScript(script));
+                }
+            };
+
+    private Script populateScript(final Context context, final Request request) {
+        final Script script = scriptEntry.getScript(context);
+        script.put("request", request);
+        script.put("context", context);
+        return script;
+    }
+
+    private Object evalScript(Script script) throws ResourceException {
+        try {
+            return script.eval();
+        } catch (Exception e) {
+            logger.debug("Filter/{} script {} encountered exception at {}", scriptPath, scriptEntry.getName(), e);
+            ResourceException re = Utils.adapt(e);
+            logger.debug("ResourceException detail: " + re.getDetail());
+            throw re;
+        }
+    }
+
+    /**
+     * Returns whether a value returned by the script is truthy, as it is in JavaScript.
+     */
+    static boolean isTruthy(Object value) {
+        if (value == null) {
+            return false;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof Number) {
+            final double number = ((Number) value).doubleValue();
+            return number != 0 && !Double.isNaN(number);
+        } else if (value instanceof String) {
+            return !((String) value).isEmpty();
+        }
+        return true;
+    }
+
+    private static boolean isAJAXRequest(HttpContext httpContext) {
+        final Map<String, List<String>> headers = httpContext.getHeaders();
+        for (String header : AJAX_HEADERS) {
+            if (headers.containsKey(header) || headers.containsKey(header.toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> getRoles(Context context) {
+        if (!context.containsContext(SecurityContext.class)) {
+            return Collections.emptyList();
+        }
+        final Object roles = context.asContext(SecurityContext.class).getAuthorization()
+                .get(SecurityContext.AUTHZID_ROLES);
+        if (!(roles instanceof List)) {
+            return Collections.emptyList();
+        }
+        final List<String> lowerCaseRoles = new ArrayList<>(((List<Object>) roles).size());
+        for (Object role : (List<Object>) roles) {
+            lowerCaseRoles.add(String.valueOf(role).toLowerCase(Locale.ROOT));
+        }
+        return lowerCaseRoles;
+    }
+
+    /**
+     * The compiled access rules and the cache of candidate rules per roles, method, action and path prefix.
+     */
+    private static final class CompiledAccessConfig {
+        private final List<AccessRule> rules;
+        private final ConcurrentMap<String, List<AccessRule>> candidates = new ConcurrentHashMap<>();
+
+        /**
+         * @param rules the rules in configuration order, or {@code null} if requests are authorized by the script
+         */
+        CompiledAccessConfig(List<AccessRule> rules) {
+            this.rules = rules;
+        }
+
+        boolean isNative() {
+            return rules != null;
+        }
+
+        /**
+         * Returns the rules, in configuration order, which allow the roles, method and action and may match a
+         * resource path with the same first element.
+         */
+        List<AccessRule> getCandidates(List<String> roles, RequestType method, String action, String resourcePath) {
+            final String indexKey = AccessRule.firstElement(resourcePath);
+            final String key = new TreeSet<>(roles) + "|" + method + "|" + action + "|" + indexKey;
+            List<AccessRule> result = candidates.get(key);
+            if (result == null) {
+                result = new ArrayList<>();
+                final String methodName = method.name().toLowerCase(Locale.ROOT);
+                for (AccessRule rule : rules) {
+                    if ((rule.getIndexKey() == null || rule.getIndexKey().equals(indexKey))
+                            && rule.matchesRoles(roles)
+                            && rule.matchesMethod(methodName)
+                            && rule.matchesAction(action)) {
+                        result.add(rule);
+                    }
+                }
+                if (candidates.size() >= MAX_CACHED_CANDIDATES) {
+                    candidates.clear();
+                }
+                candidates.put(key, result);
+            }
+            return result;
+        }
+    }
+}
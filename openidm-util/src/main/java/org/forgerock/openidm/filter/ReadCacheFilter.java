@@ -0,0 +1,105 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.filter;
+
+import org.forgerock.json.resource.ActionRequest;
+import org.forgerock.json.resource.ActionResponse;
+import org.forgerock.json.resource.CreateRequest;
+import org.forgerock.json.resource.DeleteRequest;
+import org.forgerock.json.resource.Filter;
+import org.forgerock.json.resource.PatchRequest;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.QueryResponse;
+import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.Request;
+import org.forgerock.json.resource.RequestHandler;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.json.resource.UpdateRequest;
+import org.forgerock.openidm.util.ReadCacheContext;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.promise.Promise;
+
+/**
+ * A router filter which invalidates the resources cached by a {@link ReadCacheContext} once a request made with that
+ * context has written a resource.
+ */
+public class ReadCacheFilter implements Filter {
+
+    /** Singleton instance of the ReadCacheFilter */
+    public static final Filter READ_CACHE_FILTER = new ReadCacheFilter();
+
+    private ReadCacheFilter() {
+        // prevent direct instantiation - use the singleton constant instead
+    }
+
+    @Override
+    public Promise<ActionResponse, ResourceException> filterAction(Context context, ActionRequest request,
+            RequestHandler next) {
+        return invalidateAfter(context, request, next.handleAction(context, request));
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterCreate(Context context, CreateRequest request,
+            RequestHandler next) {
+        return invalidateAfter(context, request, next.handleCreate(context, request));
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterDelete(Context context, DeleteRequest request,
+            RequestHandler next) {
+        return invalidateAfter(context, request, next.handleDelete(context, request));
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterPatch(Context context, PatchRequest request,
+            RequestHandler next) {
+        return invalidateAfter(context, request, next.handlePatch(context, request));
+    }
+
+    @Override
+    public Promise<QueryResponse, ResourceException> filterQuery(Context context, QueryRequest request,
+            QueryResourceHandler handler, RequestHandler next) {
+        return next.handleQuery(context, request, handler);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterRead(Context context, ReadRequest request,
+            RequestHandler next) {
+        return next.handleRead(context, request);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterUpdate(Context context, UpdateRequest request,
+            RequestHandler next) {
+        return invalidateAfter(context, request, next.handleUpdate(context, request));
+    }
+
+    private <R> Promise<R, ResourceException> invalidateAfter(final Context context, final Request request,
+            Promise<R, ResourceException> promise) {
+        if (!context.containsContext(ReadCacheContext.class)) {
+            return promise;
+        }
+        // invalidate whether or not the request succeeded, as it may have changed the resource partially
+        return promise.thenAlways(new Runnable() {
+            @Override
+            public void run() {
+                ReadCacheContext.invalidate(context, request.getResourcePathObject());
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.forgerock.util.encode.Base64;
+
+/**
+ * Tells whether the functions of a deployed JavaScript source are the functions shipped with the product, so that
+ * their native implementations may stand in for them.
+ * <p>
+ * A function is compared by the SHA-256 checksum of its declaration, with runs of whitespace collapsed into a single
+ * space. A function which is declared more than once, assigned to, or redefined by an additional source is never
+ * considered the shipped one.
+ */
+public final class ScriptFunctions {
+
+    private ScriptFunctions() {
+        // static utility
+    }
+
+    /**
+     * Returns whether each of the functions of the source is the shipped function.
+     *
+     * @param source the deployed source, or {@code null} if it is unknown
+     * @param additionalSource a source evaluated in the same scope which may redefine the functions, or {@code null}
+     * @param checksums the checksums of the shipped functions, by function name
+     * @return whether all of the functions are the shipped ones
+     */
+    static boolean areShipped(String source, String additionalSource, Map<String, String> checksums) {
+        for (Map.Entry<String, String> function : checksums.entrySet()) {
+            if (!isShipped(source, additionalSource, function.getKey(), function.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether a function of the source is the shipped function.
+     *
+     * @param source the deployed source, or {@code null} if it is unknown
+     * @param additionalSource a source evaluated in the same scope which may redefine the function, or {@code null}
+     * @param name the name of the function
+     * @param checksum the checksum of the shipped function
+     * @return whether the function is the shipped one
+     */
+    static boolean isShipped(String source, String additionalSource, String name, String checksum) {
+        if (source == null || isAssigned(source, name)
+                || (additionalSource != null && (isDeclared(additionalSource, name)
+                        || isAssigned(additionalSource, name)))) {
+            return false;
+        }
+        final Matcher declaration = declaration(name).matcher(source);
+        if (!declaration.find()) {
+            return false;
+        }
+        final int start = declaration.start();
+        if (declaration.find()) {
+            return false;
+        }
+        final String function = extractFunction(source, start);
+        return function != null && checksum.equals(checksum(function));
+    }
+
+    /**
+     * Returns the checksum of a function declaration, or of a whole source, with runs of whitespace collapsed.
+     *
+     * @param function the source of the declaration
+     * @return the Base64 encoded SHA-256 digest of the normalized source
+     */
+    public static String checksum(String function) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.encode(digest.digest(
+                    function.replaceAll("\\s+", " ").trim().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Returns the declaration starting at an index of the source, up to its closing brace.
+     */
+    private static String extractFunction(String source, int start) {
+        final int body = source.indexOf('{', start);
+        if (body < 0) {
+            return null;
+        }
+        int depth = 0;
+        for (int i = body; i < source.length(); i++) {
+            final char c = source.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return source.substring(start, i + 1);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isDeclared(String source, String name) {
+        return declaration(name).matcher(source).find();
+    }
+
+    private static boolean isAssigned(String source, String name) {
+        return Pattern.compile("\\b" + Pattern.quote(name) + "\\s*=(?!=)").matcher(source).find();
+    }
+
+    private static Pattern declaration(String name) {
+        return Pattern.compile("\\bfunction\\s+" + Pattern.quote(name) + "\\s*\\(");
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.filter;
+
+import java.util.UUID;
+
+import org.forgerock.json.resource.ActionRequest;
+import org.forgerock.json.resource.ActionResponse;
+import org.forgerock.json.resource.CreateRequest;
+import org.forgerock.json.resource.DeleteRequest;
+import org.forgerock.json.resource.Filter;
+import org.forgerock.json.resource.PatchRequest;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.QueryResponse;
+import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.Request;
+import org.forgerock.json.resource.RequestHandler;
+import org.forgerock.json.resource.RequestType;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.json.resource.UpdateRequest;
+import org.forgerock.openidm.smartevent.Span;
+import org.forgerock.openidm.smartevent.Tracer;
+import org.forgerock.openidm.util.TraceContext;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.TransactionIdContext;
+import org.forgerock.util.promise.Promise;
+
+/**
+ * A router filter which traces a sample of the requests, see {@link Tracer}.
+ * <p>
+ * A sampled request starts a trace, identified by its transaction id, whose root span is made current while the
+ * request is handled, so that the smartevent events of the request (scripts, relationships, the requests it makes to
+ * the repository and the connectors...) are timed as nested spans. The trace is propagated to the requests made with
+ * the context of the request by a {@link TraceContext}: a request made on the thread of its parent is already timed
+ * by the span of its router event, a request made on another thread is timed by a span of its own.
+ */
+public class TraceFilter implements Filter {
+
+    /** Singleton instance of the TraceFilter */
+    public static final Filter TRACE_FILTER = new TraceFilter();
+
+    private TraceFilter() {
+        // prevent direct instantiation - use the singleton constant instead
+    }
+
+    @Override
+    public Promise<ActionResponse, ResourceException> filterAction(Context context, ActionRequest request,
+            RequestHandler next) {
+        final Span span = startSpan(context, request);
+        if (span == null) {
+            return next.handleAction(traceContext(context), request);
+        }
+        final Span previous = Tracer.activate(span);
+        try {
+            return endAfter(span, next.handleAction(new TraceContext(context, span), request));
+        } finally {
+            Tracer.restore(previous);
+        }
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterCreate(Context context, CreateRequest request,
+            RequestHandler next) {
+        final Span span = startSpan(context, request);
+        if (span == null) {
+            return next.handleCreate(traceContext(context), request);
+        }
+        final Span previous = Tracer.activate(span);
+        try {
+            return endAfter(span, next.handleCreate(new TraceContext(context, span), request));
+        } finally {
+            Tracer.restore(previous);
+        }
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterDelete(Context context, DeleteRequest request,
+            RequestHandler next) {
+        final Span span = startSpan(context, request);
+        if (span == null) {
+            return next.handleDelete(traceContext(context), request);
+        }
+        final Span previous = Tracer.activate(span);
+        try {
+            return endAfter(span, next.handleDelete(new TraceContext(context, span), request));
+        } finally {
+            Tracer.restore(previous);
+        }
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterPatch(Context context, PatchRequest request,
+            RequestHandler next) {
+        final Span span = startSpan(context, request);
+        if (span == null) {
+            return next.handlePatch(traceContext(context), request);
+        }
+        final Span previous = Tracer.activate(span);
+        try {
+            return endAfter(span, next.handlePatch(new TraceContext(context, span), request));
+        } finally {
+            Tracer.restore(previous);
+        }
+    }
+
+    @Override
+    public Promise<QueryResponse, ResourceException> filterQuery(Context context, QueryRequest request,
+            QueryResourceHandler handler, RequestHandler next) {
+        final Span span = startSpan(context, request);
+        if (span == null) {
+            return next.handleQuery(traceContext(context), request, handler);
+        }
+        final Span previous = Tracer.activate(span);
+        try {
+            return endAfter(span, next.handleQuery(new TraceContext(context, span), request, handler));
+        } finally {
+            Tracer.restore(previous);
+        }
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterRead(Context context, ReadRequest request,
+            RequestHandler next) {
+        final Span span = startSpan(context, request);
+        if (span == null) {
+            return next.handleRead(traceContext(context), request);
+        }
+        final Span previous = Tracer.activate(span);
+        try {
+            return endAfter(span, next.handleRead(new TraceContext(context, span), request));
+        } finally {
+            Tracer.restore(previous);
+        }
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterUpdate(Context context, UpdateRequest request,
+            RequestHandler next) {
+        final Span span = startSpan(context, request);
+        if (span == null) {
+            return next.handleUpdate(traceContext(context), request);
+        }
+        final Span previous = Tracer.activate(span);
+        try {
+            return endAfter(span, next.handleUpdate(new TraceContext(context, span), request));
+        } finally {
+            Tracer.restore(previous);
+        }
+    }
+
+    /**
+     * Starts the span of a request which is not timed yet: the root span of a sampled request, or the span of a
+     * request of a trace made on another thread than its parent.
+     *
+     * @param context the context of the request
+     * @param request the request
+     * @return the span of the request, or {@code null} if the request is not traced or already timed
+     */
+    private static Span startSpan(Context context, Request request) {
+        if (!context.containsContext(TraceContext.class)) {
+            return Tracer.isSampled() ? Tracer.startTrace(traceId(context), spanName(request)) : null;
+        }
+        final Span parent = context.asContext(TraceContext.class).getSpan();
+        if (parent == null || Tracer.currentSpan() != null) {
+            return null;
+        }
+        return Tracer.startSpan(parent, spanName(request));
+    }
+
+    /**
+     * Propagates the current span of a traced request timed by the span of its router event.
+     *
+     * @param context the context of the request
+     * @return the context to pass on
+     */
+    private static Context traceContext(Context context) {
+        final Span current = Tracer.currentSpan();
+        if (current == null || !context.containsContext(TraceContext.class)
+                || context.asContext(TraceContext.class).getSpan() == current) {
+            return context;
+        }
+        return new TraceContext(context, current);
+    }
+
+    private static <R> Promise<R, ResourceException> endAfter(final Span span, Promise<R, ResourceException> promise) {
+        return promise.thenAlways(new Runnable() {
+            @Override
+            public void run() {
+                Tracer.end(span);
+            }
+        });
+    }
+
+    private static String traceId(Context context) {
+        return context.containsContext(TransactionIdContext.class)
+                ? context.asContext(TransactionIdContext.class).getTransactionId().getValue()
+                : UUID.randomUUID().toString();
+    }
+
+    private static String spanName(Request request) {
+        final StringBuilder name = new StringBuilder(request.getRequestType().toString().toLowerCase())
+                .append(' ').append(request.getResourcePath());
+        if (RequestType.ACTION.equals(request.getRequestType())) {
+            name.append("?_action=").append(((ActionRequest) request).getAction());
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe, lock-free meter of the rate of events, which records the {@link #count() count} of events and their
+ * {@link #rate(int) rate} over a sliding window of up to {@value #MAX_WINDOW_SECONDS} seconds.
+ * <p>
+ * Events are counted in one-second slots of a ring, so a rate is exact to the second. A slot which is reused for a
+ * new second may lose the events marked concurrently with its reset, which is negligible for a rate.
+ */
+public class RateMeter {
+
+    /** The longest window a rate can be calculated over, in seconds */
+    public static final int MAX_WINDOW_SECONDS = 60;
+
+    private static final int SLOT_COUNT = MAX_WINDOW_SECONDS + 1;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLongArray slotCounts = new AtomicLongArray(SLOT_COUNT);
+    /** The second, since the start of the meter, that each slot counts events for */
+    private final AtomicLongArray slotSeconds = new AtomicLongArray(SLOT_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final long startNanoTime;
+
+    /**
+     * Constructs a meter starting now.
+     */
+    public RateMeter() {
+        startNanoTime = nanoTime();
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            slotSeconds.set(i, -1);
+        }
+    }
+
+    /**
+     * Records an event.
+     */
+    public void mark() {
+        mark(1);
+    }
+
+    /**
+     * Records a number of events.
+     *
+     * @param events the number of events
+     */
+    public void mark(final long events) {
+        final long second = (nanoTime() - startNanoTime) / NANOS_PER_SECOND;
+        final int slot = (int) (second % SLOT_COUNT);
+        final long slotSecond = slotSeconds.get(slot);
+        if (slotSecond != second && slotSeconds.compareAndSet(slot, slotSecond, second)) {
+            slotCounts.set(slot, 0);
+        }
+        slotCounts.addAndGet(slot, events);
+        count.addAndGet(events);
+    }
+
+    /**
+     * Get number of recorded events.
+     *
+     * @return number of events recorded
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * Calculates the rate of events over the last seconds, including the current second, or since the start of the
+     * meter if it is more recent. The current second counts in full, so the rate lags by less than a second.
+     *
+     * @param windowSeconds the length of the window, at most {@value #MAX_WINDOW_SECONDS} seconds
+     * @return the rate, in events per second
+     */
+    public double rate(final int windowSeconds) {
+        final int window = Math.max(1, Math.min(windowSeconds, MAX_WINDOW_SECONDS));
+        final long elapsedNanos = nanoTime() - startNanoTime;
+        final long second = elapsedNanos / NANOS_PER_SECOND;
+        final long firstSecond = Math.max(0, second - window + 1);
+        long events = 0;
+        for (long s = firstSecond; s <= second; s++) {
+            final int slot = (int) (s % SLOT_COUNT);
+            if (slotSeconds.get(slot) == s) {
+                events += slotCounts.get(slot);
+            }
+        }
+        final long windowNanos = Math.min(window * NANOS_PER_SECOND, elapsedNanos);
+        return windowNanos > 0 ? events * (double) NANOS_PER_SECOND / windowNanos : 0;
+    }
+
+    /**
+     * Calculates the mean rate of events since the start of the meter.
+     *
+     * @return the mean rate, in events per second
+     */
+    public double meanRate() {
+        final long elapsedNanos = nanoTime() - startNanoTime;
+        return elapsedNanos > 0 ? count.get() * (double) NANOS_PER_SECOND / elapsedNanos : 0;
+    }
+
+    /**
+     * Returns the current time of the meter, from {@link System#nanoTime()}.
+     *
+     * @return the current time, in nanoseconds
+     */
+    long nanoTime() {
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.util;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourcePath;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.services.context.AbstractContext;
+import org.forgerock.services.context.Context;
+
+/**
+ * A {@link Context} which caches the resources read by scripts for the duration of a request, so that the hooks
+ * and scripts run by a single request (e.g. onUpdate, policy, effectiveRoles and postMapping) read each resource
+ * from the router only once.
+ * <p>
+ * The cached resources are invalidated by the writes made through a context holding this one, see
+ * {@link org.forgerock.openidm.filter.ReadCacheFilter}. The cache is not serialized with the context.
+ */
+public class ReadCacheContext extends AbstractContext {
+
+    private static final String CONTEXT_NAME = "readCache";
+
+    private final ConcurrentMap<String, ResourceResponse> resources = new ConcurrentHashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Creates a read cache context.
+     *
+     * @param parent the parent context
+     */
+    public ReadCacheContext(final Context parent) {
+        super(parent, CONTEXT_NAME);
+    }
+
+    /**
+     * Restores a saved read cache context, with an empty cache.
+     *
+     * @param savedContext the saved context
+     * @param classLoader the class loader of the parent contexts
+     * @throws ResourceException if the context could not be restored
+     */
+    public ReadCacheContext(final JsonValue savedContext, final ClassLoader classLoader) throws ResourceException {
+        super(savedContext, classLoader);
+    }
+
+    /**
+     * Returns a copy of the cached resource read by an identical request.
+     *
+     * @param request the read request
+     * @return the cached resource, or {@code null} if it is not cached
+     */
+    public ResourceResponse get(ReadRequest request) {
+        final ResourceResponse resource = resources.get(key(request));
+        if (resource == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return copy(resource);
+    }
+
+    /**
+     * Caches a copy of the resource read by a request.
+     *
+     * @param request the read request
+     * @param resource the resource read
+     */
+    public void put(ReadRequest request, ResourceResponse resource) {
+        resources.put(key(request), copy(resource));
+    }
+
+    /**
+     * Discards the cached resources which may be changed by a write to a resource: the resource itself, the
+     * resources it contains and the resources it belongs to (e.g. the user whose relationship
+     * {@code managed/user/bjensen/roles/0} is written).
+     *
+     * @param resourcePath the path of the written resource
+     */
+    public void invalidate(ResourcePath resourcePath) {
+        final Iterator<String> keys = resources.keySet().iterator();
+        while (keys.hasNext()) {
+            final ResourcePath cachedPath = ResourcePath.valueOf(pathOf(keys.next()));
+            if (cachedPath.startsWith(resourcePath) || resourcePath.startsWith(cachedPath)) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of reads served from the cache and read from the router.
+     *
+     * @return the hit and miss counts of this request
+     */
+    public JsonValue getStatistics() {
+        return json(object(
+                field("size", resources.size()),
+                field("hitCount", hitCount.get()),
+                field("missCount", missCount.get())));
+    }
+
+    /**
+     * Discards the cached resources which may be changed by a write, if the context holds a read cache.
+     *
+     * @param context the context of the write
+     * @param resourcePath the path of the written resource
+     */
+    public static void invalidate(Context context, ResourcePath resourcePath) {
+        if (context.containsContext(ReadCacheContext.class)) {
+            context.asContext(ReadCacheContext.class).invalidate(resourcePath);
+        }
+    }
+
+    private static String key(ReadRequest request) {
+        // the path is first, so that it can be recovered to invalidate the entry
+        return request.getResourcePath() + "|" + request.getFields() + "|" + request.getAdditionalParameters();
+    }
+
+    private static String pathOf(String key) {
+        return key.substring(0, key.indexOf('|'));
+    }
+
+    private static ResourceResponse copy(ResourceResponse resource) {
+        return newResourceResponse(resource.getId(), resource.getRevision(), resource.getContent().copy());
+    }
+}
@@ -12,15 +12,18 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 
 package org.forgerock.openidm.util;
 
+import java.io.File;
+
 import javax.script.ScriptException;
 
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.JsonValueException;
+import org.forgerock.openidm.core.IdentityServer;
 import org.forgerock.script.ScriptRegistry;
 
 /**
@@ -70,4 +73,30 @@ public class Scripts {
             throw new JsonValueException(config, e);
         }
     }
+
+    /**
+     * Returns the file a script is loaded from, looking it up in the source directories of the default script
+     * configuration in the order the script registry does.
+     *
+     * @param   config
+     *          a script configuration.
+     *
+     * @return  the file of the script, or {@code null} if the script is inline or its file is not found.
+     */
+    public static File getScriptFile(JsonValue config) {
+        if (!IdentityServer.isInitialized() || !config.get("file").isString()) {
+            return null;
+        }
+        final String file = config.get("file").asString();
+        for (File candidate : new File[] {
+                IdentityServer.getFileForProjectPath("script/" + file),
+                IdentityServer.getFileForProjectPath(file),
+                IdentityServer.getFileForInstallPath(file),
+                IdentityServer.getFileForInstallPath("bin/defaults/script/" + file) }) {
+            if (candidate.isFile()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.util;
+
+import static org.forgerock.util.Reject.checkNotNull;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.openidm.smartevent.Span;
+import org.forgerock.services.context.AbstractContext;
+import org.forgerock.services.context.Context;
+
+/**
+ * A {@link Context} which propagates the trace of a sampled request to the requests it makes, so that their spans are
+ * nested under the span of the request, see {@link org.forgerock.openidm.filter.TraceFilter}.
+ * <p>
+ * The ids of the trace and of the spans are serialized with the context, the span itself is not: a restored context
+ * identifies the trace but does not add spans to it.
+ */
+public class TraceContext extends AbstractContext {
+
+    private static final String CONTEXT_NAME = "trace";
+
+    // persisted attribute names
+    private static final String ATTR_TRACE_ID = "traceId";
+    private static final String ATTR_SPAN_ID = "spanId";
+    private static final String ATTR_PARENT_ID = "parentId";
+
+    private final Span span;
+
+    /**
+     * Creates a trace context for a span of the trace.
+     *
+     * @param parent the parent context
+     * @param span the span of the request
+     */
+    public TraceContext(final Context parent, final Span span) {
+        super(checkNotNull(parent, "Cannot instantiate TraceContext with null parent Context"), CONTEXT_NAME);
+        this.span = span;
+        data.put(ATTR_TRACE_ID, span.getTraceId());
+        data.put(ATTR_SPAN_ID, span.getSpanId());
+        data.put(ATTR_PARENT_ID, span.getParentId());
+    }
+
+    /**
+     * Restores a saved trace context, without its span.
+     *
+     * @param savedContext the saved context
+     * @param classLoader the class loader of the parent contexts
+     * @throws ResourceException if the context could not be restored
+     */
+    public TraceContext(final JsonValue savedContext, final ClassLoader classLoader) throws ResourceException {
+        super(savedContext, classLoader);
+        this.span = null;
+    }
+
+    /**
+     * Returns the id of the trace, which is the transaction id of the request which started it.
+     *
+     * @return the id of the trace
+     */
+    public String getTraceId() {
+        return data.get(ATTR_TRACE_ID).asString();
+    }
+
+    /**
+     * Returns the id of the span of the request.
+     *
+     * @return the id of the span
+     */
+    public String getSpanId() {
+        return data.get(ATTR_SPAN_ID).asString();
+    }
+
+    /**
+     * Returns the id of the parent of the span of the request.
+     *
+     * @return the id of the parent span, or {@code null} for the request which started the trace
+     */
+    public String getParentId() {
+        return data.get(ATTR_PARENT_ID).asString();
+    }
+
+    /**
+     * Returns the span of the request.
+     *
+     * @return the span, or {@code null} if the context was restored
+     */
+    public Span getSpan() {
+        return span;
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Requests.newActionRequest;
+import static org.forgerock.json.resource.Requests.newQueryRequest;
+import static org.forgerock.json.resource.Requests.newReadRequest;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.resource.ForbiddenException;
+import org.forgerock.json.resource.Request;
+import org.forgerock.script.Script;
+import org.forgerock.script.ScriptEntry;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.services.context.SecurityContext;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link AuthorizationFilter}, {@link AccessRule} and {@link AuthorizationExpression}.
+ */
+public class AuthorizationFilterTest {
+
+    private static final Map<String, Object> ACCESS_CONFIG = json(object(
+            field("configs", array(
+                    object(
+                            field("pattern", "info/*"),
+                            field("roles", "*"),
+                            field("methods", "read"),
+                            field("actions", "*")),
+                    object(
+                            field("pattern", "managed/user/*"),
+                            field("roles", "openidm-authorized"),
+                            field("methods", "read,query"),
+                            field("actions", "*"),
+                            field("customAuthz", "ownDataOnly() && disallowQueryExpression()")),
+                    object(
+                            field("pattern", "endpoint/*"),
+                            field("roles", "openidm-authorized"),
+                            field("methods", "action"),
+                            field("actions", "*"),
+                            field("customAuthz", "isMyTask()")),
+                    object(
+                            field("pattern", "*"),
+                            field("roles", "openidm-admin"),
+                            field("methods", "*"),
+                            field("actions", "*"),
+                            field("excludePatterns", "repo,repo/*")))))).asMap();
+
+    /** The shipped router-authz.js, copied from openidm-zip by the build */
+    private static final String SHIPPED_SCRIPT = readShippedScript();
+
+    private File scriptFile;
+    private File accessConfigFile;
+    private ScriptEntry scriptEntry;
+    private Script script;
+    private Map<String, Object> bindings;
+    private AuthorizationFilter filter;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        scriptEntry = mock(ScriptEntry.class);
+        script = mock(Script.class);
+        bindings = new HashMap<>();
+        when(scriptEntry.isActive()).thenReturn(true);
+        when(scriptEntry.getScript(any(Context.class))).thenAnswer(new Answer<Script>() {
+            @Override
+            public Script answer(InvocationOnMock invocation) {
+                bindings.clear();
+                return script;
+            }
+        });
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                bindings.put((String) invocation.getArguments()[0], invocation.getArguments()[1]);
+                return null;
+            }
+        }).when(script).put(any(String.class), any());
+        when(script.eval()).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                Object customAuthz = bindings.get(AuthorizationFilter.CUSTOM_AUTHZ_BINDING);
+                if (AuthorizationFilter.ACCESS_CONFIG_EXPRESSION.equals(customAuthz)) {
+                    return ACCESS_CONFIG;
+                }
+                return "isMyTask()".equals(customAuthz);
+            }
+        });
+        scriptFile = File.createTempFile("router-authz", ".js");
+        scriptFile.deleteOnExit();
+        accessConfigFile = File.createTempFile("access", ".js");
+        accessConfigFile.deleteOnExit();
+        write(scriptFile, SHIPPED_SCRIPT);
+        write(accessConfigFile, "var httpAccessConfig = { \"configs\" : [] };");
+        filter = new AuthorizationFilter(new JsonPointer("filters/0/onRequest"), scriptEntry, scriptFile,
+                accessConfigFile);
+    }
+
+    @Test
+    public void testAccessConfigIsCompiledOnce() throws Exception {
+        filter.authorize(context("bjensen", "openidm-authorized"), newReadRequest("info/ping"));
+        filter.authorize(context("bjensen", "openidm-authorized"), newReadRequest("info/login"));
+        filter.authorize(context("admin", "openidm-admin"), newReadRequest("managed/user/bjensen"));
+
+        verify(script, times(1)).eval();
+    }
+
+    @Test
+    public void testNativeCustomAuthz() throws Exception {
+        filter.authorize(context("bjensen", "openidm-authorized"), newReadRequest("managed/user/bjensen"));
+        assertDenied(context("bjensen", "openidm-authorized"), newReadRequest("managed/user/scarter"));
+        assertDenied(context("bjensen", "openidm-authorized"),
+                newQueryRequest("managed/user/bjensen").setQueryExpression("select * from managedobjects"));
+
+        verify(script, times(1)).eval();
+    }
+
+    @Test
+    public void testScriptedCustomAuthz() throws Exception {
+        filter.authorize(context("bjensen", "openidm-authorized"), newActionRequest("endpoint/tasks", "claim"));
+
+        verify(script, times(2)).eval();
+        assertThat(bindings.get(AuthorizationFilter.CUSTOM_AUTHZ_BINDING)).isEqualTo("isMyTask()");
+    }
+
+    @Test
+    public void testOverriddenFunctionIsEvaluatedByScript() throws Exception {
+        write(scriptFile, SHIPPED_SCRIPT.replace("return (request.resourcePath === component + \"/\" + userId);",
+                "return request.resourcePath.indexOf(component + \"/\" + userId) === 0;"));
+        filter = new AuthorizationFilter(new JsonPointer("filters/0/onRequest"), scriptEntry, scriptFile,
+                accessConfigFile);
+
+        assertDenied(context("bjensen", "openidm-authorized"), newReadRequest("managed/user/bjensen"));
+
+        // ownDataOnly() is evaluated by the script, disallowQueryExpression() is never reached
+        verify(script, times(2)).eval();
+        assertThat(bindings.get(AuthorizationFilter.CUSTOM_AUTHZ_BINDING)).isEqualTo("ownDataOnly()");
+    }
+
+    @Test
+    public void testFunctionRedefinedByAccessConfigIsEvaluatedByScript() {
+        assertThat(AuthorizationExpression.getNativeFunctions(SHIPPED_SCRIPT,
+                "function isSelfServiceRequest() { return true; }")).doesNotContain("isSelfServiceRequest")
+                .contains("ownDataOnly", "disallowQueryExpression", "disallowCommandAction");
+    }
+
+    @Test
+    public void testCustomizedEnforcementIsLeftToTheScript() throws Exception {
+        write(scriptFile, SHIPPED_SCRIPT.replace("if (!ex) {", "if (!ex || true) {"));
+        filter = new AuthorizationFilter(new JsonPointer("filters/0/onRequest"), scriptEntry, scriptFile,
+                accessConfigFile);
+
+        filter.authorize(context("bjensen", "openidm-authorized"), newReadRequest("config/sync"));
+
+        // the access configuration is never obtained, the request is authorized by the script
+        verify(script, times(1)).eval();
+        assertThat(bindings).doesNotContainKey(AuthorizationFilter.CUSTOM_AUTHZ_BINDING);
+    }
+
+    @Test
+    public void testModifiedScriptIsRecompiled() throws Exception {
+        filter.authorize(context("bjensen", "openidm-authorized"), newReadRequest("managed/user/bjensen"));
+        verify(script, times(1)).eval();
+
+        write(scriptFile, SHIPPED_SCRIPT.replace("if (!ex) {", "if (!ex || true) {"));
+        assertThat(scriptFile.setLastModified(scriptFile.lastModified() + 10000L)).isTrue();
+        Thread.sleep(1100L);
+
+        filter.authorize(context("bjensen", "openidm-authorized"), newReadRequest("managed/user/bjensen"));
+        // authorized by the script, without obtaining the access configuration again
+        verify(script, times(2)).eval();
+        assertThat(bindings).doesNotContainKey(AuthorizationFilter.CUSTOM_AUTHZ_BINDING);
+    }
+
+    @Test
+    public void testUnknownScriptIsLeftToTheScript() throws Exception {
+        filter = new AuthorizationFilter(new JsonPointer("filters/0/onRequest"), scriptEntry, null, null);
+
+        filter.authorize(context("bjensen", "openidm-authorized"), newReadRequest("config/sync"));
+
+        verify(script, times(1)).eval();
+    }
+
+    @Test
+    public void testRolesAndExcludePatterns() throws Exception {
+        filter.authorize(context("admin", "OpenIDM-Admin"), newReadRequest("managed/user/bjensen"));
+        assertDenied(context("admin", "openidm-admin"), newReadRequest("repo/internal/user/admin"));
+        assertDenied(context("bjensen", "openidm-authorized"), newReadRequest("config/sync"));
+    }
+
+    @Test
+    public void testScriptAuthorizesWithoutAccessConfig() throws Exception {
+        when(script.eval()).thenReturn(null);
+
+        filter.authorize(context("bjensen", "openidm-authorized"), newReadRequest("config/sync"));
+
+        // one attempt to obtain the access configuration, then the request is authorized by the script
+        verify(script, times(2)).eval();
+    }
+
+    @Test
+    public void testParseExpression() {
+        Set<String> functions = AuthorizationExpression.NATIVE_FUNCTION_CHECKSUMS.keySet();
+        assertThat(AuthorizationExpression.parse("ownDataOnly() && !disallowCommandAction()", functions).isNative())
+                .isTrue();
+        assertThat(AuthorizationExpression.parse("(isSelfServiceRequest() || ownDataOnly())", functions).isNative())
+                .isTrue();
+        assertThat(AuthorizationExpression.parse("ownDataOnly() || isQueryOneOf({'managed/user': ['a']})", functions)
+                .isNative()).isFalse();
+        assertThat(AuthorizationExpression.parse("request.method === 'read'", functions).isNative()).isFalse();
+        assertThat(AuthorizationExpression.parse("ownDataOnly()", Collections.<String>emptySet()).isNative())
+                .isFalse();
+    }
+
+    @Test
+    public void testShippedFunctionsMatchTheirChecksums() {
+        assertThat(ScriptFunctions.areShipped(SHIPPED_SCRIPT, null, AuthorizationFilter.ENFORCING_FUNCTION_CHECKSUMS))
+                .isTrue();
+        assertThat(AuthorizationExpression.getNativeFunctions(SHIPPED_SCRIPT, null))
+                .isEqualTo(AuthorizationExpression.NATIVE_FUNCTION_CHECKSUMS.keySet());
+        assertThat(ScriptFunctions.isShipped(SHIPPED_SCRIPT + "\nownDataOnly = function () { return true; };",
+                null, "ownDataOnly", AuthorizationExpression.NATIVE_FUNCTION_CHECKSUMS.get("ownDataOnly"))).isFalse();
+    }
+
+    @Test
+    public void testMatchesResourceIdPattern() {
+        assertThat(AccessRule.matchesResourceIdPattern("managed/user/bjensen", "managed/user/*")).isTrue();
+        assertThat(AccessRule.matchesResourceIdPattern("managed/user", "managed/user/*")).isFalse();
+        assertThat(AccessRule.matchesResourceIdPattern("anything", "*")).isTrue();
+        assertThat(AccessRule.matchesResourceIdPattern("config", "config")).isTrue();
+    }
+
+    private void assertDenied(Context context, Request request) throws Exception {
+        try {
+            filter.authorize(context, request);
+            fail("Request to " + request.getResourcePath() + " should have been denied");
+        } catch (ForbiddenException e) {
+            // expected
+        }
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readShippedScript() {
+        try {
+            return new String(Files.readAllBytes(Paths.get(
+                    AuthorizationFilterTest.class.getResource("router-authz.js").toURI())), StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to read router-authz.js", e);
+        }
+    }
+
+    private static Context context(String id, String... roles) {
+        final Map<String, Object> authzid = new HashMap<>();
+        authzid.put(SecurityContext.AUTHZID_ID, id);
+        List<String> roleList = new ArrayList<>(Arrays.asList(roles));
+        authzid.put(SecurityContext.AUTHZID_ROLES, roleList);
+        authzid.put(SecurityContext.AUTHZID_COMPONENT, "managed/user");
+        return new SecurityContext(new RootContext(), id, authzid);
+    }
+}
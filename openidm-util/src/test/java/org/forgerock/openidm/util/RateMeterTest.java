@@ -0,0 +1,80 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openidm.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class RateMeterTest {
+
+    private long now;
+    private RateMeter meter;
+
+    @BeforeMethod
+    public void setUp() {
+        now = TimeUnit.HOURS.toNanos(1);
+        meter = new RateMeter() {
+            @Override
+            long nanoTime() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void testEmpty() {
+        advance(1000);
+
+        assertThat(meter.count()).isEqualTo(0);
+        assertThat(meter.rate(10)).isEqualTo(0);
+        assertThat(meter.meanRate()).isEqualTo(0);
+    }
+
+    @Test
+    public void testRateOverWindow() {
+        for (int second = 0; second < 20; second++) {
+            meter.mark(second < 10 ? 10 : 100);
+            advance(1000);
+        }
+
+        assertThat(meter.count()).isEqualTo(1100);
+        assertThat(meter.rate(10)).isCloseTo(100, within(10.0));
+        assertThat(meter.rate(60)).isCloseTo(55, within(1.0));
+        assertThat(meter.meanRate()).isCloseTo(55, within(0.01));
+    }
+
+    @Test
+    public void testSlotsAreReused() {
+        meter.mark(1000);
+        advance(TimeUnit.SECONDS.toMillis(RateMeter.MAX_WINDOW_SECONDS + 1));
+
+        meter.mark();
+
+        assertThat(meter.count()).isEqualTo(1001);
+        assertThat(meter.rate(1)).isEqualTo(1);
+        assertThat(meter.rate(RateMeter.MAX_WINDOW_SECONDS)).isCloseTo(1.0 / 60, within(0.001));
+    }
+
+    private void advance(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Requests.newReadRequest;
+import static org.forgerock.json.resource.Requests.newUpdateRequest;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.forgerock.json.resource.RequestHandler;
+import org.forgerock.json.resource.ResourcePath;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.json.resource.UpdateRequest;
+import org.forgerock.openidm.filter.ReadCacheFilter;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link ReadCacheContext} and its invalidation by the {@link ReadCacheFilter}.
+ */
+public class ReadCacheContextTest {
+
+    private ReadCacheContext readCache;
+
+    @BeforeMethod
+    public void setUp() {
+        readCache = new ReadCacheContext(new RootContext());
+        readCache.put(newReadRequest("managed/user/bjensen"),
+                newResourceResponse("bjensen", "1", json(object(field("userName", "bjensen")))));
+        readCache.put(newReadRequest("managed/role/admin"),
+                newResourceResponse("admin", "1", json(object(field("name", "admin")))));
+    }
+
+    @Test
+    public void testReadIsServedAsCopy() {
+        ResourceResponse first = readCache.get(newReadRequest("managed/user/bjensen"));
+        first.getContent().put("userName", "changed");
+
+        assertThat(readCache.get(newReadRequest("managed/user/bjensen")).getContent().get("userName").asString())
+                .isEqualTo("bjensen");
+        assertThat(readCache.get(newReadRequest("managed/user/bjensen").addField("userName"))).isNull();
+        assertThat(readCache.getStatistics().get("hitCount").asLong()).isEqualTo(2L);
+        assertThat(readCache.getStatistics().get("missCount").asLong()).isEqualTo(1L);
+    }
+
+    @Test
+    public void testWriteInvalidatesResourceAndParents() {
+        readCache.invalidate(ResourcePath.valueOf("managed/user/bjensen/roles/0"));
+
+        assertThat(readCache.get(newReadRequest("managed/user/bjensen"))).isNull();
+        assertThat(readCache.get(newReadRequest("managed/role/admin"))).isNotNull();
+    }
+
+    @Test
+    public void testFilterInvalidatesAfterWrite() throws Exception {
+        RequestHandler next = mock(RequestHandler.class);
+        when(next.handleUpdate(any(Context.class), any(UpdateRequest.class)))
+                .thenReturn(newResourceResponse("admin", "2", json(object())).asPromise());
+
+        ReadCacheFilter.READ_CACHE_FILTER.filterUpdate(readCache,
+                newUpdateRequest("managed/role/admin", json(object())), next).getOrThrow();
+
+        assertThat(readCache.get(newReadRequest("managed/role/admin"))).isNull();
+        assertThat(readCache.get(newReadRequest("managed/user/bjensen"))).isNotNull();
+    }
+}
@@ -12,21 +12,32 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.workflow.activiti.impl;
 
 import static org.forgerock.json.JsonValueFunctions.deepTransformBy;
+import static org.forgerock.json.resource.Responses.newQueryResponse;
 
 import org.forgerock.json.JsonValueException;
 import org.forgerock.openidm.workflow.activiti.ActivitiConstants;
 
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+
+import org.activiti.engine.query.Query;
 import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.BadRequestException;
+import org.forgerock.json.resource.CountPolicy;
 import org.forgerock.json.resource.CreateRequest;
 import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.QueryResponse;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
 import org.forgerock.openidm.util.DateUtil;
 import org.forgerock.util.Function;
 import org.joda.time.DateTime;
@@ -37,6 +48,9 @@ import org.joda.time.DateTime;
 public class ActivitiUtil {
     private static final DatePropertyTransformer datePropertyTransformer = new DatePropertyTransformer();
 
+    /** The number of results fetched at a time when streaming the results of an unpaged query */
+    static final int STREAM_PAGE_SIZE = 1000;
+
     /**
      * Fetch and remove process key from the request
      * @param request Request to be processed
@@ -129,4 +143,66 @@ public class ActivitiUtil {
         return wfParams;
     }
     
+    /**
+     * Executes an Activiti query for a CREST query request, fetching only the requested page of results with
+     * {@link Query#listPage(int, int)}.
+     * <p>
+     * A paged request is resumed from its paged results cookie, which is the offset of the next page, or else from
+     * its paged results offset; the total number of results is counted if the request asks for an exact count. The
+     * results of an unpaged request are streamed to the handler {@value #STREAM_PAGE_SIZE} at a time, rather than
+     * listed all at once, until the handler asks to stop.
+     *
+     * @param query the Activiti query, with its parameters and sort order already set
+     * @param request the query request
+     * @param handler the handler of the resources
+     * @param converter converts a result of the query to a resource
+     * @param <T> the type of the results of the query
+     * @return the query response
+     * @throws ResourceException if the paged results cookie is invalid, or a result cannot be converted
+     */
+    public static <T> QueryResponse queryPaged(Query<?, T> query, QueryRequest request,
+            QueryResourceHandler handler, Function<T, ResourceResponse, ResourceException> converter)
+            throws ResourceException {
+        final int pageSize = request.getPageSize();
+        int offset = request.getPagedResultsOffset();
+        if (request.getPagedResultsCookie() != null) {
+            try {
+                offset = Integer.parseInt(request.getPagedResultsCookie());
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid paged results cookie " + request.getPagedResultsCookie());
+            }
+        }
+        offset = Math.max(0, offset);
+
+        if (pageSize <= 0) {
+            // unpaged, stream the results rather than listing them all
+            while (true) {
+                final List<T> results = query.listPage(offset, STREAM_PAGE_SIZE);
+                if (!handleResults(results, handler, converter) || results.size() < STREAM_PAGE_SIZE) {
+                    return newQueryResponse();
+                }
+                offset += STREAM_PAGE_SIZE;
+            }
+        }
+
+        final List<T> results = query.listPage(offset, pageSize);
+        handleResults(results, handler, converter);
+        final String pagedResultsCookie = results.size() == pageSize
+                ? String.valueOf(offset + pageSize)
+                : null;
+        if (request.getTotalPagedResultsPolicy() == CountPolicy.EXACT) {
+            return newQueryResponse(pagedResultsCookie, CountPolicy.EXACT, (int) query.count());
+        }
+        return newQueryResponse(pagedResultsCookie);
+    }
+
+    private static <T> boolean handleResults(List<T> results, QueryResourceHandler handler,
+            Function<T, ResourceResponse, ResourceException> converter) throws ResourceException {
+        for (T result : results) {
+            if (!handler.handleResource(converter.apply(result))) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -12,13 +12,12 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2015 ForgeRock AS.
- * Portions Copyright 2017 Wren Security
+ * Portions Copyright 2017-2026 Wren Security.
  */
 package org.forgerock.openidm.workflow.activiti.impl;
 
 import static org.forgerock.json.JsonValue.array;
 import static org.forgerock.json.JsonValue.json;
-import static org.forgerock.json.resource.Responses.newQueryResponse;
 import static org.forgerock.json.resource.Responses.newResourceResponse;
 import static org.forgerock.openidm.util.ResourceUtil.notSupportedOnCollection;
 import static org.forgerock.openidm.util.ResourceUtil.notSupportedOnInstance;
@@ -211,30 +210,30 @@ public class ProcessInstanceResource implements CollectionResourceProvider {
         try {
             Authentication.setAuthenticatedUserId(context.asContext(SecurityContext.class).getAuthenticationId());
             final HistoricProcessInstanceQuery query = queryFunction.apply(processEngine);
-            if (ActivitiConstants.QUERY_ALL_IDS.equals(request.getQueryId())) {
-                for (HistoricProcessInstance i : query.list()) {
-                    JsonValue value = json(mapper.convertValue(i, Map.class));
-                    // TODO OPENIDM-3603 add relationship support
-                    value.put(ActivitiConstants.ACTIVITI_PROCESSDEFINITIONRESOURCENAME, getProcessDefName(i));
-                    value.put(ActivitiConstants.ACTIVITI_PROCESSVARIABLES, getProcessVariables(i.getId()));
-                    ResourceResponse r = newResourceResponse(i.getId(), null, value);
-                    handler.handleResource(r);
+            if (ActivitiConstants.QUERY_ALL_IDS.equals(request.getQueryId())
+                    || ActivitiConstants.QUERY_FILTERED.equals(request.getQueryId())) {
+                if (ActivitiConstants.QUERY_FILTERED.equals(request.getQueryId())) {
+                    setProcessInstanceParams(query, request);
                 }
-                return newQueryResponse().asPromise();
-            } else if (ActivitiConstants.QUERY_FILTERED.equals(request.getQueryId())) {
-                setProcessInstanceParams(query, request);
                 setSortKeys(query, request);
-                for (HistoricProcessInstance processinstance : query.list()) {
-                    JsonValue value = json(mapper.convertValue(processinstance, Map.class));
-                    // TODO OPENIDM-3603 add relationship support
-                    value.put(ActivitiConstants.ACTIVITI_PROCESSDEFINITIONRESOURCENAME, getProcessDefName(processinstance));
-                    value.put(ActivitiConstants.ACTIVITI_PROCESSVARIABLES, getProcessVariables(processinstance.getId()));
-                    handler.handleResource(newResourceResponse(processinstance.getId(), null, value));
-                }
-                return newQueryResponse().asPromise();
+                return ActivitiUtil.queryPaged(query, request, handler,
+                        new Function<HistoricProcessInstance, ResourceResponse, ResourceException>() {
+                            @Override
+                            public ResourceResponse apply(HistoricProcessInstance processinstance) {
+                                JsonValue value = json(mapper.convertValue(processinstance, Map.class));
+                                // TODO OPENIDM-3603 add relationship support
+                                value.put(ActivitiConstants.ACTIVITI_PROCESSDEFINITIONRESOURCENAME,
+                                        getProcessDefName(processinstance));
+                                value.put(ActivitiConstants.ACTIVITI_PROCESSVARIABLES,
+                                        getProcessVariables(processinstance.getId()));
+                                return newResourceResponse(processinstance.getId(), null, value);
+                            }
+                        }).asPromise();
             } else {
                 return new BadRequestException("Unknown query-id").asPromise();
             }
+        } catch (ResourceException e) {
+            return e.asPromise();
         } catch (Exception ex) {
             return new InternalServerErrorException(ex.getMessage(), ex).asPromise();
         }
@@ -12,11 +12,11 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openidm.workflow.activiti.impl;
 
 import static org.forgerock.json.JsonValue.json;
-import static org.forgerock.json.resource.Responses.newQueryResponse;
 import static org.forgerock.json.resource.Responses.newResourceResponse;
 import static org.forgerock.openidm.util.ResourceUtil.notSupportedOnInstance;
 
@@ -50,6 +50,7 @@ import org.forgerock.json.resource.SortKey;
 import org.forgerock.json.resource.UpdateRequest;
 import org.forgerock.openidm.workflow.activiti.ActivitiConstants;
 import org.forgerock.openidm.workflow.activiti.impl.mixin.HistoricTaskInstanceEntityMixIn;
+import org.forgerock.util.Function;
 import org.forgerock.util.promise.Promise;
 
 import java.util.Arrays;
@@ -134,16 +135,21 @@ public class TaskInstanceHistoryResource implements CollectionResourceProvider {
 
                 if (ActivitiConstants.QUERY_FILTERED.equals(request.getQueryId())) {
                     setTaskParams(query, request);
-                    setSortKeys(query, request);
                 }
-                for (HistoricTaskInstance i : query.list()) {
-                    JsonValue value = json(mapper.convertValue(i, Map.class));
-                    handler.handleResource(newResourceResponse(i.getId(), null, value));
-                }
-                return newQueryResponse().asPromise();
+                setSortKeys(query, request);
+                return ActivitiUtil.queryPaged(query, request, handler,
+                        new Function<HistoricTaskInstance, ResourceResponse, ResourceException>() {
+                            @Override
+                            public ResourceResponse apply(HistoricTaskInstance i) {
+                                JsonValue value = json(mapper.convertValue(i, Map.class));
+                                return newResourceResponse(i.getId(), null, value);
+                            }
+                        }).asPromise();
             } else {
                 return new BadRequestException("Unknown query-id").asPromise();
             }
+        } catch (ResourceException e) {
+            return e.asPromise();
         } catch (Exception ex) {
             return new InternalServerErrorException(ex.getMessage(), ex).asPromise();
         }
@@ -12,13 +12,12 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2016 ForgeRock AS.
- * Portions Copyright 2017 Wren Security
+ * Portions Copyright 2017-2026 Wren Security.
  */
 package org.forgerock.openidm.workflow.activiti.impl;
 
 import static org.forgerock.json.JsonValue.*;
 import static org.forgerock.json.resource.Responses.newActionResponse;
-import static org.forgerock.json.resource.Responses.newQueryResponse;
 import static org.forgerock.json.resource.Responses.newResourceResponse;
 import static org.forgerock.openidm.util.ResourceUtil.*;
 
@@ -68,6 +67,7 @@ import org.activiti.engine.task.Task;
 import org.activiti.engine.task.TaskQuery;
 import org.forgerock.json.JsonValue;
 import org.forgerock.openidm.workflow.activiti.impl.mixin.TaskEntityMixIn;
+import org.forgerock.util.Function;
 import org.forgerock.util.promise.Promise;
 
 
@@ -166,22 +166,24 @@ public class TaskInstanceResource implements CollectionResourceProvider {
                     setTaskParams(query, request);
                 }
                 setSortKeys(query, request);
-                List<Task> list = query.list();
-                for (Task taskInstance : list) {
-                    JsonValue value = json(mapper.convertValue(taskInstance, Map.class));
-                    ResourceResponse r = newResourceResponse(taskInstance.getId(), null, value);
-                    if (taskInstance.getDelegationState() == DelegationState.PENDING) {
-                        r.getContent().add(ActivitiConstants.ACTIVITI_DELEGATE, taskInstance.getAssignee());
-                    } else {
-                        r.getContent().add(ActivitiConstants.ACTIVITI_ASSIGNEE, taskInstance.getAssignee());
-                    }
-                    handler.handleResource(r);
-                }
-                return newQueryResponse().asPromise();
+                return ActivitiUtil.queryPaged(query, request, handler,
+                        new Function<Task, ResourceResponse, ResourceException>() {
+                            @Override
+                            public ResourceResponse apply(Task taskInstance) {
+                                JsonValue value = json(mapper.convertValue(taskInstance, Map.class));
+                                ResourceResponse r = newResourceResponse(taskInstance.getId(), null, value);
+                                if (taskInstance.getDelegationState() == DelegationState.PENDING) {
+                                    r.getContent().add(ActivitiConstants.ACTIVITI_DELEGATE, taskInstance.getAssignee());
+                                } else {
+                                    r.getContent().add(ActivitiConstants.ACTIVITI_ASSIGNEE, taskInstance.getAssignee());
+                                }
+                                return r;
+                            }
+                        }).asPromise();
             } else {
                 return new BadRequestException("Unknown query-id").asPromise();
             }
-        } catch (NotSupportedException e) {
+        } catch (ResourceException e) {
             return e.asPromise();
         } catch (Exception ex) {
             return new InternalServerErrorException(ex.getMessage(), ex).asPromise();
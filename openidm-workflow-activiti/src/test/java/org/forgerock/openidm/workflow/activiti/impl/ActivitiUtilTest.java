@@ -0,0 +1,147 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openidm.workflow.activiti.impl;
+
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.activiti.engine.task.Task;
+import org.activiti.engine.task.TaskQuery;
+import org.forgerock.json.resource.CountPolicy;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.QueryResponse;
+import org.forgerock.json.resource.Requests;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.util.Function;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the paged queries of {@link ActivitiUtil}.
+ */
+public class ActivitiUtilTest {
+
+    private static final int TASK_COUNT = 2500;
+
+    private static final Function<Task, ResourceResponse, ResourceException> CONVERTER =
+            new Function<Task, ResourceResponse, ResourceException>() {
+                @Override
+                public ResourceResponse apply(Task task) {
+                    return newResourceResponse(task.getId(), null, json(object()));
+                }
+            };
+
+    private TaskQuery query;
+    private List<ResourceResponse> resources;
+
+    @BeforeMethod
+    public void setUp() {
+        final List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            Task task = mock(Task.class);
+            when(task.getId()).thenReturn(String.valueOf(i));
+            tasks.add(task);
+        }
+        query = mock(TaskQuery.class);
+        when(query.count()).thenReturn((long) TASK_COUNT);
+        when(query.listPage(anyInt(), anyInt())).thenAnswer(new Answer<List<Task>>() {
+            @Override
+            public List<Task> answer(InvocationOnMock invocation) {
+                int first = (Integer) invocation.getArguments()[0];
+                int max = (Integer) invocation.getArguments()[1];
+                return tasks.subList(Math.min(first, TASK_COUNT), Math.min(first + max, TASK_COUNT));
+            }
+        });
+        resources = new ArrayList<>();
+    }
+
+    @Test
+    public void testPagedQueryWithCookie() throws Exception {
+        QueryRequest request = Requests.newQueryRequest("workflow/taskinstance")
+                .setPageSize(10)
+                .setTotalPagedResultsPolicy(CountPolicy.EXACT);
+
+        QueryResponse first = ActivitiUtil.queryPaged(query, request, handler(-1), CONVERTER);
+        Assert.assertEquals(resources.size(), 10);
+        Assert.assertEquals(first.getPagedResultsCookie(), "10");
+        Assert.assertEquals(first.getTotalPagedResults(), TASK_COUNT);
+
+        resources.clear();
+        request.setPagedResultsCookie(first.getPagedResultsCookie());
+        ActivitiUtil.queryPaged(query, request, handler(-1), CONVERTER);
+        Assert.assertEquals(resources.get(0).getId(), "10");
+        verify(query, never()).list();
+    }
+
+    @Test
+    public void testLastPageHasNoCookie() throws Exception {
+        QueryRequest request = Requests.newQueryRequest("workflow/taskinstance")
+                .setPageSize(100)
+                .setPagedResultsOffset(TASK_COUNT - 50);
+
+        QueryResponse response = ActivitiUtil.queryPaged(query, request, handler(-1), CONVERTER);
+
+        Assert.assertEquals(resources.size(), 50);
+        Assert.assertNull(response.getPagedResultsCookie());
+        verify(query, never()).count();
+    }
+
+    @Test
+    public void testUnpagedQueryIsStreamed() throws Exception {
+        QueryRequest request = Requests.newQueryRequest("workflow/taskinstance");
+
+        ActivitiUtil.queryPaged(query, request, handler(-1), CONVERTER);
+
+        Assert.assertEquals(resources.size(), TASK_COUNT);
+        verify(query, times(3)).listPage(anyInt(), anyInt());
+        verify(query, never()).list();
+    }
+
+    @Test
+    public void testUnpagedQueryStopsWhenHandlerStops() throws Exception {
+        QueryRequest request = Requests.newQueryRequest("workflow/taskinstance");
+
+        ActivitiUtil.queryPaged(query, request, handler(5), CONVERTER);
+
+        Assert.assertEquals(resources.size(), 5);
+        verify(query, times(1)).listPage(anyInt(), anyInt());
+    }
+
+    private QueryResourceHandler handler(final int limit) {
+        return new QueryResourceHandler() {
+            @Override
+            public boolean handleResource(ResourceResponse resource) {
+                resources.add(resource);
+                return limit < 0 || resources.size() < limit;
+            }
+        };
+    }
+}
@@ -495,7 +495,11 @@ function allow() {
 // Load the access configuration script (httpAccessConfig obj)
 load(identityServer.getProjectLocation() + "/script/access.js");
 
-if (!allow()) {
+if (typeof customAuthz !== "undefined" && customAuthz !== null) {
+    // Evaluated on behalf of the native authorization filter (see "authorization" in router.json), which
+    // enforces httpAccessConfig itself and only asks for the customAuthz functions it cannot evaluate natively
+    eval(customAuthz);
+} else if (!allow()) {
 //    console.log(JSON.stringify(request));
 //    console.log(JSON.stringify(context, null, 4));
     throw {